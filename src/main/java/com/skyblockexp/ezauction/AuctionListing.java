@@ -9,26 +9,51 @@ import org.bukkit.inventory.ItemStack;
  *
  * <p>A listing is considered <em>team-scoped</em> when {@link #teamId()} is non-null.
  * Team-scoped listings are only visible and purchasable by members of that team.</p>
+ *
+ * <p>The item is held as a {@link LazyItemStack}; listings loaded from storage are only
+ * deserialized when {@link #item()} is first called.</p>
+ *
+ * <p>{@link #lifecycle()} carries the listing's atomic {@link AuctionListingState}. It is shared
+ * by the copies made with {@link #withExpiry(long)} and {@link #withPrice(double)} and is not part
+ * of {@link #equals(Object)}.</p>
  */
 public record AuctionListing(
         String id,
         UUID sellerId,
         double price,
         long expiryEpochMillis,
-        ItemStack item,
+        LazyItemStack itemData,
         double deposit,
-        /* @Nullable */ UUID teamId) {
+        /* @Nullable */ UUID teamId,
+        ListingLifecycle lifecycle) {
 
     public AuctionListing {
         Objects.requireNonNull(id, "id");
         sellerId = Objects.requireNonNull(sellerId, "sellerId");
         deposit = Math.max(0.0D, deposit);
-        item = item != null ? item.clone() : null;
+        itemData = itemData != null ? itemData : LazyItemStack.of(null);
+        lifecycle = lifecycle != null ? lifecycle : new ListingLifecycle();
+    }
+
+    public AuctionListing(String id, UUID sellerId, double price, long expiryEpochMillis, LazyItemStack itemData,
+            double deposit, UUID teamId) {
+        this(id, sellerId, price, expiryEpochMillis, itemData, deposit, teamId, null);
+    }
+
+    public AuctionListing(String id, UUID sellerId, double price, long expiryEpochMillis, ItemStack item,
+            double deposit, UUID teamId) {
+        this(id, sellerId, price, expiryEpochMillis, LazyItemStack.of(item), deposit, teamId, null);
     }
 
-    @Override
     public ItemStack item() {
-        return item != null ? item.clone() : null;
+        return itemData.get();
+    }
+
+    /**
+     * Returns the cached fingerprint of the listed item.
+     */
+    public ItemFingerprint fingerprint() {
+        return itemData.fingerprint();
     }
 
     /**
@@ -46,6 +71,20 @@ public record AuctionListing(
         return new AuctionListing(id, sellerId, price, expiryEpochMillis, item, deposit, null);
     }
 
+    /**
+     * Returns a copy of this listing that ends at {@code expiryEpochMillis}.
+     */
+    public AuctionListing withExpiry(long expiryEpochMillis) {
+        return new AuctionListing(id, sellerId, price, expiryEpochMillis, itemData, deposit, teamId, lifecycle);
+    }
+
+    /**
+     * Returns a copy of this listing at {@code price}, for example the winning bid.
+     */
+    public AuctionListing withPrice(double price) {
+        return new AuctionListing(id, sellerId, price, expiryEpochMillis, itemData, deposit, teamId, lifecycle);
+    }
+
     public boolean isExpired() {
         return isExpired(System.currentTimeMillis());
     }
@@ -62,4 +101,26 @@ public record AuctionListing(
     public long expiresAt() {
         return expiryEpochMillis;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AuctionListing that)) {
+            return false;
+        }
+        return Double.compare(that.price, price) == 0
+                && expiryEpochMillis == that.expiryEpochMillis
+                && Double.compare(that.deposit, deposit) == 0
+                && id.equals(that.id)
+                && sellerId.equals(that.sellerId)
+                && itemData.equals(that.itemData)
+                && Objects.equals(teamId, that.teamId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, sellerId, price, expiryEpochMillis, itemData, deposit, teamId);
+    }
 }
@@ -0,0 +1,18 @@
+package com.skyblockexp.ezauction;
+
+/**
+ * Lifecycle state of an {@link AuctionListing}, see {@link ListingLifecycle}.
+ */
+public enum AuctionListingState {
+    /** On the market and open to purchase, cancellation and expiry. */
+    ACTIVE,
+    /** Claimed by one purchase, cancellation or expiry that is applying its side effects. */
+    RESERVED,
+    SOLD,
+    CANCELLED,
+    EXPIRED;
+
+    public boolean isTerminal() {
+        return this == SOLD || this == CANCELLED || this == EXPIRED;
+    }
+}
@@ -1,6 +1,7 @@
 package com.skyblockexp.ezauction;
 
 import com.skyblockexp.ezauction.api.AuctionListingLimitResolver;
+import com.skyblockexp.ezauction.bid.ListingBidState;
 import com.skyblockexp.ezauction.config.AuctionConfiguration;
 import com.skyblockexp.ezauction.config.AuctionBackendMessages;
 import com.skyblockexp.ezauction.config.AuctionListingRules;
@@ -106,6 +107,155 @@ public class AuctionManager {
         return queryService.listActiveOrders();
     }
 
+    /**
+     * Retrieves the active, non-team listings of a seller, sorted by expiry time.
+     *
+     * @param sellerId the UUID of the seller
+     * @return an unmodifiable list of the seller's active {@link AuctionListing} objects
+     */
+    public List<AuctionListing> listActiveListings(UUID sellerId) {
+        return queryService.listActiveListings(sellerId);
+    }
+
+    /**
+     * Retrieves the active buy orders of a buyer, sorted by expiry time.
+     *
+     * @param buyerId the UUID of the buyer
+     * @return an unmodifiable list of the buyer's active {@link AuctionOrder} objects
+     */
+    public List<AuctionOrder> listActiveOrders(UUID buyerId) {
+        return queryService.listActiveOrders(buyerId);
+    }
+
+    /**
+     * Retrieves all active, non-team auction listings, sorted by price.
+     *
+     * @param highestFirst whether the most expensive listing comes first
+     * @return an unmodifiable list of active {@link AuctionListing} objects
+     */
+    public List<AuctionListing> listActiveListingsByPrice(boolean highestFirst) {
+        return queryService.listActiveListingsByPrice(highestFirst);
+    }
+
+    /**
+     * Retrieves all active auction buy orders, sorted by offered price.
+     *
+     * @param highestFirst whether the highest offer comes first
+     * @return an unmodifiable list of active {@link AuctionOrder} objects
+     */
+    public List<AuctionOrder> listActiveOrdersByPrice(boolean highestFirst) {
+        return queryService.listActiveOrdersByPrice(highestFirst);
+    }
+
+    /**
+     * Retrieves the active, non-team listings in the given order as a shared, immutable list that
+     * is rebuilt only after the listings change.
+     *
+     * @param sort the order of the listings, or {@code null} for soonest expiry first
+     * @return the sorted listings
+     */
+    public List<AuctionListing> sortedListings(AuctionSort<AuctionListing> sort) {
+        return queryService.sortedListings(sort);
+    }
+
+    /**
+     * Retrieves the active buy orders in the given order as a shared, immutable list that is
+     * rebuilt only after the orders change.
+     *
+     * @param sort the order of the orders, or {@code null} for soonest expiry first
+     * @return the sorted orders
+     */
+    public List<AuctionOrder> sortedOrders(AuctionSort<AuctionOrder> sort) {
+        return queryService.sortedOrders(sort);
+    }
+
+    /**
+     * Retrieves one page of the active, non-team auction listings.
+     *
+     * @param sort            the order of the listings, or {@code null} for soonest expiry first
+     * @param normalizedQuery a lower-case search query, or {@code null} for all listings
+     * @param offset          position of the first listing; offsets past the end return the last page
+     * @param limit           maximum number of listings on the page
+     * @return the page and the total number of matching listings
+     */
+    public AuctionPage<AuctionListing> pageListings(AuctionSort<AuctionListing> sort, String normalizedQuery,
+            int offset, int limit) {
+        return queryService.pageListings(sort, normalizedQuery, offset, limit);
+    }
+
+    /**
+     * Retrieves one page of the active team listings visible to a player.
+     *
+     * @param viewerId        the UUID of the player viewing team listings
+     * @param sort            the order of the listings, or {@code null} for soonest expiry first
+     * @param normalizedQuery a lower-case search query, or {@code null} for all listings
+     * @param offset          position of the first listing; offsets past the end return the last page
+     * @param limit           maximum number of listings on the page
+     * @return the page and the total number of matching listings
+     */
+    public AuctionPage<AuctionListing> pageTeamListings(UUID viewerId, AuctionSort<AuctionListing> sort,
+            String normalizedQuery, int offset, int limit) {
+        return queryService.pageTeamListings(viewerId, sort, normalizedQuery, offset, limit);
+    }
+
+    /**
+     * Retrieves one page of the active auction buy orders.
+     *
+     * @param sort            the order of the orders, or {@code null} for soonest expiry first
+     * @param normalizedQuery a lower-case search query, or {@code null} for all orders
+     * @param offset          position of the first order; offsets past the end return the last page
+     * @param limit           maximum number of orders on the page
+     * @return the page and the total number of matching orders
+     */
+    public AuctionPage<AuctionOrder> pageOrders(AuctionSort<AuctionOrder> sort, String normalizedQuery,
+            int offset, int limit) {
+        return queryService.pageOrders(sort, normalizedQuery, offset, limit);
+    }
+
+    /**
+     * Retrieves one page of a seller's active, non-team listings, sorted by expiry time.
+     *
+     * @param sellerId the UUID of the seller
+     * @param offset   position of the first listing
+     * @param limit    maximum number of listings on the page
+     * @return the page and the seller's total number of active listings
+     */
+    public AuctionPage<AuctionListing> pageListings(UUID sellerId, int offset, int limit) {
+        return queryService.pageListings(sellerId, offset, limit);
+    }
+
+    /**
+     * Retrieves one page of a buyer's active buy orders, sorted by expiry time.
+     *
+     * @param buyerId the UUID of the buyer
+     * @param offset  position of the first order
+     * @param limit   maximum number of orders on the page
+     * @return the page and the buyer's total number of active orders
+     */
+    public AuctionPage<AuctionOrder> pageOrders(UUID buyerId, int offset, int limit) {
+        return queryService.pageOrders(buyerId, offset, limit);
+    }
+
+    /**
+     * Finds the listings whose item matches a browser search query.
+     *
+     * @param normalizedQuery the lower-case search query
+     * @return the ids of the matching listings, possibly including expired and team listings
+     */
+    public Set<String> findListingIdsMatching(String normalizedQuery) {
+        return queryService.findListingIdsMatching(normalizedQuery);
+    }
+
+    /**
+     * Finds the buy orders whose requested item matches a browser search query.
+     *
+     * @param normalizedQuery the lower-case search query
+     * @return the ids of the matching orders, possibly including expired orders
+     */
+    public Set<String> findOrderIdsMatching(String normalizedQuery) {
+        return queryService.findOrderIdsMatching(normalizedQuery);
+    }
+
     /**
      * Counts the number of active listings for a specific seller.
      *
@@ -226,6 +376,29 @@ public class AuctionManager {
         return listingService.purchaseListing(buyer, listingId);
     }
 
+    /**
+     * Places a bid on an active auction listing. The bid is held in escrow until it is outbid or
+     * wins when the listing ends.
+     *
+     * @param bidder    the player placing the bid
+     * @param listingId the ID of the listing to bid on
+     * @param amount    the bid amount
+     * @return the result of the bid
+     */
+    public AuctionOperationResult placeBid(Player bidder, String listingId, double amount) {
+        return listingService.placeBid(bidder, listingId, amount);
+    }
+
+    /**
+     * Returns the bidding state of a listing, or {@code null} if nobody has bid on it.
+     *
+     * @param listingId the ID of the listing
+     * @return the current leading bid, bid count and end time of the listing
+     */
+    public ListingBidState getBidState(String listingId) {
+        return listingService.getBidState(listingId);
+    }
+
     /**
      * Cancels an active auction listing for the given seller.
      * Handles item return, deposit refund, notifications, and transaction history.
@@ -372,25 +545,21 @@ public class AuctionManager {
     public List<ItemStack> getOpenOrdersForPlayer(Player player) {
         List<ItemStack> result = new ArrayList<>();
         if (player == null) return result;
-        UUID buyerId = player.getUniqueId();
-        long now = System.currentTimeMillis();
-        for (AuctionOrder order : queryService.listActiveOrders()) {
-            if (buyerId.equals(order.buyerId()) && order.expiryEpochMillis() > now) {
-                ItemStack item = order.requestedItem();
-                if (item != null) {
-                    ItemMeta meta = item.getItemMeta();
-                    List<String> lore = new ArrayList<>();
-                    lore.add(ChatColor.GOLD + "Order ID: " + order.id());
-                    lore.add(ChatColor.GRAY + "Price per Item: " + ChatColor.GOLD + order.pricePerItem());
-                    lore.add(ChatColor.GRAY + "Quantity: " + ChatColor.AQUA + order.quantity());
-                    lore.add(ChatColor.GRAY + "Total Price: " + ChatColor.GOLD + order.offeredPrice());
-                    lore.add(ChatColor.GRAY + "Expires: " + ChatColor.YELLOW + DateUtil.formatDate(order.expiryEpochMillis()));
-                    if (meta != null) {
-                        meta.setLore(lore);
-                        item.setItemMeta(meta);
-                    }
-                    result.add(item);
+        for (AuctionOrder order : queryService.listActiveOrders(player.getUniqueId())) {
+            ItemStack item = order.requestedItem();
+            if (item != null) {
+                ItemMeta meta = item.getItemMeta();
+                List<String> lore = new ArrayList<>();
+                lore.add(ChatColor.GOLD + "Order ID: " + order.id());
+                lore.add(ChatColor.GRAY + "Price per Item: " + ChatColor.GOLD + order.pricePerItem());
+                lore.add(ChatColor.GRAY + "Quantity: " + ChatColor.AQUA + order.quantity());
+                lore.add(ChatColor.GRAY + "Total Price: " + ChatColor.GOLD + order.offeredPrice());
+                lore.add(ChatColor.GRAY + "Expires: " + ChatColor.YELLOW + DateUtil.formatDate(order.expiryEpochMillis()));
+                if (meta != null) {
+                    meta.setLore(lore);
+                    item.setItemMeta(meta);
                 }
+                result.add(item);
             }
         }
         return result;
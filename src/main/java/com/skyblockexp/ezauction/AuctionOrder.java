@@ -6,25 +6,38 @@ import org.bukkit.inventory.ItemStack;
 
 /**
  * Represents a buy order placed by a player on the auction house.
+ *
+ * <p>The requested item is held as a {@link LazyItemStack} and deserialized on first access.</p>
  */
 public record AuctionOrder(
         String id,
         UUID buyerId,
         double offeredPrice,
         long expiryEpochMillis,
-        ItemStack requestedItem,
+        LazyItemStack requestedItemData,
         double reservedAmount) {
 
     public AuctionOrder {
         Objects.requireNonNull(id, "id");
         buyerId = Objects.requireNonNull(buyerId, "buyerId");
-        requestedItem = requestedItem != null ? requestedItem.clone() : null;
+        requestedItemData = requestedItemData != null ? requestedItemData : LazyItemStack.of(null);
         reservedAmount = Math.max(0.0D, reservedAmount);
     }
 
-    @Override
+    public AuctionOrder(String id, UUID buyerId, double offeredPrice, long expiryEpochMillis,
+            ItemStack requestedItem, double reservedAmount) {
+        this(id, buyerId, offeredPrice, expiryEpochMillis, LazyItemStack.of(requestedItem), reservedAmount);
+    }
+
     public ItemStack requestedItem() {
-        return requestedItem != null ? requestedItem.clone() : null;
+        return requestedItemData.get();
+    }
+
+    /**
+     * Returns the cached fingerprint of the requested item.
+     */
+    public ItemFingerprint fingerprint() {
+        return requestedItemData.fingerprint();
     }
 
     public boolean isExpired() {
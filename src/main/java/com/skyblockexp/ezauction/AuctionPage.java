@@ -0,0 +1,36 @@
+package com.skyblockexp.ezauction;
+
+import java.util.List;
+
+/**
+ * One page of listings or orders together with the size of the whole result.
+ *
+ * @param entries    the entries of this page, at most the requested limit
+ * @param offset     position of the first entry within the whole result
+ * @param totalCount number of entries in the whole result
+ * @param <T>        the listing or order type
+ */
+public record AuctionPage<T>(List<T> entries, int offset, int totalCount) {
+
+    public AuctionPage {
+        entries = entries != null ? List.copyOf(entries) : List.of();
+        offset = Math.max(0, offset);
+        totalCount = Math.max(0, totalCount);
+    }
+
+    public static <T> AuctionPage<T> empty() {
+        return new AuctionPage<>(List.of(), 0, 0);
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+
+    public boolean hasNext() {
+        return offset + entries.size() < totalCount;
+    }
+}
@@ -0,0 +1,34 @@
+package com.skyblockexp.ezauction;
+
+import java.util.List;
+
+/**
+ * Order in which the query layer returns listings or orders.
+ *
+ * <p>Sorted results are cached and shared per sort order until the market changes, with the sort
+ * itself as the cache key, so implementations should be constants such as enum values.</p>
+ *
+ * @param <T> the listing or order type
+ */
+public interface AuctionSort<T> {
+
+    /**
+     * Sorts the entries in place.
+     */
+    void sort(List<T> entries);
+
+    /**
+     * Returns whether this orders by price first, which the price index serves so that only
+     * entries with the same price go through {@link #sort(List)}.
+     */
+    default boolean priceOrdered() {
+        return false;
+    }
+
+    /**
+     * Returns whether the highest price comes first, if this is a price order.
+     */
+    default boolean highestFirst() {
+        return false;
+    }
+}
@@ -1,63 +1,124 @@
 package com.skyblockexp.ezauction;
 
+import com.skyblockexp.ezauction.transaction.AuctionHistoryCursor;
+import com.skyblockexp.ezauction.transaction.AuctionHistoryPage;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
 
 import com.skyblockexp.ezauction.EzAuctionPlugin;
 import com.skyblockexp.ezauction.storage.AuctionHistoryStorage;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import org.bukkit.plugin.java.JavaPlugin;
 
 /**
  * Dispatches asynchronous persistence tasks for auction history entries.
+ *
+ * <p>Up to {@code parallelism} workers drain the queue, so storages that keep each player's
+ * history separately can save different players concurrently. A player stays marked as enqueued
+ * while a worker saves it, which keeps saves for the same player ordered.</p>
+ *
+ * <p>The dispatcher accepts appended entries and history page reads. Work for one player is
+ * processed in the order appends, page reads, so a read always sees every change queued before
+ * it.</p>
+ *
+ * <p>If the storage fails, the player's work is kept and retried with exponential backoff, from
+ * {@value #INITIAL_RETRY_DELAY_MILLIS} ms up to {@value #MAX_RETRY_DELAY_MILLIS} ms. The player
+ * stays enqueued while it waits, so newer work for it is not written ahead of the failed entries.
+ * After {@value #MAX_ATTEMPTS} failed attempts the entries are logged as dead letters and dropped.</p>
  */
 public final class HistorySaveDispatcher implements AutoCloseable {
 
     private static final int DEFAULT_BATCH_SIZE = 25;
+    private static final int DEFAULT_PARALLELISM = 4;
+    private static final int MAX_ATTEMPTS = 8;
+    private static final long INITIAL_RETRY_DELAY_MILLIS = 500L;
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000L;
 
     private final JavaPlugin plugin;
     private final AuctionHistoryStorage storage;
-    private final ExecutorService executor;
-    private final ConcurrentHashMap<UUID, Deque<AuctionTransactionHistoryEntry>> pendingUpdates =
-            new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor executor;
+    private final ConcurrentHashMap<UUID, PendingWork> pendingWork = new ConcurrentHashMap<>();
     private final ConcurrentLinkedQueue<UUID> queue = new ConcurrentLinkedQueue<>();
     private final Set<UUID> enqueued = ConcurrentHashMap.newKeySet();
     private final AtomicBoolean closed = new AtomicBoolean();
-    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicInteger activeDrains = new AtomicInteger();
     private final int batchSize;
+    private final int parallelism;
 
     public HistorySaveDispatcher(JavaPlugin plugin, AuctionHistoryStorage storage) {
         this(plugin, storage, DEFAULT_BATCH_SIZE);
     }
 
     public HistorySaveDispatcher(JavaPlugin plugin, AuctionHistoryStorage storage, int batchSize) {
+        this(plugin, storage, batchSize, DEFAULT_PARALLELISM);
+    }
+
+    public HistorySaveDispatcher(JavaPlugin plugin, AuctionHistoryStorage storage, int batchSize, int parallelism) {
         this.plugin = plugin;
         this.storage = storage;
         this.batchSize = Math.max(1, batchSize);
-        this.executor = Executors.newSingleThreadExecutor(runnable -> {
-            Thread thread = new Thread(runnable, EzAuctionPlugin.DISPLAY_NAME + "-HistorySave");
+        this.parallelism = Math.max(1, parallelism);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable,
+                    EzAuctionPlugin.DISPLAY_NAME + "-HistorySave-" + threadIndex.incrementAndGet());
             thread.setDaemon(true);
             return thread;
         });
+        // Shutdown writes pending work itself instead of waiting out retry delays
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
     }
 
-    public void enqueue(UUID playerId, Deque<AuctionTransactionHistoryEntry> snapshot) {
-        if (playerId == null || snapshot == null || closed.get()) {
+    /**
+     * Queues an entry to be appended to a player's stored history without loading it.
+     */
+    public void enqueueAppend(UUID playerId, AuctionTransactionHistoryEntry entry) {
+        if (playerId == null || entry == null || closed.get()) {
             return;
         }
-        pendingUpdates.put(playerId, new ArrayDeque<>(snapshot));
+        schedule(playerId, work -> work.appends.add(entry));
+    }
+
+    /**
+     * Reads a page of a player's stored history after every change already queued for that
+     * player is written.
+     *
+     * @see AuctionHistoryStorage#loadHistoryPage(UUID, AuctionHistoryCursor, int, AuctionTransactionType)
+     */
+    public CompletableFuture<AuctionHistoryPage> loadPage(UUID playerId, AuctionHistoryCursor cursor, int limit,
+            AuctionTransactionType typeFilter) {
+        if (playerId == null) {
+            return CompletableFuture.completedFuture(AuctionHistoryPage.empty());
+        }
+        PageRead read = new PageRead(cursor, limit, typeFilter, new CompletableFuture<>());
+        if (closed.get()) {
+            read.result().completeExceptionally(new IllegalStateException("History dispatcher is closed."));
+            return read.result();
+        }
+        schedule(playerId, work -> work.reads.add(read));
+        return read.result();
+    }
+
+    private void schedule(UUID playerId, Consumer<PendingWork> update) {
+        pendingWork.compute(playerId, (key, work) -> {
+            PendingWork target = work != null ? work : new PendingWork();
+            update.accept(target);
+            return target;
+        });
         if (enqueued.add(playerId)) {
             queue.offer(playerId);
         }
@@ -68,13 +129,18 @@ public final class HistorySaveDispatcher implements AutoCloseable {
         if (closed.get()) {
             return;
         }
-        if (draining.compareAndSet(false, true)) {
-            try {
-                executor.execute(this::drainQueue);
-            } catch (RejectedExecutionException ex) {
-                draining.set(false);
-                plugin.getLogger().log(Level.SEVERE, "Unable to schedule auction history persistence task.", ex);
+        int active;
+        do {
+            active = activeDrains.get();
+            if (active >= parallelism || active >= queue.size()) {
+                return;
             }
+        } while (!activeDrains.compareAndSet(active, active + 1));
+        try {
+            executor.execute(this::drainQueue);
+        } catch (RejectedExecutionException ex) {
+            activeDrains.decrementAndGet();
+            plugin.getLogger().log(Level.SEVERE, "Unable to schedule auction history persistence task.", ex);
         }
     }
 
@@ -83,35 +149,94 @@ public final class HistorySaveDispatcher implements AutoCloseable {
             int processed = 0;
             UUID playerId;
             while (!closed.get() && (playerId = queue.poll()) != null) {
-                enqueued.remove(playerId);
-                Deque<AuctionTransactionHistoryEntry> snapshot = pendingUpdates.remove(playerId);
-                if (snapshot == null || snapshot.isEmpty()) {
+                PendingWork work = pendingWork.remove(playerId);
+                if (work == null) {
+                    release(playerId);
                     continue;
                 }
                 try {
-                    storage.savePlayerHistory(playerId, snapshot);
+                    process(playerId, work);
                 } catch (RuntimeException ex) {
-                    plugin.getLogger().log(Level.SEVERE,
-                            "Failed to persist auction history for player " + playerId + '.', ex);
-                    pendingUpdates.put(playerId, snapshot);
-                    if (enqueued.add(playerId)) {
-                        queue.offer(playerId);
+                    work.failLoads(ex);
+                    if (!scheduleRetry(playerId, work, ex)) {
+                        release(playerId);
                     }
-                    break;
+                    continue;
                 }
+                release(playerId);
                 processed++;
                 if (processed >= batchSize) {
                     break;
                 }
             }
         } finally {
-            draining.set(false);
+            activeDrains.decrementAndGet();
             if (!closed.get() && !queue.isEmpty()) {
                 triggerDrain();
             }
         }
     }
 
+    /**
+     * Puts failed work back and re-queues the player after a backoff delay, keeping it marked as
+     * enqueued meanwhile.
+     *
+     * @return {@code false} if the work was given up on and the player should be released
+     */
+    private boolean scheduleRetry(UUID playerId, PendingWork work, RuntimeException cause) {
+        work.attempts++;
+        if (work.attempts >= MAX_ATTEMPTS) {
+            logDeadLetter(playerId, work, cause);
+            return false;
+        }
+        long delay = Math.min(MAX_RETRY_DELAY_MILLIS, INITIAL_RETRY_DELAY_MILLIS << (work.attempts - 1));
+        plugin.getLogger().warning("Failed to persist auction history for player " + playerId + " (attempt "
+                + work.attempts + " of " + MAX_ATTEMPTS + "); retrying in " + delay + " ms: " + cause);
+        pendingWork.merge(playerId, work, PendingWork::retryBefore);
+        try {
+            executor.schedule(() -> {
+                queue.offer(playerId);
+                triggerDrain();
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            // Shutting down; flushAndShutdown writes the pending work
+        }
+        return true;
+    }
+
+    private void logDeadLetter(UUID playerId, PendingWork work, RuntimeException cause) {
+        List<String> transactionIds = new ArrayList<>(work.appends.size());
+        work.appends.forEach(entry -> transactionIds.add(entry.transactionId()));
+        plugin.getLogger().log(Level.SEVERE, "Giving up on " + transactionIds.size()
+                + " auction history entries for player " + playerId + " after " + work.attempts
+                + " failed attempts; dropped transactions: " + transactionIds, cause);
+    }
+
+    private void process(UUID playerId, PendingWork work) {
+        if (!work.appends.isEmpty()) {
+            List<AuctionTransactionHistoryEntry> newestFirst = new ArrayList<>(work.appends);
+            Collections.reverse(newestFirst);
+            storage.appendPlayerHistory(playerId, newestFirst);
+            work.appends.clear();
+        }
+        while (!work.reads.isEmpty()) {
+            PageRead read = work.reads.get(0);
+            read.result().complete(storage.loadHistoryPage(playerId, read.cursor(), read.limit(), read.typeFilter()));
+            work.reads.remove(0);
+        }
+    }
+
+    /**
+     * Clears the enqueued mark after a save and re-queues the player if new work arrived while
+     * the save was running.
+     */
+    private void release(UUID playerId) {
+        enqueued.remove(playerId);
+        if (pendingWork.containsKey(playerId) && enqueued.add(playerId)) {
+            queue.offer(playerId);
+        }
+    }
+
     public void flushAndShutdown() {
         if (!closed.compareAndSet(false, true)) {
             return;
@@ -125,17 +250,18 @@ public final class HistorySaveDispatcher implements AutoCloseable {
             Thread.currentThread().interrupt();
         }
 
-        List<UUID> remaining = new ArrayList<>(pendingUpdates.keySet());
+        List<UUID> remaining = new ArrayList<>(pendingWork.keySet());
         for (UUID playerId : remaining) {
-            Deque<AuctionTransactionHistoryEntry> snapshot = pendingUpdates.remove(playerId);
-            if (snapshot == null || snapshot.isEmpty()) {
+            PendingWork work = pendingWork.remove(playerId);
+            if (work == null) {
                 continue;
             }
             try {
-                storage.savePlayerHistory(playerId, snapshot);
+                process(playerId, work);
             } catch (RuntimeException ex) {
-                plugin.getLogger().log(Level.SEVERE,
-                        "Failed to persist auction history for player " + playerId + " during shutdown.", ex);
+                work.failLoads(ex);
+                work.attempts++;
+                logDeadLetter(playerId, work, ex);
             }
         }
 
@@ -147,4 +273,34 @@ public final class HistorySaveDispatcher implements AutoCloseable {
     public void close() {
         flushAndShutdown();
     }
+
+    /**
+     * Work queued for one player. Guarded by {@link ConcurrentHashMap#compute} while pending and
+     * owned by a single worker once removed from the map.
+     */
+    private static final class PendingWork {
+        private final List<AuctionTransactionHistoryEntry> appends = new ArrayList<>();
+        private final List<PageRead> reads = new ArrayList<>();
+        private int attempts;
+
+        /**
+         * Puts failed work back in front of work queued since, keeping appends in order.
+         */
+        private static PendingWork retryBefore(PendingWork newer, PendingWork failed) {
+            failed.appends.addAll(newer.appends);
+            failed.reads.addAll(newer.reads);
+            return failed;
+        }
+
+        private void failLoads(Throwable cause) {
+            for (PageRead read : reads) {
+                read.result().completeExceptionally(cause);
+            }
+            reads.clear();
+        }
+    }
+
+    private record PageRead(AuctionHistoryCursor cursor, int limit, AuctionTransactionType typeFilter,
+            CompletableFuture<AuctionHistoryPage> result) {
+    }
 }
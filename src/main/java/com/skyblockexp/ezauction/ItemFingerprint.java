@@ -0,0 +1,154 @@
+package com.skyblockexp.ezauction;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.EnchantmentStorageMeta;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+/**
+ * Stable key describing what an item is, independent of its amount.
+ *
+ * <p>The fingerprint combines the material with a 64-bit hash of the meta that distinguishes
+ * otherwise identical items: display name, enchantments, stored enchantments, custom model data
+ * and persistent data. Items that are {@link ItemStack#isSimilar(ItemStack) similar} always have
+ * equal fingerprints, so the fingerprint can key hash lookups; as other meta is left out and
+ * hashes may collide, callers confirm a match with {@code isSimilar} before acting on it.</p>
+ *
+ * <p>Listings and orders cache the fingerprint of their item, see {@link LazyItemStack#fingerprint()}.</p>
+ */
+public record ItemFingerprint(Material material, long metaHash) {
+
+    /**
+     * Fingerprint of a missing or air item.
+     */
+    public static final ItemFingerprint NONE = new ItemFingerprint(Material.AIR, 0L);
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    @SuppressWarnings("rawtypes")
+    private static final List<PersistentDataType> PRIMITIVE_TYPES = List.of(
+            PersistentDataType.STRING,
+            PersistentDataType.INTEGER,
+            PersistentDataType.LONG,
+            PersistentDataType.DOUBLE,
+            PersistentDataType.FLOAT,
+            PersistentDataType.SHORT,
+            PersistentDataType.BYTE,
+            PersistentDataType.BYTE_ARRAY,
+            PersistentDataType.INTEGER_ARRAY,
+            PersistentDataType.LONG_ARRAY);
+
+    /**
+     * Computes the fingerprint of {@code item}. This reads the item meta, so callers holding a
+     * listing or order should use its cached fingerprint instead.
+     */
+    public static ItemFingerprint of(ItemStack item) {
+        if (item == null || item.getType() == Material.AIR) {
+            return NONE;
+        }
+        if (!item.hasItemMeta()) {
+            return new ItemFingerprint(item.getType(), 0L);
+        }
+        ItemMeta meta = item.getItemMeta();
+        if (meta == null) {
+            return new ItemFingerprint(item.getType(), 0L);
+        }
+        return new ItemFingerprint(item.getType(), hash(canonicalMeta(meta)));
+    }
+
+    public boolean isEmpty() {
+        return material == Material.AIR;
+    }
+
+    private static String canonicalMeta(ItemMeta meta) {
+        StringBuilder builder = new StringBuilder();
+        if (meta.hasDisplayName()) {
+            builder.append("name=").append(meta.getDisplayName()).append(';');
+        }
+        if (meta.hasEnchants()) {
+            appendEnchantments(builder, "ench", meta.getEnchants());
+        }
+        if (meta instanceof EnchantmentStorageMeta storage && storage.hasStoredEnchants()) {
+            appendEnchantments(builder, "stored", storage.getStoredEnchants());
+        }
+        if (meta.hasCustomModelData()) {
+            builder.append("cmd=").append(meta.getCustomModelData()).append(';');
+        }
+        appendContainer(builder, "pdc", meta.getPersistentDataContainer());
+        return builder.toString();
+    }
+
+    private static void appendEnchantments(StringBuilder builder, String label, Map<Enchantment, Integer> enchantments) {
+        Map<String, Integer> sorted = new TreeMap<>();
+        for (Map.Entry<Enchantment, Integer> entry : enchantments.entrySet()) {
+            if (entry.getKey() != null) {
+                sorted.put(entry.getKey().getKey().toString(), entry.getValue() != null ? entry.getValue() : 0);
+            }
+        }
+        builder.append(label).append('=').append(sorted).append(';');
+    }
+
+    private static void appendContainer(StringBuilder builder, String label, PersistentDataContainer container) {
+        if (container == null || container.isEmpty()) {
+            return;
+        }
+        List<NamespacedKey> keys = new ArrayList<>(container.getKeys());
+        keys.sort((left, right) -> left.toString().compareTo(right.toString()));
+        builder.append(label).append('{');
+        for (NamespacedKey key : keys) {
+            builder.append(key).append('=');
+            if (container.has(key, PersistentDataType.TAG_CONTAINER)) {
+                appendContainer(builder, "", container.get(key, PersistentDataType.TAG_CONTAINER));
+            } else {
+                appendPrimitive(builder, container, key);
+            }
+            builder.append(',');
+        }
+        builder.append("};");
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static void appendPrimitive(StringBuilder builder, PersistentDataContainer container, NamespacedKey key) {
+        for (PersistentDataType type : PRIMITIVE_TYPES) {
+            if (container.has(key, type)) {
+                Object value = container.get(key, type);
+                builder.append(type.getPrimitiveType().getSimpleName()).append(':').append(arrayAwareString(value));
+                return;
+            }
+        }
+        builder.append('?');
+    }
+
+    private static String arrayAwareString(Object value) {
+        if (value instanceof byte[] bytes) {
+            return Arrays.toString(bytes);
+        }
+        if (value instanceof int[] ints) {
+            return Arrays.toString(ints);
+        }
+        if (value instanceof long[] longs) {
+            return Arrays.toString(longs);
+        }
+        return String.valueOf(value);
+    }
+
+    private static long hash(String canonical) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte value : canonical.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= value & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,202 @@
+package com.skyblockexp.ezauction;
+
+import com.skyblockexp.ezauction.index.ItemSearchTerms;
+import com.skyblockexp.ezauction.util.ItemStackCodec;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Logger;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Item held by a listing or order that may still be in its serialized form.
+ *
+ * <p>Items loaded from storage keep their {@link ItemStackCodec} data. Loading checks them once with
+ * {@link #verify()}, which decodes the item without keeping it; otherwise they are only deserialized
+ * on first access. The hydrated stack is then cached through a {@link SoftReference}, so the garbage
+ * collector may drop it under memory pressure and it is decoded again when needed. Items created
+ * from a live {@link ItemStack} are held strongly and serialized once, the first time they are
+ * saved; later saves reuse the same data.</p>
+ */
+public final class LazyItemStack {
+
+    private static final Logger LOGGER = Logger.getLogger(LazyItemStack.class.getName());
+    private static final LazyItemStack EMPTY = new LazyItemStack(null, null);
+
+    private volatile byte[] encoded;
+    private final ItemStack strong;
+    private volatile SoftReference<ItemStack> cached;
+    private volatile ItemFingerprint fingerprint;
+    private volatile List<String> searchTerms;
+
+    private LazyItemStack(byte[] encoded, ItemStack strong) {
+        this.encoded = encoded;
+        this.strong = strong;
+    }
+
+    /**
+     * Wraps a live item. The item is copied, so later changes to {@code item} are not reflected.
+     */
+    public static LazyItemStack of(ItemStack item) {
+        return item != null ? new LazyItemStack(null, item.clone()) : EMPTY;
+    }
+
+    /**
+     * Wraps item data in the binary or legacy format understood by {@link ItemStackCodec#decode(byte[], Logger)}.
+     */
+    public static LazyItemStack encoded(byte[] data) {
+        return data != null && data.length > 0 ? new LazyItemStack(data, null) : EMPTY;
+    }
+
+    /**
+     * Wraps item text as stored by {@link ItemStackCodec#toText(byte[])}, including legacy Base64.
+     */
+    public static LazyItemStack encoded(String text) {
+        return encoded(ItemStackCodec.fromText(text, LOGGER));
+    }
+
+    /**
+     * Returns a copy of the item, deserializing it on first access.
+     *
+     * @return the item, or {@code null} if there is none or its data could not be decoded
+     */
+    public ItemStack get() {
+        ItemStack item = hydrate();
+        return item != null ? item.clone() : null;
+    }
+
+    /**
+     * Returns the {@link ItemFingerprint} of the item. It is computed on first access, which
+     * deserializes the item once, and then kept for the lifetime of this instance.
+     */
+    public ItemFingerprint fingerprint() {
+        ItemFingerprint result = fingerprint;
+        if (result == null) {
+            result = ItemFingerprint.of(hydrate());
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the {@link ItemSearchTerms} of the item. Like the {@link #fingerprint()}, they are
+     * computed on first access and then kept for the lifetime of this instance.
+     */
+    public List<String> searchTerms() {
+        List<String> result = searchTerms;
+        if (result == null) {
+            result = ItemSearchTerms.of(hydrate());
+            searchTerms = result;
+        }
+        return result;
+    }
+
+    /**
+     * Decodes the item once to check that it is usable, without keeping the decoded stack. The
+     * {@link #fingerprint()} and {@link #searchTerms()} are taken from the same decode, so order
+     * matching and the search index do not decode the item again.
+     *
+     * @return {@code true} if the item decodes to a non-empty stack
+     */
+    public boolean verify() {
+        ItemStack item = strong != null ? strong : ItemStackCodec.decode(encoded, LOGGER);
+        if (item == null || item.getType() == Material.AIR || item.getAmount() <= 0) {
+            return false;
+        }
+        if (fingerprint == null) {
+            fingerprint = ItemFingerprint.of(item);
+        }
+        if (searchTerms == null) {
+            searchTerms = ItemSearchTerms.of(item);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the serialized item data, serializing the item only if it has never been encoded.
+     * The returned array must not be modified.
+     */
+    public byte[] encode(Logger logger) {
+        byte[] data = encoded;
+        if (data == null && strong != null) {
+            data = ItemStackCodec.encode(strong, logger);
+            encoded = data;
+        }
+        return data;
+    }
+
+    /**
+     * Returns the serialized item data in its text form for text-only stores.
+     */
+    public String encodeText(Logger logger) {
+        return ItemStackCodec.toText(encode(logger));
+    }
+
+    /**
+     * Returns {@code true} if the item is currently held in deserialized form.
+     */
+    public boolean isHydrated() {
+        if (strong != null) {
+            return true;
+        }
+        SoftReference<ItemStack> reference = cached;
+        return reference != null && reference.get() != null;
+    }
+
+    public boolean isEmpty() {
+        return encoded == null && strong == null;
+    }
+
+    private ItemStack hydrate() {
+        if (strong != null) {
+            return strong;
+        }
+        SoftReference<ItemStack> reference = cached;
+        ItemStack item = reference != null ? reference.get() : null;
+        if (item != null || encoded == null) {
+            return item;
+        }
+        synchronized (this) {
+            reference = cached;
+            item = reference != null ? reference.get() : null;
+            if (item == null) {
+                item = ItemStackCodec.decode(encoded, LOGGER);
+                if (item != null) {
+                    cached = new SoftReference<>(item);
+                }
+            }
+            return item;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LazyItemStack that)) {
+            return false;
+        }
+        byte[] data = encoded;
+        if (data != null && Arrays.equals(data, that.encoded)) {
+            return true;
+        }
+        return Objects.equals(hydrate(), that.hydrate());
+    }
+
+    /**
+     * Items are compared by content, which may require deserialization; the hash deliberately
+     * ignores the item so that hashing a listing never decodes it.
+     */
+    @Override
+    public int hashCode() {
+        return 1;
+    }
+
+    @Override
+    public String toString() {
+        return isHydrated() ? "LazyItemStack{" + hydrate() + '}' : "LazyItemStack{encoded}";
+    }
+}
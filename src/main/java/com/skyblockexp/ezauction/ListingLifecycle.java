@@ -0,0 +1,62 @@
+package com.skyblockexp.ezauction;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Atomic lifecycle of a listing: {@code ACTIVE → RESERVED → SOLD | CANCELLED | EXPIRED}.
+ *
+ * <p>Purchasing, cancelling and expiring a listing each start by {@link #reserve() reserving} it
+ * with a compare-and-set. Only the path that wins the reservation moves money or items; the
+ * others fail immediately instead of waiting on a lock. The winner then either
+ * {@link #complete completes} the listing or, if it backs out before any side effect sticks,
+ * {@link #release releases} it back to {@code ACTIVE}.</p>
+ *
+ * <p>Copies of a listing made through {@link AuctionListing#withExpiry(long)} and
+ * {@link AuctionListing#withPrice(double)} share the same lifecycle.</p>
+ */
+public final class ListingLifecycle {
+
+    private final AtomicReference<AuctionListingState> state = new AtomicReference<>(AuctionListingState.ACTIVE);
+
+    public AuctionListingState state() {
+        return state.get();
+    }
+
+    public boolean isActive() {
+        return state.get() == AuctionListingState.ACTIVE;
+    }
+
+    /**
+     * Moves an active listing to {@code RESERVED}.
+     *
+     * @return {@code true} if the caller now owns the listing, {@code false} if another path does
+     *         or the listing has ended
+     */
+    public boolean reserve() {
+        return state.compareAndSet(AuctionListingState.ACTIVE, AuctionListingState.RESERVED);
+    }
+
+    /**
+     * Returns a reserved listing to {@code ACTIVE}.
+     */
+    public boolean release() {
+        return state.compareAndSet(AuctionListingState.RESERVED, AuctionListingState.ACTIVE);
+    }
+
+    /**
+     * Moves a reserved listing to a terminal state.
+     *
+     * @throws IllegalArgumentException if {@code outcome} is not terminal
+     */
+    public boolean complete(AuctionListingState outcome) {
+        if (outcome == null || !outcome.isTerminal()) {
+            throw new IllegalArgumentException("Not a terminal state: " + outcome);
+        }
+        return state.compareAndSet(AuctionListingState.RESERVED, outcome);
+    }
+
+    @Override
+    public String toString() {
+        return state.get().name();
+    }
+}
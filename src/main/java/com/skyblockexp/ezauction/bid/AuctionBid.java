@@ -0,0 +1,18 @@
+package com.skyblockexp.ezauction.bid;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Bid held in escrow on a listing.
+ *
+ * @param bidderId       player who placed the bid
+ * @param amount         amount withdrawn from the bidder and held until the bid is outbid or wins
+ * @param placedAtMillis time the bid was accepted
+ */
+public record AuctionBid(UUID bidderId, double amount, long placedAtMillis) {
+
+    public AuctionBid {
+        Objects.requireNonNull(bidderId, "bidderId");
+    }
+}
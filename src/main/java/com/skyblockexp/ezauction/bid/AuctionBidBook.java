@@ -0,0 +1,178 @@
+package com.skyblockexp.ezauction.bid;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.config.AuctionBiddingRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bidding state of every listing that has received a bid.
+ *
+ * <p>Each listing has its own {@link AtomicReference} to an immutable {@link ListingBidState}.
+ * A bid is accepted by a compare-and-set from the state it was validated against, so concurrent
+ * bidders on one listing never block each other or other listings; a bidder that loses the race
+ * re-validates against the new state. Closing a listing sets a terminal state the same way, so a
+ * bid either lands before the close and is settled by it, or is rejected. A buy-now purchase
+ * closes bidding only while there is no bid, see {@link #closeUnbid}.</p>
+ *
+ * <p>The book does not move money. Callers escrow the amount before {@link #place} and refund it
+ * if the bid is rejected, refund the {@link Placement#previous() outbid} bidder, and settle the
+ * state returned by {@link #close}.</p>
+ */
+public final class AuctionBidBook {
+
+    /**
+     * Outcome of a bid attempt.
+     */
+    public enum Status {
+        ACCEPTED,
+        TOO_LOW,
+        ENDED,
+        CLOSED
+    }
+
+    /**
+     * @param status     whether the bid was accepted
+     * @param previous   the state the bid was validated against
+     * @param current    the state after the bid, equal to {@code previous} if it was rejected
+     * @param minimumBid the lowest amount that would have been accepted against {@code previous}
+     */
+    public record Placement(Status status, ListingBidState previous, ListingBidState current, double minimumBid) {
+
+        public boolean accepted() {
+            return status == Status.ACCEPTED;
+        }
+
+        /**
+         * Returns whether the accepted bid moved the end of the listing.
+         */
+        public boolean extended() {
+            return accepted() && current.endsAtMillis() != previous.endsAtMillis();
+        }
+    }
+
+    private final ConcurrentHashMap<String, AtomicReference<ListingBidState>> states = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the bidding state of a listing, or {@code null} if it has no bids.
+     */
+    public ListingBidState state(String listingId) {
+        AtomicReference<ListingBidState> reference = listingId != null ? states.get(listingId) : null;
+        return reference != null ? reference.get() : null;
+    }
+
+    /**
+     * Returns the lowest bid the listing currently accepts: the starting bid for its price before
+     * the first bid, then the leading bid raised by the minimum increment.
+     */
+    public double minimumBid(AuctionListing listing, AuctionBiddingRules rules) {
+        ListingBidState state = state(listing.id());
+        return minimumBid(listing, state, rules);
+    }
+
+    /**
+     * Places a bid of {@code amount} on {@code listing} at {@code now}.
+     */
+    public Placement place(AuctionListing listing, UUID bidderId, double amount, long now, AuctionBiddingRules rules) {
+        AtomicReference<ListingBidState> reference = states.computeIfAbsent(listing.id(),
+                id -> new AtomicReference<>(ListingBidState.open(id, listing.expiryEpochMillis())));
+        while (true) {
+            ListingBidState previous = reference.get();
+            double minimum = minimumBid(listing, previous, rules);
+            if (previous.closed()) {
+                return new Placement(Status.CLOSED, previous, previous, minimum);
+            }
+            if (now >= previous.endsAtMillis()) {
+                return new Placement(Status.ENDED, previous, previous, minimum);
+            }
+            if (amount < minimum) {
+                return new Placement(Status.TOO_LOW, previous, previous, minimum);
+            }
+            ListingBidState next = previous.withBid(new AuctionBid(bidderId, amount, now),
+                    rules.extendedEnd(previous.endsAtMillis(), now));
+            if (reference.compareAndSet(previous, next)) {
+                return new Placement(Status.ACCEPTED, previous, next, minimum);
+            }
+        }
+    }
+
+    /**
+     * Closes bidding on a listing that has no bid yet, so that a buy-now purchase and a first bid
+     * cannot both succeed. The listing stays in the book until {@link #close} or {@link #reopen}.
+     *
+     * @return whether the listing had no bid and is now closed
+     */
+    public boolean closeUnbid(AuctionListing listing) {
+        AtomicReference<ListingBidState> reference = states.computeIfAbsent(listing.id(),
+                id -> new AtomicReference<>(ListingBidState.open(id, listing.expiryEpochMillis())));
+        while (true) {
+            ListingBidState current = reference.get();
+            if (current.closed() || current.highestBid() != null) {
+                return false;
+            }
+            if (reference.compareAndSet(current, current.close())) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Opens bidding again on a listing closed by {@link #closeUnbid} whose purchase did not go through.
+     */
+    public void reopen(String listingId) {
+        AtomicReference<ListingBidState> reference = listingId != null ? states.get(listingId) : null;
+        if (reference == null) {
+            return;
+        }
+        ListingBidState current = reference.get();
+        if (current.closed() && current.highestBid() == null) {
+            reference.compareAndSet(current, ListingBidState.open(listingId, current.endsAtMillis()));
+        }
+    }
+
+    /**
+     * Stops bidding on a listing and forgets it.
+     *
+     * @return the final state, whose leading bid the caller settles or refunds, or {@code null}
+     *         if the listing had no bids or was already closed
+     */
+    public ListingBidState close(String listingId) {
+        AtomicReference<ListingBidState> reference = listingId != null ? states.remove(listingId) : null;
+        if (reference == null) {
+            return null;
+        }
+        while (true) {
+            ListingBidState current = reference.get();
+            if (current.closed()) {
+                return null;
+            }
+            if (reference.compareAndSet(current, current.close())) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Closes every listing, for example on shutdown, and returns the states that held a bid.
+     */
+    public List<ListingBidState> closeAll() {
+        List<ListingBidState> closed = new ArrayList<>();
+        for (String listingId : new ArrayList<>(states.keySet())) {
+            ListingBidState state = close(listingId);
+            if (state != null && state.highestBid() != null) {
+                closed.add(state);
+            }
+        }
+        return closed;
+    }
+
+    private static double minimumBid(AuctionListing listing, ListingBidState state, AuctionBiddingRules rules) {
+        if (state == null || state.highestBid() == null) {
+            return rules.startingBid(listing.price());
+        }
+        return rules.minimumRaise(state.highestBid().amount());
+    }
+}
@@ -0,0 +1,200 @@
+package com.skyblockexp.ezauction.bid;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+/**
+ * Durable record of the money held in escrow for bids.
+ *
+ * <p>Bids live only in memory, and a clean shutdown refunds them. The ledger keeps the amount each
+ * bidder has in escrow on each listing in a YAML file that is rewritten in the background after
+ * every change, so amounts still in the file at startup belong to bids that were neither settled
+ * nor refunded because the server stopped without shutting down. {@link #recover} hands them back
+ * for refunding.</p>
+ */
+public final class BidEscrowLedger {
+
+    /**
+     * Amount a bidder has in escrow on a listing.
+     */
+    public record Hold(String listingId, UUID bidderId, double amount) {
+    }
+
+    private record Key(String listingId, UUID bidderId) {
+    }
+
+    /** Remainders below this are rounding left over from releasing every held amount. */
+    private static final double RESIDUE = 0.000_001D;
+
+    private final File file;
+    private final Logger logger;
+    private final ExecutorService writer;
+    private final Map<Key, Double> holds = new ConcurrentHashMap<>();
+    private final AtomicBoolean writeQueued = new AtomicBoolean();
+
+    /**
+     * Creates a ledger stored in {@code file}, written by its own background thread.
+     */
+    public BidEscrowLedger(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EzAuction-BidEscrow");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private BidEscrowLedger() {
+        this.file = null;
+        this.logger = null;
+        this.writer = null;
+    }
+
+    /**
+     * Returns a ledger that only tracks holds in memory, for callers without a data folder.
+     */
+    public static BidEscrowLedger inMemory() {
+        return new BidEscrowLedger();
+    }
+
+    /**
+     * Records {@code amount} withdrawn from {@code bidderId} for a bid on {@code listingId}.
+     */
+    public void hold(String listingId, UUID bidderId, double amount) {
+        if (listingId == null || bidderId == null || !(amount > 0.0D)) {
+            return;
+        }
+        holds.merge(new Key(listingId, bidderId), amount, Double::sum);
+        scheduleWrite();
+    }
+
+    /**
+     * Records that {@code amount} held for {@code bidderId} on {@code listingId} was refunded or paid out.
+     */
+    public void release(String listingId, UUID bidderId, double amount) {
+        if (listingId == null || bidderId == null || !(amount > 0.0D)) {
+            return;
+        }
+        holds.computeIfPresent(new Key(listingId, bidderId), (key, held) -> {
+            double left = held - amount;
+            return left > RESIDUE ? left : null;
+        });
+        scheduleWrite();
+    }
+
+    /**
+     * Returns the amount {@code bidderId} has in escrow on {@code listingId}.
+     */
+    public double held(String listingId, UUID bidderId) {
+        Double held = listingId != null && bidderId != null ? holds.get(new Key(listingId, bidderId)) : null;
+        return held != null ? held : 0.0D;
+    }
+
+    /**
+     * Passes every hold left in the file by a previous run to {@code refund}, then clears the file.
+     * Call this once on startup, before any bid is placed.
+     */
+    public void recover(Consumer<Hold> refund) {
+        if (file == null || !file.isFile()) {
+            return;
+        }
+        YamlConfiguration configuration = YamlConfiguration.loadConfiguration(file);
+        List<Hold> recovered = new ArrayList<>();
+        for (Map<?, ?> entry : configuration.getMapList("holds")) {
+            Hold hold = parse(entry);
+            if (hold != null) {
+                recovered.add(hold);
+            }
+        }
+        for (Hold hold : recovered) {
+            refund.accept(hold);
+        }
+        write();
+    }
+
+    /**
+     * Stops the background writer and writes the current holds, which are normally none once
+     * every open bid has been refunded.
+     */
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Timed out waiting for the bid escrow file to be written.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        write();
+    }
+
+    private void scheduleWrite() {
+        if (writer == null || !writeQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writer.execute(this::write);
+        } catch (RejectedExecutionException ex) {
+            // Closing; close() writes the final state itself.
+            writeQueued.set(false);
+        }
+    }
+
+    private synchronized void write() {
+        if (file == null) {
+            return;
+        }
+        // Clear the flag before reading the holds, so a change made during the write queues another.
+        writeQueued.set(false);
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (Map.Entry<Key, Double> hold : holds.entrySet()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("listing", hold.getKey().listingId());
+            entry.put("bidder", hold.getKey().bidderId().toString());
+            entry.put("amount", hold.getValue());
+            entries.add(entry);
+        }
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.set("holds", entries);
+        try {
+            configuration.save(file);
+        } catch (IOException ex) {
+            logger.log(Level.SEVERE, "Failed to save the bid escrow file " + file + '.', ex);
+        }
+    }
+
+    private Hold parse(Map<?, ?> entry) {
+        Object listingId = entry.get("listing");
+        Object bidder = entry.get("bidder");
+        Object amount = entry.get("amount");
+        if (listingId == null || bidder == null || !(amount instanceof Number number)) {
+            logger.warning("Ignoring malformed bid escrow entry " + entry + '.');
+            return null;
+        }
+        try {
+            return new Hold(listingId.toString(), UUID.fromString(bidder.toString()), number.doubleValue());
+        } catch (IllegalArgumentException ex) {
+            logger.warning("Ignoring bid escrow entry with invalid bidder id " + bidder + '.');
+            return null;
+        }
+    }
+}
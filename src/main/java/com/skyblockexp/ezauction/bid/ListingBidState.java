@@ -0,0 +1,32 @@
+package com.skyblockexp.ezauction.bid;
+
+import java.util.Optional;
+
+/**
+ * Immutable bidding state of one listing, replaced as a whole on every accepted bid.
+ *
+ * @param listingId    the listing the state belongs to
+ * @param highestBid   the leading bid, or {@code null} before the first bid
+ * @param bidCount     number of accepted bids
+ * @param endsAtMillis when bidding ends, including anti-snipe extensions
+ * @param closed       whether the listing was sold, cancelled or expired and takes no more bids
+ */
+public record ListingBidState(String listingId, AuctionBid highestBid, int bidCount, long endsAtMillis,
+        boolean closed) {
+
+    static ListingBidState open(String listingId, long endsAtMillis) {
+        return new ListingBidState(listingId, null, 0, endsAtMillis, false);
+    }
+
+    public Optional<AuctionBid> highest() {
+        return Optional.ofNullable(highestBid);
+    }
+
+    ListingBidState withBid(AuctionBid bid, long endsAt) {
+        return new ListingBidState(listingId, bid, bidCount + 1, endsAt, false);
+    }
+
+    ListingBidState close() {
+        return new ListingBidState(listingId, highestBid, bidCount, endsAtMillis, true);
+    }
+}
@@ -20,6 +20,7 @@ import com.skyblockexp.ezauction.hologram.AuctionHologramListener;
 import com.skyblockexp.ezauction.integration.DiscordIntegration;
 import com.skyblockexp.ezauction.integration.DiscordWebhookNotifier;
 import com.skyblockexp.ezauction.live.LiveAuctionEnqueueListener;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryListener;
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandExecutor;
@@ -147,7 +148,8 @@ public final class PluginRegistry {
                     return true;
                 }
             }
-            AuctionHistoryGUI gui = new AuctionHistoryGUI(
+            // The GUI reads each page off the main thread and opens once it has loaded.
+            AuctionHistoryGUI gui = new AuctionHistoryGUI(plugin,
                     player, target, player.hasPermission("ezauction.auction.history.others"),
                     serviceResult.transactionHistory);
             historyListener.registerGUI(player, gui);
@@ -171,6 +173,8 @@ public final class PluginRegistry {
                 new AuctionReturnListener(serviceResult.claimService), plugin);
         plugin.getServer().getPluginManager().registerEvents(
                 new LiveAuctionEnqueueListener(serviceResult.liveAuctionService), plugin);
+        plugin.getServer().getPluginManager().registerEvents(
+                new AuctionTransactionHistoryListener(serviceResult.transactionHistory), plugin);
         if (guiResult.hologramManager != null) {
             plugin.getServer().getPluginManager().registerEvents(
                     new AuctionHologramListener(guiResult.hologramManager), plugin);
@@ -93,7 +93,7 @@ public class GuiAndCommandSetupComponent {
         AuctionSellMenu auctionSellMenu = new AuctionSellMenu(plugin, auctionManager, transactionService, configuration.listingRules(), configuration.durationOptions(), menuInteractions.sellMenu(), recommendationProvider, messageConfiguration.sell(), itemTagStorage);
         AuctionActivityMenu auctionActivityMenu = new AuctionActivityMenu(plugin, auctionManager, transactionService, transactionHistory, auctionMenu, itemTagStorage, messageConfiguration.browser(), messageConfiguration.activity());
         auctionMenu.setActivityMenu(auctionActivityMenu);
-        AuctionCommand auctionCommand = new AuctionCommand(auctionManager, auctionMenu, auctionSellMenu, auctionOrderMenu, transactionHistory, transactionService, configuration.listingRules(), liveAuctionMenu, commandMessageConfiguration);
+        AuctionCommand auctionCommand = new AuctionCommand(plugin, auctionManager, auctionMenu, auctionSellMenu, auctionOrderMenu, transactionHistory, transactionService, configuration.listingRules(), liveAuctionMenu, commandMessageConfiguration);
         AuctionHologramConfiguration hologramConfiguration = configuration.hologramConfiguration();
         HologramPlatform hologramPlatform = compatibilityFacade.hologramPlatform();
         boolean hologramSupportAvailable = hologramPlatform.isSupported();
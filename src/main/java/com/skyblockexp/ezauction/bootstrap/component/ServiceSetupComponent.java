@@ -61,11 +61,12 @@ public class ServiceSetupComponent {
         CompatibilityFacade compatibilityFacade
     ) {
         AuctionTransactionService transactionService = new AuctionTransactionService(plugin, economy, configuration.backendMessages().economy(), configuration.backendMessages().fallback());
-        AuctionTransactionHistory transactionHistory = new AuctionTransactionHistory(plugin, historyStorage);
+        AuctionTransactionHistory transactionHistory = new AuctionTransactionHistory(plugin, historyStorage,
+                configuration.storageConfiguration().history().cachedEntriesPerPlayer());
         transactionHistory.enable();
         LiveAuctionService liveAuctionService = new LiveAuctionService(plugin, transactionService, configuration.liveAuctionConfiguration(), configuration.backendMessages().live(), configuration.backendMessages().fallback());
-        Map<String, AuctionListing> listings = new java.util.concurrent.ConcurrentHashMap<>();
-        Map<String, AuctionOrder> orders = new java.util.concurrent.ConcurrentHashMap<>();
+        Map<String, AuctionListing> listings = com.skyblockexp.ezauction.index.IndexedAuctionMap.listings();
+        Map<String, AuctionOrder> orders = com.skyblockexp.ezauction.index.IndexedAuctionMap.orders();
         Map<UUID, List<org.bukkit.inventory.ItemStack>> pendingReturns = new java.util.concurrent.ConcurrentHashMap<>();
         AuctionPersistenceManager persistenceManager = new AuctionPersistenceManager(
             listingStorage,
@@ -74,7 +75,8 @@ public class ServiceSetupComponent {
                 Thread t = new Thread(r, "EzAuction-Persistence");
                 t.setDaemon(true);
                 return t;
-            })
+            }),
+            configuration.storageConfiguration().flush()
         );
         persistenceManager.setStorageReady(true);
         com.skyblockexp.ezauction.storage.AuctionStorageSnapshot snapshot = persistenceManager.loadFromStorage();
@@ -97,8 +99,11 @@ public class ServiceSetupComponent {
         com.skyblockexp.ezauction.notification.AuctionNotificationService notificationService = new com.skyblockexp.ezauction.notification.AuctionNotificationService(plugin, configuration.backendMessages(), transactionService);
         com.skyblockexp.ezauction.claim.AuctionClaimService claimService = new com.skyblockexp.ezauction.claim.AuctionClaimService(pendingReturns, configuration.backendMessages());
         com.skyblockexp.ezauction.history.AuctionTransactionHistoryService transactionHistoryService = new com.skyblockexp.ezauction.history.AuctionTransactionHistoryService(transactionHistory, plugin, configuration.backendMessages().fallback());
+        com.skyblockexp.ezauction.bid.AuctionBidBook bidBook = new com.skyblockexp.ezauction.bid.AuctionBidBook();
+        com.skyblockexp.ezauction.bid.BidEscrowLedger escrowLedger = new com.skyblockexp.ezauction.bid.BidEscrowLedger(
+            new java.io.File(plugin.getDataFolder(), "bid-escrow.yml"), plugin.getLogger());
         com.skyblockexp.ezauction.service.AuctionListingService listingService = new com.skyblockexp.ezauction.service.AuctionListingService(
-            transactionService, listingLimitResolver, configuration, configuration.listingRules(), liveAuctionService, persistenceManager, notificationService, claimService, transactionHistoryService, pendingReturns, listings, orders, teamsIntegration
+            transactionService, listingLimitResolver, configuration, configuration.listingRules(), liveAuctionService, persistenceManager, notificationService, claimService, transactionHistoryService, pendingReturns, listings, orders, teamsIntegration, bidBook, escrowLedger
         );
         com.skyblockexp.ezauction.service.AuctionOrderService orderService = new com.skyblockexp.ezauction.service.AuctionOrderService(
             transactionService, configuration.listingRules(), persistenceManager, notificationService, transactionHistoryService, claimService, pendingReturns, listings, orders
@@ -108,7 +113,7 @@ public class ServiceSetupComponent {
             persistenceManager,
             configuration.backendMessages()
         );
-        com.skyblockexp.ezauction.service.AuctionExpiryService expiryService = new com.skyblockexp.ezauction.service.AuctionExpiryService(plugin, listings, orders, persistenceManager, notificationService, transactionHistoryService, claimService, transactionService, pendingReturns);
+        com.skyblockexp.ezauction.service.AuctionExpiryService expiryService = new com.skyblockexp.ezauction.service.AuctionExpiryService(plugin, listings, orders, persistenceManager, notificationService, transactionHistoryService, claimService, transactionService, pendingReturns, bidBook, escrowLedger);
         com.skyblockexp.ezauction.service.AuctionQueryService queryService = new com.skyblockexp.ezauction.service.AuctionQueryService(listings, orders, liveAuctionService, configuration, teamsIntegration);
         AuctionManager auctionManager = new AuctionManager(plugin, listingService, orderService, returnService, expiryService, queryService, configuration, listingLimitResolver, teamsIntegration);
         auctionManager.enable();
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.UUID;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.command.Command;
@@ -38,6 +39,7 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.java.JavaPlugin;
 
 /**
  * Handles the {@code /auction} command for browsing and managing auction listings.
@@ -48,6 +50,7 @@ public class AuctionCommand implements CommandExecutor, TabCompleter {
     private static final DateTimeFormatter HISTORY_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM d, h:mm a")
             .withLocale(Locale.ENGLISH);
 
+    private final JavaPlugin plugin;
     private final AuctionManager auctionManager;
     private final AuctionMenu auctionMenu;
     private final AuctionOrderMenu auctionOrderMenu;
@@ -58,10 +61,31 @@ public class AuctionCommand implements CommandExecutor, TabCompleter {
     private final LiveAuctionMenu liveAuctionMenu;
     private final AuctionCommandMessageConfiguration messages;
 
-    public AuctionCommand(AuctionManager auctionManager, AuctionMenu auctionMenu, AuctionSellMenu auctionSellMenu,
-            AuctionOrderMenu auctionOrderMenu, AuctionTransactionHistory transactionHistory,
+    /**
+     * Creates the command without a plugin to schedule on. {@code /auction history} then reads the
+     * history with the blocking {@link AuctionTransactionHistory#getHistory(java.util.UUID)}.
+     *
+     * @deprecated pass the plugin so history is read off the main thread; this overload will be
+     *             removed in the next major release
+     */
+    @Deprecated
+    public AuctionCommand(AuctionManager auctionManager, AuctionMenu auctionMenu,
+            AuctionSellMenu auctionSellMenu, AuctionOrderMenu auctionOrderMenu, AuctionTransactionHistory transactionHistory,
             AuctionTransactionService transactionService, AuctionListingRules listingRules,
             LiveAuctionMenu liveAuctionMenu, AuctionCommandMessageConfiguration messages) {
+        this(null, auctionManager, auctionMenu, auctionSellMenu, auctionOrderMenu, transactionHistory,
+                transactionService, listingRules, liveAuctionMenu, messages);
+    }
+
+    /**
+     * @param plugin the plugin that history replies are scheduled on; only the deprecated overload
+     *               passes {@code null}
+     */
+    public AuctionCommand(JavaPlugin plugin, AuctionManager auctionManager, AuctionMenu auctionMenu,
+            AuctionSellMenu auctionSellMenu, AuctionOrderMenu auctionOrderMenu, AuctionTransactionHistory transactionHistory,
+            AuctionTransactionService transactionService, AuctionListingRules listingRules,
+            LiveAuctionMenu liveAuctionMenu, AuctionCommandMessageConfiguration messages) {
+        this.plugin = plugin;
         this.auctionManager = Objects.requireNonNull(auctionManager, "auctionManager");
         this.auctionMenu = Objects.requireNonNull(auctionMenu, "auctionMenu");
         this.auctionSellMenu = Objects.requireNonNull(auctionSellMenu, "auctionSellMenu");
@@ -303,19 +327,8 @@ public class AuctionCommand implements CommandExecutor, TabCompleter {
 
     private void handleCancel(Player player, String[] args) {
         UUID sellerId = player.getUniqueId();
-        List<AuctionListing> ownListings = new ArrayList<>();
-        for (AuctionListing listing : auctionManager.listActiveListings()) {
-            if (sellerId.equals(listing.sellerId())) {
-                ownListings.add(listing);
-            }
-        }
-
-        List<AuctionOrder> ownOrders = new ArrayList<>();
-        for (AuctionOrder order : auctionManager.listActiveOrders()) {
-            if (sellerId.equals(order.buyerId())) {
-                ownOrders.add(order);
-            }
-        }
+        List<AuctionListing> ownListings = auctionManager.listActiveListings(sellerId);
+        List<AuctionOrder> ownOrders = auctionManager.listActiveOrders(sellerId);
 
         if (args.length < 2 || args[1].trim().isEmpty()) {
             if (ownListings.isEmpty() && ownOrders.isEmpty()) {
@@ -485,10 +498,25 @@ public class AuctionCommand implements CommandExecutor, TabCompleter {
             }
         }
 
-        List<AuctionTransactionHistoryEntry> entries = new ArrayList<>(transactionHistory.getHistory(player.getUniqueId()));
+        if (plugin == null) {
+            sendHistory(player, transactionHistory.getHistory(player.getUniqueId()), filter);
+            return;
+        }
+
+        AuctionTransactionType filterType = filter;
+        transactionHistory.getHistoryAsync(player.getUniqueId()).thenAccept(history ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (player.isOnline()) {
+                        sendHistory(player, history, filterType);
+                    }
+                }));
+    }
+
+    private void sendHistory(Player player, List<AuctionTransactionHistoryEntry> history,
+            AuctionTransactionType filter) {
+        List<AuctionTransactionHistoryEntry> entries = new ArrayList<>(history);
         if (filter != null) {
-            final AuctionTransactionType filterType = filter;
-            entries.removeIf(entry -> entry.type() != filterType);
+            entries.removeIf(entry -> entry.type() != filter);
         }
 
         if (entries.isEmpty()) {
@@ -677,15 +705,11 @@ public class AuctionCommand implements CommandExecutor, TabCompleter {
         if (args.length == 2 && args[0].equalsIgnoreCase("cancel") && sender instanceof Player player) {
             UUID sellerId = player.getUniqueId();
             List<String> ids = new ArrayList<>();
-            for (AuctionListing listing : auctionManager.listActiveListings()) {
-                if (sellerId.equals(listing.sellerId())) {
-                    ids.add(listing.id());
-                }
+            for (AuctionListing listing : auctionManager.listActiveListings(sellerId)) {
+                ids.add(listing.id());
             }
-            for (AuctionOrder order : auctionManager.listActiveOrders()) {
-                if (sellerId.equals(order.buyerId())) {
-                    ids.add(order.id());
-                }
+            for (AuctionOrder order : auctionManager.listActiveOrders(sellerId)) {
+                ids.add(order.id());
             }
             return filter(args[1], ids);
         }
@@ -24,7 +24,7 @@ public class AuctionEzCmd {
                         AuctionTransactionHistory transactionHistory, AuctionTransactionService transactionService,
                         AuctionListingRules listingRules, LiveAuctionMenu liveAuctionMenu,
                         AuctionCommandMessageConfiguration messages) {
-        this.delegate = new AuctionCommand(auctionManager, auctionMenu, auctionSellMenu, auctionOrderMenu,
+        this.delegate = new AuctionCommand(plugin, auctionManager, auctionMenu, auctionSellMenu, auctionOrderMenu,
                 transactionHistory, transactionService, listingRules, liveAuctionMenu, messages);
     }
 
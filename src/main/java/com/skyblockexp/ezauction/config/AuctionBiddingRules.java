@@ -0,0 +1,146 @@
+package com.skyblockexp.ezauction.config;
+
+import java.time.Duration;
+import java.util.Objects;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Bidding configuration: starting bid, minimum raise over the leading bid and anti-snipe extension.
+ */
+public final class AuctionBiddingRules {
+
+    private static final double DEFAULT_STARTING_BID_PERCENT = 50.0D;
+    private static final double DEFAULT_MINIMUM_INCREMENT = 1.0D;
+    private static final double DEFAULT_MINIMUM_INCREMENT_PERCENT = 0.0D;
+    private static final Duration DEFAULT_ANTI_SNIPE_WINDOW = Duration.ofSeconds(30);
+    private static final Duration DEFAULT_ANTI_SNIPE_EXTENSION = Duration.ofSeconds(30);
+
+    private final double startingBidPercent;
+    private final double minimumIncrement;
+    private final double minimumIncrementPercent;
+    private final Duration antiSnipeWindow;
+    private final Duration antiSnipeExtension;
+
+    public AuctionBiddingRules(double startingBidPercent, double minimumIncrement, double minimumIncrementPercent,
+            Duration antiSnipeWindow, Duration antiSnipeExtension) {
+        this.startingBidPercent = Double.isFinite(startingBidPercent) && startingBidPercent > 0.0D
+                ? Math.min(100.0D, startingBidPercent)
+                : DEFAULT_STARTING_BID_PERCENT;
+        this.minimumIncrement = Double.isFinite(minimumIncrement) ? Math.max(0.0D, minimumIncrement) : DEFAULT_MINIMUM_INCREMENT;
+        this.minimumIncrementPercent = Double.isFinite(minimumIncrementPercent)
+                ? Math.max(0.0D, minimumIncrementPercent)
+                : DEFAULT_MINIMUM_INCREMENT_PERCENT;
+        this.antiSnipeWindow = sanitizeDuration(antiSnipeWindow);
+        this.antiSnipeExtension = sanitizeDuration(antiSnipeExtension);
+    }
+
+    private static Duration sanitizeDuration(Duration duration) {
+        return duration == null || duration.isNegative() ? Duration.ZERO : duration;
+    }
+
+    /**
+     * Share of the buy-now price, between 0 (exclusive) and 100, that the first bid must reach.
+     */
+    public double startingBidPercent() {
+        return startingBidPercent;
+    }
+
+    public double minimumIncrement() {
+        return minimumIncrement;
+    }
+
+    public double minimumIncrementPercent() {
+        return minimumIncrementPercent;
+    }
+
+    /**
+     * Bids placed this close to the end of a listing extend it. Zero disables the extension.
+     */
+    public Duration antiSnipeWindow() {
+        return antiSnipeWindow;
+    }
+
+    /**
+     * Time left on a listing after a bid inside the {@link #antiSnipeWindow()}.
+     */
+    public Duration antiSnipeExtension() {
+        return antiSnipeExtension;
+    }
+
+    /**
+     * Returns the lowest first bid on a listing with the given buy-now price.
+     */
+    public double startingBid(double buyNowPrice) {
+        return buyNowPrice * startingBidPercent / 100.0D;
+    }
+
+    /**
+     * Returns the lowest amount that outbids {@code highestBid}: the larger of the fixed and the
+     * percentage increment above it.
+     */
+    public double minimumRaise(double highestBid) {
+        double percentIncrement = highestBid * minimumIncrementPercent / 100.0D;
+        return highestBid + Math.max(minimumIncrement, percentIncrement);
+    }
+
+    /**
+     * Returns the end time of a listing ending at {@code endsAt} after a bid at {@code now}.
+     */
+    public long extendedEnd(long endsAt, long now) {
+        if (antiSnipeWindow.isZero() || endsAt - now > antiSnipeWindow.toMillis()) {
+            return endsAt;
+        }
+        return Math.max(endsAt, now + antiSnipeExtension.toMillis());
+    }
+
+    public static AuctionBiddingRules defaults() {
+        return new AuctionBiddingRules(DEFAULT_STARTING_BID_PERCENT, DEFAULT_MINIMUM_INCREMENT,
+                DEFAULT_MINIMUM_INCREMENT_PERCENT, DEFAULT_ANTI_SNIPE_WINDOW, DEFAULT_ANTI_SNIPE_EXTENSION);
+    }
+
+    public static AuctionBiddingRules from(ConfigurationSection section) {
+        if (section == null) {
+            return defaults();
+        }
+        double startingBidPercent = section.getDouble("starting-bid-percent", DEFAULT_STARTING_BID_PERCENT);
+        double minimumIncrement = section.getDouble("minimum-increment", DEFAULT_MINIMUM_INCREMENT);
+        double minimumIncrementPercent = section.getDouble("minimum-increment-percent", DEFAULT_MINIMUM_INCREMENT_PERCENT);
+        Duration window = Duration.ofSeconds(Math.max(0L,
+                section.getLong("anti-snipe-window-seconds", DEFAULT_ANTI_SNIPE_WINDOW.toSeconds())));
+        Duration extension = Duration.ofSeconds(Math.max(0L,
+                section.getLong("anti-snipe-extension-seconds", DEFAULT_ANTI_SNIPE_EXTENSION.toSeconds())));
+        return new AuctionBiddingRules(startingBidPercent, minimumIncrement, minimumIncrementPercent, window, extension);
+    }
+
+    @Override
+    public String toString() {
+        return "AuctionBiddingRules{"
+                + "startingBidPercent=" + startingBidPercent
+                + ", minimumIncrement=" + minimumIncrement
+                + ", minimumIncrementPercent=" + minimumIncrementPercent
+                + ", antiSnipeWindow=" + antiSnipeWindow
+                + ", antiSnipeExtension=" + antiSnipeExtension
+                + '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AuctionBiddingRules that)) {
+            return false;
+        }
+        return Double.compare(that.startingBidPercent, startingBidPercent) == 0
+                && Double.compare(that.minimumIncrement, minimumIncrement) == 0
+                && Double.compare(that.minimumIncrementPercent, minimumIncrementPercent) == 0
+                && Objects.equals(antiSnipeWindow, that.antiSnipeWindow)
+                && Objects.equals(antiSnipeExtension, that.antiSnipeExtension);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(startingBidPercent, minimumIncrement, minimumIncrementPercent, antiSnipeWindow,
+                antiSnipeExtension);
+    }
+}
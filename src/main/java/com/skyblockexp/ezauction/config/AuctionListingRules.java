@@ -13,13 +13,26 @@ public final class AuctionListingRules {
     private static final Duration DEFAULT_MAX_DURATION = Duration.ofHours(72);
     private static final double DEFAULT_MINIMUM_PRICE = 0.01D;
     private static final double DEFAULT_DEPOSIT_PERCENT = 0.0D;
+    private static final boolean DEFAULT_AUTO_MATCH_ORDERS = false;
 
     private final Duration defaultDuration;
     private final Duration maxDuration;
     private final double minimumPrice;
     private final double depositPercent;
+    private final boolean autoMatchOrders;
+    private final AuctionBiddingRules bidding;
 
     public AuctionListingRules(Duration defaultDuration, Duration maxDuration, double minimumPrice, double depositPercent) {
+        this(defaultDuration, maxDuration, minimumPrice, depositPercent, DEFAULT_AUTO_MATCH_ORDERS);
+    }
+
+    public AuctionListingRules(Duration defaultDuration, Duration maxDuration, double minimumPrice, double depositPercent,
+            boolean autoMatchOrders) {
+        this(defaultDuration, maxDuration, minimumPrice, depositPercent, autoMatchOrders, AuctionBiddingRules.defaults());
+    }
+
+    public AuctionListingRules(Duration defaultDuration, Duration maxDuration, double minimumPrice, double depositPercent,
+            boolean autoMatchOrders, AuctionBiddingRules bidding) {
         Duration resolvedDefault = sanitizeDuration(defaultDuration, DEFAULT_DEFAULT_DURATION);
         Duration resolvedMax = sanitizeDuration(maxDuration, DEFAULT_MAX_DURATION);
         if (resolvedDefault.compareTo(resolvedMax) > 0) {
@@ -29,6 +42,8 @@ public final class AuctionListingRules {
         this.maxDuration = resolvedMax;
         this.minimumPrice = Math.max(0.0D, minimumPrice);
         this.depositPercent = clampPercent(depositPercent);
+        this.autoMatchOrders = autoMatchOrders;
+        this.bidding = bidding != null ? bidding : AuctionBiddingRules.defaults();
     }
 
     private static Duration sanitizeDuration(Duration duration, Duration fallback) {
@@ -67,6 +82,18 @@ public final class AuctionListingRules {
         return depositPercent;
     }
 
+    /**
+     * Returns whether a new listing is sold straight to the best matching buy order that offers at
+     * least the listing price, instead of being listed.
+     */
+    public boolean autoMatchOrders() {
+        return autoMatchOrders;
+    }
+
+    public AuctionBiddingRules bidding() {
+        return bidding;
+    }
+
     public double depositFraction() {
         return depositPercent / 100.0D;
     }
@@ -89,7 +116,7 @@ public final class AuctionListingRules {
 
     public static AuctionListingRules defaults() {
         return new AuctionListingRules(DEFAULT_DEFAULT_DURATION, DEFAULT_MAX_DURATION, DEFAULT_MINIMUM_PRICE,
-                DEFAULT_DEPOSIT_PERCENT);
+                DEFAULT_DEPOSIT_PERCENT, DEFAULT_AUTO_MATCH_ORDERS, AuctionBiddingRules.defaults());
     }
 
     public static AuctionListingRules from(ConfigurationSection section) {
@@ -102,7 +129,10 @@ public final class AuctionListingRules {
                 DEFAULT_MAX_DURATION.toMinutes() / 60.0D), DEFAULT_MAX_DURATION);
         double minimumPrice = section.getDouble("minimum-price", DEFAULT_MINIMUM_PRICE);
         double depositPercent = section.getDouble("listing-deposit-percent", DEFAULT_DEPOSIT_PERCENT);
-        return new AuctionListingRules(defaultDuration, maxDuration, minimumPrice, depositPercent);
+        boolean autoMatchOrders = section.getBoolean("auto-match-orders", DEFAULT_AUTO_MATCH_ORDERS);
+        AuctionBiddingRules bidding = AuctionBiddingRules.from(section.getConfigurationSection("bidding"));
+        return new AuctionListingRules(defaultDuration, maxDuration, minimumPrice, depositPercent, autoMatchOrders,
+                bidding);
     }
 
     private static Duration hoursToDuration(double hours, Duration fallback) {
@@ -125,6 +155,8 @@ public final class AuctionListingRules {
                 + ", maxDuration=" + maxDuration
                 + ", minimumPrice=" + minimumPrice
                 + ", depositPercent=" + depositPercent
+                + ", autoMatchOrders=" + autoMatchOrders
+                + ", bidding=" + bidding
                 + '}';
     }
 
@@ -138,12 +170,14 @@ public final class AuctionListingRules {
         }
         return Double.compare(that.minimumPrice, minimumPrice) == 0
                 && Double.compare(that.depositPercent, depositPercent) == 0
+                && autoMatchOrders == that.autoMatchOrders
+                && Objects.equals(bidding, that.bidding)
                 && Objects.equals(defaultDuration, that.defaultDuration)
                 && Objects.equals(maxDuration, that.maxDuration);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(defaultDuration, maxDuration, minimumPrice, depositPercent);
+        return Objects.hash(defaultDuration, maxDuration, minimumPrice, depositPercent, autoMatchOrders, bidding);
     }
 }
@@ -11,18 +11,55 @@ public final class AuctionStorageConfiguration {
 
     private final StorageType type;
     private final Mysql mysql;
+    private final Journal journal;
+    private final Sqlite sqlite;
+    private final Flush flush;
+    private final History history;
 
-    private AuctionStorageConfiguration(StorageType type, Mysql mysql) {
+    private AuctionStorageConfiguration(StorageType type, Mysql mysql, Journal journal, Sqlite sqlite, Flush flush) {
+        this(type, mysql, journal, sqlite, flush, null);
+    }
+
+    private AuctionStorageConfiguration(StorageType type, Mysql mysql, Journal journal, Sqlite sqlite, Flush flush,
+            History history) {
         this.type = type;
         this.mysql = mysql;
+        this.journal = journal;
+        this.sqlite = sqlite;
+        this.flush = flush != null ? flush : Flush.defaultSettings();
+        this.history = history != null ? history : History.defaultSettings();
     }
 
     public static AuctionStorageConfiguration yaml() {
-        return new AuctionStorageConfiguration(StorageType.YAML, null);
+        return new AuctionStorageConfiguration(StorageType.YAML, null, null, null, null);
     }
 
     public static AuctionStorageConfiguration mysql(Mysql mysql) {
-        return new AuctionStorageConfiguration(StorageType.MYSQL, mysql);
+        return new AuctionStorageConfiguration(StorageType.MYSQL, mysql, null, null, null);
+    }
+
+    public static AuctionStorageConfiguration journal(Journal journal) {
+        return new AuctionStorageConfiguration(StorageType.JOURNAL, null,
+                journal != null ? journal : Journal.defaultSettings(), null, null);
+    }
+
+    public static AuctionStorageConfiguration sqlite(Sqlite sqlite) {
+        return new AuctionStorageConfiguration(StorageType.SQLITE, null, null,
+                sqlite != null ? sqlite : Sqlite.defaultSettings(), null);
+    }
+
+    /**
+     * Returns a copy of this configuration using the given write coalescing settings.
+     */
+    public AuctionStorageConfiguration withFlush(Flush flush) {
+        return new AuctionStorageConfiguration(type, mysql, journal, sqlite, flush, history);
+    }
+
+    /**
+     * Returns a copy of this configuration using the given transaction history settings.
+     */
+    public AuctionStorageConfiguration withHistory(History history) {
+        return new AuctionStorageConfiguration(type, mysql, journal, sqlite, flush, history);
     }
 
     public StorageType type() {
@@ -33,10 +70,31 @@ public final class AuctionStorageConfiguration {
         return mysql;
     }
 
+    public Journal journal() {
+        return journal;
+    }
+
+    public Sqlite sqlite() {
+        return sqlite;
+    }
+
+    public Flush flush() {
+        return flush;
+    }
+
+    public History history() {
+        return history;
+    }
+
     public static AuctionStorageConfiguration from(ConfigurationSection section) {
         if (section == null) {
             return yaml();
         }
+        return fromType(section).withFlush(Flush.from(section.getConfigurationSection("flush")))
+                .withHistory(History.from(section.getConfigurationSection("history")));
+    }
+
+    private static AuctionStorageConfiguration fromType(ConfigurationSection section) {
         String typeName = section.getString("type", "yaml");
         StorageType storageType = StorageType.from(typeName);
         if (storageType == StorageType.MYSQL) {
@@ -47,6 +105,12 @@ public final class AuctionStorageConfiguration {
             Mysql mysql = Mysql.from(mysqlSection);
             return mysql != null ? mysql(mysql) : yaml();
         }
+        if (storageType == StorageType.JOURNAL) {
+            return journal(Journal.from(section.getConfigurationSection("journal")));
+        }
+        if (storageType == StorageType.SQLITE) {
+            return sqlite(Sqlite.from(section.getConfigurationSection("sqlite")));
+        }
         return yaml();
     }
 
@@ -55,6 +119,10 @@ public final class AuctionStorageConfiguration {
         return "AuctionStorageConfiguration{"
                 + "type=" + type
                 + ", mysql=" + mysql
+                + ", journal=" + journal
+                + ", sqlite=" + sqlite
+                + ", flush=" + flush
+                + ", history=" + history
                 + '}';
     }
 
@@ -66,12 +134,14 @@ public final class AuctionStorageConfiguration {
         if (!(o instanceof AuctionStorageConfiguration that)) {
             return false;
         }
-        return type == that.type && Objects.equals(mysql, that.mysql);
+        return type == that.type && Objects.equals(mysql, that.mysql) && Objects.equals(journal, that.journal)
+                && Objects.equals(sqlite, that.sqlite) && Objects.equals(flush, that.flush)
+                && Objects.equals(history, that.history);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(type, mysql);
+        return Objects.hash(type, mysql, journal, sqlite, flush, history);
     }
 
     /**
@@ -79,7 +149,9 @@ public final class AuctionStorageConfiguration {
      */
     public enum StorageType {
         YAML,
-        MYSQL;
+        MYSQL,
+        JOURNAL,
+        SQLITE;
 
         public static StorageType from(String value) {
             if (value == null || value.isEmpty()) {
@@ -106,7 +178,8 @@ public final class AuctionStorageConfiguration {
             String password,
             boolean useSsl,
             String tablePrefix,
-            Pool pool) {
+            Pool pool,
+            HistoryRetention historyRetention) {
 
         public Mysql {
             host = valueOrDefault(host, "localhost");
@@ -117,6 +190,7 @@ public final class AuctionStorageConfiguration {
             useSsl = useSsl;
             tablePrefix = sanitizePrefix(tablePrefix);
             pool = pool == null ? Pool.defaultSettings() : pool;
+            historyRetention = historyRetention == null ? HistoryRetention.defaultSettings() : historyRetention;
         }
 
         public static Mysql from(ConfigurationSection section) {
@@ -132,7 +206,8 @@ public final class AuctionStorageConfiguration {
             String tablePrefix = section.getString("table-prefix", "ezauction_");
             ConfigurationSection poolSection = section.getConfigurationSection("pool");
             Pool pool = Pool.from(poolSection);
-            return new Mysql(host, port, database, username, password, useSsl, tablePrefix, pool);
+            HistoryRetention historyRetention = HistoryRetention.from(section.getConfigurationSection("history-retention"));
+            return new Mysql(host, port, database, username, password, useSsl, tablePrefix, pool, historyRetention);
         }
 
         private static String valueOrDefault(String value, String fallback) {
@@ -156,6 +231,141 @@ public final class AuctionStorageConfiguration {
         }
     }
 
+    /**
+     * Configuration for the embedded SQLite storage.
+     *
+     * @param file              database file name, relative to the plugin data folder
+     * @param busyTimeoutMillis how long a statement waits for a locked database before failing
+     */
+    public record Sqlite(String file, long busyTimeoutMillis) {
+
+        public Sqlite {
+            file = file == null || file.isBlank() ? "auction-data.db" : file.trim();
+            busyTimeoutMillis = Math.max(0L, busyTimeoutMillis);
+        }
+
+        public static Sqlite from(ConfigurationSection section) {
+            if (section == null) {
+                return defaultSettings();
+            }
+            return new Sqlite(section.getString("file", "auction-data.db"),
+                    section.getLong("busy-timeout-millis", 5_000L));
+        }
+
+        public static Sqlite defaultSettings() {
+            return new Sqlite("auction-data.db", 5_000L);
+        }
+    }
+
+    /**
+     * Write coalescing settings for the persistence scheduler. Changes queued within the latency
+     * window are merged and written as one batch.
+     *
+     * @param maxLatencyMillis longest time a change may wait before it is flushed; {@code 0} writes immediately
+     * @param maxBatchSize     number of pending entries that triggers an early flush
+     */
+    public record Flush(long maxLatencyMillis, int maxBatchSize) {
+
+        public Flush {
+            maxLatencyMillis = Math.max(0L, Math.min(maxLatencyMillis, 60_000L));
+            maxBatchSize = Math.max(1, maxBatchSize);
+        }
+
+        public static Flush from(ConfigurationSection section) {
+            if (section == null) {
+                return defaultSettings();
+            }
+            return new Flush(section.getLong("max-latency-millis", 250L), section.getInt("max-batch-size", 500));
+        }
+
+        public static Flush defaultSettings() {
+            return new Flush(250L, 500);
+        }
+
+        public static Flush immediate() {
+            return new Flush(0L, 1);
+        }
+    }
+
+    /**
+     * Transaction history settings shared by all storage types.
+     *
+     * @param cachedEntriesPerPlayer newest entries per player kept in memory; older entries are read
+     *                               from storage one page at a time
+     */
+    public record History(int cachedEntriesPerPlayer) {
+
+        public History {
+            cachedEntriesPerPlayer = Math.max(1, Math.min(cachedEntriesPerPlayer, 500));
+        }
+
+        public static History from(ConfigurationSection section) {
+            if (section == null) {
+                return defaultSettings();
+            }
+            return new History(section.getInt("cached-entries-per-player", 25));
+        }
+
+        public static History defaultSettings() {
+            return new History(25);
+        }
+    }
+
+    /**
+     * Configuration for the append-only journal storage.
+     *
+     * @param fsync                    when appended records are forced to disk
+     * @param fsyncIntervalMillis      how often buffered appends are forced when using {@link FsyncPolicy#INTERVAL}
+     * @param compactionThresholdBytes journal size after which a background snapshot compaction starts
+     */
+    public record Journal(FsyncPolicy fsync, long fsyncIntervalMillis, long compactionThresholdBytes) {
+
+        public Journal {
+            fsync = fsync == null ? FsyncPolicy.INTERVAL : fsync;
+            fsyncIntervalMillis = Math.max(50L, fsyncIntervalMillis);
+            compactionThresholdBytes = Math.max(64L * 1024L, compactionThresholdBytes);
+        }
+
+        public static Journal from(ConfigurationSection section) {
+            if (section == null) {
+                return defaultSettings();
+            }
+            FsyncPolicy fsync = FsyncPolicy.from(section.getString("fsync", "interval"));
+            long fsyncInterval = section.getLong("fsync-interval-millis", 1_000L);
+            long compactionThreshold = section.getLong("compaction-threshold-bytes", 8L * 1024L * 1024L);
+            return new Journal(fsync, fsyncInterval, compactionThreshold);
+        }
+
+        public static Journal defaultSettings() {
+            return new Journal(FsyncPolicy.INTERVAL, 1_000L, 8L * 1024L * 1024L);
+        }
+    }
+
+    /**
+     * Durability policy for journal appends.
+     */
+    public enum FsyncPolicy {
+        /** Force every append to disk before returning. */
+        ALWAYS,
+        /** Force buffered appends on a fixed interval. */
+        INTERVAL,
+        /** Leave flushing to the operating system. */
+        NEVER;
+
+        public static FsyncPolicy from(String value) {
+            if (value == null || value.isEmpty()) {
+                return INTERVAL;
+            }
+            String normalized = value.trim().toUpperCase(Locale.ENGLISH);
+            for (FsyncPolicy candidate : values()) {
+                if (candidate.name().equals(normalized)) {
+                    return candidate;
+                }
+            }
+            return INTERVAL;
+        }
+    }
+
     /**
      * Connection pool configuration for MySQL storage.
      */
@@ -189,4 +399,34 @@ public final class AuctionStorageConfiguration {
             return new Pool(10, 2, 10_000L, 600_000L, 1_800_000L);
         }
     }
+
+    /**
+     * Retention applied to the append-only MySQL history table by a periodic cleanup job.
+     *
+     * @param maxEntriesPerPlayer newest entries kept per player; {@code 0} keeps every entry
+     * @param maxAgeDays          entries older than this many days are removed; {@code 0} disables the age limit
+     * @param intervalMinutes     delay between cleanup runs
+     * @param deleteBatchSize     maximum rows removed by a single {@code DELETE}
+     */
+    public record HistoryRetention(int maxEntriesPerPlayer, int maxAgeDays, long intervalMinutes, int deleteBatchSize) {
+
+        public HistoryRetention {
+            maxEntriesPerPlayer = Math.max(0, maxEntriesPerPlayer);
+            maxAgeDays = Math.max(0, maxAgeDays);
+            intervalMinutes = Math.max(1L, intervalMinutes);
+            deleteBatchSize = Math.max(1, deleteBatchSize);
+        }
+
+        public static HistoryRetention from(ConfigurationSection section) {
+            if (section == null) {
+                return defaultSettings();
+            }
+            return new HistoryRetention(section.getInt("max-entries-per-player", 0), section.getInt("max-age-days", 0),
+                    section.getLong("interval-minutes", 60L), section.getInt("delete-batch-size", 1_000));
+        }
+
+        public static HistoryRetention defaultSettings() {
+            return new HistoryRetention(0, 0, 60L, 1_000);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.skyblockexp.ezauction.gui;
 import com.skyblockexp.ezauction.AuctionListing;
 import com.skyblockexp.ezauction.AuctionManager;
 import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.AuctionPage;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
 import com.skyblockexp.ezauction.compat.ItemTagStorage;
 import com.skyblockexp.ezauction.config.AuctionMessageConfiguration;
@@ -22,7 +23,6 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Consolidated "My Activity" menu showing all player auction activities:
@@ -105,16 +105,14 @@ public class AuctionActivityMenu {
             case MY_LISTINGS -> populateListings(inventory, playerId);
             case MY_ORDERS -> populateOrders(inventory, playerId);
             case PENDING_RETURNS -> populateReturns(inventory, playerId, player);
-            case RECENT_HISTORY -> populateHistory(inventory, playerId);
+            case RECENT_HISTORY -> populateHistory(inventory, player);
         }
 
         player.openInventory(inventory);
     }
 
     private void populateListings(Inventory inventory, UUID playerId) {
-        List<AuctionListing> myListings = auctionManager.listActiveListings().stream()
-                .filter(listing -> playerId.equals(listing.seller()))
-                .collect(Collectors.toList());
+        AuctionPage<AuctionListing> myListings = auctionManager.pageListings(playerId, 0, 45);
 
         if (myListings.isEmpty()) {
             inventory.setItem(22, createEmptyIndicator(activityMessages.noListings()));
@@ -122,17 +120,14 @@ public class AuctionActivityMenu {
         }
 
         int slot = 0;
-        for (AuctionListing listing : myListings) {
-            if (slot >= 45) break;
+        for (AuctionListing listing : myListings.entries()) {
             ItemStack display = createListingDisplay(listing);
             inventory.setItem(slot++, display);
         }
     }
 
     private void populateOrders(Inventory inventory, UUID playerId) {
-        List<AuctionOrder> myOrders = auctionManager.listActiveOrders().stream()
-                .filter(order -> playerId.equals(order.buyer()))
-                .collect(Collectors.toList());
+        AuctionPage<AuctionOrder> myOrders = auctionManager.pageOrders(playerId, 0, 45);
 
         if (myOrders.isEmpty()) {
             inventory.setItem(22, createEmptyIndicator(activityMessages.noOrders()));
@@ -140,8 +135,7 @@ public class AuctionActivityMenu {
         }
 
         int slot = 0;
-        for (AuctionOrder order : myOrders) {
-            if (slot >= 45) break;
+        for (AuctionOrder order : myOrders.entries()) {
             ItemStack display = createOrderDisplay(order);
             inventory.setItem(slot++, display);
         }
@@ -169,11 +163,22 @@ public class AuctionActivityMenu {
         inventory.setItem(22, claimPrompt);
     }
 
-    private void populateHistory(Inventory inventory, UUID playerId) {
-        List<AuctionTransactionHistoryEntry> history = transactionHistory != null
-                ? transactionHistory.getHistory(playerId)
-                : new ArrayList<>();
+    private void populateHistory(Inventory inventory, Player player) {
+        if (transactionHistory == null) {
+            fillHistory(inventory, List.of());
+            return;
+        }
+        transactionHistory.getHistoryAsync(player.getUniqueId()).thenAccept(history ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    // Skip viewers who left or moved to another tab while the history was loading.
+                    if (!player.isOnline() || player.getOpenInventory().getTopInventory() != inventory) {
+                        return;
+                    }
+                    fillHistory(inventory, history);
+                }));
+    }
 
+    private void fillHistory(Inventory inventory, List<AuctionTransactionHistoryEntry> history) {
         if (history.isEmpty()) {
             inventory.setItem(22, createEmptyIndicator(activityMessages.noHistory()));
             return;
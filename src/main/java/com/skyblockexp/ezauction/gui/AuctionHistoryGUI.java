@@ -4,6 +4,8 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.Bukkit;
 
+import com.skyblockexp.ezauction.transaction.AuctionHistoryCursor;
+import com.skyblockexp.ezauction.transaction.AuctionHistoryPage;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionHistory;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
@@ -12,6 +14,8 @@ import com.skyblockexp.ezauction.util.DateUtil;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.java.JavaPlugin;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,12 +23,15 @@ import java.util.List;
  * <p>
  * Use this class to display a player's auction transaction history in a modern, user-friendly interface.
  * Integrates with EzAuction's transaction history service and supports tab switching and permission checks.
+ * History is shown {@value #PAGE_SIZE} entries at a time; each page is read in the background and the
+ * inventory is opened once it has loaded.
  * </p>
  *
  * <p>To use:</p>
  * <ul>
  *   <li>Instantiate with the viewer, target, permission flag, and history service.</li>
  *   <li>Call {@link #open(Tab)} to display the GUI for a specific tab.</li>
+ *   <li>Call {@link #nextPage()} and {@link #previousPage()} to page through older entries.</li>
  *   <li>Register an inventory click listener to handle tab switching and closing.</li>
  * </ul>
  *
@@ -32,12 +39,25 @@ import java.util.List;
  * @since 1.2.0
  */
 public class AuctionHistoryGUI {
+    /** Number of entries shown on one page. */
+    public static final int PAGE_SIZE = 45;
+    /** Slot of the previous page button. */
+    public static final int PREVIOUS_PAGE_SLOT = 46;
+    /** Slot of the next page button. */
+    public static final int NEXT_PAGE_SLOT = 52;
+
+    private final JavaPlugin plugin;
     private final Player viewer;
     private final Player target;
     private final boolean canViewOthers;
     private final AuctionTransactionHistory historyService;
     private Inventory gui;
     private Tab currentTab = Tab.SALES;
+    /** Cursor of every page shown so far on the current tab; the last one is the current page. */
+    private final List<AuctionHistoryCursor> pageCursors = new ArrayList<>();
+    private AuctionHistoryPage currentPage = AuctionHistoryPage.empty();
+    private int pageRequest;
+    private boolean reopening;
 
     /**
      * Tabs for the auction history GUI.
@@ -52,34 +72,32 @@ public class AuctionHistoryGUI {
     /**
      * Constructs a new AuctionHistoryGUI.
      *
+     * @param plugin         The plugin used to return to the main thread once a page has loaded
      * @param viewer         The player viewing the GUI
      * @param target         The player whose history is being viewed
      * @param canViewOthers  Whether the viewer can view other players' history
      * @param historyService The transaction history service
      */
-    public AuctionHistoryGUI(Player viewer, Player target, boolean canViewOthers, AuctionTransactionHistory historyService) {
+    public AuctionHistoryGUI(JavaPlugin plugin, Player viewer, Player target, boolean canViewOthers,
+            AuctionTransactionHistory historyService) {
+        this.plugin = plugin;
         this.viewer = viewer;
         this.target = target;
         this.canViewOthers = canViewOthers;
         this.historyService = historyService;
-        createGUI(Tab.SALES);
     }
 
     /**
-     * Creates and populates the GUI for the given tab.
+     * Creates and populates the GUI for the given tab with the current page.
      * @param tab The tab to display (SALES or PURCHASES)
      */
     private void createGUI(Tab tab) {
         String tabLabel = tab == Tab.SALES ? "Sales" : "Purchases";
-        String title = "Auction History (" + tabLabel + ")";
+        int pageNumber = Math.max(1, pageCursors.size());
+        String title = "Auction History (" + tabLabel + ")" + (pageNumber > 1 ? " - Page " + pageNumber : "");
         gui = Bukkit.createInventory(null, 54, title);
-        currentTab = tab;
-        List<AuctionTransactionHistoryEntry> entries = historyService.getHistory(target.getUniqueId());
-        AuctionTransactionType filterType = (tab == Tab.SALES) ? AuctionTransactionType.SELL : AuctionTransactionType.BUY;
         int slot = 0;
-        for (AuctionTransactionHistoryEntry entry : entries) {
-            if (entry.type() != filterType) continue;
-            if (slot >= 45) break; // Only show up to 45 entries
+        for (AuctionTransactionHistoryEntry entry : currentPage.entries()) {
             ItemStack item = entry.item() != null ? entry.item().clone() : new ItemStack(Material.PAPER);
             ItemMeta meta = item.getItemMeta();
             if (meta != null) {
@@ -127,15 +145,84 @@ public class AuctionHistoryGUI {
             back.setItemMeta(backMeta);
         }
         gui.setItem(45, back);
+
+        if (pageCursors.size() > 1) {
+            gui.setItem(PREVIOUS_PAGE_SLOT, pageButton("§ePrevious Page", pageNumber - 1));
+        }
+        if (currentPage.hasMore()) {
+            gui.setItem(NEXT_PAGE_SLOT, pageButton("§eNext Page", pageNumber + 1));
+        }
+    }
+
+    private ItemStack pageButton(String name, int targetPage) {
+        ItemStack button = new ItemStack(Material.ARROW);
+        ItemMeta meta = button.getItemMeta();
+        if (meta != null) {
+            meta.setDisplayName(name);
+            meta.setLore(List.of("§7Go to page " + targetPage + "."));
+            button.setItemMeta(meta);
+        }
+        return button;
     }
 
     /**
-     * Opens the auction history GUI for the viewer, displaying the specified tab.
+     * Opens the auction history GUI for the viewer at the first page of the specified tab.
      * @param tab The tab to display (SALES or PURCHASES)
      */
     public void open(Tab tab) {
-        createGUI(tab);
-        viewer.openInventory(gui);
+        currentTab = tab;
+        pageCursors.clear();
+        showPage(null);
+    }
+
+    /**
+     * Shows the page after the current one, if there is one.
+     */
+    public void nextPage() {
+        if (currentPage.hasMore()) {
+            showPage(currentPage.nextCursor());
+        }
+    }
+
+    /**
+     * Shows the page before the current one, if there is one.
+     */
+    public void previousPage() {
+        if (pageCursors.size() > 1) {
+            pageCursors.remove(pageCursors.size() - 1);
+            AuctionHistoryCursor previous = pageCursors.remove(pageCursors.size() - 1);
+            showPage(previous);
+        }
+    }
+
+    /**
+     * Returns {@code true} while the GUI replaces its own inventory, so that the resulting close
+     * event is not treated as the viewer leaving the GUI.
+     */
+    public boolean isReopening() {
+        return reopening;
+    }
+
+    private void showPage(AuctionHistoryCursor cursor) {
+        int request = ++pageRequest;
+        Tab tab = currentTab;
+        AuctionTransactionType filterType = (tab == Tab.SALES) ? AuctionTransactionType.SELL : AuctionTransactionType.BUY;
+        historyService.getHistory(target.getUniqueId(), cursor, PAGE_SIZE, filterType).thenAccept(page ->
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    // Ignore pages that were superseded by a later click or for a viewer who left.
+                    if (request != pageRequest || !viewer.isOnline()) {
+                        return;
+                    }
+                    pageCursors.add(cursor);
+                    currentPage = page;
+                    createGUI(tab);
+                    reopening = true;
+                    try {
+                        viewer.openInventory(gui);
+                    } finally {
+                        reopening = false;
+                    }
+                }));
     }
 
     /*
@@ -144,6 +231,8 @@ public class AuctionHistoryGUI {
      *   if (clickedSlot == 48) open(Tab.SALES);
      *   if (clickedSlot == 50) open(Tab.PURCHASES);
      *   if (clickedSlot == 49) viewer.closeInventory();
+     *   if (clickedSlot == PREVIOUS_PAGE_SLOT) previousPage();
+     *   if (clickedSlot == NEXT_PAGE_SLOT) nextPage();
      * Permission checks for viewing others should be handled before constructing this GUI.
      */
 }
@@ -60,6 +60,10 @@ public class AuctionHistoryListener implements Listener {
             gui.open(AuctionHistoryGUI.Tab.PURCHASES);
         } else if (slot == 49) {
             player.closeInventory();
+        } else if (slot == AuctionHistoryGUI.PREVIOUS_PAGE_SLOT) {
+            gui.previousPage();
+        } else if (slot == AuctionHistoryGUI.NEXT_PAGE_SLOT) {
+            gui.nextPage();
         }
     }
 
@@ -71,6 +75,8 @@ public class AuctionHistoryListener implements Listener {
         if (inv == null || inv.getHolder() != null) return;
         String title = event.getView().getTitle();
         if (!title.startsWith("Auction History")) return;
+        AuctionHistoryGUI gui = guiMap.get(player.getUniqueId());
+        if (gui != null && gui.isReopening()) return;
         unregisterGUI(player);
     }
 }
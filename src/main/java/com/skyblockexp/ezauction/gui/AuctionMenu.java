@@ -4,11 +4,13 @@ import com.skyblockexp.ezauction.AuctionListing;
 import com.skyblockexp.ezauction.AuctionManager;
 import com.skyblockexp.ezauction.AuctionOperationResult;
 import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.AuctionPage;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionService;
 import com.skyblockexp.ezauction.compat.ItemTagStorage;
 import com.skyblockexp.ezauction.config.AuctionMenuConfiguration;
 import com.skyblockexp.ezauction.config.AuctionMessageConfiguration;
 import com.skyblockexp.ezauction.config.AuctionValueConfiguration;
+import com.skyblockexp.ezauction.index.ItemSearchTerms;
 import com.skyblockexp.ezauction.util.DateUtil;
 import com.skyblockexp.ezauction.util.ItemValueProvider;
 import java.time.Duration;
@@ -16,7 +18,6 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
@@ -30,7 +31,6 @@ import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
-import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -43,7 +43,6 @@ import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.inventory.meta.EnchantmentStorageMeta;
 import org.bukkit.plugin.java.JavaPlugin;
 import java.lang.reflect.Method;
 
@@ -179,40 +178,33 @@ public class AuctionMenu implements Listener {
         String searchQuery = getSearchQuery(playerId);
         String normalizedQuery = searchQuery != null ? searchQuery.toLowerCase(Locale.ENGLISH) : null;
 
-        List<AuctionListing> listings;
+        ListingSort listingSort = getListingSort(playerId);
+        OrderSort orderSort = getOrderSort(playerId);
+        int entriesPerPage = Math.max(1, listingsPerPage);
+        int requestedOffset = Math.max(0, page) * entriesPerPage;
+
+        AuctionPage<AuctionListing> listingPage;
         if (view == BrowserView.LISTINGS) {
-            listings = new ArrayList<>(auctionManager.listActiveListings());
+            listingPage = auctionManager.pageListings(listingSort.delegate(), normalizedQuery, requestedOffset, entriesPerPage);
         } else if (view == BrowserView.TEAM_LISTINGS) {
-            listings = new ArrayList<>(auctionManager.listActiveTeamListings(player.getUniqueId()));
+            listingPage = auctionManager.pageTeamListings(playerId, listingSort.delegate(), normalizedQuery,
+                    requestedOffset, entriesPerPage);
         } else {
-            listings = Collections.emptyList();
+            listingPage = AuctionPage.empty();
         }
         if (view == BrowserView.LISTINGS && auctionManager != null && auctionManager.getConfiguration() != null && auctionManager.getConfiguration().debug()) {
-            System.out.println("[EzAuction][DEBUG] AuctionMenu.openBrowser: listings.size() = " + listings.size() + ", listings = " + listings);
-        }
-        if (view == BrowserView.LISTINGS || view == BrowserView.TEAM_LISTINGS) {
-            filterListings(listings, normalizedQuery);
-        }
-        List<AuctionOrder> orders = view == BrowserView.ORDERS
-                ? new ArrayList<>(auctionManager.listActiveOrders())
-                : Collections.emptyList();
-        if (view == BrowserView.ORDERS) {
-            filterOrders(orders, normalizedQuery);
+            System.out.println("[EzAuction][DEBUG] AuctionMenu.openBrowser: listings.size() = " + listingPage.totalCount() + ", page = " + listingPage.entries());
         }
+        AuctionPage<AuctionOrder> orderPage = view == BrowserView.ORDERS
+                ? auctionManager.pageOrders(orderSort.delegate(), normalizedQuery, requestedOffset, entriesPerPage)
+                : AuctionPage.empty();
+        List<AuctionListing> listings = listingPage.entries();
+        List<AuctionOrder> orders = orderPage.entries();
 
-        ListingSort listingSort = getListingSort(playerId);
-        OrderSort orderSort = getOrderSort(playerId);
-        if (view == BrowserView.LISTINGS || view == BrowserView.TEAM_LISTINGS) {
-            listingSort.sort(listings);
-        }
-        if (view == BrowserView.ORDERS) {
-            orderSort.sort(orders);
-        }
-
-        int totalEntries = (view == BrowserView.LISTINGS || view == BrowserView.TEAM_LISTINGS) ? listings.size() : orders.size();
-        int entriesPerPage = Math.max(1, listingsPerPage);
+        AuctionPage<?> currentEntries = (view == BrowserView.LISTINGS || view == BrowserView.TEAM_LISTINGS) ? listingPage : orderPage;
+        int totalEntries = currentEntries.totalCount();
         int totalPages = Math.max(1, (int) Math.ceil(totalEntries / (double) entriesPerPage));
-        int currentPage = Math.max(0, Math.min(page, totalPages - 1));
+        int currentPage = currentEntries.offset() / entriesPerPage;
 
         BrowserMenuHolder holder = new BrowserMenuHolder(playerId, currentPage, view);
         String title = formatBrowserTitle(player, view, currentPage, totalPages);
@@ -221,9 +213,7 @@ public class AuctionMenu implements Listener {
 
         applyFiller(inventory, browserFiller);
 
-        int startIndex = currentPage * entriesPerPage;
-        int endIndex = Math.min(startIndex + entriesPerPage, totalEntries);
-        if (startIndex >= endIndex) {
+        if (currentEntries.isEmpty()) {
             boolean searching = normalizedQuery != null;
             String emptyTitle;
             List<String> lore;
@@ -247,7 +237,7 @@ public class AuctionMenu implements Listener {
             }
         } else {
             int slot = 0;
-            for (int index = startIndex; index < endIndex; index++) {
+            for (int index = 0; index < currentEntries.entries().size(); index++) {
                 if (view == BrowserView.LISTINGS || view == BrowserView.TEAM_LISTINGS) {
                     AuctionListing listing = listings.get(index);
                     ItemStack icon = decorateListing(listing, playerId);
@@ -1310,194 +1300,6 @@ public class AuctionMenu implements Listener {
         return trimmed;
     }
 
-    private void filterListings(List<AuctionListing> listings, String normalizedQuery) {
-        if (listings == null || listings.isEmpty() || normalizedQuery == null || normalizedQuery.isEmpty()) {
-            return;
-        }
-        listings.removeIf(listing -> listing == null || !itemMatchesQuery(listing.item(), normalizedQuery));
-    }
-
-    private void filterOrders(List<AuctionOrder> orders, String normalizedQuery) {
-        if (orders == null || orders.isEmpty() || normalizedQuery == null || normalizedQuery.isEmpty()) {
-            return;
-        }
-        orders.removeIf(order -> order == null || !itemMatchesQuery(order.requestedItem(), normalizedQuery));
-    }
-
-    private boolean itemMatchesQuery(ItemStack item, String normalizedQuery) {
-        if (item == null || item.getType() == Material.AIR || normalizedQuery == null || normalizedQuery.isEmpty()) {
-            return false;
-        }
-        ItemMeta meta = item.getItemMeta();
-        if (meta != null) {
-            String displayName = meta.hasDisplayName() ? normalizeText(meta.getDisplayName()) : null;
-            if (displayName != null && displayName.contains(normalizedQuery)) {
-                return true;
-            }
-            String localized = normalizeText(resolveLocalizedName(meta));
-            if (localized != null && localized.contains(normalizedQuery)) {
-                return true;
-            }
-            if (enchantmentsMatch(meta, normalizedQuery)) {
-                return true;
-            }
-        }
-        if (!item.getEnchantments().isEmpty() && enchantmentMatches(item.getEnchantments(), normalizedQuery)) {
-            return true;
-        }
-        String materialName = normalizeMaterialName(item.getType());
-        return materialName.contains(normalizedQuery);
-    }
-
-    private boolean enchantmentsMatch(ItemMeta meta, String normalizedQuery) {
-        if (meta == null || normalizedQuery == null || normalizedQuery.isEmpty()) {
-            return false;
-        }
-        if (meta.hasEnchants() && enchantmentMatches(meta.getEnchants(), normalizedQuery)) {
-            return true;
-        }
-        if (meta instanceof EnchantmentStorageMeta storage
-                && storage.hasStoredEnchants()
-                && enchantmentMatches(storage.getStoredEnchants(), normalizedQuery)) {
-            return true;
-        }
-        return false;
-    }
-
-    private boolean enchantmentMatches(Map<Enchantment, Integer> enchantments, String normalizedQuery) {
-        if (enchantments == null || enchantments.isEmpty() || normalizedQuery == null || normalizedQuery.isEmpty()) {
-            return false;
-        }
-        for (Map.Entry<Enchantment, Integer> entry : enchantments.entrySet()) {
-            if (enchantmentMatches(entry.getKey(), entry.getValue(), normalizedQuery)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean enchantmentMatches(Enchantment enchantment, int level, String normalizedQuery) {
-        if (enchantment == null || normalizedQuery == null || normalizedQuery.isEmpty()) {
-            return false;
-        }
-        String keyName = resolveEnchantmentKey(enchantment);
-        if (matchesEnchantmentNameVariant(keyName, level, normalizedQuery)) {
-            return true;
-        }
-        if (matchesEnchantmentNameVariant(keyName != null ? keyName.replace('_', ' ') : null, level, normalizedQuery)) {
-            return true;
-        }
-        return false;
-    }
-
-    private String resolveEnchantmentKey(Enchantment enchantment) {
-        if (enchantment == null) {
-            return null;
-        }
-        try {
-            Method getKey = Enchantment.class.getMethod("getKey");
-            Object key = getKey.invoke(enchantment);
-            return key != null ? key.toString() : null;
-        } catch (NoSuchMethodException ex) {
-            // Fallback to legacy getName
-        } catch (Exception ex) {
-            return null;
-        }
-        try {
-            Method getName = Enchantment.class.getMethod("getName");
-            Object name = getName.invoke(enchantment);
-            return name != null ? name.toString() : null;
-        } catch (Exception ex) {
-            return null;
-        }
-    }
-
-    private static String resolveLocalizedName(ItemMeta meta) {
-        if (meta == null) {
-            return null;
-        }
-        try {
-            Method hasLocalizedName = meta.getClass().getMethod("hasLocalizedName");
-            Object has = hasLocalizedName.invoke(meta);
-            if (!(has instanceof Boolean) || !(Boolean) has) {
-                return null;
-            }
-            Method getLocalizedName = meta.getClass().getMethod("getLocalizedName");
-            Object name = getLocalizedName.invoke(meta);
-            return name != null ? name.toString() : null;
-        } catch (NoSuchMethodException ex) {
-            return null;
-        } catch (Exception ex) {
-            return null;
-        }
-    }
-
-    private boolean matchesEnchantmentNameVariant(String name, int level, String normalizedQuery) {
-        if (name == null || normalizedQuery == null || normalizedQuery.isEmpty()) {
-            return false;
-        }
-        String normalizedName = name.toLowerCase(Locale.ENGLISH).trim();
-        if (normalizedName.isEmpty()) {
-            return false;
-        }
-        if (normalizedName.contains(normalizedQuery)) {
-            return true;
-        }
-        if (level > 0) {
-            String numeric = normalizedName + " " + level;
-            if (numeric.contains(normalizedQuery)) {
-                return true;
-            }
-            String roman = toRomanNumeral(level);
-            if (!roman.isEmpty()) {
-                String romanTerm = normalizedName + " " + roman.toLowerCase(Locale.ENGLISH);
-                if (romanTerm.contains(normalizedQuery)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private static String toRomanNumeral(int number) {
-        if (number <= 0) {
-            return "";
-        }
-        int[] values = {1000, 900, 500, 400, 100, 90, 50, 40, 10, 9, 5, 4, 1};
-        String[] numerals = {"M", "CM", "D", "CD", "C", "XC", "L", "XL", "X", "IX", "V", "IV", "I"};
-        int remaining = number;
-        StringBuilder builder = new StringBuilder();
-        for (int index = 0; index < values.length && remaining > 0; index++) {
-            while (remaining >= values[index]) {
-                builder.append(numerals[index]);
-                remaining -= values[index];
-            }
-        }
-        return builder.toString();
-    }
-
-    private static String normalizeText(String value) {
-        if (value == null) {
-            return null;
-        }
-        String stripped = ChatColor.stripColor(value);
-        if (stripped == null) {
-            stripped = value;
-        }
-        String trimmed = stripped.trim();
-        if (trimmed.isEmpty()) {
-            return null;
-        }
-        return trimmed.toLowerCase(Locale.ENGLISH);
-    }
-
-    private static String normalizeMaterialName(Material material) {
-        if (material == null) {
-            return "";
-        }
-        return material.name().replace('_', ' ').toLowerCase(Locale.ENGLISH);
-    }
-
     private static String listingItemSortKey(AuctionListing listing) {
         return listing == null ? "" : itemSortKey(listing.item());
     }
@@ -1529,20 +1331,20 @@ public class AuctionMenu implements Listener {
         ItemMeta meta = item.getItemMeta();
         if (meta != null) {
             if (meta.hasDisplayName()) {
-                String normalized = normalizeText(meta.getDisplayName());
+                String normalized = ItemSearchTerms.normalizeText(meta.getDisplayName());
                 if (normalized != null) {
                     return normalized;
                 }
             }
-            String localizedName = resolveLocalizedName(meta);
+            String localizedName = ItemSearchTerms.resolveLocalizedName(meta);
             if (localizedName != null) {
-                String normalized = normalizeText(localizedName);
+                String normalized = ItemSearchTerms.normalizeText(localizedName);
                 if (normalized != null) {
                     return normalized;
                 }
             }
         }
-        return normalizeMaterialName(item.getType());
+        return ItemSearchTerms.normalizeMaterialName(item.getType());
     }
 
     private String formatSearchQueryForLore(String query) {
@@ -1602,6 +1404,10 @@ public class AuctionMenu implements Listener {
             com.skyblockexp.ezauction.gui.ListingSort.valueOf(name()).sort(listings);
         }
 
+        public com.skyblockexp.ezauction.gui.ListingSort delegate() {
+            return com.skyblockexp.ezauction.gui.ListingSort.valueOf(name());
+        }
+
         public ListingSort next() {
             return ListingSort.valueOf(com.skyblockexp.ezauction.gui.ListingSort.valueOf(name()).next().name());
         }
@@ -1629,6 +1435,10 @@ public class AuctionMenu implements Listener {
             com.skyblockexp.ezauction.gui.OrderSort.valueOf(name()).sort(orders);
         }
 
+        public com.skyblockexp.ezauction.gui.OrderSort delegate() {
+            return com.skyblockexp.ezauction.gui.OrderSort.valueOf(name());
+        }
+
         public OrderSort next() {
             return OrderSort.valueOf(com.skyblockexp.ezauction.gui.OrderSort.valueOf(name()).next().name());
         }
@@ -1,55 +1,57 @@
 package com.skyblockexp.ezauction.gui;
 
 import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionSort;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
-public enum ListingSort {
-    ENDING_SOON("Ending Soon", Comparator.comparingLong(AuctionListing::expiryEpochMillis)
-            .thenComparingDouble(AuctionListing::price)
-            .thenComparing(AuctionMenuUtils::listingItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparing(AuctionListing::id, String.CASE_INSENSITIVE_ORDER)),
-    NEWLY_LISTED("Newly Listed", Comparator.comparingLong(AuctionListing::expiryEpochMillis)
+public enum ListingSort implements AuctionSort<AuctionListing> {
+    ENDING_SOON("Ending Soon", Comparator.comparingLong(SortKey::expiry)
+            .thenComparingDouble(SortKey::price)
+            .thenComparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    NEWLY_LISTED("Newly Listed", Comparator.comparingLong(SortKey::expiry)
             .reversed()
-            .thenComparing(AuctionMenuUtils::listingItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparingDouble(AuctionListing::price)
-            .thenComparing(AuctionListing::id, String.CASE_INSENSITIVE_ORDER)),
-    PRICE_LOW_HIGH("Lowest Price", Comparator.comparingDouble(AuctionListing::price)
-            .thenComparing(AuctionMenuUtils::listingItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparingLong(AuctionListing::expiryEpochMillis)
-            .thenComparing(AuctionListing::id, String.CASE_INSENSITIVE_ORDER)),
-    PRICE_HIGH_LOW("Highest Price", Comparator.comparingDouble(AuctionListing::price)
+            .thenComparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingDouble(SortKey::price)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    PRICE_LOW_HIGH("Lowest Price", Comparator.comparingDouble(SortKey::price)
+            .thenComparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingLong(SortKey::expiry)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    PRICE_HIGH_LOW("Highest Price", Comparator.comparingDouble(SortKey::price)
             .reversed()
-            .thenComparing(AuctionMenuUtils::listingItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparingLong(AuctionListing::expiryEpochMillis)
-            .thenComparing(AuctionListing::id, String.CASE_INSENSITIVE_ORDER)),
-    QUANTITY_HIGH_LOW("Quantity (High-Low)", Comparator.comparingInt(AuctionMenuUtils::listingQuantity)
+            .thenComparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingLong(SortKey::expiry)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    QUANTITY_HIGH_LOW("Quantity (High-Low)", Comparator.comparingInt(SortKey::quantity)
             .reversed()
-            .thenComparing(AuctionMenuUtils::listingItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparingDouble(AuctionListing::price)
-            .thenComparing(AuctionListing::id, String.CASE_INSENSITIVE_ORDER)),
-    QUANTITY_LOW_HIGH("Quantity (Low-High)", Comparator.comparingInt(AuctionMenuUtils::listingQuantity)
-            .thenComparing(AuctionMenuUtils::listingItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparingDouble(AuctionListing::price)
-            .thenComparingLong(AuctionListing::expiryEpochMillis)
-            .thenComparing(AuctionListing::id, String.CASE_INSENSITIVE_ORDER)),
-    ITEM_A_Z("Item Name (A-Z)", Comparator.comparing(AuctionMenuUtils::listingItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparingDouble(AuctionListing::price)
-            .thenComparingLong(AuctionListing::expiryEpochMillis)
-            .thenComparing(AuctionListing::id, String.CASE_INSENSITIVE_ORDER)),
-    ITEM_Z_A("Item Name (Z-A)", Comparator.comparing(AuctionMenuUtils::listingItemSortKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingDouble(SortKey::price)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    QUANTITY_LOW_HIGH("Quantity (Low-High)", Comparator.comparingInt(SortKey::quantity)
+            .thenComparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingDouble(SortKey::price)
+            .thenComparingLong(SortKey::expiry)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    ITEM_A_Z("Item Name (A-Z)", Comparator.comparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingDouble(SortKey::price)
+            .thenComparingLong(SortKey::expiry)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    ITEM_Z_A("Item Name (Z-A)", Comparator.comparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
             .reversed()
-            .thenComparingDouble(AuctionListing::price)
-            .thenComparingLong(AuctionListing::expiryEpochMillis)
-            .thenComparing(AuctionListing::id, String.CASE_INSENSITIVE_ORDER));
+            .thenComparingDouble(SortKey::price)
+            .thenComparingLong(SortKey::expiry)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER));
 
     private static final ListingSort[] VALUES = values();
 
     private final String label;
-    private final Comparator<AuctionListing> comparator;
+    private final Comparator<SortKey> comparator;
 
-    ListingSort(String label, Comparator<AuctionListing> comparator) {
+    ListingSort(String label, Comparator<SortKey> comparator) {
         this.label = label;
         this.comparator = comparator;
     }
@@ -58,11 +60,33 @@ public enum ListingSort {
         return label;
     }
 
+    /**
+     * Sorts the listings in place. The item name and quantity of each listing are read once up
+     * front rather than in every comparison.
+     */
+    @Override
     public void sort(List<AuctionListing> listings) {
         if (listings == null || listings.size() <= 1) {
             return;
         }
-        listings.sort(comparator);
+        List<SortKey> keys = new ArrayList<>(listings.size());
+        for (AuctionListing listing : listings) {
+            keys.add(SortKey.of(listing));
+        }
+        keys.sort(comparator);
+        for (int index = 0; index < keys.size(); index++) {
+            listings.set(index, keys.get(index).listing());
+        }
+    }
+
+    @Override
+    public boolean priceOrdered() {
+        return this == PRICE_LOW_HIGH || this == PRICE_HIGH_LOW;
+    }
+
+    @Override
+    public boolean highestFirst() {
+        return this == PRICE_HIGH_LOW;
     }
 
     public ListingSort next() {
@@ -72,4 +96,24 @@ public enum ListingSort {
     public ListingSort previous() {
         return VALUES[(ordinal() + VALUES.length - 1) % VALUES.length];
     }
+
+    private record SortKey(AuctionListing listing, String itemKey, int quantity) {
+
+        static SortKey of(AuctionListing listing) {
+            return new SortKey(listing, AuctionMenuUtils.listingItemSortKey(listing),
+                    AuctionMenuUtils.listingQuantity(listing));
+        }
+
+        long expiry() {
+            return listing.expiryEpochMillis();
+        }
+
+        double price() {
+            return listing.price();
+        }
+
+        String id() {
+            return listing.id();
+        }
+    }
 }
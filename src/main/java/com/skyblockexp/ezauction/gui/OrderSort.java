@@ -1,55 +1,57 @@
 package com.skyblockexp.ezauction.gui;
 
 import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.AuctionSort;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
-public enum OrderSort {
-    ENDING_SOON("Ending Soon", Comparator.comparingLong(AuctionOrder::expiryEpochMillis)
-            .thenComparingDouble(AuctionOrder::offeredPrice)
-            .thenComparing(AuctionMenuUtils::orderItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparing(AuctionOrder::id, String.CASE_INSENSITIVE_ORDER)),
-    NEWLY_POSTED("Newly Posted", Comparator.comparingLong(AuctionOrder::expiryEpochMillis)
+public enum OrderSort implements AuctionSort<AuctionOrder> {
+    ENDING_SOON("Ending Soon", Comparator.comparingLong(SortKey::expiry)
+            .thenComparingDouble(SortKey::price)
+            .thenComparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    NEWLY_POSTED("Newly Posted", Comparator.comparingLong(SortKey::expiry)
             .reversed()
-            .thenComparing(AuctionMenuUtils::orderItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparingDouble(AuctionOrder::offeredPrice)
-            .thenComparing(AuctionOrder::id, String.CASE_INSENSITIVE_ORDER)),
-    PRICE_HIGH_LOW("Highest Offer", Comparator.comparingDouble(AuctionOrder::offeredPrice)
+            .thenComparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingDouble(SortKey::price)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    PRICE_HIGH_LOW("Highest Offer", Comparator.comparingDouble(SortKey::price)
             .reversed()
-            .thenComparing(AuctionMenuUtils::orderItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparingLong(AuctionOrder::expiryEpochMillis)
-            .thenComparing(AuctionOrder::id, String.CASE_INSENSITIVE_ORDER)),
-    PRICE_LOW_HIGH("Lowest Offer", Comparator.comparingDouble(AuctionOrder::offeredPrice)
-            .thenComparing(AuctionMenuUtils::orderItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparingLong(AuctionOrder::expiryEpochMillis)
-            .thenComparing(AuctionOrder::id, String.CASE_INSENSITIVE_ORDER)),
-    QUANTITY_HIGH_LOW("Quantity (High-Low)", Comparator.comparingInt(AuctionMenuUtils::orderQuantity)
+            .thenComparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingLong(SortKey::expiry)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    PRICE_LOW_HIGH("Lowest Offer", Comparator.comparingDouble(SortKey::price)
+            .thenComparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingLong(SortKey::expiry)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    QUANTITY_HIGH_LOW("Quantity (High-Low)", Comparator.comparingInt(SortKey::quantity)
             .reversed()
-            .thenComparing(AuctionMenuUtils::orderItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparingDouble(AuctionOrder::offeredPrice)
-            .thenComparing(AuctionOrder::id, String.CASE_INSENSITIVE_ORDER)),
-    QUANTITY_LOW_HIGH("Quantity (Low-High)", Comparator.comparingInt(AuctionMenuUtils::orderQuantity)
-            .thenComparing(AuctionMenuUtils::orderItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparingDouble(AuctionOrder::offeredPrice)
-            .thenComparingLong(AuctionOrder::expiryEpochMillis)
-            .thenComparing(AuctionOrder::id, String.CASE_INSENSITIVE_ORDER)),
-    ITEM_A_Z("Item Name (A-Z)", Comparator.comparing(AuctionMenuUtils::orderItemSortKey, String.CASE_INSENSITIVE_ORDER)
-            .thenComparingDouble(AuctionOrder::offeredPrice)
-            .thenComparingLong(AuctionOrder::expiryEpochMillis)
-            .thenComparing(AuctionOrder::id, String.CASE_INSENSITIVE_ORDER)),
-    ITEM_Z_A("Item Name (Z-A)", Comparator.comparing(AuctionMenuUtils::orderItemSortKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingDouble(SortKey::price)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    QUANTITY_LOW_HIGH("Quantity (Low-High)", Comparator.comparingInt(SortKey::quantity)
+            .thenComparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingDouble(SortKey::price)
+            .thenComparingLong(SortKey::expiry)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    ITEM_A_Z("Item Name (A-Z)", Comparator.comparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
+            .thenComparingDouble(SortKey::price)
+            .thenComparingLong(SortKey::expiry)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER)),
+    ITEM_Z_A("Item Name (Z-A)", Comparator.comparing(SortKey::itemKey, String.CASE_INSENSITIVE_ORDER)
             .reversed()
-            .thenComparingDouble(AuctionOrder::offeredPrice)
-            .thenComparingLong(AuctionOrder::expiryEpochMillis)
-            .thenComparing(AuctionOrder::id, String.CASE_INSENSITIVE_ORDER));
+            .thenComparingDouble(SortKey::price)
+            .thenComparingLong(SortKey::expiry)
+            .thenComparing(SortKey::id, String.CASE_INSENSITIVE_ORDER));
 
     private static final OrderSort[] VALUES = values();
 
     private final String label;
-    private final Comparator<AuctionOrder> comparator;
+    private final Comparator<SortKey> comparator;
 
-    OrderSort(String label, Comparator<AuctionOrder> comparator) {
+    OrderSort(String label, Comparator<SortKey> comparator) {
         this.label = label;
         this.comparator = comparator;
     }
@@ -58,11 +60,33 @@ public enum OrderSort {
         return label;
     }
 
+    /**
+     * Sorts the orders in place. The item name and quantity of each order are read once up front
+     * rather than in every comparison.
+     */
+    @Override
     public void sort(List<AuctionOrder> orders) {
         if (orders == null || orders.size() <= 1) {
             return;
         }
-        orders.sort(comparator);
+        List<SortKey> keys = new ArrayList<>(orders.size());
+        for (AuctionOrder order : orders) {
+            keys.add(SortKey.of(order));
+        }
+        keys.sort(comparator);
+        for (int index = 0; index < keys.size(); index++) {
+            orders.set(index, keys.get(index).order());
+        }
+    }
+
+    @Override
+    public boolean priceOrdered() {
+        return this == PRICE_LOW_HIGH || this == PRICE_HIGH_LOW;
+    }
+
+    @Override
+    public boolean highestFirst() {
+        return this == PRICE_HIGH_LOW;
     }
 
     public OrderSort next() {
@@ -72,4 +96,23 @@ public enum OrderSort {
     public OrderSort previous() {
         return VALUES[(ordinal() + VALUES.length - 1) % VALUES.length];
     }
+
+    private record SortKey(AuctionOrder order, String itemKey, int quantity) {
+
+        static SortKey of(AuctionOrder order) {
+            return new SortKey(order, AuctionMenuUtils.orderItemSortKey(order), AuctionMenuUtils.orderQuantity(order));
+        }
+
+        long expiry() {
+            return order.expiryEpochMillis();
+        }
+
+        double price() {
+            return order.offeredPrice();
+        }
+
+        String id() {
+            return order.id();
+        }
+    }
 }
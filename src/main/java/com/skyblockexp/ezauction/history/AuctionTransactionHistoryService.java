@@ -1,12 +1,13 @@
 
 package com.skyblockexp.ezauction.history;
 
-import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionRecord;
 
 import com.skyblockexp.ezauction.AuctionListing;
 import com.skyblockexp.ezauction.AuctionOrder;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionHistory;
 import com.skyblockexp.ezauction.config.AuctionBackendMessages;
+import com.skyblockexp.ezauction.util.EconomyUtils;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -29,7 +30,6 @@ public class AuctionTransactionHistoryService {
     public void recordListingTransactionHistory(AuctionListing listing, Object buyer) {
         if (listing == null || buyer == null) return;
         long timestamp = System.currentTimeMillis();
-        org.bukkit.inventory.ItemStack item = listing.item();
         UUID buyerId;
         String buyerName;
         if (buyer instanceof Player) {
@@ -44,22 +44,15 @@ public class AuctionTransactionHistoryService {
         }
         org.bukkit.OfflinePlayer seller = plugin.getServer().getOfflinePlayer(listing.sellerId());
         String sellerName = seller != null && seller.getName() != null ? seller.getName() : fallbackMessages.unknownName();
-        transactionHistory.recordTransaction(
-                AuctionTransactionType.SELL,
+        // The record shares the listing's item data, so the sold item is neither copied nor serialized again.
+        transactionHistory.recordSale(AuctionTransactionRecord.create(
                 listing.sellerId(),
+                sellerName,
                 buyerId,
                 buyerName,
-                listing.price(),
-                item,
-                timestamp);
-        transactionHistory.recordTransaction(
-                AuctionTransactionType.BUY,
-                buyerId,
-                listing.sellerId(),
-                sellerName,
-                listing.price(),
-                item,
-                timestamp);
+                EconomyUtils.normalizeCurrency(listing.price()),
+                timestamp,
+                listing.itemData()));
     }
 
     public void recordOrderTransactionHistory(AuctionOrder order, java.util.UUID sellerId, String sellerName, org.bukkit.inventory.ItemStack deliveredItem) {
@@ -0,0 +1,117 @@
+package com.skyblockexp.ezauction.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over the {@link ItemSearchTerms} of the entries of an {@link IndexedAuctionMap}.
+ *
+ * <p>A query of three or more characters is answered by intersecting the id sets of its
+ * trigrams and verifying the few remaining candidates against their cached terms. Shorter
+ * queries scan the cached terms. Entries are indexed with terms their map computed before it
+ * took its lock, so neither adding an entry nor searching computes terms under this index's lock.</p>
+ */
+final class AuctionSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<String, List<String>> termsById = new HashMap<>();
+    private final Map<String, Set<String>> idsByGram = new HashMap<>();
+    private final Object lock = new Object();
+
+    /**
+     * Indexes an entry under its {@link ItemSearchTerms}.
+     */
+    void add(String id, List<String> terms) {
+        List<String> indexed = terms != null ? terms : List.of();
+        synchronized (lock) {
+            termsById.put(id, indexed);
+            for (String gram : grams(indexed)) {
+                idsByGram.computeIfAbsent(gram, unused -> new HashSet<>()).add(id);
+            }
+        }
+    }
+
+    void remove(String id) {
+        synchronized (lock) {
+            List<String> terms = termsById.remove(id);
+            if (terms == null) {
+                return;
+            }
+            for (String gram : grams(terms)) {
+                Set<String> ids = idsByGram.get(gram);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    idsByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    void clear() {
+        synchronized (lock) {
+            termsById.clear();
+            idsByGram.clear();
+        }
+    }
+
+    /**
+     * Returns the ids of the entries whose item matches {@code normalizedQuery}.
+     */
+    Set<String> search(String normalizedQuery) {
+        if (normalizedQuery == null || normalizedQuery.isEmpty()) {
+            return Set.of();
+        }
+        synchronized (lock) {
+            Set<String> result = new HashSet<>();
+            if (normalizedQuery.length() < GRAM_LENGTH) {
+                for (Map.Entry<String, List<String>> entry : termsById.entrySet()) {
+                    if (ItemSearchTerms.matches(entry.getValue(), normalizedQuery)) {
+                        result.add(entry.getKey());
+                    }
+                }
+                return result;
+            }
+            List<Set<String>> postings = new ArrayList<>();
+            for (String gram : grams(List.of(normalizedQuery))) {
+                Set<String> ids = idsByGram.get(gram);
+                if (ids == null) {
+                    return result;
+                }
+                postings.add(ids);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+            Set<String> smallest = postings.get(0);
+            List<Set<String>> others = postings.subList(1, postings.size());
+            for (String id : smallest) {
+                if (containedInAll(others, id) && ItemSearchTerms.matches(termsById.get(id), normalizedQuery)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static boolean containedInAll(List<Set<String>> sets, String id) {
+        for (Set<String> set : sets) {
+            if (!set.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> grams(List<String> terms) {
+        Set<String> grams = new HashSet<>();
+        for (String term : terms) {
+            for (int start = 0; start + GRAM_LENGTH <= term.length(); start++) {
+                grams.add(term.substring(start, start + GRAM_LENGTH));
+            }
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,151 @@
+package com.skyblockexp.ezauction.index;
+
+import com.skyblockexp.ezauction.ItemFingerprint;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Index of the entries of an {@link IndexedAuctionMap} by {@link ItemFingerprint}, each bucket
+ * ordered by price per item.
+ *
+ * <p>Finding the best entries for an item is a hash lookup of its fingerprint followed by a range
+ * query on the bucket. Entries are indexed on the first lookup after they were added, because
+ * computing a fingerprint of an item that was not verified on load deserializes it.</p>
+ *
+ * @param <V> the listing or order type
+ */
+final class FingerprintIndex<V> {
+
+    private final Function<V, ItemFingerprint> fingerprint;
+    private final ToDoubleFunction<V> unitPrice;
+    private final Map<ItemFingerprint, NavigableSet<UnitPriceKey>> idsByFingerprint = new HashMap<>();
+    private final Map<String, Indexed> indexedById = new HashMap<>();
+    private final Set<String> pending = new LinkedHashSet<>();
+    private final Object lock = new Object();
+
+    FingerprintIndex(Function<V, ItemFingerprint> fingerprint, ToDoubleFunction<V> unitPrice) {
+        this.fingerprint = fingerprint;
+        this.unitPrice = unitPrice;
+    }
+
+    /**
+     * Schedules the entry for indexing on the next lookup.
+     */
+    void add(String id) {
+        synchronized (lock) {
+            pending.add(id);
+        }
+    }
+
+    void remove(String id) {
+        synchronized (lock) {
+            pending.remove(id);
+            Indexed indexed = indexedById.remove(id);
+            if (indexed == null) {
+                return;
+            }
+            NavigableSet<UnitPriceKey> bucket = idsByFingerprint.get(indexed.fingerprint());
+            if (bucket != null && bucket.remove(indexed.key()) && bucket.isEmpty()) {
+                idsByFingerprint.remove(indexed.fingerprint());
+            }
+        }
+    }
+
+    void clear() {
+        synchronized (lock) {
+            pending.clear();
+            indexedById.clear();
+            idsByFingerprint.clear();
+        }
+    }
+
+    /**
+     * Returns the ids of the entries with {@code itemFingerprint} whose price per item lies between
+     * {@code minUnitPrice} and {@code maxUnitPrice} inclusive, cheapest first unless {@code descending}.
+     *
+     * @param entries resolves a pending entry by id, or {@code null} if it is gone
+     */
+    List<String> lookup(ItemFingerprint itemFingerprint, double minUnitPrice, double maxUnitPrice, boolean descending,
+            Function<String, V> entries) {
+        synchronized (lock) {
+            indexPending(entries);
+            NavigableSet<UnitPriceKey> bucket = idsByFingerprint.get(itemFingerprint);
+            if (bucket == null) {
+                return List.of();
+            }
+            NavigableSet<UnitPriceKey> range = bucket.subSet(UnitPriceKey.lowest(minUnitPrice), true,
+                    UnitPriceKey.highest(maxUnitPrice), true);
+            List<String> ids = new ArrayList<>(range.size());
+            for (UnitPriceKey key : descending ? range.descendingSet() : range) {
+                ids.add(key.id());
+            }
+            return ids;
+        }
+    }
+
+    private void indexPending(Function<String, V> entries) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (String id : pending) {
+            V entry = entries.apply(id);
+            if (entry == null) {
+                continue;
+            }
+            ItemFingerprint key = fingerprint.apply(entry);
+            if (key == null || key.isEmpty()) {
+                continue;
+            }
+            UnitPriceKey priceKey = new UnitPriceKey(unitPrice.applyAsDouble(entry), id);
+            indexedById.put(id, new Indexed(key, priceKey));
+            idsByFingerprint.computeIfAbsent(key, unused -> new TreeSet<>()).add(priceKey);
+        }
+        pending.clear();
+    }
+
+    private record Indexed(ItemFingerprint fingerprint, UnitPriceKey key) {
+    }
+
+    /**
+     * Bucket key. A {@code null} id is a range bound that sorts before ({@link #lowest}) or after
+     * ({@link #highest}) every entry with the same price.
+     */
+    private record UnitPriceKey(double unitPrice, String id, boolean upperBound) implements Comparable<UnitPriceKey> {
+
+        private UnitPriceKey(double unitPrice, String id) {
+            this(unitPrice, id, false);
+        }
+
+        static UnitPriceKey lowest(double unitPrice) {
+            return new UnitPriceKey(unitPrice, null, false);
+        }
+
+        static UnitPriceKey highest(double unitPrice) {
+            return new UnitPriceKey(unitPrice, null, true);
+        }
+
+        @Override
+        public int compareTo(UnitPriceKey other) {
+            int byPrice = Double.compare(unitPrice, other.unitPrice);
+            if (byPrice != 0) {
+                return byPrice;
+            }
+            if (id == null || other.id == null) {
+                return Integer.compare(boundRank(), other.boundRank());
+            }
+            return id.compareTo(other.id);
+        }
+
+        private int boundRank() {
+            return id != null ? 0 : upperBound ? 1 : -1;
+        }
+    }
+}
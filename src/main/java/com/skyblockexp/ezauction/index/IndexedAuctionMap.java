@@ -0,0 +1,681 @@
+package com.skyblockexp.ezauction.index;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.ItemFingerprint;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Map of listings or orders by id that keeps secondary indexes from a seller, buyer or team to
+ * the ids of its entries.
+ *
+ * <p>The services share one map per data set, so every mutation path (creating, buying,
+ * cancelling, expiring and claiming, including removal through iterators of the map's views)
+ * updates the indexes together with the map. Mutations are serialized on the map's lock, which
+ * keeps conditional updates such as {@link #remove(Object, Object)} atomic across the map and its
+ * indexes. Reads never take that lock: {@link #get(Object)} and iteration go to the backing
+ * {@link ConcurrentHashMap}, the seller, buyer and team indexes hold copy-on-write id sets in
+ * concurrent maps, and the expiry and price orders are skip lists. A read that races a mutation
+ * may miss the entry being added or still see the one being removed, like the iterators of
+ * concurrent collections, but it never waits for a writer. Lookups resolve ids through the
+ * backing map, so they only ever return entries that were in the map during the call. Per-key id
+ * sets are small (one player's or team's entries), so copying one on write costs less than
+ * making every reader on the main thread wait for a writer on a load or storage thread.</p>
+ *
+ * <p>Entries are also kept ordered by expiry time, so the expiry task can take just the entries
+ * that are due instead of scanning the whole market, and by price, for best-price lookups and
+ * price-sorted browsing. An {@link AuctionSearchIndex} answers browser searches over the entries'
+ * items, and a {@link FingerprintIndex} finds the entries for a given item by price per item, for
+ * matching listings against buy orders. An
+ * entry's search terms are read before the map is locked; loaded items already carry them from
+ * the load pool, so indexing never decodes an item while holding the lock.</p>
+ *
+ * <p>Every mutation increments the map's {@link #version()}, which lets derived views such as
+ * the sorted browser snapshots of {@link VersionedViewCache} be reused until the data changes.</p>
+ *
+ * @param <V> the listing or order type
+ */
+public final class IndexedAuctionMap<V> extends AbstractMap<String, V> {
+
+    /**
+     * Secondary keys an {@link IndexedAuctionMap} can be indexed by.
+     */
+    public enum IndexKey {
+        SELLER,
+        BUYER,
+        TEAM
+    }
+
+    private final ConcurrentHashMap<String, V> entries = new ConcurrentHashMap<>();
+    private final Map<IndexKey, Function<V, UUID>> extractors;
+    private final Map<IndexKey, Map<UUID, Set<String>>> indexes = new EnumMap<>(IndexKey.class);
+    private final ToLongFunction<V> expiry;
+    private final NavigableSet<ExpiryKey> expiryOrder = new ConcurrentSkipListSet<>();
+    private final ToDoubleFunction<V> price;
+    private final NavigableSet<PriceKey> priceOrder = new ConcurrentSkipListSet<>();
+    private final Function<V, List<String>> searchTerms;
+    private final AuctionSearchIndex searchIndex = new AuctionSearchIndex();
+    private final FingerprintIndex<V> fingerprintIndex;
+    private final Object lock = new Object();
+    private volatile long version;
+    private Set<Map.Entry<String, V>> entrySet;
+
+    private IndexedAuctionMap(Map<IndexKey, Function<V, UUID>> extractors, ToLongFunction<V> expiry,
+            ToDoubleFunction<V> price, Function<V, List<String>> searchTerms, Function<V, ItemFingerprint> fingerprint,
+            ToDoubleFunction<V> unitPrice) {
+        this.extractors = new EnumMap<>(extractors);
+        this.expiry = expiry;
+        this.price = price;
+        this.searchTerms = searchTerms;
+        this.fingerprintIndex = new FingerprintIndex<>(fingerprint, unitPrice);
+        for (IndexKey key : this.extractors.keySet()) {
+            indexes.put(key, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Creates a listing map indexed by {@link IndexKey#SELLER} and {@link IndexKey#TEAM}.
+     */
+    public static IndexedAuctionMap<AuctionListing> listings() {
+        return new IndexedAuctionMap<>(Map.of(
+                IndexKey.SELLER, AuctionListing::sellerId,
+                IndexKey.TEAM, AuctionListing::teamId), AuctionListing::expiryEpochMillis, AuctionListing::price,
+                listing -> listing.itemData().searchTerms(), AuctionListing::fingerprint,
+                listing -> unitPrice(listing.price(), listing.item()));
+    }
+
+    /**
+     * Creates an order map indexed by {@link IndexKey#BUYER}.
+     */
+    public static IndexedAuctionMap<AuctionOrder> orders() {
+        return new IndexedAuctionMap<>(Map.of(IndexKey.BUYER, AuctionOrder::buyerId), AuctionOrder::expiryEpochMillis,
+                AuctionOrder::offeredPrice, order -> order.requestedItemData().searchTerms(), AuctionOrder::fingerprint,
+                order -> unitPrice(order.offeredPrice(), order.requestedItem()));
+    }
+
+    /**
+     * Returns the orders for items with {@code fingerprint} that offer at least
+     * {@code minUnitPrice} per item, highest offer per item first, using the fingerprint index if
+     * available. Equal fingerprints do not guarantee equal items, so callers confirm a match with
+     * {@link ItemStack#isSimilar(ItemStack)}.
+     */
+    public static List<AuctionOrder> ordersByFingerprint(Map<String, AuctionOrder> orders, ItemFingerprint fingerprint,
+            double minUnitPrice) {
+        if (orders == null || fingerprint == null || fingerprint.isEmpty()) {
+            return List.of();
+        }
+        if (orders instanceof IndexedAuctionMap<AuctionOrder> indexed) {
+            return indexed.byFingerprint(fingerprint, minUnitPrice, Double.MAX_VALUE, true);
+        }
+        List<AuctionOrder> result = new ArrayList<>();
+        for (AuctionOrder order : orders.values()) {
+            if (order != null && fingerprint.equals(order.fingerprint())
+                    && unitPrice(order.offeredPrice(), order.requestedItem()) >= minUnitPrice) {
+                result.add(order);
+            }
+        }
+        result.sort(Comparator.comparingDouble((AuctionOrder order) -> unitPrice(order.offeredPrice(), order.requestedItem()))
+                .thenComparing(AuctionOrder::id)
+                .reversed());
+        return result;
+    }
+
+    /**
+     * Returns {@code total} divided by the amount of {@code item}, treating a missing item as one.
+     */
+    public static double unitPrice(double total, ItemStack item) {
+        int amount = item != null ? Math.max(1, item.getAmount()) : 1;
+        return total / amount;
+    }
+
+    /**
+     * Returns the listings of a seller, using the index if {@code listings} is an indexed map and
+     * scanning it otherwise.
+     */
+    public static List<AuctionListing> listingsBySeller(Map<String, AuctionListing> listings, UUID sellerId) {
+        return lookup(listings, IndexKey.SELLER, AuctionListing::sellerId, sellerId);
+    }
+
+    /**
+     * Returns the team-scoped listings of a team, using the index if available.
+     */
+    public static List<AuctionListing> listingsByTeam(Map<String, AuctionListing> listings, UUID teamId) {
+        return lookup(listings, IndexKey.TEAM, AuctionListing::teamId, teamId);
+    }
+
+    /**
+     * Returns the orders of a buyer, using the index if available.
+     */
+    public static List<AuctionOrder> ordersByBuyer(Map<String, AuctionOrder> orders, UUID buyerId) {
+        return lookup(orders, IndexKey.BUYER, AuctionOrder::buyerId, buyerId);
+    }
+
+    /**
+     * Returns up to {@code limit} listings that expired before {@code now}, earliest first.
+     */
+    public static List<AuctionListing> expiredListings(Map<String, AuctionListing> listings, long now, int limit) {
+        return expired(listings, AuctionListing::expiryEpochMillis, now, limit);
+    }
+
+    /**
+     * Returns up to {@code limit} orders that expired before {@code now}, earliest first.
+     */
+    public static List<AuctionOrder> expiredOrders(Map<String, AuctionOrder> orders, long now, int limit) {
+        return expired(orders, AuctionOrder::expiryEpochMillis, now, limit);
+    }
+
+    /**
+     * Returns the {@link #version()} of {@code map}, or {@code -1} if it is not an indexed map and
+     * therefore not versioned.
+     */
+    public static long version(Map<String, ?> map) {
+        return map instanceof IndexedAuctionMap<?> indexed ? indexed.version() : -1L;
+    }
+
+    /**
+     * Returns the listings in price order, lowest first unless {@code descending}, using the price
+     * index if available. Ties are ordered by id.
+     */
+    public static Iterable<AuctionListing> listingsByPrice(Map<String, AuctionListing> listings, boolean descending) {
+        return byPrice(listings, AuctionListing::price, AuctionListing::id, descending);
+    }
+
+    /**
+     * Returns the orders in offered price order, lowest first unless {@code descending}, using the
+     * price index if available. Ties are ordered by id.
+     */
+    public static Iterable<AuctionOrder> ordersByPrice(Map<String, AuctionOrder> orders, boolean descending) {
+        return byPrice(orders, AuctionOrder::offeredPrice, AuctionOrder::id, descending);
+    }
+
+    /**
+     * Returns the ids of the listings whose item matches the lower-case {@code normalizedQuery},
+     * using the search index if available.
+     */
+    public static Set<String> searchListings(Map<String, AuctionListing> listings, String normalizedQuery) {
+        return search(listings, AuctionListing::item, normalizedQuery);
+    }
+
+    /**
+     * Returns the ids of the orders whose requested item matches the lower-case {@code normalizedQuery},
+     * using the search index if available.
+     */
+    public static Set<String> searchOrders(Map<String, AuctionOrder> orders, String normalizedQuery) {
+        return search(orders, AuctionOrder::requestedItem, normalizedQuery);
+    }
+
+    private static <V> Set<String> search(Map<String, V> map, Function<V, ItemStack> item, String normalizedQuery) {
+        if (map == null || normalizedQuery == null || normalizedQuery.isEmpty()) {
+            return Set.of();
+        }
+        if (map instanceof IndexedAuctionMap<?> indexed) {
+            return indexed.search(normalizedQuery);
+        }
+        Set<String> result = new HashSet<>();
+        for (Map.Entry<String, V> entry : map.entrySet()) {
+            if (entry.getValue() != null && ItemSearchTerms.matches(item.apply(entry.getValue()), normalizedQuery)) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Iterable<V> byPrice(Map<String, V> map, ToDoubleFunction<V> price, Function<V, String> id,
+            boolean descending) {
+        if (map == null) {
+            return List.of();
+        }
+        if (map instanceof IndexedAuctionMap<?> indexed) {
+            return ((IndexedAuctionMap<V>) indexed).byPrice(-Double.MAX_VALUE, Double.MAX_VALUE, descending);
+        }
+        List<V> result = new ArrayList<>();
+        for (V entry : map.values()) {
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        Comparator<V> order = Comparator.comparingDouble(price).thenComparing(id);
+        result.sort(descending ? order.reversed() : order);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> List<V> expired(Map<String, V> map, ToLongFunction<V> expiry, long now, int limit) {
+        if (map == null || limit <= 0) {
+            return List.of();
+        }
+        if (map instanceof IndexedAuctionMap<?> indexed) {
+            return ((IndexedAuctionMap<V>) indexed).expiredBefore(now, limit);
+        }
+        List<V> result = new ArrayList<>();
+        for (V entry : map.values()) {
+            if (entry != null && expiry.applyAsLong(entry) < now) {
+                result.add(entry);
+            }
+        }
+        result.sort(Comparator.comparingLong(expiry));
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> List<V> lookup(Map<String, V> map, IndexKey key, Function<V, UUID> extractor, UUID value) {
+        if (map == null || value == null) {
+            return List.of();
+        }
+        if (map instanceof IndexedAuctionMap<?> indexed && indexed.isIndexedBy(key)) {
+            return ((IndexedAuctionMap<V>) indexed).lookup(key, value);
+        }
+        List<V> result = new ArrayList<>();
+        for (V entry : map.values()) {
+            if (entry != null && value.equals(extractor.apply(entry))) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the entries whose {@code key} is {@code value}, in insertion order.
+     *
+     * @throws IllegalArgumentException if this map is not indexed by {@code key}
+     */
+    public List<V> lookup(IndexKey key, UUID value) {
+        Map<UUID, Set<String>> index = index(key);
+        if (value == null) {
+            return List.of();
+        }
+        Set<String> ids = index.get(value);
+        if (ids == null) {
+            return List.of();
+        }
+        List<V> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            V entry = entries.get(id);
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns up to {@code limit} entries whose expiry time is before {@code now}, earliest first.
+     * The entries stay in the map until they are removed.
+     */
+    public List<V> expiredBefore(long now, int limit) {
+        List<V> result = new ArrayList<>();
+        for (ExpiryKey key : expiryOrder) {
+            if (key.expiry() >= now || result.size() >= limit) {
+                break;
+            }
+            V entry = entries.get(key.id());
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids of the entries whose item matches the lower-case {@code normalizedQuery}.
+     */
+    public Set<String> search(String normalizedQuery) {
+        return searchIndex.search(normalizedQuery);
+    }
+
+    /**
+     * Returns the entries for items with {@code fingerprint} whose price per item lies between
+     * {@code minUnitPrice} and {@code maxUnitPrice} inclusive, cheapest first unless {@code descending}.
+     */
+    public List<V> byFingerprint(ItemFingerprint fingerprint, double minUnitPrice, double maxUnitPrice,
+            boolean descending) {
+        if (fingerprint == null || minUnitPrice > maxUnitPrice) {
+            return List.of();
+        }
+        List<String> ids = fingerprintIndex.lookup(fingerprint, minUnitPrice, maxUnitPrice, descending, entries::get);
+        List<V> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            V entry = entries.get(id);
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a live view of the entries priced between {@code minPrice} and {@code maxPrice}
+     * inclusive, lowest first unless {@code descending}. Iteration does not lock the map and
+     * reflects concurrent changes on a best-effort basis, like the iterators of concurrent
+     * collections.
+     */
+    public Iterable<V> byPrice(double minPrice, double maxPrice, boolean descending) {
+        if (minPrice > maxPrice) {
+            return List.of();
+        }
+        NavigableSet<PriceKey> range = priceOrder.subSet(PriceKey.lowest(minPrice), true, PriceKey.highest(maxPrice), true);
+        NavigableSet<PriceKey> ordered = descending ? range.descendingSet() : range;
+        return () -> new Iterator<>() {
+            private final Iterator<PriceKey> keys = ordered.iterator();
+            private V next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && keys.hasNext()) {
+                    next = entries.get(keys.next().id());
+                }
+                return next != null;
+            }
+
+            @Override
+            public V next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                V result = next;
+                next = null;
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Returns the earliest expiry time of all entries, or {@link Long#MAX_VALUE} if the map is empty.
+     */
+    public long nextExpiry() {
+        Iterator<ExpiryKey> keys = expiryOrder.iterator();
+        return keys.hasNext() ? keys.next().expiry() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns a counter that changes whenever an entry is added, replaced or removed.
+     */
+    public long version() {
+        return version;
+    }
+
+    public boolean isIndexedBy(IndexKey key) {
+        return extractors.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        return key != null ? entries.get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && entries.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    @Override
+    public V put(String id, V value) {
+        Objects.requireNonNull(id, "id");
+        Objects.requireNonNull(value, "value");
+        List<String> terms = searchTerms.apply(value);
+        synchronized (lock) {
+            V previous = entries.put(id, value);
+            if (previous != null) {
+                unindex(id, previous);
+            }
+            index(id, value, terms);
+            version++;
+            return previous;
+        }
+    }
+
+    @Override
+    public V remove(Object id) {
+        if (id == null) {
+            return null;
+        }
+        synchronized (lock) {
+            V previous = entries.remove(id);
+            if (previous != null) {
+                unindex((String) id, previous);
+                version++;
+            }
+            return previous;
+        }
+    }
+
+    @Override
+    public boolean remove(Object id, Object value) {
+        if (id == null || value == null) {
+            return false;
+        }
+        synchronized (lock) {
+            V current = entries.get(id);
+            if (current == null || !current.equals(value)) {
+                return false;
+            }
+            entries.remove(id);
+            unindex((String) id, current);
+            version++;
+            return true;
+        }
+    }
+
+    @Override
+    public boolean replace(String id, V oldValue, V newValue) {
+        Objects.requireNonNull(newValue, "value");
+        if (id == null || oldValue == null) {
+            return false;
+        }
+        List<String> terms = searchTerms.apply(newValue);
+        synchronized (lock) {
+            V current = entries.get(id);
+            if (current == null || !current.equals(oldValue)) {
+                return false;
+            }
+            entries.put(id, newValue);
+            unindex(id, current);
+            index(id, newValue, terms);
+            version++;
+            return true;
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (lock) {
+            entries.clear();
+            indexes.values().forEach(Map::clear);
+            expiryOrder.clear();
+            priceOrder.clear();
+            searchIndex.clear();
+            fingerprintIndex.clear();
+            version++;
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+        Set<Map.Entry<String, V>> view = entrySet;
+        if (view == null) {
+            view = new EntrySet();
+            entrySet = view;
+        }
+        return view;
+    }
+
+    private Map<UUID, Set<String>> index(IndexKey key) {
+        Map<UUID, Set<String>> index = indexes.get(key);
+        if (index == null) {
+            throw new IllegalArgumentException("Map is not indexed by " + key);
+        }
+        return index;
+    }
+
+    private void index(String id, V value, List<String> terms) {
+        for (Map.Entry<IndexKey, Function<V, UUID>> extractor : extractors.entrySet()) {
+            UUID key = extractor.getValue().apply(value);
+            if (key != null) {
+                // Readers iterate the published set without locking, so it is replaced, never changed
+                indexes.get(extractor.getKey()).compute(key, (unused, ids) -> {
+                    Set<String> updated = ids != null ? new LinkedHashSet<>(ids) : new LinkedHashSet<>();
+                    updated.add(id);
+                    return updated;
+                });
+            }
+        }
+        expiryOrder.add(new ExpiryKey(expiry.applyAsLong(value), id));
+        priceOrder.add(new PriceKey(price.applyAsDouble(value), id));
+        searchIndex.add(id, terms);
+        fingerprintIndex.add(id);
+    }
+
+    private void unindex(String id, V value) {
+        for (Map.Entry<IndexKey, Function<V, UUID>> extractor : extractors.entrySet()) {
+            UUID key = extractor.getValue().apply(value);
+            if (key == null) {
+                continue;
+            }
+            indexes.get(extractor.getKey()).computeIfPresent(key, (unused, ids) -> {
+                if (!ids.contains(id)) {
+                    return ids;
+                }
+                Set<String> updated = new LinkedHashSet<>(ids);
+                updated.remove(id);
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+        expiryOrder.remove(new ExpiryKey(expiry.applyAsLong(value), id));
+        priceOrder.remove(new PriceKey(price.applyAsDouble(value), id));
+        searchIndex.remove(id);
+        fingerprintIndex.remove(id);
+    }
+
+    private record ExpiryKey(long expiry, String id) implements Comparable<ExpiryKey> {
+
+        @Override
+        public int compareTo(ExpiryKey other) {
+            int byExpiry = Long.compare(expiry, other.expiry);
+            return byExpiry != 0 ? byExpiry : id.compareTo(other.id);
+        }
+    }
+
+    /**
+     * Price index key. A {@code null} id is a range bound that sorts before ({@link #lowest}) or
+     * after ({@link #highest}) every entry with the same price.
+     */
+    private record PriceKey(double price, String id, boolean upperBound) implements Comparable<PriceKey> {
+
+        private PriceKey(double price, String id) {
+            this(price, id, false);
+        }
+
+        static PriceKey lowest(double price) {
+            return new PriceKey(price, null, false);
+        }
+
+        static PriceKey highest(double price) {
+            return new PriceKey(price, null, true);
+        }
+
+        @Override
+        public int compareTo(PriceKey other) {
+            int byPrice = Double.compare(price, other.price);
+            if (byPrice != 0) {
+                return byPrice;
+            }
+            if (id == null || other.id == null) {
+                return Integer.compare(boundRank(), other.boundRank());
+            }
+            return id.compareTo(other.id);
+        }
+
+        private int boundRank() {
+            return id != null ? 0 : upperBound ? 1 : -1;
+        }
+    }
+
+    /**
+     * Entry view whose iterator removes and updates through the map, so indexes stay consistent.
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<String, V>> {
+
+        @Override
+        public Iterator<Map.Entry<String, V>> iterator() {
+            Iterator<Map.Entry<String, V>> delegate = entries.entrySet().iterator();
+            return new Iterator<>() {
+                private String current;
+
+                @Override
+                public boolean hasNext() {
+                    return delegate.hasNext();
+                }
+
+                @Override
+                public Map.Entry<String, V> next() {
+                    Map.Entry<String, V> next = delegate.next();
+                    current = next.getKey();
+                    return new IndexedEntry(next.getKey(), next.getValue());
+                }
+
+                @Override
+                public void remove() {
+                    if (current == null) {
+                        throw new IllegalStateException();
+                    }
+                    IndexedAuctionMap.this.remove(current);
+                    current = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public void clear() {
+            IndexedAuctionMap.this.clear();
+        }
+    }
+
+    private final class IndexedEntry extends AbstractMap.SimpleEntry<String, V> {
+
+        private IndexedEntry(String key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.skyblockexp.ezauction.index;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.EnchantmentStorageMeta;
+import org.bukkit.inventory.meta.ItemMeta;
+
+/**
+ * Normalized search terms of an item, as matched by the auction browser search.
+ *
+ * <p>A query matches an item if any of its terms contains the lower-case query: the display name,
+ * the localized name, each enchantment key with and without underscores, alone and followed by
+ * its level in digits and Roman numerals, and the material name.</p>
+ */
+public final class ItemSearchTerms {
+
+    private ItemSearchTerms() {
+    }
+
+    /**
+     * Returns the search terms of {@code item}, or an empty list for a missing or air item.
+     */
+    public static List<String> of(ItemStack item) {
+        if (item == null || item.getType() == Material.AIR) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            if (meta.hasDisplayName()) {
+                addTerm(terms, normalizeText(meta.getDisplayName()));
+            }
+            addTerm(terms, normalizeText(resolveLocalizedName(meta)));
+            if (meta.hasEnchants()) {
+                addEnchantmentTerms(terms, meta.getEnchants());
+            }
+            if (meta instanceof EnchantmentStorageMeta storage && storage.hasStoredEnchants()) {
+                addEnchantmentTerms(terms, storage.getStoredEnchants());
+            }
+        }
+        addEnchantmentTerms(terms, item.getEnchantments());
+        addTerm(terms, normalizeMaterialName(item.getType()));
+        return List.copyOf(terms);
+    }
+
+    /**
+     * Returns whether any of {@code terms} contains {@code normalizedQuery}.
+     */
+    public static boolean matches(List<String> terms, String normalizedQuery) {
+        if (terms == null || normalizedQuery == null || normalizedQuery.isEmpty()) {
+            return false;
+        }
+        for (String term : terms) {
+            if (term.contains(normalizedQuery)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether {@code item} matches {@code normalizedQuery}, computing its terms on the spot.
+     */
+    public static boolean matches(ItemStack item, String normalizedQuery) {
+        return matches(of(item), normalizedQuery);
+    }
+
+    /**
+     * Strips colours, trims and lower-cases {@code value}; returns {@code null} if nothing is left.
+     */
+    public static String normalizeText(String value) {
+        if (value == null) {
+            return null;
+        }
+        String stripped = ChatColor.stripColor(value);
+        if (stripped == null) {
+            stripped = value;
+        }
+        String trimmed = stripped.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        return trimmed.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Returns the material name in lower case with spaces instead of underscores.
+     */
+    public static String normalizeMaterialName(Material material) {
+        if (material == null) {
+            return "";
+        }
+        return material.name().replace('_', ' ').toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Returns the localized name of the item meta on servers that still support it, otherwise {@code null}.
+     */
+    public static String resolveLocalizedName(ItemMeta meta) {
+        if (meta == null) {
+            return null;
+        }
+        try {
+            Method hasLocalizedName = meta.getClass().getMethod("hasLocalizedName");
+            Object has = hasLocalizedName.invoke(meta);
+            if (!(has instanceof Boolean) || !(Boolean) has) {
+                return null;
+            }
+            Method getLocalizedName = meta.getClass().getMethod("getLocalizedName");
+            Object name = getLocalizedName.invoke(meta);
+            return name != null ? name.toString() : null;
+        } catch (NoSuchMethodException ex) {
+            return null;
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    private static void addTerm(Set<String> terms, String term) {
+        if (term != null && !term.isEmpty()) {
+            terms.add(term);
+        }
+    }
+
+    private static void addEnchantmentTerms(Set<String> terms, Map<Enchantment, Integer> enchantments) {
+        if (enchantments == null || enchantments.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Enchantment, Integer> entry : enchantments.entrySet()) {
+            String keyName = resolveEnchantmentKey(entry.getKey());
+            if (keyName == null) {
+                continue;
+            }
+            int level = entry.getValue() != null ? entry.getValue() : 0;
+            addEnchantmentNameVariants(terms, keyName, level);
+            addEnchantmentNameVariants(terms, keyName.replace('_', ' '), level);
+        }
+    }
+
+    private static void addEnchantmentNameVariants(Set<String> terms, String name, int level) {
+        String normalizedName = name.toLowerCase(Locale.ENGLISH).trim();
+        if (normalizedName.isEmpty()) {
+            return;
+        }
+        terms.add(normalizedName);
+        if (level > 0) {
+            terms.add(normalizedName + " " + level);
+            String roman = toRomanNumeral(level);
+            if (!roman.isEmpty()) {
+                terms.add(normalizedName + " " + roman.toLowerCase(Locale.ENGLISH));
+            }
+        }
+    }
+
+    private static String resolveEnchantmentKey(Enchantment enchantment) {
+        if (enchantment == null) {
+            return null;
+        }
+        try {
+            Method getKey = Enchantment.class.getMethod("getKey");
+            Object key = getKey.invoke(enchantment);
+            return key != null ? key.toString() : null;
+        } catch (NoSuchMethodException ex) {
+            // Fallback to legacy getName
+        } catch (Exception ex) {
+            return null;
+        }
+        try {
+            Method getName = Enchantment.class.getMethod("getName");
+            Object name = getName.invoke(enchantment);
+            return name != null ? name.toString() : null;
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    private static String toRomanNumeral(int number) {
+        if (number <= 0) {
+            return "";
+        }
+        int[] values = {1000, 900, 500, 400, 100, 90, 50, 40, 10, 9, 5, 4, 1};
+        String[] numerals = {"M", "CM", "D", "CD", "C", "XC", "L", "XL", "X", "IX", "V", "IV", "I"};
+        int remaining = number;
+        StringBuilder builder = new StringBuilder();
+        for (int index = 0; index < values.length && remaining > 0; index++) {
+            while (remaining >= values[index]) {
+                builder.append(numerals[index]);
+                remaining -= values[index];
+            }
+        }
+        return builder.toString();
+    }
+}
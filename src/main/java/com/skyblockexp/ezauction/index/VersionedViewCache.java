@@ -0,0 +1,50 @@
+package com.skyblockexp.ezauction.index;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Immutable snapshots of views derived from an {@link IndexedAuctionMap}, such as the active
+ * listings in one browser sort order.
+ *
+ * <p>A view is built at most once per {@link IndexedAuctionMap#version() version} of the map and
+ * then shared by every caller asking for the same key, so turning a page is a slice of an existing
+ * list. The version has to be read before the view is built; a view built while the map changes
+ * is then tagged with the older version and rebuilt on the next request.</p>
+ *
+ * @param <T> the listing or order type
+ */
+public final class VersionedViewCache<T> {
+
+    private final Map<Object, Snapshot<T>> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the view for {@code key} at {@code version}, building it with {@code builder} if the
+     * cached snapshot is missing or older. A negative version disables caching.
+     */
+    public List<T> get(Object key, long version, Supplier<? extends Collection<T>> builder) {
+        if (version < 0L) {
+            return List.copyOf(builder.get());
+        }
+        Snapshot<T> snapshot = snapshots.get(key);
+        if (snapshot != null && snapshot.version() == version) {
+            return snapshot.entries();
+        }
+        Snapshot<T> built = new Snapshot<>(version, List.copyOf(builder.get()));
+        snapshots.merge(key, built, (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+        return built.entries();
+    }
+
+    /**
+     * Drops every cached view.
+     */
+    public void clear() {
+        snapshots.clear();
+    }
+
+    private record Snapshot<T>(long version, List<T> entries) {
+    }
+}
@@ -5,19 +5,28 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 import com.skyblockexp.ezauction.AuctionListing;
 import com.skyblockexp.ezauction.AuctionOrder;
 import com.skyblockexp.ezauction.EzAuctionPlugin;
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Flush;
 import com.skyblockexp.ezauction.storage.AuctionStorage;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
 import com.skyblockexp.ezauction.storage.DistributedAuctionListingStorage;
 import com.skyblockexp.ezauction.storage.AuctionStorageSnapshot;
 import org.bukkit.inventory.ItemStack;
 
 /**
  * Handles persistence logic for auction listings, orders, and returns.
+ *
+ * <p>Writes are coalesced: each data set (listings, orders, returns) carries a dirty flag and
+ * incremental changes are merged into one pending {@link AuctionStorageChangeSet}. The pending
+ * batch is written once the latency window configured by {@link Flush} elapses or as soon as it
+ * reaches the configured batch size, so a burst of updates results in a single storage write.</p>
  */
 public class AuctionPersistenceManager {
     private static final Logger LOGGER = Logger.getLogger(AuctionPersistenceManager.class.getName());
@@ -28,19 +37,54 @@ public class AuctionPersistenceManager {
     private volatile boolean storageReady = false;
     private final Object persistenceLock = new Object();
     private CompletableFuture<Void> persistenceChain = CompletableFuture.completedFuture(null);
+    private final long maxLatencyMillis;
+    private final int maxBatchSize;
+
+    // Pending batch, guarded by persistenceLock.
+    private List<AuctionListing> pendingListings;
+    private List<AuctionOrder> pendingOrders;
+    private Map<UUID, List<ItemStack>> pendingReturns;
+    private AuctionStorageChangeSet pendingChanges = new AuctionStorageChangeSet();
+    private int pendingWrites;
+    private long oldestPendingNanos;
+    private long flushGeneration;
+    private boolean flushScheduled;
+
+    // Metrics, guarded by persistenceLock.
+    private long flushCount;
+    private long coalescedWriteCount;
+    private long lastFlushLagNanos;
+    private long maxFlushLagNanos;
 
 
     /**
-     * Constructs a new AuctionPersistenceManager.
+     * Constructs a new AuctionPersistenceManager using the default flush settings.
      *
      * @param storage             The main auction storage backend
      * @param distributedStorage  The distributed storage backend (may be null)
      * @param executor            The executor for async persistence tasks
      */
     public AuctionPersistenceManager(AuctionStorage storage, DistributedAuctionListingStorage distributedStorage, ExecutorService executor) {
+        this(storage, distributedStorage, executor, Flush.defaultSettings());
+    }
+
+
+    /**
+     * Constructs a new AuctionPersistenceManager.
+     *
+     * @param storage             The main auction storage backend
+     * @param distributedStorage  The distributed storage backend (may be null)
+     * @param executor            The executor for async persistence tasks
+     * @param flush               The write coalescing settings
+     */
+    public AuctionPersistenceManager(AuctionStorage storage, DistributedAuctionListingStorage distributedStorage,
+            ExecutorService executor, Flush flush) {
         this.storage = storage;
         this.distributedStorage = distributedStorage;
         this.executor = executor;
+        Flush settings = flush != null ? flush : Flush.defaultSettings();
+        this.maxLatencyMillis = settings.maxLatencyMillis();
+        this.maxBatchSize = settings.maxBatchSize();
     }
 
 
@@ -83,7 +127,16 @@ public class AuctionPersistenceManager {
      */
     public void saveListings(List<AuctionListing> listings, List<AuctionOrder> orders) {
         if (!storageReady) return;
-        schedulePersistenceTask(() -> storage.saveListings(listings, orders));
+        synchronized (persistenceLock) {
+            if (pendingChanges.hasListingChanges()) {
+                // Earlier deltas must reach storage before the snapshot that supersedes them.
+                flushLocked();
+            }
+            boolean coalesced = pendingListings != null;
+            pendingListings = listings;
+            pendingOrders = orders;
+            markPendingLocked(coalesced);
+        }
     }
 
 
@@ -94,17 +147,124 @@ public class AuctionPersistenceManager {
      */
     public void saveReturns(Map<UUID, List<ItemStack>> returnsByPlayer) {
         if (!storageReady) return;
-        schedulePersistenceTask(() -> storage.saveReturns(returnsByPlayer));
+        synchronized (persistenceLock) {
+            if (pendingChanges.hasReturnChanges()) {
+                flushLocked();
+            }
+            boolean coalesced = pendingReturns != null;
+            pendingReturns = returnsByPlayer;
+            markPendingLocked(coalesced);
+        }
+    }
+
+
+    /**
+     * Persists a single created or updated listing asynchronously.
+     *
+     * @param listing The listing to store
+     */
+    public void saveListing(AuctionListing listing) {
+        if (listing == null) return;
+        applyChanges(new AuctionStorageChangeSet().upsertListing(listing));
+    }
+
+
+    /**
+     * Removes a single listing from storage asynchronously.
+     *
+     * @param listingId The ID of the listing to remove
+     */
+    public void removeListing(String listingId) {
+        if (listingId == null || listingId.isEmpty()) return;
+        applyChanges(new AuctionStorageChangeSet().removeListing(listingId));
+    }
+
+
+    /**
+     * Persists a single created or updated buy order asynchronously.
+     *
+     * @param order The order to store
+     */
+    public void saveOrder(AuctionOrder order) {
+        if (order == null) return;
+        applyChanges(new AuctionStorageChangeSet().upsertOrder(order));
+    }
+
+
+    /**
+     * Removes a single buy order from storage asynchronously.
+     *
+     * @param orderId The ID of the order to remove
+     */
+    public void removeOrder(String orderId) {
+        if (orderId == null || orderId.isEmpty()) return;
+        applyChanges(new AuctionStorageChangeSet().removeOrder(orderId));
     }
 
 
     /**
-     * Waits for all scheduled persistence tasks to complete.
+     * Persists the pending return items of a single player asynchronously.
+     *
+     * @param playerId The UUID of the player
+     * @param items    The player's current pending returns, or null/empty if none remain
+     */
+    public void savePlayerReturns(UUID playerId, List<ItemStack> items) {
+        if (playerId == null) return;
+        applyChanges(new AuctionStorageChangeSet().replaceReturns(playerId, items));
+    }
+
+
+    /**
+     * Persists an incremental change set asynchronously. Only the referenced entries are
+     * written, so the cost scales with the size of the change instead of the market. The
+     * changes are merged into the pending batch and written with the next flush.
+     *
+     * @param changes The changes to persist
+     */
+    public void applyChanges(AuctionStorageChangeSet changes) {
+        if (!storageReady || changes == null || changes.isEmpty()) return;
+        synchronized (persistenceLock) {
+            boolean coalesced = !pendingChanges.isEmpty();
+            pendingChanges.merge(changes);
+            markPendingLocked(coalesced);
+        }
+    }
+
+
+    /**
+     * Writes the pending batch without waiting for the latency window to elapse.
+     */
+    public void flush() {
+        synchronized (persistenceLock) {
+            flushLocked();
+        }
+    }
+
+
+    /**
+     * Returns a snapshot of the write coalescing counters.
+     *
+     * @return the current flush metrics
+     */
+    public FlushMetrics getFlushMetrics() {
+        synchronized (persistenceLock) {
+            long queueLagNanos = pendingWrites > 0 ? System.nanoTime() - oldestPendingNanos : 0L;
+            return new FlushMetrics(flushCount, coalescedWriteCount, pendingWrites,
+                    TimeUnit.NANOSECONDS.toMillis(queueLagNanos),
+                    TimeUnit.NANOSECONDS.toMillis(lastFlushLagNanos),
+                    TimeUnit.NANOSECONDS.toMillis(maxFlushLagNanos));
+        }
+    }
+
+
+    /**
+     * Flushes the pending batch and waits for all scheduled persistence tasks to complete.
      * Blocks the calling thread until completion.
      */
     public void awaitPersistenceCompletion() {
         CompletableFuture<Void> chain;
         synchronized (persistenceLock) {
+            flushLocked();
             chain = persistenceChain;
         }
         try {
@@ -117,6 +277,76 @@ public class AuctionPersistenceManager {
         }
     }
 
+    private void markPendingLocked(boolean coalesced) {
+        if (pendingWrites == 0) {
+            oldestPendingNanos = System.nanoTime();
+        }
+        pendingWrites++;
+        if (coalesced) {
+            coalescedWriteCount++;
+        }
+        if (maxLatencyMillis <= 0L || pendingChanges.size() >= maxBatchSize) {
+            flushLocked();
+            return;
+        }
+        if (!flushScheduled) {
+            flushScheduled = true;
+            long generation = flushGeneration;
+            try {
+                CompletableFuture.delayedExecutor(maxLatencyMillis, TimeUnit.MILLISECONDS)
+                        .execute(() -> flushGeneration(generation));
+            } catch (RejectedExecutionException ex) {
+                flushLocked();
+            }
+        }
+    }
+
+    private void flushGeneration(long generation) {
+        synchronized (persistenceLock) {
+            if (generation == flushGeneration) {
+                flushLocked();
+            }
+        }
+    }
+
+    private void flushLocked() {
+        if (pendingWrites == 0) {
+            return;
+        }
+        List<AuctionListing> listings = pendingListings;
+        List<AuctionOrder> orders = pendingOrders;
+        Map<UUID, List<ItemStack>> returns = pendingReturns;
+        AuctionStorageChangeSet changes = pendingChanges;
+        long enqueuedAt = oldestPendingNanos;
+        pendingListings = null;
+        pendingOrders = null;
+        pendingReturns = null;
+        pendingChanges = new AuctionStorageChangeSet();
+        pendingWrites = 0;
+        flushScheduled = false;
+        flushGeneration++;
+        schedulePersistenceTask(() -> {
+            recordFlush(System.nanoTime() - enqueuedAt);
+            if (listings != null) {
+                storage.saveListings(listings, orders);
+            }
+            if (returns != null) {
+                storage.saveReturns(returns);
+            }
+            if (!changes.isEmpty()) {
+                storage.applyChanges(changes);
+            }
+        });
+    }
+
+    private void recordFlush(long lagNanos) {
+        synchronized (persistenceLock) {
+            flushCount++;
+            lastFlushLagNanos = lagNanos;
+            maxFlushLagNanos = Math.max(maxFlushLagNanos, lagNanos);
+        }
+    }
+
     private void schedulePersistenceTask(Runnable task) {
         synchronized (persistenceLock) {
             persistenceChain = persistenceChain.thenRunAsync(() -> {
@@ -141,7 +371,10 @@ public class AuctionPersistenceManager {
      */
     public void insertListing(AuctionListing listing) {
         if (!storageReady || distributedStorage == null || listing == null) return;
-        schedulePersistenceTask(() -> distributedStorage.insertListing(listing));
+        synchronized (persistenceLock) {
+            flushLocked();
+            schedulePersistenceTask(() -> distributedStorage.insertListing(listing));
+        }
     }
 
 
@@ -152,7 +385,10 @@ public class AuctionPersistenceManager {
      */
     public void deleteListing(String listingId) {
         if (!storageReady || distributedStorage == null || listingId == null || listingId.isEmpty()) return;
-        schedulePersistenceTask(() -> distributedStorage.deleteListing(listingId));
+        synchronized (persistenceLock) {
+            flushLocked();
+            schedulePersistenceTask(() -> distributedStorage.deleteListing(listingId));
+        }
     }
 
 
@@ -170,4 +406,18 @@ public class AuctionPersistenceManager {
             return false;
         }
     }
+
+    /**
+     * Write coalescing counters used to tune the flush settings.
+     *
+     * @param flushCount          number of batches written to storage
+     * @param coalescedWrites     number of writes merged into an already pending batch
+     * @param pendingWrites       number of writes waiting for the next flush
+     * @param queueLagMillis      age of the oldest pending write
+     * @param lastFlushLagMillis  time the most recently written batch waited before reaching storage
+     * @param maxFlushLagMillis   longest time any batch waited before reaching storage
+     */
+    public record FlushMetrics(long flushCount, long coalescedWrites, int pendingWrites, long queueLagMillis,
+            long lastFlushLagMillis, long maxFlushLagMillis) {
+    }
 }
@@ -3,21 +3,40 @@ package com.skyblockexp.ezauction.service;
 
 import com.skyblockexp.ezauction.transaction.AuctionTransactionService;
 import com.skyblockexp.ezauction.*;
+import com.skyblockexp.ezauction.bid.AuctionBid;
+import com.skyblockexp.ezauction.bid.AuctionBidBook;
+import com.skyblockexp.ezauction.bid.BidEscrowLedger;
+import com.skyblockexp.ezauction.bid.ListingBidState;
 import com.skyblockexp.ezauction.persistence.AuctionPersistenceManager;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
 import com.skyblockexp.ezauction.notification.AuctionNotificationService;
 import com.skyblockexp.ezauction.history.AuctionTransactionHistoryService;
 import com.skyblockexp.ezauction.claim.AuctionClaimService;
+import com.skyblockexp.ezauction.index.IndexedAuctionMap;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 /**
  * Handles expiry task scheduling and purging of expired listings/orders.
+ *
+ * <p>The expiry task runs every tick but only takes the entries that are due from the expiry order
+ * of the listing and order maps. Each run stops once its time budget is used up and leaves the rest
+ * of a large expiry wave to the following ticks.</p>
+ *
+ * <p>A listing that ends with a bid is sold to the highest bidder: the seller is paid from the
+ * escrowed bid and the item is stored for the winner to claim. Bids are not persisted, so open bids
+ * are refunded on shutdown, and on startup escrow that a server crash left in the
+ * {@link BidEscrowLedger} is refunded too.</p>
  */
 public class AuctionExpiryService {
+    private static final long TICK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2L);
+    private static final int BATCH_SIZE = 64;
+
     private final JavaPlugin plugin;
     private final Map<String, AuctionListing> listings;
     private final Map<String, AuctionOrder> orders;
@@ -27,7 +46,10 @@ public class AuctionExpiryService {
     private final AuctionClaimService claimService;
     private final AuctionTransactionService transactionService;
     private final Map<UUID, List<ItemStack>> pendingReturns;
+    private final AuctionBidBook bidBook;
+    private final BidEscrowLedger escrowLedger;
     private BukkitTask expiryTask;
+    private LongSupplier nanoClock = System::nanoTime;
 
     public AuctionExpiryService(JavaPlugin plugin,
                                Map<String, AuctionListing> listings,
@@ -38,6 +60,21 @@ public class AuctionExpiryService {
                                AuctionClaimService claimService,
                                AuctionTransactionService transactionService,
                                Map<UUID, List<ItemStack>> pendingReturns) {
+        this(plugin, listings, orders, persistenceManager, notificationService, transactionHistoryService, claimService,
+                transactionService, pendingReturns, new AuctionBidBook(), BidEscrowLedger.inMemory());
+    }
+
+    public AuctionExpiryService(JavaPlugin plugin,
+                               Map<String, AuctionListing> listings,
+                               Map<String, AuctionOrder> orders,
+                               AuctionPersistenceManager persistenceManager,
+                               AuctionNotificationService notificationService,
+                               AuctionTransactionHistoryService transactionHistoryService,
+                               AuctionClaimService claimService,
+                               AuctionTransactionService transactionService,
+                               Map<UUID, List<ItemStack>> pendingReturns,
+                               AuctionBidBook bidBook,
+                               BidEscrowLedger escrowLedger) {
         this.plugin = plugin;
         this.listings = listings;
         this.orders = orders;
@@ -47,9 +84,16 @@ public class AuctionExpiryService {
         this.claimService = claimService;
         this.transactionService = transactionService;
         this.pendingReturns = pendingReturns;
+        this.bidBook = bidBook != null ? bidBook : new AuctionBidBook();
+        this.escrowLedger = escrowLedger != null ? escrowLedger : BidEscrowLedger.inMemory();
     }
 
     public void enable() {
+        escrowLedger.recover(hold -> {
+            plugin.getLogger().warning("Refunding " + hold.amount() + " held for a bid by " + hold.bidderId()
+                    + " on auction " + hold.listingId() + " that was not settled before the last shutdown.");
+            transactionService.refundBid(hold.bidderId(), hold.amount());
+        });
         startExpiryTask();
     }
 
@@ -58,6 +102,11 @@ public class AuctionExpiryService {
             expiryTask.cancel();
             expiryTask = null;
         }
+        // Bids are not persisted, so running auctions restart without bids and the escrow goes back.
+        for (ListingBidState state : bidBook.closeAll()) {
+            refundBid(state.listingId(), state.highestBid());
+        }
+        escrowLedger.close();
         if (persistenceManager != null) {
             persistenceManager.saveListings(new ArrayList<>(listings.values()), new ArrayList<>(orders.values()));
             persistenceManager.saveReturns(pendingReturns);
@@ -70,38 +119,135 @@ public class AuctionExpiryService {
         if (expiryTask != null) {
             expiryTask.cancel();
         }
-        expiryTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::purgeExpiredEntries, 20L, 20L * 60L);
+        expiryTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::processDueEntries, 20L, 1L);
     }
 
+    /**
+     * Expires every listing and order that is due, regardless of the per-tick budget.
+     */
     public void purgeExpiredEntries() {
+        purgeExpiredEntries(Long.MAX_VALUE);
+    }
+
+    /**
+     * Runs one tick of the expiry task: expires due entries until the per-tick budget is used up.
+     */
+    void processDueEntries() {
+        purgeExpiredEntries(nanoClock.getAsLong() + TICK_BUDGET_NANOS);
+    }
+
+    /**
+     * Replaces the clock the per-tick budget is measured with. Tests use this to control how much
+     * fits into a tick.
+     */
+    void setNanoClock(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    private void purgeExpiredEntries(long deadlineNanos) {
         long now = System.currentTimeMillis();
-        boolean changed = false;
-        Iterator<Map.Entry<String, AuctionListing>> listingIterator = listings.entrySet().iterator();
-        while (listingIterator.hasNext()) {
-            Map.Entry<String, AuctionListing> entry = listingIterator.next();
-            AuctionListing listing = entry.getValue();
-            if (listing.expiryEpochMillis() < now) {
-                listingIterator.remove();
-                claimService.returnListingItem(listing, pendingReturns);
-                notificationService.notifySellerExpiry(listing);
-                transactionHistoryService.recordListingTransactionHistory(listing, null);
-                changed = true;
+        AuctionStorageChangeSet changes = new AuctionStorageChangeSet();
+        Set<UUID> returnOwners = new HashSet<>();
+        boolean withinBudget = true;
+        while (withinBudget) {
+            List<AuctionListing> due = IndexedAuctionMap.expiredListings(listings, now, BATCH_SIZE);
+            if (due.isEmpty()) {
+                break;
+            }
+            boolean removedAny = false;
+            for (AuctionListing listing : due) {
+                if (!listing.lifecycle().reserve()) {
+                    // A purchase or cancellation owns the listing; it is settled there.
+                    continue;
+                }
+                if (!listings.remove(listing.id(), listing)) {
+                    listing.lifecycle().release();
+                    continue;
+                }
+                removedAny = true;
+                ListingBidState bids = bidBook.close(listing.id());
+                AuctionBid winningBid = bids != null ? bids.highestBid() : null;
+                if (winningBid != null && settleWinningBid(listing, winningBid)) {
+                    listing.lifecycle().complete(AuctionListingState.SOLD);
+                    returnOwners.add(winningBid.bidderId());
+                } else {
+                    listing.lifecycle().complete(AuctionListingState.EXPIRED);
+                    claimService.returnListingItem(listing, pendingReturns);
+                    notificationService.notifySellerExpiry(listing);
+                    transactionHistoryService.recordListingTransactionHistory(listing, null);
+                    returnOwners.add(listing.sellerId());
+                }
+                changes.removeListing(listing.id());
+                if (budgetExceeded(deadlineNanos)) {
+                    withinBudget = false;
+                    break;
+                }
+            }
+            if (!removedAny) {
+                break;
             }
         }
-        Iterator<Map.Entry<String, AuctionOrder>> orderIterator = orders.entrySet().iterator();
-        while (orderIterator.hasNext()) {
-            Map.Entry<String, AuctionOrder> entry = orderIterator.next();
-            AuctionOrder order = entry.getValue();
-            if (order.expiryEpochMillis() < now) {
-                orderIterator.remove();
+        while (withinBudget) {
+            List<AuctionOrder> due = IndexedAuctionMap.expiredOrders(orders, now, BATCH_SIZE);
+            if (due.isEmpty()) {
+                break;
+            }
+            boolean removedAny = false;
+            for (AuctionOrder order : due) {
+                if (!orders.remove(order.id(), order)) {
+                    continue;
+                }
+                removedAny = true;
                 transactionService.refundOrderBuyer(order.buyerId(), order.reservedAmount());
                 notificationService.notifyOrderExpiry(order);
                 transactionHistoryService.recordOrderTransactionHistory(order, order.buyerId(), null, null);
-                changed = true;
+                changes.removeOrder(order.id());
+                if (budgetExceeded(deadlineNanos)) {
+                    withinBudget = false;
+                    break;
+                }
+            }
+            if (!removedAny) {
+                break;
             }
         }
-        if (changed) {
-            persistenceManager.saveListings(new ArrayList<>(listings.values()), new ArrayList<>(orders.values()));
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (UUID ownerId : returnOwners) {
+            changes.replaceReturns(ownerId, pendingReturns.get(ownerId));
         }
+        persistenceManager.applyChanges(changes);
+    }
+
+    /**
+     * Pays the seller from the winning bid and stores the item for the winner. If the seller
+     * cannot be paid, the bid is refunded and the listing expires as usual.
+     */
+    private boolean settleWinningBid(AuctionListing listing, AuctionBid winningBid) {
+        AuctionOperationResult creditResult = transactionService.creditSeller(listing.sellerId(), winningBid.amount());
+        if (!creditResult.success()) {
+            plugin.getLogger().warning("Failed to pay the seller of auction " + listing.id() + "; refunding the winning bid.");
+            refundBid(listing.id(), winningBid);
+            return false;
+        }
+        escrowLedger.release(listing.id(), winningBid.bidderId(), winningBid.amount());
+        claimService.storeReturnItem(winningBid.bidderId(), listing.item(), pendingReturns);
+        if (listing.deposit() > 0.0D) {
+            transactionService.refundListingDeposit(listing.sellerId(), listing.deposit());
+        }
+        AuctionListing sold = listing.withPrice(winningBid.amount());
+        notificationService.notifySellerSale(sold);
+        transactionHistoryService.recordListingTransactionHistory(sold, winningBid.bidderId());
+        return true;
+    }
+
+    private void refundBid(String listingId, AuctionBid bid) {
+        transactionService.refundBid(bid.bidderId(), bid.amount());
+        escrowLedger.release(listingId, bid.bidderId(), bid.amount());
+    }
+
+    private boolean budgetExceeded(long deadlineNanos) {
+        return deadlineNanos != Long.MAX_VALUE && nanoClock.getAsLong() - deadlineNanos > 0L;
     }
 }
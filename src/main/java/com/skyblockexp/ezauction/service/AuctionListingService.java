@@ -2,6 +2,11 @@ package com.skyblockexp.ezauction.service;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionService;
 
 import com.skyblockexp.ezauction.*;
+import com.skyblockexp.ezauction.bid.AuctionBid;
+import com.skyblockexp.ezauction.bid.AuctionBidBook;
+import com.skyblockexp.ezauction.bid.BidEscrowLedger;
+import com.skyblockexp.ezauction.bid.ListingBidState;
+import com.skyblockexp.ezauction.config.AuctionBiddingRules;
 import com.skyblockexp.ezauction.event.AuctionListingCreateEvent;
 import com.skyblockexp.ezauction.event.AuctionListingSellEvent;
 import com.skyblockexp.ezauction.event.AuctionListingSoldEvent;
@@ -9,8 +14,10 @@ import com.skyblockexp.ezauction.integration.TeamsIntegration;
 import com.skyblockexp.ezauction.live.LiveAuctionService;
 import com.skyblockexp.ezauction.notification.AuctionNotificationService;
 import com.skyblockexp.ezauction.history.AuctionTransactionHistoryService;
+import com.skyblockexp.ezauction.index.IndexedAuctionMap;
 import com.skyblockexp.ezauction.claim.AuctionClaimService;
 import com.skyblockexp.ezauction.persistence.AuctionPersistenceManager;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
 import com.skyblockexp.ezauction.config.AuctionConfiguration;
 import com.skyblockexp.ezauction.config.AuctionListingRules;
 import com.skyblockexp.ezauction.api.AuctionListingLimitResolver;
@@ -39,8 +46,10 @@ public class AuctionListingService {
     private final AuctionClaimService claimService;
     private final AuctionTransactionHistoryService transactionHistoryService;
     private final Map<UUID, List<ItemStack>> pendingReturns;
-    private final Map<String, AuctionOrder> orders; // Needed for persistence
+    private final Map<String, AuctionOrder> orders;
     private final TeamsIntegration teamsIntegration;
+    private final AuctionBidBook bidBook;
+    private final BidEscrowLedger escrowLedger;
 
     public AuctionListingService(
             AuctionTransactionService transactionService,
@@ -75,6 +84,33 @@ public class AuctionListingService {
             Map<String, AuctionListing> listings,
             Map<String, AuctionOrder> orders,
             TeamsIntegration teamsIntegration
+    ) {
+        this(transactionService, listingLimitResolver, configuration, listingRules, liveAuctionService,
+                persistenceManager, notificationService, claimService, transactionHistoryService,
+                pendingReturns, listings, orders, teamsIntegration, new AuctionBidBook(), BidEscrowLedger.inMemory());
+    }
+
+    /**
+     * @param bidBook      bidding state shared with the {@link AuctionExpiryService}, which settles
+     *                     winning bids when listings end
+     * @param escrowLedger durable record of the escrowed bid amounts, also shared with the expiry service
+     */
+    public AuctionListingService(
+            AuctionTransactionService transactionService,
+            AuctionListingLimitResolver listingLimitResolver,
+            AuctionConfiguration configuration,
+            AuctionListingRules listingRules,
+            LiveAuctionService liveAuctionService,
+            AuctionPersistenceManager persistenceManager,
+            AuctionNotificationService notificationService,
+            AuctionClaimService claimService,
+            AuctionTransactionHistoryService transactionHistoryService,
+            Map<UUID, List<ItemStack>> pendingReturns,
+            Map<String, AuctionListing> listings,
+            Map<String, AuctionOrder> orders,
+            TeamsIntegration teamsIntegration,
+            AuctionBidBook bidBook,
+            BidEscrowLedger escrowLedger
     ) {
         this.listings = listings;
         this.transactionService = transactionService;
@@ -89,6 +125,8 @@ public class AuctionListingService {
         this.pendingReturns = pendingReturns;
         this.orders = orders;
         this.teamsIntegration = teamsIntegration;
+        this.bidBook = bidBook != null ? bidBook : new AuctionBidBook();
+        this.escrowLedger = escrowLedger != null ? escrowLedger : BidEscrowLedger.inMemory();
     }
 
     public AuctionOperationResult createListing(Player seller, ItemStack item, double price, Duration duration) {
@@ -150,7 +188,7 @@ public class AuctionListingService {
         UUID sellerId = seller.getUniqueId();
         int listingLimit = AuctionValidationUtils.resolveListingLimit(sellerId, configuration, listingLimitResolver);
         if (listingLimit > 0) {
-            long activeListings = listings.values().stream().filter(l -> sellerId.equals(l.sellerId())).count();
+            long activeListings = IndexedAuctionMap.listingsBySeller(listings, sellerId).size();
             if (activeListings >= listingLimit) {
                 return AuctionOperationResult.failure("You have reached your listing limit (" + listingLimit + ").");
             }
@@ -164,6 +202,13 @@ public class AuctionListingService {
             return AuctionOperationResult.failure("You do not have enough of the item in your inventory.");
         }
 
+        if (teamId == null && listingRules.autoMatchOrders()) {
+            AuctionOperationResult matchResult = fillMatchingOrder(seller, listingItem, normalizedPrice);
+            if (matchResult != null) {
+                return matchResult;
+            }
+        }
+
         if (normalizedDeposit > 0.0D) {
             AuctionOperationResult depositResult = transactionService.chargeListingDeposit(seller, normalizedDeposit);
             if (!depositResult.success()) {
@@ -189,7 +234,7 @@ public class AuctionListingService {
                 if (configuration.debug()) {
                     System.out.println("[EzAuction][DEBUG] Listing added to map: id=" + id + ", listing=" + listing);
                 }
-        persistenceManager.saveListings(new ArrayList<>(listings.values()), new ArrayList<>(orders.values()));
+        persistenceManager.saveListing(listing);
 
         if (liveAuctionService != null) {
             liveAuctionService.enqueue(listing, seller.getUniqueId(), seller.getName());
@@ -202,6 +247,56 @@ public class AuctionListingService {
         return AuctionOperationResult.success("Your item has been listed for auction!");
     }
 
+    /**
+     * Sells {@code item} to the buy order with the highest offer per item that requests the same
+     * item and quantity and offers at least {@code price}. The order is found through the
+     * fingerprint index of the order map rather than by scanning all orders.
+     *
+     * @return the result of the sale, or {@code null} if no order matched and the item should be listed
+     */
+    private AuctionOperationResult fillMatchingOrder(Player seller, ItemStack item, double price) {
+        int amount = item.getAmount();
+        long now = System.currentTimeMillis();
+        double unitPrice = IndexedAuctionMap.unitPrice(price, item);
+        for (AuctionOrder order : IndexedAuctionMap.ordersByFingerprint(orders, ItemFingerprint.of(item), unitPrice)) {
+            if (order.isExpired(now) || order.buyerId().equals(seller.getUniqueId()) || order.offeredPrice() < price) {
+                continue;
+            }
+            ItemStack requested = order.requestedItem();
+            if (requested == null || requested.getAmount() != amount || !requested.isSimilar(item)) {
+                continue;
+            }
+            if (!orders.remove(order.id(), order)) {
+                continue;
+            }
+            ItemStack soldItem = item.clone();
+            Map<Integer, ItemStack> leftover = seller.getInventory().removeItem(soldItem.clone());
+            if (!leftover.isEmpty()) {
+                orders.put(order.id(), order);
+                return AuctionOperationResult.failure("Failed to remove item from your inventory.");
+            }
+            AuctionOperationResult payoutResult = transactionService.payOrderSeller(seller.getUniqueId(), order.offeredPrice());
+            if (!payoutResult.success()) {
+                seller.getInventory().addItem(soldItem);
+                orders.put(order.id(), order);
+                return AuctionOperationResult.failure("Failed to pay seller. Transaction cancelled.");
+            }
+            double remainder = Math.max(0.0D, order.reservedAmount() - order.offeredPrice());
+            if (remainder > 0.0D) {
+                transactionService.refundOrderBuyer(order.buyerId(), remainder);
+            }
+            claimService.deliverOrderItem(order, soldItem, pendingReturns);
+            persistenceManager.applyChanges(new AuctionStorageChangeSet()
+                    .removeOrder(order.id())
+                    .replaceReturns(order.buyerId(), pendingReturns.get(order.buyerId())));
+            notificationService.notifyOrderFulfilled(order, seller);
+            transactionHistoryService.recordOrderTransactionHistory(order, seller.getUniqueId(), seller.getName(), soldItem);
+            return AuctionOperationResult.success("Your item was sold instantly to a buy order for "
+                    + transactionService.formatCurrency(order.offeredPrice()) + ".");
+        }
+        return null;
+    }
+
     public AuctionOperationResult purchaseListing(Player buyer, String listingId) {
         if (buyer == null || listingId == null || listingId.isEmpty()) {
             return AuctionOperationResult.failure("Invalid buyer or listingId.");
@@ -212,15 +307,30 @@ public class AuctionListingService {
         }
         long now = System.currentTimeMillis();
         if (listing.expiryEpochMillis() < now) {
+            ListingBidState bids = bidBook.state(listingId);
+            if (bids != null && bids.highestBid() != null) {
+                // The expiry task settles the winning bid.
+                return AuctionOperationResult.failure("This listing has ended.");
+            }
+            if (!listing.lifecycle().reserve()) {
+                return AuctionOperationResult.failure("This listing has expired.");
+            }
             listings.remove(listingId);
-            persistenceManager.saveListings(new ArrayList<>(listings.values()), new ArrayList<>(orders.values()));
+            listing.lifecycle().complete(AuctionListingState.EXPIRED);
             notificationService.notifySellerExpiry(listing);
             claimService.returnListingItem(listing, pendingReturns);
+            persistenceManager.applyChanges(new AuctionStorageChangeSet()
+                    .removeListing(listingId)
+                    .replaceReturns(listing.sellerId(), pendingReturns.get(listing.sellerId())));
             return AuctionOperationResult.failure("This listing has expired.");
         }
         if (listing.sellerId().equals(buyer.getUniqueId())) {
             return AuctionOperationResult.failure("You cannot purchase your own listing.");
         }
+        ListingBidState bidState = bidBook.state(listingId);
+        if (bidState != null && bidState.highestBid() != null) {
+            return AuctionOperationResult.failure("This listing has bids and can only be won by bidding.");
+        }
 
         // Team scope validation: buyer must be a member of the seller's team
         if (listing.isTeamListing()) {
@@ -242,19 +352,37 @@ public class AuctionListingService {
         if (!claimService.hasInventorySpace(buyer, itemToGive)) {
             return AuctionOperationResult.failure("You do not have enough inventory space.");
         }
+        // Only the path that reserves the listing may move money for it; concurrent purchases,
+        // cancellations and the expiry task fail fast instead of racing on the map removal.
+        if (!listing.lifecycle().reserve()) {
+            return AuctionOperationResult.failure("This listing is no longer available.");
+        }
+        // Buy-now is only offered until the first bid; closing bidding here rejects a bid that
+        // races this purchase.
+        if (!bidBook.closeUnbid(listing)) {
+            listing.lifecycle().release();
+            return AuctionOperationResult.failure("This listing has bids and can only be won by bidding.");
+        }
         AuctionOperationResult withdrawResult = transactionService.withdrawBuyer(buyer, listing.price());
         if (!withdrawResult.success()) {
+            bidBook.reopen(listingId);
+            listing.lifecycle().release();
             return withdrawResult;
         }
         boolean claimSuccess = claimService.claimListing(listingId, listings, pendingReturns);
         if (!claimSuccess) {
             transactionService.refundBuyer(buyer, listing.price());
+            bidBook.reopen(listingId);
+            listing.lifecycle().release();
             return AuctionOperationResult.failure("Failed to claim the listing. You have not been charged.");
         }
+        listing.lifecycle().complete(AuctionListingState.SOLD);
+        bidBook.close(listingId);
         Map<Integer, ItemStack> leftover = buyer.getInventory().addItem(itemToGive);
         if (!leftover.isEmpty()) {
             claimService.storeReturnItem(buyer.getUniqueId(), itemToGive, pendingReturns);
             transactionService.refundBuyer(buyer, listing.price());
+            persistClaimedWithReturns(listingId, buyer.getUniqueId());
             return AuctionOperationResult.failure("Could not add item to your inventory. You have not been charged.");
         }
         AuctionOperationResult creditResult = transactionService.creditSeller(listing.sellerId(), listing.price());
@@ -262,13 +390,14 @@ public class AuctionListingService {
             buyer.getInventory().removeItem(itemToGive);
             claimService.storeReturnItem(buyer.getUniqueId(), itemToGive, pendingReturns);
             transactionService.refundBuyer(buyer, listing.price());
+            persistClaimedWithReturns(listingId, buyer.getUniqueId());
             return AuctionOperationResult.failure("Failed to credit the seller. Transaction cancelled.");
         }
         if (listing.deposit() > 0.0D) {
             transactionService.refundListingDeposit(listing.sellerId(), listing.deposit());
         }
         listings.remove(listingId);
-        persistenceManager.saveListings(new ArrayList<>(listings.values()), new ArrayList<>(orders.values()));
+        persistenceManager.removeListing(listingId);
         notificationService.notifySellerSale(listing);
         transactionHistoryService.recordListingTransactionHistory(listing, buyer);
 
@@ -280,27 +409,104 @@ public class AuctionListingService {
     }
 
     /**
-     * Places a bid on the given listing. Currently this method only fires an event and
-     * notifies listeners — it does not mutate the listing state or handle payments.
-     * This provides a safe hook for implementing a full bid workflow later.
+     * Places a bid on the given listing. The amount is withdrawn from the bidder and held until the
+     * bid is outbid, when it is refunded, or wins when the listing ends. Bids close to the end of a
+     * listing extend it, see {@link AuctionBiddingRules}.
      */
     public AuctionOperationResult placeBid(Player bidder, String listingId, double amount) {
         if (bidder == null || listingId == null || listingId.isEmpty()) {
             return AuctionOperationResult.failure("Invalid bidder or listingId.");
         }
         AuctionListing listing = listings.get(listingId);
-        if (listing == null) return AuctionOperationResult.failure("Listing not found.");
+        if (listing == null || !listing.lifecycle().isActive()) return AuctionOperationResult.failure("Listing not found.");
         if (listing.isExpired()) return AuctionOperationResult.failure("Listing has expired.");
         if (listing.sellerId().equals(bidder.getUniqueId())) return AuctionOperationResult.failure("You cannot bid on your own listing.");
+        if (listing.isTeamListing()
+                && (teamsIntegration == null || !teamsIntegration.isAvailable()
+                || !teamsIntegration.isSameTeam(listing.sellerId(), bidder.getUniqueId()))) {
+            return AuctionOperationResult.failure("You must be a member of the seller's team to bid on this listing.");
+        }
         // Fire event
         com.skyblockexp.ezauction.event.AuctionListingBidEvent bidEvent = new com.skyblockexp.ezauction.event.AuctionListingBidEvent(listing, bidder, amount);
         org.bukkit.Bukkit.getPluginManager().callEvent(bidEvent);
         if (bidEvent.isCancelled()) return AuctionOperationResult.failure("Bid cancelled by another plugin.");
 
-        // Notify services (no state change)
+        AuctionBiddingRules biddingRules = listingRules.bidding();
+        double minimumBid = bidBook.minimumBid(listing, biddingRules);
+        if (amount < minimumBid) {
+            return AuctionOperationResult.failure("Your bid must be at least " + transactionService.formatCurrency(minimumBid) + ".");
+        }
+        AuctionOperationResult escrowResult = transactionService.escrowBid(bidder, amount);
+        if (!escrowResult.success()) {
+            return escrowResult;
+        }
+        escrowLedger.hold(listingId, bidder.getUniqueId(), amount);
+        AuctionBidBook.Placement placement = bidBook.place(listing, bidder.getUniqueId(), amount,
+                System.currentTimeMillis(), biddingRules);
+        if (!placement.accepted()) {
+            refundBid(listingId, bidder.getUniqueId(), amount);
+            if (placement.status() == AuctionBidBook.Status.TOO_LOW) {
+                return AuctionOperationResult.failure("You were outbid. The minimum bid is now "
+                        + transactionService.formatCurrency(placement.minimumBid()) + ".");
+            }
+            return AuctionOperationResult.failure("Bidding on this listing has ended.");
+        }
+        AuctionBid outbid = placement.previous().highestBid();
+        if (outbid != null) {
+            refundBid(listingId, outbid.bidderId(), outbid.amount());
+        }
+        if (!listings.containsKey(listingId)) {
+            // The listing was sold, cancelled or expired while the bid was placed.
+            refundOpenBid(listingId);
+            return AuctionOperationResult.failure("Listing not found.");
+        }
+        if (placement.extended()) {
+            extendListing(listingId, placement.current().endsAtMillis());
+        }
+
         notificationService.notifyAuctionBid(listing, bidder, amount);
 
-        return AuctionOperationResult.success("Your bid was submitted.");
+        return AuctionOperationResult.success("Your bid of " + transactionService.formatCurrency(amount) + " was placed.");
+    }
+
+    /**
+     * Returns the bidding state of a listing, or {@code null} if nobody has bid on it.
+     */
+    public ListingBidState getBidState(String listingId) {
+        return bidBook.state(listingId);
+    }
+
+    /**
+     * Closes bidding on a listing that left the market without being won and refunds the leading bid.
+     */
+    private void refundOpenBid(String listingId) {
+        ListingBidState closed = bidBook.close(listingId);
+        if (closed != null && closed.highestBid() != null) {
+            refundBid(listingId, closed.highestBid().bidderId(), closed.highestBid().amount());
+        }
+    }
+
+    private void refundBid(String listingId, UUID bidderId, double amount) {
+        transactionService.refundBid(bidderId, amount);
+        escrowLedger.release(listingId, bidderId, amount);
+    }
+
+    /**
+     * Moves the end of a listing to {@code endsAt}. Replacing the entry reschedules it in the
+     * expiry index of the listing map.
+     */
+    private void extendListing(String listingId, long endsAt) {
+        while (true) {
+            AuctionListing current = listings.get(listingId);
+            if (current == null || current.expiryEpochMillis() >= endsAt) {
+                return;
+            }
+            AuctionListing extended = current.withExpiry(endsAt);
+            if (listings.replace(listingId, current, extended)) {
+                persistenceManager.saveListing(extended);
+                return;
+            }
+        }
     }
 
     public AuctionOperationResult cancelListing(UUID sellerId, String listingId) {
@@ -314,17 +520,32 @@ public class AuctionListingService {
         if (!sellerId.equals(listing.sellerId())) {
             return AuctionOperationResult.failure("You do not own this listing.");
         }
+        if (!listing.lifecycle().reserve()) {
+            return AuctionOperationResult.failure("This listing is being purchased or has already ended.");
+        }
         listings.remove(listingId);
+        listing.lifecycle().complete(AuctionListingState.CANCELLED);
+        refundOpenBid(listingId);
         claimService.returnListingItem(listing, pendingReturns);
         if (listing.deposit() > 0.0D) {
             transactionService.refundListingDeposit(sellerId, listing.deposit());
         }
-        persistenceManager.saveListings(new ArrayList<>(listings.values()), new ArrayList<>(orders.values()));
+        persistClaimedWithReturns(listingId, sellerId);
         notificationService.notifySellerCancelled(listing);
         transactionHistoryService.recordListingTransactionHistory(listing, null);
         return AuctionOperationResult.success("Your listing has been cancelled and the item returned.");
     }
 
+    /**
+     * Persists the removal of a listing together with the pending returns of the player who
+     * received its item, as a single incremental change.
+     */
+    private void persistClaimedWithReturns(String listingId, UUID returnOwnerId) {
+        persistenceManager.applyChanges(new AuctionStorageChangeSet()
+                .removeListing(listingId)
+                .replaceReturns(returnOwnerId, pendingReturns.get(returnOwnerId)));
+    }
+
     public Map<String, AuctionListing> getListings() {
         return listings;
     }
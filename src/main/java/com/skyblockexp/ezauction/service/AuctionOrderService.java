@@ -9,6 +9,7 @@ import com.skyblockexp.ezauction.transaction.AuctionTransactionService;
 import com.skyblockexp.ezauction.notification.AuctionNotificationService;
 import com.skyblockexp.ezauction.history.AuctionTransactionHistoryService;
 import com.skyblockexp.ezauction.persistence.AuctionPersistenceManager;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
 import com.skyblockexp.ezauction.config.AuctionConfiguration;
 import com.skyblockexp.ezauction.config.AuctionListingRules;
 import com.skyblockexp.ezauction.claim.AuctionClaimService;
@@ -117,7 +118,7 @@ public class AuctionOrderService {
         if (configuration != null && configuration.debug()) {
             LOGGER.fine("[EzAuction][DEBUG] Order added: id=" + id + ", buyer=" + buyer.getName() + ", price=" + normalizedPrice + ", qty=" + requestedItem.getAmount());
         }
-        persistenceManager.saveListings(new ArrayList<>(listings.values()), new ArrayList<>(orders.values()));
+        persistenceManager.saveOrder(order);
         notificationService.notifyOrderCreated(order, buyer);
         transactionHistoryService.recordOrderTransactionHistory(order, buyer.getUniqueId(), buyer.getName(), null);
         return AuctionOperationResult.success("Your order has been created and funds reserved.");
@@ -137,7 +138,7 @@ public class AuctionOrderService {
             if (configuration != null && configuration.debug()) {
                 LOGGER.fine("[EzAuction][DEBUG] Order expired and removed: id=" + orderId);
             }
-            persistenceManager.saveListings(new ArrayList<>(listings.values()), new ArrayList<>(orders.values()));
+            persistenceManager.removeOrder(orderId);
             notificationService.notifyOrderExpiry(order);
             transactionService.refundOrderBuyer(order.buyerId(), order.reservedAmount());
             return AuctionOperationResult.failure("This order has expired.");
@@ -171,7 +172,9 @@ public class AuctionOrderService {
         if (configuration != null && configuration.debug()) {
             LOGGER.fine("[EzAuction][DEBUG] Order fulfilled and removed: id=" + orderId + ", seller=" + seller.getName());
         }
-        persistenceManager.saveListings(new ArrayList<>(listings.values()), new ArrayList<>(orders.values()));
+        persistenceManager.applyChanges(new AuctionStorageChangeSet()
+                .removeOrder(orderId)
+                .replaceReturns(order.buyerId(), pendingReturns.get(order.buyerId())));
         notificationService.notifyOrderFulfilled(order, seller);
         transactionHistoryService.recordOrderTransactionHistory(order, seller.getUniqueId(), seller.getName(), removalStack);
         return AuctionOperationResult.success("Order fulfilled and item delivered.");
@@ -193,7 +196,7 @@ public class AuctionOrderService {
             LOGGER.fine("[EzAuction][DEBUG] Order cancelled and removed: id=" + orderId + ", buyer=" + buyerId);
         }
         transactionService.refundOrderBuyer(order.buyerId(), order.reservedAmount());
-        persistenceManager.saveListings(new ArrayList<>(listings.values()), new ArrayList<>(orders.values()));
+        persistenceManager.removeOrder(orderId);
         notificationService.notifyOrderCancelled(order);
         transactionHistoryService.recordOrderTransactionHistory(order, buyerId, null, null);
         return AuctionOperationResult.success("Your order has been cancelled and funds refunded.");
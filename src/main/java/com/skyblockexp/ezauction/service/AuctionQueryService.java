@@ -5,18 +5,26 @@ import com.skyblockexp.ezauction.integration.TeamsIntegration;
 import com.skyblockexp.ezauction.live.LiveAuctionEntry;
 import com.skyblockexp.ezauction.live.LiveAuctionService;
 import com.skyblockexp.ezauction.config.AuctionConfiguration;
+import com.skyblockexp.ezauction.index.IndexedAuctionMap;
+import com.skyblockexp.ezauction.index.VersionedViewCache;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Handles queries and statistics for listings and orders (count, find, etc.).
  */
 public class AuctionQueryService {
+    private static final Object EXPIRY_ORDER = new Object();
+
     private final Map<String, AuctionListing> listings;
     private final Map<String, AuctionOrder> orders;
     private final LiveAuctionService liveAuctionService;
     private final AuctionConfiguration configuration;
     private final TeamsIntegration teamsIntegration;
+    private final VersionedViewCache<AuctionListing> listingViews = new VersionedViewCache<>();
+    private final VersionedViewCache<AuctionOrder> orderViews = new VersionedViewCache<>();
 
     public AuctionQueryService(Map<String, AuctionListing> listings,
                               Map<String, AuctionOrder> orders,
@@ -58,11 +66,253 @@ public class AuctionQueryService {
         return Collections.unmodifiableList(active);
     }
 
+    /**
+     * Returns the entries of {@link #listActiveListings()} in price order, read through the price
+     * index. Listings with the same price are ordered by id.
+     *
+     * @param highestFirst whether the most expensive listing comes first
+     */
+    public List<AuctionListing> listActiveListingsByPrice(boolean highestFirst) {
+        List<AuctionListing> active = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (AuctionListing listing : IndexedAuctionMap.listingsByPrice(listings, highestFirst)) {
+            if (listing.expiryEpochMillis() > now && !listing.isTeamListing()) {
+                active.add(listing);
+            }
+        }
+        return Collections.unmodifiableList(active);
+    }
+
+    /**
+     * Returns the entries of {@link #listActiveOrders()} in offered price order, read through the
+     * price index. Orders with the same price are ordered by id.
+     *
+     * @param highestFirst whether the highest offer comes first
+     */
+    public List<AuctionOrder> listActiveOrdersByPrice(boolean highestFirst) {
+        List<AuctionOrder> active = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (AuctionOrder order : IndexedAuctionMap.ordersByPrice(orders, highestFirst)) {
+            if (order.expiryEpochMillis() > now) {
+                active.add(order);
+            }
+        }
+        return Collections.unmodifiableList(active);
+    }
+
+    /**
+     * Returns the active, non-team listings in the given order as an immutable list. The list is
+     * built once per change of the listings and shared by every caller using the same sort until
+     * then, so callers must not copy it to take a page.
+     *
+     * @param sort the order, or {@code null} for soonest expiry first
+     */
+    public List<AuctionListing> sortedListings(AuctionSort<AuctionListing> sort) {
+        Object viewKey = sort != null ? sort : EXPIRY_ORDER;
+        return listingViews.get(viewKey, IndexedAuctionMap.version(listings), () -> sortedActiveListings(sort));
+    }
+
+    /**
+     * Returns the active buy orders in the given order, shared like {@link #sortedListings(AuctionSort)}.
+     *
+     * @param sort the order, or {@code null} for soonest expiry first
+     */
+    public List<AuctionOrder> sortedOrders(AuctionSort<AuctionOrder> sort) {
+        Object viewKey = sort != null ? sort : EXPIRY_ORDER;
+        return orderViews.get(viewKey, IndexedAuctionMap.version(orders), () -> sortedActiveOrders(sort));
+    }
+
+    /**
+     * Returns one page of the active, non-team listings in the given order, optionally narrowed
+     * to the listings matching a search query. The sorted listings are shared between callers
+     * until the listings change, so a page costs a slice of that list rather than a copy of the
+     * market.
+     *
+     * @param sort            the order, or {@code null} for soonest expiry first
+     * @param normalizedQuery the lower-case search query, or {@code null} for all listings
+     * @param offset          position of the first listing; offsets past the end return the last page
+     * @param limit           maximum number of listings on the page
+     */
+    public AuctionPage<AuctionListing> pageListings(AuctionSort<AuctionListing> sort, String normalizedQuery,
+            int offset, int limit) {
+        return page(sortedListings(sort), listingMatches(normalizedQuery), AuctionListing::id, offset, limit);
+    }
+
+    /**
+     * Returns one page of the active team listings visible to {@code viewerId}, like
+     * {@link #pageListings(AuctionSort, String, int, int)}.
+     */
+    public AuctionPage<AuctionListing> pageTeamListings(UUID viewerId, AuctionSort<AuctionListing> sort,
+            String normalizedQuery, int offset, int limit) {
+        List<AuctionListing> team = new ArrayList<>(listActiveTeamListings(viewerId));
+        if (sort != null) {
+            sort.sort(team);
+        }
+        return page(team, listingMatches(normalizedQuery), AuctionListing::id, offset, limit);
+    }
+
+    /**
+     * Returns one page of the active buy orders, like {@link #pageListings(AuctionSort, String, int, int)}.
+     */
+    public AuctionPage<AuctionOrder> pageOrders(AuctionSort<AuctionOrder> sort, String normalizedQuery,
+            int offset, int limit) {
+        return page(sortedOrders(sort), orderMatches(normalizedQuery), AuctionOrder::id, offset, limit);
+    }
+
+    /**
+     * Returns one page of a seller's active, non-team listings, soonest expiry first, read through
+     * the seller index.
+     */
+    public AuctionPage<AuctionListing> pageListings(UUID sellerId, int offset, int limit) {
+        return page(listActiveListings(sellerId), null, AuctionListing::id, offset, limit);
+    }
+
+    /**
+     * Returns one page of a buyer's active orders, soonest expiry first, read through the buyer index.
+     */
+    public AuctionPage<AuctionOrder> pageOrders(UUID buyerId, int offset, int limit) {
+        return page(listActiveOrders(buyerId), null, AuctionOrder::id, offset, limit);
+    }
+
+    private List<AuctionListing> sortedActiveListings(AuctionSort<AuctionListing> sort) {
+        if (sort == null) {
+            return listActiveListings();
+        }
+        if (sort.priceOrdered()) {
+            List<AuctionListing> sorted = new ArrayList<>(listActiveListingsByPrice(sort.highestFirst()));
+            sortTies(sorted, AuctionListing::price, sort);
+            return sorted;
+        }
+        List<AuctionListing> sorted = new ArrayList<>(listActiveListings());
+        sort.sort(sorted);
+        return sorted;
+    }
+
+    private List<AuctionOrder> sortedActiveOrders(AuctionSort<AuctionOrder> sort) {
+        if (sort == null) {
+            return listActiveOrders();
+        }
+        if (sort.priceOrdered()) {
+            List<AuctionOrder> sorted = new ArrayList<>(listActiveOrdersByPrice(sort.highestFirst()));
+            sortTies(sorted, AuctionOrder::offeredPrice, sort);
+            return sorted;
+        }
+        List<AuctionOrder> sorted = new ArrayList<>(listActiveOrders());
+        sort.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Orders each run of equal prices in an already price-ordered list with {@code sort}, so the
+     * price index yields the same order as sorting the whole list would.
+     */
+    private static <T> void sortTies(List<T> byPrice, ToDoubleFunction<T> price, AuctionSort<T> sort) {
+        int start = 0;
+        while (start < byPrice.size()) {
+            double runPrice = price.applyAsDouble(byPrice.get(start));
+            int end = start + 1;
+            while (end < byPrice.size() && Double.compare(price.applyAsDouble(byPrice.get(end)), runPrice) == 0) {
+                end++;
+            }
+            if (end - start > 1) {
+                sort.sort(byPrice.subList(start, end));
+            }
+            start = end;
+        }
+    }
+
+    private Set<String> listingMatches(String normalizedQuery) {
+        return normalizedQuery != null && !normalizedQuery.isEmpty() ? findListingIdsMatching(normalizedQuery) : null;
+    }
+
+    private Set<String> orderMatches(String normalizedQuery) {
+        return normalizedQuery != null && !normalizedQuery.isEmpty() ? findOrderIdsMatching(normalizedQuery) : null;
+    }
+
+    /**
+     * Slices a page out of {@code source}, counting only entries whose id is in {@code matches}
+     * unless it is {@code null}.
+     */
+    private static <T> AuctionPage<T> page(List<T> source, Set<String> matches, Function<T, String> id,
+            int offset, int limit) {
+        int pageSize = Math.max(1, limit);
+        if (matches == null) {
+            int total = source.size();
+            int from = clampOffset(offset, total, pageSize);
+            return new AuctionPage<>(source.subList(from, Math.min(total, from + pageSize)), from, total);
+        }
+        int total = 0;
+        for (T entry : source) {
+            if (matches.contains(id.apply(entry))) {
+                total++;
+            }
+        }
+        int from = clampOffset(offset, total, pageSize);
+        List<T> entries = new ArrayList<>(Math.min(pageSize, total));
+        int position = 0;
+        for (T entry : source) {
+            if (entries.size() >= pageSize) {
+                break;
+            }
+            if (matches.contains(id.apply(entry)) && position++ >= from) {
+                entries.add(entry);
+            }
+        }
+        return new AuctionPage<>(entries, from, total);
+    }
+
+    private static int clampOffset(int offset, int total, int pageSize) {
+        if (total == 0) {
+            return 0;
+        }
+        int lastPageStart = ((total - 1) / pageSize) * pageSize;
+        return Math.min(Math.max(0, offset), lastPageStart);
+    }
+
+    /**
+     * Returns the ids of the listings whose item matches the lower-case search query, read through
+     * the search index. The result may include expired and team listings.
+     */
+    public Set<String> findListingIdsMatching(String normalizedQuery) {
+        return IndexedAuctionMap.searchListings(listings, normalizedQuery);
+    }
+
+    /**
+     * Returns the ids of the orders whose requested item matches the lower-case search query, read
+     * through the search index. The result may include expired orders.
+     */
+    public Set<String> findOrderIdsMatching(String normalizedQuery) {
+        return IndexedAuctionMap.searchOrders(orders, normalizedQuery);
+    }
+
+    /**
+     * Returns the seller's entries of {@link #listActiveListings()}, read through the seller index.
+     */
+    public List<AuctionListing> listActiveListings(UUID sellerId) {
+        if (sellerId == null) return Collections.emptyList();
+        List<AuctionListing> active = new ArrayList<>(IndexedAuctionMap.listingsBySeller(listings, sellerId));
+        long now = System.currentTimeMillis();
+        active.removeIf(l -> l.expiryEpochMillis() <= now || l.isTeamListing());
+        active.sort(Comparator.comparingLong(AuctionListing::expiryEpochMillis));
+        return Collections.unmodifiableList(active);
+    }
+
+    /**
+     * Returns the buyer's entries of {@link #listActiveOrders()}, read through the buyer index.
+     */
+    public List<AuctionOrder> listActiveOrders(UUID buyerId) {
+        if (buyerId == null) return Collections.emptyList();
+        List<AuctionOrder> active = new ArrayList<>(IndexedAuctionMap.ordersByBuyer(orders, buyerId));
+        long now = System.currentTimeMillis();
+        active.removeIf(o -> o.expiryEpochMillis() <= now);
+        active.sort(Comparator.comparingLong(AuctionOrder::expiryEpochMillis));
+        return Collections.unmodifiableList(active);
+    }
+
     public long countActiveListings(UUID sellerId) {
         if (sellerId == null) return 0L;
         long now = System.currentTimeMillis();
-        return listings.values().stream()
-                .filter(listing -> sellerId.equals(listing.sellerId()))
+        return IndexedAuctionMap.listingsBySeller(listings, sellerId).stream()
                 .filter(listing -> listing.expiryEpochMillis() > now)
                 .count();
     }
@@ -70,8 +320,7 @@ public class AuctionQueryService {
     public long countActiveOrders(UUID buyerId) {
         if (buyerId == null) return 0L;
         long now = System.currentTimeMillis();
-        return orders.values().stream()
-                .filter(order -> buyerId.equals(order.buyerId()))
+        return IndexedAuctionMap.ordersByBuyer(orders, buyerId).stream()
                 .filter(order -> order.expiryEpochMillis() > now)
                 .count();
     }
@@ -92,18 +341,22 @@ public class AuctionQueryService {
 
     public AuctionListing findHighestPricedListing() {
         long now = System.currentTimeMillis();
-        return listings.values().stream()
-                .filter(l -> l.expiryEpochMillis() > now)
-                .max(Comparator.comparingDouble(AuctionListing::price))
-                .orElse(null);
+        for (AuctionListing listing : IndexedAuctionMap.listingsByPrice(listings, true)) {
+            if (listing.expiryEpochMillis() > now) {
+                return listing;
+            }
+        }
+        return null;
     }
 
     public AuctionOrder findHighestPricedOrder() {
         long now = System.currentTimeMillis();
-        return orders.values().stream()
-                .filter(o -> o.expiryEpochMillis() > now)
-                .max(Comparator.comparingDouble(AuctionOrder::offeredPrice))
-                .orElse(null);
+        for (AuctionOrder order : IndexedAuctionMap.ordersByPrice(orders, true)) {
+            if (order.expiryEpochMillis() > now) {
+                return order;
+            }
+        }
+        return null;
     }
 
     public AuctionListing findNextExpiringListing() {
@@ -157,8 +410,8 @@ public class AuctionQueryService {
         UUID tid = teamId.get();
         long now = System.currentTimeMillis();
         List<AuctionListing> result = new ArrayList<>();
-        for (AuctionListing l : listings.values()) {
-            if (l.expiryEpochMillis() > now && l.isTeamListing() && tid.equals(l.teamId())) {
+        for (AuctionListing l : IndexedAuctionMap.listingsByTeam(listings, tid)) {
+            if (l.expiryEpochMillis() > now) {
                 result.add(l);
             }
         }
@@ -50,7 +50,7 @@ public class AuctionReturnService {
         int totalItems = countItemAmount(stored);
         if (totalItems <= 0) {
             pendingReturns.remove(playerId);
-            persistenceManager.saveReturns(pendingReturns);
+            persistenceManager.savePlayerReturns(playerId, null);
             return;
         }
         player.sendMessage(formatMessage(backendMessages.claim().reminder(),
@@ -90,7 +90,7 @@ public class AuctionReturnService {
         }
         if (availableAmount <= 0) {
             pendingReturns.remove(playerId);
-            persistenceManager.saveReturns(pendingReturns);
+            persistenceManager.savePlayerReturns(playerId, null);
             return AuctionOperationResult.failure(formatMessage(backendMessages.claim().noneAvailable()));
         }
         if (remaining.isEmpty()) {
@@ -98,7 +98,7 @@ public class AuctionReturnService {
         } else {
             pendingReturns.put(playerId, remaining);
         }
-        persistenceManager.saveReturns(pendingReturns);
+        persistenceManager.savePlayerReturns(playerId, remaining);
         if (claimedAmount <= 0) return AuctionOperationResult.failure(formatMessage(backendMessages.claim().inventoryFull()));
         int remainingAmount = countItemAmount(remaining);
         if (remainingAmount > 0) {
@@ -1,8 +1,16 @@
 package com.skyblockexp.ezauction.storage;
 
+import com.skyblockexp.ezauction.transaction.AuctionHistoryCursor;
+import com.skyblockexp.ezauction.transaction.AuctionHistoryPage;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -18,6 +26,62 @@ public interface AuctionHistoryStorage extends AutoCloseable {
 
     void savePlayerHistory(UUID playerId, Deque<AuctionTransactionHistoryEntry> history);
 
+    /**
+     * Loads the history of a single player. Storages that can look a player up directly should
+     * override this instead of reading every player's history.
+     *
+     * @param playerId the player whose history to load
+     * @return the player's history, newest entries first, or an empty deque
+     */
+    default Deque<AuctionTransactionHistoryEntry> loadPlayerHistory(UUID playerId) {
+        Deque<AuctionTransactionHistoryEntry> history = loadAll().get(playerId);
+        return history != null ? history : new ArrayDeque<>();
+    }
+
+    /**
+     * Loads one page of a player's history, newest entries first. The default implementation
+     * reads the whole history; storages that can seek by timestamp should override this so that
+     * older entries are never read in full.
+     *
+     * @param playerId   the player whose history to read
+     * @param cursor     position to continue after, or {@code null} for the newest entries
+     * @param limit      maximum number of entries on the page
+     * @param typeFilter type of the entries to include, or {@code null} for all
+     * @return the page, never {@code null}
+     */
+    default AuctionHistoryPage loadHistoryPage(UUID playerId, AuctionHistoryCursor cursor, int limit,
+            AuctionTransactionType typeFilter) {
+        if (playerId == null) {
+            return AuctionHistoryPage.empty();
+        }
+        return AuctionHistoryPage.of(loadPlayerHistory(playerId), cursor, limit, typeFilter);
+    }
+
+    /**
+     * Adds entries to a player's stored history without the caller holding the rest of it.
+     * The default implementation loads the player's history, prepends the entries and saves it
+     * again; append-only storages should override this with a plain insert.
+     *
+     * @param playerId the player whose history to extend
+     * @param entries  the new entries, newest first
+     * @throws RuntimeException if the entries could not be stored; the history dispatcher keeps
+     *                          them and retries with backoff
+     */
+    default void appendPlayerHistory(UUID playerId, List<AuctionTransactionHistoryEntry> entries) {
+        if (playerId == null || entries == null || entries.isEmpty()) {
+            return;
+        }
+        Deque<AuctionTransactionHistoryEntry> history = loadPlayerHistory(playerId);
+        Set<String> known = new HashSet<>();
+        history.forEach(entry -> known.add(entry.transactionId()));
+        List<AuctionTransactionHistoryEntry> added = new ArrayList<>(entries);
+        added.removeIf(entry -> !known.add(entry.transactionId()));
+        for (int i = added.size() - 1; i >= 0; i--) {
+            history.addFirst(added.get(i));
+        }
+        savePlayerHistory(playerId, history);
+    }
+
     @Override
     void close();
 }
@@ -0,0 +1,153 @@
+package com.skyblockexp.ezauction.storage;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.EzAuctionPlugin;
+import com.skyblockexp.ezauction.LazyItemStack;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Decodes auction entries in parallel while a storage backend is still reading them.
+ *
+ * <p>The storage streams raw rows into the pipeline and hands over a decoder per entry; the
+ * decoders run on a bounded fork-join pool and populate concurrent maps. Listing and order items
+ * stay serialized, but each one is decoded once on the pool by {@link LazyItemStack#verify()},
+ * and entries whose item is missing or corrupt are skipped with a warning instead of being
+ * loaded without an item. This full decode is deliberate: a header or length check cannot tell a
+ * truncated or otherwise corrupt payload apart, and an entry that fails only when it is bought or
+ * expires cannot be settled. Startup pays one decode per item; memory still holds only the bytes. {@link #complete()} waits for the outstanding decoders, logs a timing
+ * breakdown and returns the loaded snapshot. Decoders return {@code null} to skip an entry.</p>
+ */
+public final class AuctionLoadPipeline implements AutoCloseable {
+
+    private static final int MAX_PARALLELISM = 8;
+
+    private final Logger logger;
+    private final String source;
+    private final ForkJoinPool pool;
+    private final Map<String, AuctionListing> listings = new ConcurrentHashMap<>();
+    private final Map<String, AuctionOrder> orders = new ConcurrentHashMap<>();
+    private final Map<UUID, List<ItemStack>> returns = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<CompletableFuture<Void>> tasks = new ConcurrentLinkedQueue<>();
+    private final LongAdder decodeNanos = new LongAdder();
+    private final long startedAt = System.nanoTime();
+
+    public AuctionLoadPipeline(Logger logger, String source) {
+        this(logger, source, defaultParallelism());
+    }
+
+    public AuctionLoadPipeline(Logger logger, String source, int parallelism) {
+        this.logger = logger != null ? logger : Logger.getLogger(AuctionLoadPipeline.class.getName());
+        this.source = source;
+        ClassLoader classLoader = AuctionLoadPipeline.class.getClassLoader();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.pool = new ForkJoinPool(Math.max(1, parallelism), forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName(EzAuctionPlugin.DISPLAY_NAME + "-Load-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }, null, false);
+    }
+
+    public void submitListing(String id, Supplier<AuctionListing> decoder) {
+        submit(id, verified(id, "listing", decoder, AuctionListing::itemData), listings);
+    }
+
+    public void submitOrder(String id, Supplier<AuctionOrder> decoder) {
+        submit(id, verified(id, "order", decoder, AuctionOrder::requestedItemData), orders);
+    }
+
+    /**
+     * Queues the decoding of a player's complete pending-return list. Empty results are skipped.
+     */
+    public void submitReturns(UUID playerId, Supplier<List<ItemStack>> decoder) {
+        submit(playerId, () -> {
+            List<ItemStack> items = decoder.get();
+            return items == null || items.isEmpty() ? null : items;
+        }, returns);
+    }
+
+    /**
+     * Waits for every queued decoder, shuts the pool down and returns the loaded data.
+     */
+    public AuctionStorageSnapshot complete() {
+        long readFinishedAt = System.nanoTime();
+        CompletableFuture<Void> task;
+        while ((task = tasks.poll()) != null) {
+            task.join();
+        }
+        pool.shutdown();
+        long finishedAt = System.nanoTime();
+        logger.log(Level.INFO, String.format(
+                "[%s] Loaded %d listings, %d orders and returns for %d players from %s in %d ms"
+                        + " (read %d ms, decode %d ms on %d threads, waited %d ms for decoding).",
+                EzAuctionPlugin.DISPLAY_NAME, listings.size(), orders.size(), returns.size(), source,
+                TimeUnit.NANOSECONDS.toMillis(finishedAt - startedAt),
+                TimeUnit.NANOSECONDS.toMillis(readFinishedAt - startedAt),
+                TimeUnit.NANOSECONDS.toMillis(decodeNanos.sum()), pool.getParallelism(),
+                TimeUnit.NANOSECONDS.toMillis(finishedAt - readFinishedAt)));
+        return new AuctionStorageSnapshot(listings, orders, returns);
+    }
+
+    /**
+     * Discards outstanding decoders. Used when reading fails before {@link #complete()}.
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private <K, V> void submit(K key, Supplier<V> decoder, Map<K, V> target) {
+        if (key == null || decoder == null) {
+            return;
+        }
+        tasks.add(CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                V value = decoder.get();
+                if (value != null) {
+                    target.put(key, value);
+                }
+            } catch (RuntimeException ex) {
+                logger.log(Level.WARNING, "Failed to decode auction entry " + key + " from " + source
+                        + "; it will be skipped.", ex);
+            } finally {
+                decodeNanos.add(System.nanoTime() - start);
+            }
+        }, pool));
+    }
+
+    private <V> Supplier<V> verified(String id, String kind, Supplier<V> decoder, Function<V, LazyItemStack> item) {
+        if (decoder == null) {
+            return null;
+        }
+        return () -> {
+            V value = decoder.get();
+            if (value != null && !item.apply(value).verify()) {
+                logger.warning("Ignoring auction " + kind + " " + id + " from " + source + " because the item is invalid.");
+                return null;
+            }
+            return value;
+        };
+    }
+
+    private static int defaultParallelism() {
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, MAX_PARALLELISM));
+    }
+}
@@ -3,6 +3,7 @@ package com.skyblockexp.ezauction.storage;
 import com.skyblockexp.ezauction.AuctionListing;
 import com.skyblockexp.ezauction.AuctionOrder;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -21,6 +22,43 @@ public interface AuctionStorage extends AutoCloseable {
 
     void saveReturns(Map<UUID, List<ItemStack>> returnsByPlayer);
 
+    /**
+     * Persists an incremental set of listing, order, and return changes. Implementations
+     * should only touch the entries referenced by the change set.
+     *
+     * <p>The default implementation loads the stored data, applies the changes to it and writes
+     * it back with {@link #saveListings} and {@link #saveReturns}, so storages written before
+     * incremental saves keep working, at the cost of a full rewrite per change set.</p>
+     *
+     * @param changes the changes to persist
+     */
+    default void applyChanges(AuctionStorageChangeSet changes) {
+        if (changes == null || changes.isEmpty()) {
+            return;
+        }
+        AuctionStorageSnapshot snapshot = load();
+        if (changes.hasListingChanges()) {
+            Map<String, AuctionListing> listings = new HashMap<>(snapshot.listings());
+            changes.listingRemovals().forEach(listings::remove);
+            changes.listingUpserts().forEach(listing -> listings.put(listing.id(), listing));
+            Map<String, AuctionOrder> orders = new HashMap<>(snapshot.orders());
+            changes.orderRemovals().forEach(orders::remove);
+            changes.orderUpserts().forEach(order -> orders.put(order.id(), order));
+            saveListings(listings.values(), orders.values());
+        }
+        if (changes.hasReturnChanges()) {
+            Map<UUID, List<ItemStack>> returns = new HashMap<>(snapshot.pendingReturns());
+            changes.returnUpdates().forEach((playerId, items) -> {
+                if (items.isEmpty()) {
+                    returns.remove(playerId);
+                } else {
+                    returns.put(playerId, items);
+                }
+            });
+            saveReturns(returns);
+        }
+    }
+
     @Override
     void close();
 }
@@ -0,0 +1,139 @@
+package com.skyblockexp.ezauction.storage;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionOrder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Incremental set of changes to persist for listings, orders, and pending returns.
+ *
+ * <p>Each key is tracked once: an upsert replaces a pending removal of the same id and
+ * vice versa, so the most recent operation always wins. Return updates replace the
+ * complete pending-return list of a player; an empty list removes the player's returns.</p>
+ *
+ * <p>Instances are not thread-safe and are expected to be handed to a single persistence
+ * thread once populated.</p>
+ */
+public final class AuctionStorageChangeSet {
+
+    private final Map<String, AuctionListing> listingUpserts = new LinkedHashMap<>();
+    private final Set<String> listingRemovals = new LinkedHashSet<>();
+    private final Map<String, AuctionOrder> orderUpserts = new LinkedHashMap<>();
+    private final Set<String> orderRemovals = new LinkedHashSet<>();
+    private final Map<UUID, List<ItemStack>> returnUpdates = new LinkedHashMap<>();
+
+    public AuctionStorageChangeSet upsertListing(AuctionListing listing) {
+        if (listing != null) {
+            listingRemovals.remove(listing.id());
+            listingUpserts.put(listing.id(), listing);
+        }
+        return this;
+    }
+
+    public AuctionStorageChangeSet removeListing(String listingId) {
+        if (listingId != null && !listingId.isEmpty()) {
+            listingUpserts.remove(listingId);
+            listingRemovals.add(listingId);
+        }
+        return this;
+    }
+
+    public AuctionStorageChangeSet upsertOrder(AuctionOrder order) {
+        if (order != null) {
+            orderRemovals.remove(order.id());
+            orderUpserts.put(order.id(), order);
+        }
+        return this;
+    }
+
+    public AuctionStorageChangeSet removeOrder(String orderId) {
+        if (orderId != null && !orderId.isEmpty()) {
+            orderUpserts.remove(orderId);
+            orderRemovals.add(orderId);
+        }
+        return this;
+    }
+
+    /**
+     * Replaces the pending returns of a player. A {@code null} or empty list removes them.
+     */
+    public AuctionStorageChangeSet replaceReturns(UUID playerId, Collection<ItemStack> items) {
+        if (playerId != null) {
+            returnUpdates.put(playerId, items != null ? new ArrayList<>(items) : new ArrayList<>());
+        }
+        return this;
+    }
+
+    /**
+     * Folds another change set into this one; operations in {@code other} take precedence.
+     */
+    public AuctionStorageChangeSet merge(AuctionStorageChangeSet other) {
+        if (other == null || other == this) {
+            return this;
+        }
+        other.listingRemovals.forEach(this::removeListing);
+        other.listingUpserts.values().forEach(this::upsertListing);
+        other.orderRemovals.forEach(this::removeOrder);
+        other.orderUpserts.values().forEach(this::upsertOrder);
+        other.returnUpdates.forEach(this::replaceReturns);
+        return this;
+    }
+
+    public Collection<AuctionListing> listingUpserts() {
+        return Collections.unmodifiableCollection(listingUpserts.values());
+    }
+
+    public Set<String> listingRemovals() {
+        return Collections.unmodifiableSet(listingRemovals);
+    }
+
+    public Collection<AuctionOrder> orderUpserts() {
+        return Collections.unmodifiableCollection(orderUpserts.values());
+    }
+
+    public Set<String> orderRemovals() {
+        return Collections.unmodifiableSet(orderRemovals);
+    }
+
+    public Map<UUID, List<ItemStack>> returnUpdates() {
+        return Collections.unmodifiableMap(returnUpdates);
+    }
+
+    public boolean hasListingChanges() {
+        return !listingUpserts.isEmpty() || !listingRemovals.isEmpty()
+                || !orderUpserts.isEmpty() || !orderRemovals.isEmpty();
+    }
+
+    public boolean hasReturnChanges() {
+        return !returnUpdates.isEmpty();
+    }
+
+    public boolean isEmpty() {
+        return !hasListingChanges() && !hasReturnChanges();
+    }
+
+    public int size() {
+        return listingUpserts.size() + listingRemovals.size() + orderUpserts.size() + orderRemovals.size()
+                + returnUpdates.size();
+    }
+
+    @Override
+    public String toString() {
+        return "AuctionStorageChangeSet{"
+                + "listingUpserts=" + listingUpserts.size()
+                + ", listingRemovals=" + listingRemovals.size()
+                + ", orderUpserts=" + orderUpserts.size()
+                + ", orderRemovals=" + orderRemovals.size()
+                + ", returnUpdates=" + returnUpdates.size()
+                + '}';
+    }
+}
@@ -4,6 +4,9 @@ import com.skyblockexp.ezauction.EzAuctionPlugin;
 import com.skyblockexp.ezauction.config.AuctionConfiguration;
 import com.skyblockexp.ezauction.config.AuctionStorageConfiguration;
 import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Mysql;
+import com.skyblockexp.ezauction.storage.journal.JournalAuctionStorage;
+import com.skyblockexp.ezauction.storage.sqlite.SqliteAuctionHistoryStorage;
+import com.skyblockexp.ezauction.storage.sqlite.SqliteAuctionListingStorage;
 import com.skyblockexp.ezauction.storage.mysql.MysqlAuctionListingStorage;
 import com.skyblockexp.ezauction.storage.mysql.MysqlAuctionHistoryStorage;
 import com.skyblockexp.ezauction.storage.yaml.YamlAuctionHistoryStorage;
@@ -43,6 +46,36 @@ public final class AuctionStorageFactory {
             }
         }
 
+        if (storageConfiguration.type() == AuctionStorageConfiguration.StorageType.SQLITE) {
+            SqliteAuctionListingStorage listingStorage = new SqliteAuctionListingStorage(plugin,
+                    storageConfiguration.sqlite());
+            SqliteAuctionHistoryStorage historyStorage = new SqliteAuctionHistoryStorage(plugin,
+                    storageConfiguration.sqlite());
+            boolean listingOk = listingStorage.initialize();
+            boolean historyOk = historyStorage.initialize();
+            if (listingOk && historyOk) {
+                return new AuctionStorageBundle(listingStorage, historyStorage);
+            }
+            plugin.getLogger().warning(
+                    "Failed to initialize SQLite storage for " + EzAuctionPlugin.DISPLAY_NAME
+                            + ". Falling back to YAML data files.");
+            listingStorage.close();
+            historyStorage.close();
+        }
+
+        if (storageConfiguration.type() == AuctionStorageConfiguration.StorageType.JOURNAL) {
+            JournalAuctionStorage listingStorage = new JournalAuctionStorage(plugin, storageConfiguration.journal());
+            if (listingStorage.initialize()) {
+                YamlAuctionHistoryStorage historyStorage = new YamlAuctionHistoryStorage(plugin);
+                historyStorage.initialize();
+                return new AuctionStorageBundle(listingStorage, historyStorage);
+            }
+            plugin.getLogger().warning(
+                    "Failed to initialize journal storage for " + EzAuctionPlugin.DISPLAY_NAME
+                            + ". Falling back to YAML data files.");
+            listingStorage.close();
+        }
+
         YamlAuctionStorage listingStorage = new YamlAuctionStorage(plugin);
         listingStorage.initialize();
         YamlAuctionHistoryStorage historyStorage = new YamlAuctionHistoryStorage(plugin);
@@ -0,0 +1,714 @@
+package com.skyblockexp.ezauction.storage.journal;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.EzAuctionPlugin;
+import com.skyblockexp.ezauction.LazyItemStack;
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.FsyncPolicy;
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Journal;
+import com.skyblockexp.ezauction.storage.AuctionLoadPipeline;
+import com.skyblockexp.ezauction.storage.AuctionStorage;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
+import com.skyblockexp.ezauction.storage.AuctionStorageSnapshot;
+import com.skyblockexp.ezauction.util.ItemStackCodec;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Append-only binary journal implementation of {@link AuctionStorage}.
+ *
+ * <p>Every change is appended to {@code journal/auction-journal.log} as a framed record
+ * ({@code length, payload, CRC32}) describing a listing, order, or return event. Once the log
+ * grows past the configured threshold it is rotated and the current state is written to
+ * {@code auction-journal.snapshot} on a background thread. Startup replays the snapshot, any
+ * log left over from an interrupted compaction, and the live log tail; a torn record at the
+ * end of the log is truncated.</p>
+ */
+public final class JournalAuctionStorage implements AuctionStorage {
+
+    private static final int SNAPSHOT_MAGIC = 0x455A414A; // "EZAJ"
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+
+    private static final byte UPSERT_LISTING = 1;
+    private static final byte REMOVE_LISTING = 2;
+    private static final byte UPSERT_ORDER = 3;
+    private static final byte REMOVE_ORDER = 4;
+    private static final byte REPLACE_RETURNS = 5;
+
+    private final JavaPlugin plugin;
+    private final Logger logger;
+    private final Journal settings;
+    private final Object lock = new Object();
+    private final Map<String, AuctionListing> listings = new LinkedHashMap<>();
+    private final Map<String, AuctionOrder> orders = new LinkedHashMap<>();
+    private final Map<UUID, List<ItemStack>> returns = new LinkedHashMap<>();
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+    private File snapshotFile;
+    private File logFile;
+    private File compactingFile;
+    private FileChannel logChannel;
+    private long logSize;
+    private boolean unsyncedWrites;
+    private boolean loaded;
+    private ScheduledExecutorService worker;
+    private LogWriter logWriter = JournalAuctionStorage::writeFully;
+
+    public JournalAuctionStorage(JavaPlugin plugin, Journal settings) {
+        this.plugin = plugin;
+        this.logger = plugin != null ? plugin.getLogger() : Logger.getLogger(JournalAuctionStorage.class.getName());
+        this.settings = settings != null ? settings : Journal.defaultSettings();
+    }
+
+    @Override
+    public boolean initialize() {
+        if (plugin == null) {
+            return false;
+        }
+        File directory = new File(plugin.getDataFolder(), "journal");
+        if (!directory.exists() && !directory.mkdirs()) {
+            logger.log(Level.SEVERE,
+                    "Failed to create " + EzAuctionPlugin.DISPLAY_NAME + " journal folder at {0}.", directory);
+            return false;
+        }
+        snapshotFile = new File(directory, "auction-journal.snapshot");
+        logFile = new File(directory, "auction-journal.log");
+        compactingFile = new File(directory, "auction-journal.log.compacting");
+        worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EzAuction-Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (settings.fsync() == FsyncPolicy.INTERVAL) {
+            worker.scheduleWithFixedDelay(this::syncIfDirty, settings.fsyncIntervalMillis(),
+                    settings.fsyncIntervalMillis(), TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    @Override
+    public AuctionStorageSnapshot load() {
+        synchronized (lock) {
+            if (logFile == null) {
+                return AuctionStorageSnapshot.empty();
+            }
+            listings.clear();
+            orders.clear();
+            returns.clear();
+            try {
+                replay(snapshotFile, true);
+                replay(compactingFile, false);
+                long validLength = replay(logFile, false);
+                openLog(validLength);
+                loaded = true;
+            } catch (IOException ex) {
+                logger.log(Level.SEVERE,
+                        "Failed to load " + EzAuctionPlugin.DISPLAY_NAME + " journal storage.", ex);
+                return AuctionStorageSnapshot.empty();
+            }
+            // Replay only reads the item bytes; the pipeline checks that they decode. Skipped entries
+            // stay in the journal state, so the next full save records their removal.
+            AuctionLoadPipeline pipeline = new AuctionLoadPipeline(logger, "journal");
+            listings.forEach((id, listing) -> pipeline.submitListing(id, () -> listing));
+            orders.forEach((id, order) -> pipeline.submitOrder(id, () -> order));
+            returns.forEach((playerId, items) -> pipeline.submitReturns(playerId, () -> copyItems(items)));
+            return pipeline.complete();
+        }
+    }
+
+    @Override
+    public void saveListings(Collection<AuctionListing> listings, Collection<AuctionOrder> orders) {
+        synchronized (lock) {
+            if (!ensureLoaded()) {
+                return;
+            }
+            AuctionStorageChangeSet changes = new AuctionStorageChangeSet();
+            Set<String> listingIds = new HashSet<>();
+            for (AuctionListing listing : listings) {
+                listingIds.add(listing.id());
+                if (!listing.equals(this.listings.get(listing.id()))) {
+                    changes.upsertListing(listing);
+                }
+            }
+            for (String listingId : this.listings.keySet()) {
+                if (!listingIds.contains(listingId)) {
+                    changes.removeListing(listingId);
+                }
+            }
+            Set<String> orderIds = new HashSet<>();
+            for (AuctionOrder order : orders) {
+                orderIds.add(order.id());
+                if (!order.equals(this.orders.get(order.id()))) {
+                    changes.upsertOrder(order);
+                }
+            }
+            for (String orderId : this.orders.keySet()) {
+                if (!orderIds.contains(orderId)) {
+                    changes.removeOrder(orderId);
+                }
+            }
+            applyChanges(changes);
+        }
+    }
+
+    @Override
+    public void saveReturns(Map<UUID, List<ItemStack>> returnsByPlayer) {
+        synchronized (lock) {
+            if (!ensureLoaded()) {
+                return;
+            }
+            AuctionStorageChangeSet changes = new AuctionStorageChangeSet();
+            for (Map.Entry<UUID, List<ItemStack>> entry : returnsByPlayer.entrySet()) {
+                List<ItemStack> items = sanitize(entry.getValue());
+                if (!items.equals(returns.getOrDefault(entry.getKey(), List.of()))) {
+                    changes.replaceReturns(entry.getKey(), items);
+                }
+            }
+            for (UUID playerId : returns.keySet()) {
+                List<ItemStack> items = returnsByPlayer.get(playerId);
+                if (items == null || items.isEmpty()) {
+                    changes.replaceReturns(playerId, List.of());
+                }
+            }
+            applyChanges(changes);
+        }
+    }
+
+    @Override
+    public void applyChanges(AuctionStorageChangeSet changes) {
+        if (changes == null || changes.isEmpty()) {
+            return;
+        }
+        boolean compactionDue;
+        synchronized (lock) {
+            if (!ensureLoaded()) {
+                return;
+            }
+            // The in-memory state is only updated once the records are on disk, so a failed append
+            // leaves both unchanged.
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            List<Runnable> updates = new ArrayList<>();
+            try {
+                for (AuctionListing listing : changes.listingUpserts()) {
+                    if (writeFramed(buffer, listingRecord(listing))) {
+                        updates.add(() -> listings.put(listing.id(), listing));
+                    }
+                }
+                for (String listingId : changes.listingRemovals()) {
+                    writeFramed(buffer, idRecord(REMOVE_LISTING, listingId));
+                    updates.add(() -> listings.remove(listingId));
+                }
+                for (AuctionOrder order : changes.orderUpserts()) {
+                    if (writeFramed(buffer, orderRecord(order))) {
+                        updates.add(() -> orders.put(order.id(), order));
+                    }
+                }
+                for (String orderId : changes.orderRemovals()) {
+                    writeFramed(buffer, idRecord(REMOVE_ORDER, orderId));
+                    updates.add(() -> orders.remove(orderId));
+                }
+                for (Map.Entry<UUID, List<ItemStack>> entry : changes.returnUpdates().entrySet()) {
+                    UUID playerId = entry.getKey();
+                    List<ItemStack> items = sanitize(entry.getValue());
+                    writeFramed(buffer, returnsRecord(playerId, items));
+                    updates.add(() -> {
+                        if (items.isEmpty()) {
+                            returns.remove(playerId);
+                        } else {
+                            returns.put(playerId, items);
+                        }
+                    });
+                }
+                append(buffer.toByteArray());
+            } catch (IOException ex) {
+                logger.log(Level.SEVERE,
+                        "Failed to append " + EzAuctionPlugin.DISPLAY_NAME + " journal records (" + changes + ").", ex);
+                return;
+            }
+            updates.forEach(Runnable::run);
+            compactionDue = logSize >= settings.compactionThresholdBytes();
+        }
+        ScheduledExecutorService executor = worker;
+        if (compactionDue && executor != null && compactionQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    compact();
+                } finally {
+                    compactionQueued.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes the current state to a fresh snapshot and discards the journal records it covers.
+     * Appends that arrive while the snapshot is being written go to a new log file.
+     */
+    void compact() {
+        Map<String, AuctionListing> listingsCopy;
+        Map<String, AuctionOrder> ordersCopy;
+        Map<UUID, List<ItemStack>> returnsCopy;
+        synchronized (lock) {
+            if (!loaded || logChannel == null || logSize == 0L) {
+                return;
+            }
+            try {
+                rotateLog();
+            } catch (IOException ex) {
+                logger.log(Level.WARNING,
+                        "Failed to rotate the " + EzAuctionPlugin.DISPLAY_NAME + " journal for compaction.", ex);
+                return;
+            }
+            listingsCopy = new LinkedHashMap<>(listings);
+            ordersCopy = new LinkedHashMap<>(orders);
+            returnsCopy = new LinkedHashMap<>(returns);
+        }
+        File temporary = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            DataOutputStream header = new DataOutputStream(buffer);
+            header.writeInt(SNAPSHOT_MAGIC);
+            header.writeInt(FORMAT_VERSION);
+            for (AuctionListing listing : listingsCopy.values()) {
+                writeFramed(buffer, listingRecord(listing));
+                buffer = flushIfLarge(channel, buffer);
+            }
+            for (AuctionOrder order : ordersCopy.values()) {
+                writeFramed(buffer, orderRecord(order));
+                buffer = flushIfLarge(channel, buffer);
+            }
+            for (Map.Entry<UUID, List<ItemStack>> entry : returnsCopy.entrySet()) {
+                writeFramed(buffer, returnsRecord(entry.getKey(), entry.getValue()));
+                buffer = flushIfLarge(channel, buffer);
+            }
+            writeFully(channel, buffer.toByteArray());
+            channel.force(true);
+        } catch (IOException ex) {
+            logger.log(Level.WARNING,
+                    "Failed to write the " + EzAuctionPlugin.DISPLAY_NAME + " journal snapshot.", ex);
+            return;
+        }
+        try {
+            Files.move(temporary.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            synchronized (lock) {
+                Files.deleteIfExists(compactingFile.toPath());
+            }
+        } catch (IOException ex) {
+            logger.log(Level.WARNING,
+                    "Failed to install the " + EzAuctionPlugin.DISPLAY_NAME + " journal snapshot.", ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        ScheduledExecutorService executor = worker;
+        worker = null;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(10L, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (lock) {
+            if (logChannel != null) {
+                try {
+                    logChannel.force(false);
+                    logChannel.close();
+                } catch (IOException ex) {
+                    logger.log(Level.WARNING,
+                            "Failed to close the " + EzAuctionPlugin.DISPLAY_NAME + " journal.", ex);
+                }
+                logChannel = null;
+            }
+            loaded = false;
+        }
+    }
+
+    private boolean ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+        return loaded;
+    }
+
+    private void openLog(long validLength) throws IOException {
+        if (logChannel != null) {
+            logChannel.close();
+        }
+        logChannel = FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (logChannel.size() > validLength) {
+            logger.log(Level.WARNING, "Truncating {0} bytes of incomplete " + EzAuctionPlugin.DISPLAY_NAME
+                    + " journal data.", logChannel.size() - validLength);
+            logChannel.truncate(validLength);
+            logChannel.force(true);
+        }
+        logChannel.position(validLength);
+        logSize = validLength;
+    }
+
+    private void rotateLog() throws IOException {
+        logChannel.force(true);
+        logChannel.close();
+        logChannel = null;
+        if (compactingFile.exists()) {
+            // A previous compaction did not finish; keep its records ahead of the current log.
+            Files.write(compactingFile.toPath(), Files.readAllBytes(logFile.toPath()), StandardOpenOption.APPEND);
+            Files.delete(logFile.toPath());
+        } else {
+            Files.move(logFile.toPath(), compactingFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        openLog(0L);
+    }
+
+    /**
+     * Appends framed records to the log. If the write fails, anything written by it is cut off
+     * again, so a partial write never leaves torn bytes ahead of later records.
+     */
+    private void append(byte[] bytes) throws IOException {
+        if (bytes.length == 0) {
+            return;
+        }
+        long start = logSize;
+        try {
+            logWriter.write(logChannel, bytes);
+            if (settings.fsync() == FsyncPolicy.ALWAYS) {
+                logChannel.force(false);
+            }
+        } catch (IOException ex) {
+            discardFrom(start);
+            throw ex;
+        }
+        logSize = start + bytes.length;
+        if (settings.fsync() != FsyncPolicy.ALWAYS) {
+            unsyncedWrites = true;
+        }
+    }
+
+    private void discardFrom(long position) {
+        try {
+            logChannel.truncate(position);
+            logChannel.position(position);
+        } catch (IOException ex) {
+            // Reload before the next write; replay stops at the torn record and truncates it.
+            logger.log(Level.SEVERE, "Failed to truncate a partial " + EzAuctionPlugin.DISPLAY_NAME
+                    + " journal write; the journal will be reloaded.", ex);
+            loaded = false;
+        }
+    }
+
+    /**
+     * Replaces the function that writes records to the log. Tests use this to simulate failing writes.
+     */
+    void setLogWriter(LogWriter logWriter) {
+        synchronized (lock) {
+            this.logWriter = logWriter != null ? logWriter : JournalAuctionStorage::writeFully;
+        }
+    }
+
+    private void syncIfDirty() {
+        synchronized (lock) {
+            if (!unsyncedWrites || logChannel == null) {
+                return;
+            }
+            try {
+                logChannel.force(false);
+                unsyncedWrites = false;
+            } catch (IOException ex) {
+                logger.log(Level.WARNING,
+                        "Failed to sync the " + EzAuctionPlugin.DISPLAY_NAME + " journal to disk.", ex);
+            }
+        }
+    }
+
+    /**
+     * Replays a snapshot or log file into the in-memory state.
+     *
+     * @return the length of the valid prefix of the file
+     */
+    private long replay(File file, boolean snapshot) throws IOException {
+        if (file == null || !file.exists()) {
+            return 0L;
+        }
+        long valid = 0L;
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file.toPath()));
+                DataInputStream input = new DataInputStream(raw)) {
+            if (snapshot) {
+                try {
+                    if (input.readInt() != SNAPSHOT_MAGIC || input.readInt() != FORMAT_VERSION) {
+                        throw new IOException("Unrecognized journal snapshot format in " + file.getName());
+                    }
+                } catch (EOFException ex) {
+                    return 0L;
+                }
+                valid = 8L;
+            }
+            while (true) {
+                int length;
+                byte[] payload;
+                try {
+                    length = input.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    input.readFully(payload);
+                    int checksum = input.readInt();
+                    if (checksum != checksum(payload)) {
+                        break;
+                    }
+                } catch (EOFException ex) {
+                    break;
+                }
+                applyRecord(payload);
+                valid += 8L + length;
+            }
+        }
+        if (valid < file.length()) {
+            logger.log(Level.WARNING, "Ignoring corrupt or incomplete records at the end of {0}.", file.getName());
+        }
+        return valid;
+    }
+
+    private void applyRecord(byte[] payload) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = input.readByte();
+        switch (type) {
+            case UPSERT_LISTING -> {
+                String id = input.readUTF();
+                UUID sellerId = new UUID(input.readLong(), input.readLong());
+                double price = input.readDouble();
+                long expiry = input.readLong();
+                double deposit = input.readDouble();
+                UUID teamId = input.readBoolean() ? new UUID(input.readLong(), input.readLong()) : null;
+                byte[] item = readItemData(input);
+                if (item.length > 0) {
+                    listings.put(id, new AuctionListing(id, sellerId, price, expiry,
+                            LazyItemStack.encoded(item), deposit, teamId));
+                }
+            }
+            case REMOVE_LISTING -> listings.remove(input.readUTF());
+            case UPSERT_ORDER -> {
+                String id = input.readUTF();
+                UUID buyerId = new UUID(input.readLong(), input.readLong());
+                double price = input.readDouble();
+                double reserved = input.readDouble();
+                long expiry = input.readLong();
+                byte[] item = readItemData(input);
+                if (item.length > 0) {
+                    orders.put(id, new AuctionOrder(id, buyerId, price, expiry, LazyItemStack.encoded(item), reserved));
+                }
+            }
+            case REMOVE_ORDER -> orders.remove(input.readUTF());
+            case REPLACE_RETURNS -> {
+                UUID playerId = new UUID(input.readLong(), input.readLong());
+                int count = input.readInt();
+                List<ItemStack> items = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    ItemStack item = readItem(input);
+                    if (item != null) {
+                        items.add(item);
+                    }
+                }
+                if (items.isEmpty()) {
+                    returns.remove(playerId);
+                } else {
+                    returns.put(playerId, items);
+                }
+            }
+            default -> logger.log(Level.WARNING, "Skipping unknown journal record type {0}.", type);
+        }
+    }
+
+    private byte[] listingRecord(AuctionListing listing) throws IOException {
+        byte[] item = listing.itemData().encode(logger);
+        if (item == null) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(UPSERT_LISTING);
+        output.writeUTF(listing.id());
+        writeUuid(output, listing.sellerId());
+        output.writeDouble(listing.price());
+        output.writeLong(listing.expiryEpochMillis());
+        output.writeDouble(listing.deposit());
+        output.writeBoolean(listing.teamId() != null);
+        if (listing.teamId() != null) {
+            writeUuid(output, listing.teamId());
+        }
+        writeItem(output, item);
+        return bytes.toByteArray();
+    }
+
+    private byte[] orderRecord(AuctionOrder order) throws IOException {
+        byte[] item = order.requestedItemData().encode(logger);
+        if (item == null) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(UPSERT_ORDER);
+        output.writeUTF(order.id());
+        writeUuid(output, order.buyerId());
+        output.writeDouble(order.offeredPrice());
+        output.writeDouble(order.reservedAmount());
+        output.writeLong(order.expiryEpochMillis());
+        writeItem(output, item);
+        return bytes.toByteArray();
+    }
+
+    private byte[] returnsRecord(UUID playerId, List<ItemStack> items) throws IOException {
+        List<byte[]> encoded = new ArrayList<>(items.size());
+        for (ItemStack item : items) {
+            byte[] data = ItemStackCodec.encode(item, logger);
+            if (data != null) {
+                encoded.add(data);
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(REPLACE_RETURNS);
+        writeUuid(output, playerId);
+        output.writeInt(encoded.size());
+        for (byte[] data : encoded) {
+            writeItem(output, data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] idRecord(byte type, String id) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(type);
+        output.writeUTF(id);
+        return bytes.toByteArray();
+    }
+
+    private static boolean writeFramed(ByteArrayOutputStream buffer, byte[] payload) throws IOException {
+        if (payload == null) {
+            return false;
+        }
+        DataOutputStream output = new DataOutputStream(buffer);
+        output.writeInt(payload.length);
+        output.write(payload);
+        output.writeInt(checksum(payload));
+        return true;
+    }
+
+    private static ByteArrayOutputStream flushIfLarge(FileChannel channel, ByteArrayOutputStream buffer)
+            throws IOException {
+        if (buffer.size() < 1024 * 1024) {
+            return buffer;
+        }
+        writeFully(channel, buffer.toByteArray());
+        return new ByteArrayOutputStream();
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void writeUuid(DataOutputStream output, UUID uuid) throws IOException {
+        output.writeLong(uuid.getMostSignificantBits());
+        output.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static void writeItem(DataOutputStream output, byte[] data) throws IOException {
+        output.writeInt(data.length);
+        output.write(data);
+    }
+
+    /**
+     * Reads length-prefixed item data. Journals written before the binary codec hold Base64 ASCII
+     * here, which {@link ItemStackCodec} recognises and decodes transparently.
+     */
+    private static byte[] readItemData(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid item length " + length);
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private ItemStack readItem(DataInputStream input) throws IOException {
+        ItemStack item = ItemStackCodec.decode(readItemData(input), logger);
+        if (item == null || item.getType() == Material.AIR || item.getAmount() <= 0) {
+            return null;
+        }
+        return item;
+    }
+
+    private static List<ItemStack> sanitize(List<ItemStack> items) {
+        if (items == null || items.isEmpty()) {
+            return List.of();
+        }
+        List<ItemStack> sanitized = new ArrayList<>(items.size());
+        for (ItemStack stack : items) {
+            if (stack != null && stack.getType() != Material.AIR && stack.getAmount() > 0) {
+                sanitized.add(stack.clone());
+            }
+        }
+        return sanitized;
+    }
+
+    private static List<ItemStack> copyItems(List<ItemStack> items) {
+        List<ItemStack> copy = new ArrayList<>(items.size());
+        for (ItemStack item : items) {
+            copy.add(item.clone());
+        }
+        return copy;
+    }
+
+    /**
+     * Writes bytes at the channel's position.
+     */
+    @FunctionalInterface
+    interface LogWriter {
+        void write(FileChannel channel, byte[] bytes) throws IOException;
+    }
+}
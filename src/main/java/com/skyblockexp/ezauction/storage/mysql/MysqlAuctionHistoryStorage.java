@@ -1,41 +1,79 @@
 package com.skyblockexp.ezauction.storage.mysql;
 
+import com.skyblockexp.ezauction.transaction.AuctionHistoryCursor;
+import com.skyblockexp.ezauction.transaction.AuctionHistoryPage;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
 import com.skyblockexp.ezauction.EzAuctionPlugin;
+import com.skyblockexp.ezauction.LazyItemStack;
 import com.skyblockexp.ezauction.storage.AuctionHistoryStorage;
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.HistoryRetention;
 import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Mysql;
 import com.skyblockexp.ezauction.util.EconomyUtils;
-import com.skyblockexp.ezauction.util.ItemStackSerialization;
 import java.sql.*;
 import java.util.*;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.bukkit.inventory.ItemStack;
 
 /**
  * MySQL-based implementation of AuctionHistoryStorage.
+ *
+ * <p>History is an append-only table keyed by {@code (transaction_id, player_uuid)}. Saving a
+ * player's history only inserts the entries that have not been written yet, which is usually a
+ * single row per transaction, and entries trimmed from the in-memory history are not deleted on
+ * write. Instead a background job enforces {@link HistoryRetention} with bounded {@code DELETE}
+ * statements. Writes take no storage-wide lock, so different players are saved concurrently.</p>
+ *
+ * <p>History pages are read with keyset queries on {@code idx_history_player_time}; InnoDB
+ * secondary indexes also hold the primary key, so the index is ordered by player, timestamp and
+ * transaction id and a page never reads rows before its cursor.</p>
+ *
+ * <p>A sale is stored once in the {@code transactions} table with its price, both parties and the
+ * item. The history table only holds a small index row per player that references the transaction,
+ * so the seller's and the buyer's entries share one copy of the item.</p>
  */
 public class MysqlAuctionHistoryStorage implements AuctionHistoryStorage {
+    private static final String INDEX_COLUMNS = "transaction_id, player_uuid, type, timestamp";
+    private static final String RECORD_COLUMNS =
+            "transaction_id, seller_uuid, seller_name, buyer_uuid, buyer_name, price, timestamp, item";
+    private static final String COLUMNS = "h.transaction_id, h.player_uuid, h.type, h.timestamp, t.price,"
+            + " t.seller_uuid, t.seller_name, t.buyer_uuid, t.buyer_name, t.item";
+
     private final Logger logger;
     private final Mysql mysql;
-    private final String jdbcUrl;
+    private final HistoryRetention retention;
     private final String historyTable;
-    private final Lock historyWriteLock = new ReentrantLock(true);
+    private final String transactionsTable;
+    private final Map<UUID, Set<String>> persistedIds = new ConcurrentHashMap<>();
     private boolean driverLoaded = false;
+    private MysqlConnectionPool connectionPool;
+    private ScheduledExecutorService retentionExecutor;
 
     public MysqlAuctionHistoryStorage(Logger logger, Mysql mysql) {
         this.logger = logger != null ? logger : Logger.getLogger(MysqlAuctionHistoryStorage.class.getName());
         this.mysql = mysql;
-        this.jdbcUrl = "jdbc:mysql://" + mysql.host() + ":" + mysql.port() + "/" + mysql.database();
+        this.retention = mysql.historyRetention();
         String prefix = mysql.tablePrefix();
         this.historyTable = sanitize(prefix + "history");
+        this.transactionsTable = sanitize(prefix + "transactions");
+    }
+
+    /**
+     * Creates a storage that uses {@code connectionPool} instead of acquiring the shared pool.
+     * Tables are only created by {@link #createTables()}.
+     */
+    MysqlAuctionHistoryStorage(Logger logger, Mysql mysql, MysqlConnectionPool connectionPool) {
+        this(logger, mysql);
+        this.connectionPool = connectionPool;
+        this.driverLoaded = true;
     }
 
     private boolean isReady() {
-        return driverLoaded;
+        return driverLoaded && connectionPool != null;
     }
 
     public boolean initialize() {
@@ -49,18 +87,45 @@ public class MysqlAuctionHistoryStorage implements AuctionHistoryStorage {
             logger.log(Level.SEVERE, "MySQL JDBC driver not found.", ex);
             return false;
         }
+        try {
+            connectionPool = MysqlConnectionPool.acquire(logger, mysql);
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Failed to open the MySQL connection pool for history storage.", ex);
+            return false;
+        }
+        if (!createTables()) {
+            return false;
+        }
+        startRetentionJob();
+        return true;
+    }
+
+    /**
+     * Creates the tables and converts tables written by earlier versions. Each conversion checks
+     * the current schema first, so running this again on converted tables changes nothing.
+     */
+    boolean createTables() {
         try (Connection connection = getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS `" + transactionsTable + "` ("
+                    + "transaction_id CHAR(36) NOT NULL,"
+                    + "seller_uuid CHAR(36) NULL,"
+                    + "seller_name VARCHAR(64) NULL,"
+                    + "buyer_uuid CHAR(36) NULL,"
+                    + "buyer_name VARCHAR(64) NULL,"
+                    + "price DOUBLE NOT NULL,"
+                    + "timestamp BIGINT NOT NULL,"
+                    + "item LONGBLOB NULL,"
+                    + "PRIMARY KEY (transaction_id),"
+                    + "INDEX idx_transactions_time (timestamp)"
+                    + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
             statement.executeUpdate("CREATE TABLE IF NOT EXISTS `" + historyTable + "` ("
+                    + "transaction_id CHAR(36) NOT NULL,"
                     + "player_uuid CHAR(36) NOT NULL,"
-                    + "entry_index INT NOT NULL,"
-                    + "transaction_id CHAR(36) NULL,"
                     + "type VARCHAR(16) NOT NULL,"
                     + "timestamp BIGINT NOT NULL,"
-                    + "price DOUBLE NOT NULL,"
-                    + "counterpart_uuid CHAR(36) NULL,"
-                    + "counterpart_name VARCHAR(64) NULL,"
-                    + "item LONGTEXT NULL,"
-                    + "PRIMARY KEY (player_uuid, entry_index)"
+                    + "PRIMARY KEY (transaction_id, player_uuid),"
+                    + "INDEX idx_history_player_time (player_uuid, timestamp),"
+                    + "INDEX idx_history_time (timestamp)"
                     + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
             
             // Migration: Add transaction_id column if it doesn't exist (for existing tables)
@@ -87,7 +152,13 @@ public class MysqlAuctionHistoryStorage implements AuctionHistoryStorage {
                         + "ALTER TABLE `" + historyTable + "` ADD COLUMN transaction_id CHAR(36) NULL AFTER entry_index;",
                         migrationEx);
             }
-            
+            if (hasColumn(connection, "entry_index")) {
+                migrateToAppendOnly(statement);
+            }
+            MysqlItemColumns.migrateToBinary(connection, logger, mysql.database(), historyTable, true);
+            if (hasColumn(connection, "item")) {
+                migrateToSharedRecords(statement);
+            }
             return true;
         } catch (SQLException ex) {
             logger.log(Level.SEVERE,
@@ -96,124 +167,261 @@ public class MysqlAuctionHistoryStorage implements AuctionHistoryStorage {
         }
     }
 
+    /**
+     * Converts a table from the earlier per-player index layout, which was rewritten on every save,
+     * to the append-only layout. Rows without a transaction id receive a generated one.
+     */
+    private void migrateToAppendOnly(Statement statement) throws SQLException {
+        statement.executeUpdate("UPDATE `" + historyTable
+                + "` SET transaction_id = UUID() WHERE transaction_id IS NULL OR transaction_id = ''");
+        statement.executeUpdate("ALTER TABLE `" + historyTable + "`"
+                + " DROP PRIMARY KEY,"
+                + " DROP COLUMN entry_index,"
+                + " MODIFY transaction_id CHAR(36) NOT NULL,"
+                + " ADD PRIMARY KEY (transaction_id, player_uuid),"
+                + " ADD INDEX idx_history_player_time (player_uuid, timestamp),"
+                + " ADD INDEX idx_history_time (timestamp)");
+        logger.info("Converted " + historyTable + " to the append-only history layout.");
+    }
+
+    /**
+     * Moves the price, counterpart and item of every history row into the transactions table and
+     * drops those columns, leaving the history table as a per-player index. Rows written before
+     * this layout were stored once per party, so each becomes its own transaction. Copying is
+     * idempotent; if dropping the columns fails it is retried on the next start.
+     */
+    private void migrateToSharedRecords(Statement statement) throws SQLException {
+        int copied = statement.executeUpdate("INSERT IGNORE INTO `" + transactionsTable + "` (" + RECORD_COLUMNS + ")"
+                + " SELECT transaction_id,"
+                + " CASE WHEN type = 'BUY' THEN counterpart_uuid ELSE player_uuid END,"
+                + " CASE WHEN type = 'BUY' THEN counterpart_name ELSE NULL END,"
+                + " CASE WHEN type = 'BUY' THEN player_uuid ELSE counterpart_uuid END,"
+                + " CASE WHEN type = 'BUY' THEN NULL ELSE counterpart_name END,"
+                + " price, timestamp, item FROM `" + historyTable + "`");
+        statement.executeUpdate("ALTER TABLE `" + historyTable + "`"
+                + " DROP COLUMN price,"
+                + " DROP COLUMN counterpart_uuid,"
+                + " DROP COLUMN counterpart_name,"
+                + " DROP COLUMN item");
+        logger.info("Moved " + copied + " history rows of " + historyTable + " into " + transactionsTable + '.');
+    }
+
+    private boolean hasColumn(Connection connection, String column) throws SQLException {
+        try (PreparedStatement checkColumn = connection.prepareStatement(
+                "SELECT COUNT(*) FROM information_schema.COLUMNS "
+                + "WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ? AND COLUMN_NAME = ?")) {
+            checkColumn.setString(1, mysql.database());
+            checkColumn.setString(2, historyTable);
+            checkColumn.setString(3, column);
+            try (ResultSet rs = checkColumn.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
     @Override
     public Map<UUID, Deque<AuctionTransactionHistoryEntry>> loadAll() {
         Map<UUID, Deque<AuctionTransactionHistoryEntry>> result = new HashMap<>();
         if (!isReady()) {
             return result;
         }
-        String query = "SELECT player_uuid, entry_index, type, timestamp, price, counterpart_uuid, counterpart_name, item "
-                + "FROM `" + historyTable + "` ORDER BY player_uuid, entry_index";
+        String query = "SELECT " + COLUMNS + from() + " ORDER BY h.player_uuid, h.timestamp DESC";
         try (Connection connection = getConnection();
                 PreparedStatement statement = connection.prepareStatement(query);
                 ResultSet resultSet = statement.executeQuery()) {
-            Map<UUID, Map<Integer, AuctionTransactionHistoryEntry>> grouped = new LinkedHashMap<>();
             while (resultSet.next()) {
                 UUID playerId = parseUuid(resultSet.getString("player_uuid"));
                 if (playerId == null) {
                     continue;
                 }
-                int index = resultSet.getInt("entry_index");
-                AuctionTransactionType type = parseType(resultSet.getString("type"));
-                if (type == null) {
+                Deque<AuctionTransactionHistoryEntry> history = result.computeIfAbsent(playerId, key -> new ArrayDeque<>());
+                if (retention.maxEntriesPerPlayer() > 0 && history.size() >= retention.maxEntriesPerPlayer()) {
                     continue;
                 }
-                long timestamp = resultSet.getLong("timestamp");
-                double price = EconomyUtils.normalizeCurrency(resultSet.getDouble("price"));
-                UUID counterpartId = parseUuid(resultSet.getString("counterpart_uuid"));
-                String counterpartName = resultSet.getString("counterpart_name");
-                ItemStack item = ItemStackSerialization.deserialize(resultSet.getString("item"), logger);
-                // Read transaction ID or generate one for backward compatibility
-                String transactionId = resultSet.getString("transaction_id");
-                if (transactionId == null || transactionId.isEmpty()) {
-                    transactionId = UUID.randomUUID().toString();
+                AuctionTransactionHistoryEntry entry = readEntry(resultSet);
+                if (entry != null) {
+                    history.addLast(entry);
                 }
-                AuctionTransactionHistoryEntry entry = new AuctionTransactionHistoryEntry(transactionId, type, counterpartId,
-                        counterpartName, price, timestamp, item);
-                grouped.computeIfAbsent(playerId, key -> new LinkedHashMap<>()).put(index, entry);
-            }
-            for (Map.Entry<UUID, Map<Integer, AuctionTransactionHistoryEntry>> entry : grouped.entrySet()) {
-                Map<Integer, AuctionTransactionHistoryEntry> ordered = entry.getValue();
-                Deque<AuctionTransactionHistoryEntry> deque = new ArrayDeque<>(ordered.size());
-                ordered.entrySet().stream()
-                        .sorted(Map.Entry.<Integer, AuctionTransactionHistoryEntry>comparingByKey())
-                        .forEachOrdered(e -> deque.addLast(e.getValue()));
-                result.put(entry.getKey(), deque);
             }
         } catch (SQLException ex) {
             logger.log(Level.SEVERE,
                     "Failed to load transaction history from MySQL.", ex);
         }
+        result.values().removeIf(Deque::isEmpty);
+        result.forEach(this::markPersisted);
         return result;
     }
 
+    @Override
+    public Deque<AuctionTransactionHistoryEntry> loadPlayerHistory(UUID playerId) {
+        Deque<AuctionTransactionHistoryEntry> history = new ArrayDeque<>();
+        if (!isReady() || playerId == null) {
+            return history;
+        }
+        String query = "SELECT " + COLUMNS + from()
+                + " WHERE h.player_uuid = ? ORDER BY h.timestamp DESC, h.transaction_id DESC"
+                + (retention.maxEntriesPerPlayer() > 0 ? " LIMIT " + retention.maxEntriesPerPlayer() : "");
+        try (Connection connection = getConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, playerId.toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    AuctionTransactionHistoryEntry entry = readEntry(resultSet);
+                    if (entry != null) {
+                        history.addLast(entry);
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE,
+                    String.format("Failed to load history for player %s from MySQL.", playerId), ex);
+            return history;
+        }
+        markPersisted(playerId, history);
+        return history;
+    }
+
+    @Override
+    public AuctionHistoryPage loadHistoryPage(UUID playerId, AuctionHistoryCursor cursor, int limit,
+            AuctionTransactionType typeFilter) {
+        if (!isReady() || playerId == null) {
+            return AuctionHistoryPage.empty();
+        }
+        int pageLimit = AuctionHistoryPage.clampLimit(limit);
+        StringBuilder query = new StringBuilder("SELECT ").append(COLUMNS).append(from())
+                .append(" WHERE h.player_uuid = ?");
+        if (cursor != null) {
+            query.append(" AND (h.timestamp < ? OR (h.timestamp = ? AND h.transaction_id < ?))");
+        }
+        if (typeFilter != null) {
+            query.append(" AND h.type = ?");
+        }
+        query.append(" ORDER BY h.timestamp DESC, h.transaction_id DESC LIMIT ").append(pageLimit + 1);
+        List<AuctionTransactionHistoryEntry> candidates = new ArrayList<>();
+        try (Connection connection = getConnection();
+                PreparedStatement statement = connection.prepareStatement(query.toString())) {
+            int index = 1;
+            statement.setString(index++, playerId.toString());
+            if (cursor != null) {
+                statement.setLong(index++, cursor.timestamp());
+                statement.setLong(index++, cursor.timestamp());
+                statement.setString(index++, cursor.transactionId());
+            }
+            if (typeFilter != null) {
+                statement.setString(index, typeFilter.name());
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    AuctionTransactionHistoryEntry entry = readEntry(resultSet);
+                    if (entry != null) {
+                        candidates.add(entry);
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE,
+                    String.format("Failed to load a history page for player %s from MySQL.", playerId), ex);
+            return AuctionHistoryPage.empty();
+        }
+        return AuctionHistoryPage.fromCandidates(candidates, pageLimit);
+    }
+
+    /**
+     * Appends the entries of every player in {@code history} that have not been written yet. Rows
+     * are never deleted here; see {@link HistoryRetention}.
+     */
     @Override
     public void saveAll(Map<UUID, Deque<AuctionTransactionHistoryEntry>> history) {
-        if (!isReady()) {
+        if (!isReady() || history == null) {
             return;
         }
-        historyWriteLock.lock();
-        String delete = "DELETE FROM `" + historyTable + "`";
-        String insert = "INSERT INTO `" + historyTable
-                + "` (player_uuid, entry_index, transaction_id, type, timestamp, price, counterpart_uuid, counterpart_name, item)"
-                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection connection = getConnection()) {
-            connection.setAutoCommit(false);
-            try (Statement deleteStatement = connection.createStatement()) {
-                deleteStatement.executeUpdate(delete);
-            }
-            try (PreparedStatement insertStatement = connection.prepareStatement(insert)) {
-                for (Map.Entry<UUID, Deque<AuctionTransactionHistoryEntry>> entry : history.entrySet()) {
-                    writeHistoryEntries(insertStatement, entry.getKey(), entry.getValue());
+        try (Connection connection = getConnection();
+                PreparedStatement records = connection.prepareStatement(recordSql());
+                PreparedStatement insert = connection.prepareStatement(insertSql())) {
+            List<Runnable> confirmations = new ArrayList<>();
+            for (Map.Entry<UUID, Deque<AuctionTransactionHistoryEntry>> entry : history.entrySet()) {
+                if (addUnpersisted(records, insert, entry.getKey(), entry.getValue())) {
+                    confirmations.add(() -> markPersisted(entry.getKey(), entry.getValue()));
                 }
-                insertStatement.executeBatch();
             }
-            connection.commit();
+            if (!confirmations.isEmpty()) {
+                executeBatches(connection, records, insert);
+                confirmations.forEach(Runnable::run);
+            }
         } catch (SQLException ex) {
             logger.log(Level.SEVERE,
                     "Failed to save history to MySQL.", ex);
-        } finally {
-            historyWriteLock.unlock();
         }
     }
 
     @Override
     public void savePlayerHistory(UUID playerId, Deque<AuctionTransactionHistoryEntry> history) {
-        if (!isReady() || playerId == null) {
+        if (!isReady() || playerId == null || history == null) {
             return;
         }
-        historyWriteLock.lock();
-        String delete = "DELETE FROM `" + historyTable + "` WHERE player_uuid = ?";
-        String insert = "INSERT INTO `" + historyTable
-                + "` (player_uuid, entry_index, transaction_id, type, timestamp, price, counterpart_uuid, counterpart_name, item)"
-                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection connection = getConnection()) {
-            connection.setAutoCommit(false);
-            try (PreparedStatement deleteStatement = connection.prepareStatement(delete)) {
-                deleteStatement.setString(1, playerId.toString());
-                deleteStatement.executeUpdate();
-            }
-            try (PreparedStatement insertStatement = connection.prepareStatement(insert)) {
-                writeHistoryEntries(insertStatement, playerId, history);
-                insertStatement.executeBatch();
+        List<AuctionTransactionHistoryEntry> snapshot = new ArrayList<>(history);
+        try (Connection connection = getConnection();
+                PreparedStatement records = connection.prepareStatement(recordSql());
+                PreparedStatement insert = connection.prepareStatement(insertSql())) {
+            if (addUnpersisted(records, insert, playerId, snapshot)) {
+                executeBatches(connection, records, insert);
             }
-            connection.commit();
+            markPersisted(playerId, snapshot);
         } catch (SQLException ex) {
             logger.log(Level.SEVERE,
                     String.format("Failed to save history for player %s to MySQL.", playerId),
                     ex);
-        } finally {
-            historyWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the entries directly; trimming is left to the retention job.
+     *
+     * @throws IllegalStateException if the entries could not be written, so that the caller can
+     *                               retry them
+     */
+    @Override
+    public void appendPlayerHistory(UUID playerId, List<AuctionTransactionHistoryEntry> entries) {
+        if (!isReady() || playerId == null || entries == null || entries.isEmpty()) {
+            return;
+        }
+        try (Connection connection = getConnection();
+                PreparedStatement records = connection.prepareStatement(recordSql());
+                PreparedStatement insert = connection.prepareStatement(insertSql())) {
+            if (addUnpersisted(records, insert, playerId, entries)) {
+                executeBatches(connection, records, insert);
+            }
+            Set<String> known = persistedIds.get(playerId);
+            if (known != null) {
+                entries.forEach(entry -> known.add(entry.transactionId()));
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException(
+                    String.format("Failed to append history for player %s to MySQL.", playerId), ex);
         }
     }
 
     @Override
     public void close() {
-        // No connection pool or driver to close
+        ScheduledExecutorService executor = retentionExecutor;
+        retentionExecutor = null;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        persistedIds.clear();
+        MysqlConnectionPool pool = connectionPool;
+        connectionPool = null;
+        if (pool != null) {
+            pool.release();
+        }
     }
 
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(jdbcUrl, mysql.username(), mysql.password());
+        MysqlConnectionPool pool = connectionPool;
+        if (pool == null) {
+            throw new SQLException("MySQL history storage is not initialized.");
+        }
+        return pool.getConnection();
     }
 
     private UUID parseUuid(String raw) {
@@ -243,32 +451,219 @@ public class MysqlAuctionHistoryStorage implements AuctionHistoryStorage {
         }
     }
 
-    private void writeHistoryEntries(PreparedStatement statement, UUID playerId,
-            Deque<AuctionTransactionHistoryEntry> history) throws SQLException {
+    private String from() {
+        return " FROM `" + historyTable + "` h JOIN `" + transactionsTable + "` t ON t.transaction_id = h.transaction_id";
+    }
+
+    private String insertSql() {
+        // IGNORE makes re-appending an entry that is already stored (e.g. after a restart) a no-op.
+        return "INSERT IGNORE INTO `" + historyTable + "` (" + INDEX_COLUMNS + ") VALUES (?, ?, ?, ?)";
+    }
+
+    /**
+     * Both parties write the shared record; whichever side arrives second only fills in what the
+     * first one could not know, such as its own name, and never rewrites the item.
+     */
+    private String recordSql() {
+        return "INSERT INTO `" + transactionsTable + "` (" + RECORD_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
+                + " ON DUPLICATE KEY UPDATE"
+                + " seller_uuid = COALESCE(seller_uuid, VALUES(seller_uuid)),"
+                + " seller_name = COALESCE(seller_name, VALUES(seller_name)),"
+                + " buyer_uuid = COALESCE(buyer_uuid, VALUES(buyer_uuid)),"
+                + " buyer_name = COALESCE(buyer_name, VALUES(buyer_name)),"
+                + " item = COALESCE(item, VALUES(item))";
+    }
+
+    /**
+     * Adds the shared record and the index row of each entry of {@code history} that is not known
+     * to be stored yet. Records are written before index rows, so an index row never refers to a
+     * missing transaction.
+     *
+     * @return {@code true} if at least one row was added to the batches
+     */
+    private boolean addUnpersisted(PreparedStatement records, PreparedStatement statement, UUID playerId,
+            Collection<AuctionTransactionHistoryEntry> history) throws SQLException {
         if (history == null || history.isEmpty()) {
-            return;
+            return false;
         }
-        int index = 0;
+        Set<String> known = persistedIds.getOrDefault(playerId, Set.of());
+        boolean added = false;
         for (AuctionTransactionHistoryEntry entry : history) {
-            statement.setString(1, playerId.toString());
-            statement.setInt(2, index++);
-            statement.setString(3, entry.transactionId());
-            statement.setString(4, entry.type().name());
-            statement.setLong(5, entry.timestamp());
-            statement.setDouble(6, entry.price());
-            if (entry.counterpartId() != null) {
-                statement.setString(7, entry.counterpartId().toString());
-            } else {
-                statement.setNull(7, java.sql.Types.VARCHAR);
-            }
-            if (entry.counterpartName() != null && !entry.counterpartName().isEmpty()) {
-                statement.setString(8, entry.counterpartName());
-            } else {
-                statement.setNull(8, java.sql.Types.VARCHAR);
+            if (known.contains(entry.transactionId())) {
+                continue;
             }
-            statement.setString(9, ItemStackSerialization.serialize(entry.item(), logger));
+            boolean selling = entry.type() == AuctionTransactionType.SELL;
+            String counterpartId = entry.counterpartId() != null ? entry.counterpartId().toString() : null;
+            String counterpartName = entry.counterpartName() != null && !entry.counterpartName().isEmpty()
+                    ? entry.counterpartName()
+                    : null;
+            records.setString(1, entry.transactionId());
+            setNullableString(records, 2, selling ? playerId.toString() : counterpartId);
+            setNullableString(records, 3, selling ? null : counterpartName);
+            setNullableString(records, 4, selling ? counterpartId : playerId.toString());
+            setNullableString(records, 5, selling ? counterpartName : null);
+            records.setDouble(6, entry.price());
+            records.setLong(7, entry.timestamp());
+            records.setBytes(8, entry.itemData().encode(logger));
+            records.addBatch();
+            statement.setString(1, entry.transactionId());
+            statement.setString(2, playerId.toString());
+            statement.setString(3, entry.type().name());
+            statement.setLong(4, entry.timestamp());
             statement.addBatch();
+            added = true;
+        }
+        return added;
+    }
+
+    /**
+     * Runs the record batch and then the index batch in one transaction, so a failed save never
+     * leaves index rows or records of a partly written batch behind.
+     */
+    private static void executeBatches(Connection connection, PreparedStatement records, PreparedStatement index)
+            throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            records.executeBatch();
+            index.executeBatch();
+            connection.commit();
+        } catch (SQLException ex) {
+            connection.rollback();
+            throw ex;
+        }
+    }
+
+    private static void setNullableString(PreparedStatement statement, int index, String value) throws SQLException {
+        if (value != null) {
+            statement.setString(index, value);
+        } else {
+            statement.setNull(index, java.sql.Types.VARCHAR);
+        }
+    }
+
+    /**
+     * Remembers which entries of a player's current history are stored. Only the ids still present
+     * in the history are kept, so the set stays as small as the in-memory history.
+     */
+    private void markPersisted(UUID playerId, Collection<AuctionTransactionHistoryEntry> history) {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        for (AuctionTransactionHistoryEntry entry : history) {
+            ids.add(entry.transactionId());
+        }
+        persistedIds.put(playerId, ids);
+    }
+
+    private AuctionTransactionHistoryEntry readEntry(ResultSet resultSet) throws SQLException {
+        AuctionTransactionType type = parseType(resultSet.getString("type"));
+        if (type == null) {
+            return null;
+        }
+        String transactionId = resultSet.getString("transaction_id");
+        String counterpart = type == AuctionTransactionType.SELL ? "buyer" : "seller";
+        return new AuctionTransactionHistoryEntry(transactionId, type,
+                parseUuid(resultSet.getString(counterpart + "_uuid")), resultSet.getString(counterpart + "_name"),
+                EconomyUtils.normalizeCurrency(resultSet.getDouble("price")), resultSet.getLong("timestamp"),
+                LazyItemStack.encoded(resultSet.getBytes("item")));
+    }
+
+    private void startRetentionJob() {
+        if (retentionExecutor != null
+                || (retention.maxEntriesPerPlayer() == 0 && retention.maxAgeDays() == 0)) {
+            return;
+        }
+        retentionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, EzAuctionPlugin.DISPLAY_NAME + "-HistoryRetention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        retentionExecutor.scheduleWithFixedDelay(this::enforceRetention, 1L, retention.intervalMinutes(),
+                TimeUnit.MINUTES);
+    }
+
+    /**
+     * Removes history rows beyond the configured age and per-player limits, along with the
+     * transactions no player's history refers to any more. Every statement deletes at most
+     * {@code delete-batch-size} rows, so the job never holds long-running locks.
+     */
+    void enforceRetention() {
+        if (!isReady()) {
+            return;
+        }
+        int batchSize = retention.deleteBatchSize();
+        long removed = 0L;
+        try (Connection connection = getConnection()) {
+            if (retention.maxAgeDays() > 0) {
+                long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retention.maxAgeDays());
+                removed += deleteInBatches(connection,
+                        "DELETE FROM `" + historyTable + "` WHERE timestamp < ? LIMIT " + batchSize, cutoff, batchSize);
+                deleteInBatches(connection,
+                        "DELETE FROM `" + transactionsTable + "` WHERE timestamp < ? LIMIT " + batchSize, cutoff,
+                        batchSize);
+            }
+            if (retention.maxEntriesPerPlayer() > 0) {
+                removed += trimPlayers(connection, retention.maxEntriesPerPlayer(), batchSize);
+            }
+        } catch (SQLException ex) {
+            logger.log(Level.WARNING, "Failed to apply " + EzAuctionPlugin.DISPLAY_NAME
+                    + " history retention in MySQL.", ex);
+        }
+        if (removed > 0L) {
+            logger.info("Removed " + removed + " expired auction history rows from " + historyTable + '.');
+        }
+    }
+
+    private long deleteInBatches(Connection connection, String sql, long cutoff, int batchSize) throws SQLException {
+        long removed = 0L;
+        try (PreparedStatement delete = connection.prepareStatement(sql)) {
+            delete.setLong(1, cutoff);
+            int count;
+            do {
+                count = delete.executeUpdate();
+                removed += count;
+            } while (count >= batchSize && retentionExecutor != null);
+        }
+        return removed;
+    }
+
+    private long trimPlayers(Connection connection, int maxEntries, int batchSize) throws SQLException {
+        List<String> players = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement("SELECT player_uuid FROM `" + historyTable
+                + "` GROUP BY player_uuid HAVING COUNT(*) > ? LIMIT " + batchSize)) {
+            select.setInt(1, maxEntries);
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    players.add(resultSet.getString(1));
+                }
+            }
+        }
+        long removed = 0L;
+        long newestBoundary = Long.MIN_VALUE;
+        try (PreparedStatement boundary = connection.prepareStatement("SELECT timestamp FROM `" + historyTable
+                + "` WHERE player_uuid = ? ORDER BY timestamp DESC LIMIT 1 OFFSET " + (maxEntries - 1));
+                PreparedStatement delete = connection.prepareStatement("DELETE FROM `" + historyTable
+                        + "` WHERE player_uuid = ? AND timestamp < ? LIMIT " + batchSize)) {
+            for (String player : players) {
+                boundary.setString(1, player);
+                try (ResultSet resultSet = boundary.executeQuery()) {
+                    if (!resultSet.next()) {
+                        continue;
+                    }
+                    long boundaryTimestamp = resultSet.getLong(1);
+                    delete.setString(1, player);
+                    delete.setLong(2, boundaryTimestamp);
+                    newestBoundary = Math.max(newestBoundary, boundaryTimestamp);
+                }
+                removed += delete.executeUpdate();
+            }
+        }
+        if (removed > 0L) {
+            // Only transactions older than a trimmed boundary can have lost their last index row.
+            deleteInBatches(connection, "DELETE FROM `" + transactionsTable + "` WHERE timestamp < ?"
+                    + " AND NOT EXISTS (SELECT 1 FROM `" + historyTable + "` h"
+                    + " WHERE h.transaction_id = `" + transactionsTable + "`.transaction_id)"
+                    + " LIMIT " + batchSize, newestBoundary, batchSize);
         }
+        return removed;
     }
 
     private String sanitize(String input) {
@@ -3,12 +3,15 @@ package com.skyblockexp.ezauction.storage.mysql;
 import com.skyblockexp.ezauction.AuctionListing;
 import com.skyblockexp.ezauction.AuctionOrder;
 import com.skyblockexp.ezauction.EzAuctionPlugin;
+import com.skyblockexp.ezauction.LazyItemStack;
 import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Mysql;
+import com.skyblockexp.ezauction.storage.AuctionLoadPipeline;
 import com.skyblockexp.ezauction.storage.AuctionStorage;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
 import com.skyblockexp.ezauction.storage.DistributedAuctionListingStorage;
 import com.skyblockexp.ezauction.storage.AuctionStorageSnapshot;
 import com.skyblockexp.ezauction.util.EconomyUtils;
-import com.skyblockexp.ezauction.util.ItemStackSerialization;
+import com.skyblockexp.ezauction.util.ItemStackCodec;
 import java.sql.*;
 import java.util.*;
 import java.util.logging.Level;
@@ -21,14 +24,23 @@ import org.bukkit.plugin.java.JavaPlugin;
  * MySQL-based implementation of AuctionStorage and DistributedAuctionListingStorage.
  */
 public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAuctionListingStorage {
+    private static final int MAX_ROWS_PER_STATEMENT = 500;
+    private static final String LISTING_COLUMNS = "id, seller_uuid, price, expiry, deposit, item, team_uuid";
+    private static final String ORDER_COLUMNS = "id, buyer_uuid, price, reserved, expiry, item";
+    private static final String RETURN_COLUMNS = "player_uuid, slot, item";
+
     private final JavaPlugin plugin;
     private final Logger logger;
     private final Mysql mysql;
-    private final String jdbcUrl;
     private final String listingsTable;
     private final String ordersTable;
     private final String returnsTable;
     private boolean driverLoaded = false;
+    private MysqlConnectionPool connectionPool;
+    // Last state known to be in MySQL; used to skip rows that did not change.
+    private final Map<String, AuctionListing> persistedListings = new HashMap<>();
+    private final Map<String, AuctionOrder> persistedOrders = new HashMap<>();
+    private final Map<UUID, List<ItemStack>> persistedReturns = new HashMap<>();
 
     /**
      * Constructs a new MySQL-based auction listing storage implementation.
@@ -40,16 +52,26 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
         this.plugin = plugin;
         this.logger = plugin != null ? plugin.getLogger() : Logger.getLogger(MysqlAuctionListingStorage.class.getName());
         this.mysql = mysql;
-        this.jdbcUrl = "jdbc:mysql://" + mysql.host() + ":" + mysql.port() + "/" + mysql.database();
         String prefix = mysql.tablePrefix();
         this.listingsTable = sanitize(prefix + "listings");
         this.ordersTable = sanitize(prefix + "orders");
         this.returnsTable = sanitize(prefix + "returns");
     }
 
+    /**
+     * Creates a storage that writes through {@code connectionPool} instead of acquiring the shared
+     * pool. Tables are assumed to exist.
+     */
+    MysqlAuctionListingStorage(JavaPlugin plugin, Mysql mysql, MysqlConnectionPool connectionPool) {
+        this(plugin, mysql);
+        this.connectionPool = connectionPool;
+        this.driverLoaded = true;
+    }
+
     @Override
     /**
-     * Initializes the storage by loading the MySQL driver and creating tables if needed.
+     * Initializes the storage by loading the MySQL driver, acquiring the shared connection pool,
+     * and creating tables if needed.
      *
      * @return true if initialization succeeded, false otherwise
      */
@@ -64,6 +86,13 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
             logger.log(Level.SEVERE, "MySQL JDBC driver not found.", ex);
             return false;
         }
+        try {
+            connectionPool = MysqlConnectionPool.acquire(logger, mysql);
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE,
+                    "Failed to open the " + EzAuctionPlugin.DISPLAY_NAME + " MySQL connection pool.", ex);
+            return false;
+        }
         try (Connection connection = getConnection(); Statement statement = connection.createStatement()) {
             statement.executeUpdate("CREATE TABLE IF NOT EXISTS `" + listingsTable + "` ("
                     + "id VARCHAR(36) NOT NULL PRIMARY KEY,"
@@ -71,7 +100,7 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
                     + "price DOUBLE NOT NULL,"
                     + "expiry BIGINT NOT NULL,"
                     + "deposit DOUBLE NOT NULL,"
-                    + "item LONGTEXT NOT NULL,"
+                    + "item LONGBLOB NOT NULL,"
                     + "team_uuid CHAR(36) NULL"
                     + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
             // Migration: add team_uuid column to existing tables that pre-date team auctions
@@ -86,14 +115,18 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
                     + "price DOUBLE NOT NULL,"
                     + "reserved DOUBLE NOT NULL,"
                     + "expiry BIGINT NOT NULL,"
-                    + "item LONGTEXT NOT NULL"
+                    + "item LONGBLOB NOT NULL"
                     + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
             statement.executeUpdate("CREATE TABLE IF NOT EXISTS `" + returnsTable + "` ("
                     + "player_uuid CHAR(36) NOT NULL,"
                     + "slot INT NOT NULL,"
-                    + "item LONGTEXT NOT NULL,"
+                    + "item LONGBLOB NOT NULL,"
                     + "PRIMARY KEY (player_uuid, slot)"
                     + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;");
+            // Migration: tables created before the binary item codec hold Base64 text
+            for (String table : List.of(listingsTable, ordersTable, returnsTable)) {
+                MysqlItemColumns.migrateToBinary(connection, logger, mysql.database(), table, false);
+            }
             return true;
         } catch (SQLException ex) {
             logger.log(Level.SEVERE,
@@ -109,15 +142,38 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
      * @return a snapshot of all current listings, orders, and returns
      */
     public AuctionStorageSnapshot load() {
-        Map<String, AuctionListing> listings = new HashMap<>();
-        Map<String, AuctionOrder> orders = new HashMap<>();
-        Map<UUID, List<ItemStack>> returns = new HashMap<>();
         if (!isReady()) {
             return AuctionStorageSnapshot.empty();
         }
+        AuctionLoadPipeline pipeline = new AuctionLoadPipeline(logger, "MySQL");
+        try {
+            readEntries(pipeline);
+        } catch (RuntimeException ex) {
+            pipeline.close();
+            throw ex;
+        }
+        AuctionStorageSnapshot snapshot = pipeline.complete();
+
+        synchronized (this) {
+            persistedListings.clear();
+            persistedListings.putAll(snapshot.listings());
+            persistedOrders.clear();
+            persistedOrders.putAll(snapshot.orders());
+            persistedReturns.clear();
+            snapshot.pendingReturns().forEach((playerId, items) -> persistedReturns.put(playerId, sanitizeReturns(items)));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Streams listing, order, and return rows into the pipeline. Rows are fetched one at a time
+     * instead of buffering each table in memory, and item data is decoded on the pipeline's
+     * worker threads while the next rows are read.
+     */
+    private void readEntries(AuctionLoadPipeline pipeline) {
         String listingsQuery = "SELECT id, seller_uuid, price, expiry, deposit, item, team_uuid FROM `" + listingsTable + "`";
         try (Connection connection = getConnection();
-                PreparedStatement statement = connection.prepareStatement(listingsQuery);
+                PreparedStatement statement = prepareStreaming(connection, listingsQuery);
                 ResultSet resultSet = statement.executeQuery()) {
             while (resultSet.next()) {
                 String id = resultSet.getString("id");
@@ -132,11 +188,13 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
                 }
                 long expiry = resultSet.getLong("expiry");
                 double deposit = EconomyUtils.normalizeCurrency(resultSet.getDouble("deposit"));
-                ItemStack item = ItemStackSerialization.deserialize(resultSet.getString("item"), logger);
-                if (item == null || item.getType() == Material.AIR || item.getAmount() <= 0) {
+                byte[] itemData = resultSet.getBytes("item");
+                UUID teamId = parseUuid(resultSet.getString("team_uuid"));
+                if (itemData == null || itemData.length == 0) {
                     continue;
                 }
-                listings.put(id, new AuctionListing(id, sellerId, price, expiry, item, deposit, parseUuid(resultSet.getString("team_uuid"))));
+                pipeline.submitListing(id, () -> new AuctionListing(id, sellerId, price, expiry,
+                        LazyItemStack.encoded(itemData), deposit, teamId));
             }
         } catch (SQLException ex) {
             logger.log(Level.SEVERE,
@@ -145,7 +203,7 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
 
         String ordersQuery = "SELECT id, buyer_uuid, price, reserved, expiry, item FROM `" + ordersTable + "`";
         try (Connection connection = getConnection();
-                PreparedStatement statement = connection.prepareStatement(ordersQuery);
+                PreparedStatement statement = prepareStreaming(connection, ordersQuery);
                 ResultSet resultSet = statement.executeQuery()) {
             while (resultSet.next()) {
                 String id = resultSet.getString("id");
@@ -157,16 +215,14 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
                 if (price <= 0.0D) {
                     continue;
                 }
-                double reserved = EconomyUtils.normalizeCurrency(resultSet.getDouble("reserved"));
-                if (reserved < price) {
-                    reserved = price;
-                }
+                double reserved = Math.max(price, EconomyUtils.normalizeCurrency(resultSet.getDouble("reserved")));
                 long expiry = resultSet.getLong("expiry");
-                ItemStack item = ItemStackSerialization.deserialize(resultSet.getString("item"), logger);
-                if (item == null || item.getType() == Material.AIR || item.getAmount() <= 0) {
+                byte[] itemData = resultSet.getBytes("item");
+                if (itemData == null || itemData.length == 0) {
                     continue;
                 }
-                orders.put(id, new AuctionOrder(id, buyerId, price, expiry, item, reserved));
+                pipeline.submitOrder(id, () -> new AuctionOrder(id, buyerId, price, expiry,
+                        LazyItemStack.encoded(itemData), reserved));
             }
         } catch (SQLException ex) {
             logger.log(Level.SEVERE,
@@ -175,66 +231,104 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
 
         String returnsQuery = "SELECT player_uuid, slot, item FROM `" + returnsTable + "` ORDER BY player_uuid, slot";
         try (Connection connection = getConnection();
-                PreparedStatement statement = connection.prepareStatement(returnsQuery);
+                PreparedStatement statement = prepareStreaming(connection, returnsQuery);
                 ResultSet resultSet = statement.executeQuery()) {
+            UUID currentPlayer = null;
+            List<byte[]> currentItems = new ArrayList<>();
             while (resultSet.next()) {
                 UUID playerId = parseUuid(resultSet.getString("player_uuid"));
                 if (playerId == null) {
                     continue;
                 }
-                ItemStack item = ItemStackSerialization.deserialize(resultSet.getString("item"), logger);
-                if (item == null || item.getType() == Material.AIR || item.getAmount() <= 0) {
-                    continue;
+                if (!playerId.equals(currentPlayer)) {
+                    submitReturns(pipeline, currentPlayer, currentItems);
+                    currentPlayer = playerId;
+                    currentItems = new ArrayList<>();
                 }
-                returns.computeIfAbsent(playerId, key -> new ArrayList<>()).add(item);
+                currentItems.add(resultSet.getBytes("item"));
             }
+            submitReturns(pipeline, currentPlayer, currentItems);
         } catch (SQLException ex) {
             logger.log(Level.SEVERE,
                     "Failed to load " + EzAuctionPlugin.DISPLAY_NAME + " returns from MySQL.", ex);
         }
+    }
 
-        return new AuctionStorageSnapshot(listings, orders, returns);
+    private void submitReturns(AuctionLoadPipeline pipeline, UUID playerId, List<byte[]> itemData) {
+        if (playerId == null || itemData.isEmpty()) {
+            return;
+        }
+        pipeline.submitReturns(playerId, () -> {
+            List<ItemStack> items = new ArrayList<>(itemData.size());
+            for (byte[] data : itemData) {
+                ItemStack item = readItem(data);
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+            return items;
+        });
+    }
+
+    private ItemStack readItem(byte[] data) {
+        ItemStack item = ItemStackCodec.decode(data, logger);
+        if (item == null || item.getType() == Material.AIR || item.getAmount() <= 0) {
+            return null;
+        }
+        return item;
+    }
+
+    /**
+     * Prepares a forward-only query that the MySQL driver streams row by row.
+     */
+    private static PreparedStatement prepareStreaming(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(Integer.MIN_VALUE);
+        return statement;
     }
 
     @Override
     /**
-     * Persists all auction listings and buy orders to storage, replacing any existing data.
+     * Persists all auction listings and buy orders to storage. Only rows that differ from the
+     * last state written to or read from MySQL are upserted, and rows that disappeared are
+     * deleted by id.
      *
      * @param listings the listings to save
      * @param orders   the buy orders to save
      */
-    public void saveListings(Collection<AuctionListing> listings, Collection<AuctionOrder> orders) {
+    public synchronized void saveListings(Collection<AuctionListing> listings, Collection<AuctionOrder> orders) {
         if (!isReady()) {
             return;
         }
-        String deleteOrders = "DELETE FROM `" + ordersTable + "`";
-        String insertOrder = "INSERT INTO `" + ordersTable
-                + "` (id, buyer_uuid, price, reserved, expiry, item) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection connection = getConnection()) {
-            connection.setAutoCommit(false);
-            try (Statement deleteStatement = connection.createStatement()) {
-                deleteStatement.executeUpdate(deleteOrders);
+        AuctionStorageChangeSet changes = new AuctionStorageChangeSet();
+        Set<String> listingIds = new HashSet<>();
+        for (AuctionListing listing : listings) {
+            listingIds.add(listing.id());
+            if (!listing.equals(persistedListings.get(listing.id()))) {
+                changes.upsertListing(listing);
             }
-            try (PreparedStatement insertStatement = connection.prepareStatement(insertOrder)) {
-                for (AuctionOrder order : orders) {
-                    insertStatement.setString(1, order.id());
-                    insertStatement.setString(2, order.buyerId().toString());
-                    insertStatement.setDouble(3, order.offeredPrice());
-                    insertStatement.setDouble(4, order.reservedAmount());
-                    insertStatement.setLong(5, order.expiryEpochMillis());
-                    insertStatement.setString(6, ItemStackSerialization.serialize(order.requestedItem(), logger));
-                    insertStatement.addBatch();
-                }
-                insertStatement.executeBatch();
+        }
+        for (String listingId : persistedListings.keySet()) {
+            if (!listingIds.contains(listingId)) {
+                changes.removeListing(listingId);
             }
-            connection.commit();
-        } catch (SQLException ex) {
-            logger.log(Level.SEVERE,
-                    "Failed to save " + EzAuctionPlugin.DISPLAY_NAME + " orders to MySQL.", ex);
         }
+        Set<String> orderIds = new HashSet<>();
+        for (AuctionOrder order : orders) {
+            orderIds.add(order.id());
+            if (!order.equals(persistedOrders.get(order.id()))) {
+                changes.upsertOrder(order);
+            }
+        }
+        for (String orderId : persistedOrders.keySet()) {
+            if (!orderIds.contains(orderId)) {
+                changes.removeOrder(orderId);
+            }
+        }
+        applyChanges(changes);
     }
 
-    @Override
     /**
      * Persists a single auction listing to storage, making it visible to other servers.
      *
@@ -259,9 +353,12 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
             statement.setDouble(3, listing.price());
             statement.setLong(4, listing.expiryEpochMillis());
             statement.setDouble(5, listing.deposit());
-            statement.setString(6, ItemStackSerialization.serialize(listing.item(), logger));
+            statement.setBytes(6, listing.itemData().encode(logger));
             statement.setString(7, listing.teamId() != null ? listing.teamId().toString() : null);
             statement.executeUpdate();
+            synchronized (this) {
+                persistedListings.put(listing.id(), listing);
+            }
         } catch (SQLException ex) {
             logger.log(Level.SEVERE,
                     String.format("Failed to persist %s listing %s to MySQL.",
@@ -299,46 +396,195 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
 
     @Override
     /**
-     * Persists all pending return items for players to storage.
+     * Persists all pending return items for players to storage. Only players whose returns
+     * changed since the last write are touched.
      *
      * @param returnsByPlayer a map of player UUIDs to their pending return items
      */
-    public void saveReturns(Map<UUID, List<ItemStack>> returnsByPlayer) {
+    public synchronized void saveReturns(Map<UUID, List<ItemStack>> returnsByPlayer) {
         if (!isReady()) {
             return;
         }
-        String deleteReturns = "DELETE FROM `" + returnsTable + "`";
-        String insertReturn = "INSERT INTO `" + returnsTable
-                + "` (player_uuid, slot, item) VALUES (?, ?, ?)";
-        try (Connection connection = getConnection()) {
-            connection.setAutoCommit(false);
-            try (Statement deleteStatement = connection.createStatement()) {
-                deleteStatement.executeUpdate(deleteReturns);
+        AuctionStorageChangeSet changes = new AuctionStorageChangeSet();
+        for (Map.Entry<UUID, List<ItemStack>> entry : returnsByPlayer.entrySet()) {
+            List<ItemStack> items = sanitizeReturns(entry.getValue());
+            if (!items.equals(persistedReturns.getOrDefault(entry.getKey(), List.of()))) {
+                changes.replaceReturns(entry.getKey(), items);
+            }
+        }
+        for (UUID playerId : persistedReturns.keySet()) {
+            List<ItemStack> items = returnsByPlayer.get(playerId);
+            if (items == null || items.isEmpty()) {
+                changes.replaceReturns(playerId, List.of());
             }
-            try (PreparedStatement insertStatement = connection.prepareStatement(insertReturn)) {
-                for (Map.Entry<UUID, List<ItemStack>> entry : returnsByPlayer.entrySet()) {
-                    List<ItemStack> items = entry.getValue();
-                    if (items == null || items.isEmpty()) {
-                        continue;
-                    }
-                    int slot = 0;
-                    for (ItemStack stack : items) {
-                        if (stack == null || stack.getType() == Material.AIR || stack.getAmount() <= 0) {
-                            continue;
-                        }
-                        insertStatement.setString(1, entry.getKey().toString());
-                        insertStatement.setInt(2, slot++);
-                        insertStatement.setString(3, ItemStackSerialization.serialize(stack, logger));
-                        insertStatement.addBatch();
-                    }
+        }
+        applyChanges(changes);
+    }
+
+    @Override
+    /**
+     * Persists only the listings, orders, and per-player returns referenced by the change set
+     * inside a single transaction. Upserts are written as multi-row
+     * {@code INSERT ... ON DUPLICATE KEY UPDATE} statements and removals as
+     * {@code DELETE ... WHERE id IN (...)}; return slots whose item did not change are skipped.
+     *
+     * @param changes the incremental changes to persist
+     */
+    public synchronized void applyChanges(AuctionStorageChangeSet changes) {
+        if (!isReady() || changes == null || changes.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<ItemStack>> returnUpdates = new LinkedHashMap<>();
+        List<ReturnSlot> changedSlots = new ArrayList<>();
+        for (Map.Entry<UUID, List<ItemStack>> entry : changes.returnUpdates().entrySet()) {
+            List<ItemStack> items = sanitizeReturns(entry.getValue());
+            List<ItemStack> previous = persistedReturns.getOrDefault(entry.getKey(), List.of());
+            for (int slot = 0; slot < items.size(); slot++) {
+                if (slot >= previous.size() || !items.get(slot).equals(previous.get(slot))) {
+                    changedSlots.add(new ReturnSlot(entry.getKey(), slot, items.get(slot)));
                 }
-                insertStatement.executeBatch();
             }
-            connection.commit();
+            returnUpdates.put(entry.getKey(), items);
+        }
+        try (Connection connection = getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                upsertRows(connection, listingsTable, LISTING_COLUMNS, 7,
+                        "seller_uuid = VALUES(seller_uuid), price = VALUES(price), expiry = VALUES(expiry),"
+                                + " deposit = VALUES(deposit), item = VALUES(item), team_uuid = VALUES(team_uuid)",
+                        changes.listingUpserts(), (statement, index, listing) -> {
+                            statement.setString(index++, listing.id());
+                            statement.setString(index++, listing.sellerId().toString());
+                            statement.setDouble(index++, listing.price());
+                            statement.setLong(index++, listing.expiryEpochMillis());
+                            statement.setDouble(index++, listing.deposit());
+                            statement.setBytes(index++, listing.itemData().encode(logger));
+                            statement.setString(index++, listing.teamId() != null ? listing.teamId().toString() : null);
+                            return index;
+                        });
+                deleteRows(connection, listingsTable, "id", changes.listingRemovals());
+                upsertRows(connection, ordersTable, ORDER_COLUMNS, 6,
+                        "buyer_uuid = VALUES(buyer_uuid), price = VALUES(price), reserved = VALUES(reserved),"
+                                + " expiry = VALUES(expiry), item = VALUES(item)",
+                        changes.orderUpserts(), (statement, index, order) -> {
+                            statement.setString(index++, order.id());
+                            statement.setString(index++, order.buyerId().toString());
+                            statement.setDouble(index++, order.offeredPrice());
+                            statement.setDouble(index++, order.reservedAmount());
+                            statement.setLong(index++, order.expiryEpochMillis());
+                            statement.setBytes(index++, order.requestedItemData().encode(logger));
+                            return index;
+                        });
+                deleteRows(connection, ordersTable, "id", changes.orderRemovals());
+                upsertRows(connection, returnsTable, RETURN_COLUMNS, 3, "item = VALUES(item)",
+                        changedSlots, (statement, index, row) -> {
+                            statement.setString(index++, row.playerId().toString());
+                            statement.setInt(index++, row.slot());
+                            statement.setBytes(index++, ItemStackCodec.encode(row.item(), logger));
+                            return index;
+                        });
+                trimReturns(connection, returnUpdates);
+                connection.commit();
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            }
         } catch (SQLException ex) {
             logger.log(Level.SEVERE,
-                    "Failed to save " + EzAuctionPlugin.DISPLAY_NAME + " returns to MySQL.", ex);
+                    "Failed to apply " + EzAuctionPlugin.DISPLAY_NAME + " storage changes to MySQL ("
+                            + changes + ").", ex);
+            return;
         }
+        changes.listingRemovals().forEach(persistedListings::remove);
+        changes.listingUpserts().forEach(listing -> persistedListings.put(listing.id(), listing));
+        changes.orderRemovals().forEach(persistedOrders::remove);
+        changes.orderUpserts().forEach(order -> persistedOrders.put(order.id(), order));
+        returnUpdates.forEach((playerId, items) -> {
+            if (items.isEmpty()) {
+                persistedReturns.remove(playerId);
+            } else {
+                persistedReturns.put(playerId, items);
+            }
+        });
+    }
+
+    /**
+     * Writes rows as multi-row {@code INSERT ... ON DUPLICATE KEY UPDATE} statements of at most
+     * {@link #MAX_ROWS_PER_STATEMENT} rows each.
+     */
+    private <T> void upsertRows(Connection connection, String table, String columns, int columnCount,
+            String updateClause, Collection<T> rows, RowBinder<T> binder) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<T> pending = new ArrayList<>(rows);
+        String rowPlaceholder = "(" + String.join(", ", Collections.nCopies(columnCount, "?")) + ")";
+        for (int start = 0; start < pending.size(); start += MAX_ROWS_PER_STATEMENT) {
+            List<T> chunk = pending.subList(start, Math.min(pending.size(), start + MAX_ROWS_PER_STATEMENT));
+            String sql = "INSERT INTO `" + table + "` (" + columns + ") VALUES "
+                    + String.join(", ", Collections.nCopies(chunk.size(), rowPlaceholder))
+                    + " ON DUPLICATE KEY UPDATE " + updateClause;
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int index = 1;
+                for (T row : chunk) {
+                    index = binder.bind(statement, index, row);
+                }
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Deletes rows by key using {@code DELETE ... WHERE column IN (...)} batches.
+     */
+    private void deleteRows(Connection connection, String table, String column, Collection<String> keys)
+            throws SQLException {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<String> pending = new ArrayList<>(keys);
+        for (int start = 0; start < pending.size(); start += MAX_ROWS_PER_STATEMENT) {
+            List<String> chunk = pending.subList(start, Math.min(pending.size(), start + MAX_ROWS_PER_STATEMENT));
+            String sql = "DELETE FROM `" + table + "` WHERE " + column + " IN ("
+                    + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    statement.setString(i + 1, chunk.get(i));
+                }
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Removes return slots beyond each player's new item count.
+     */
+    private void trimReturns(Connection connection, Map<UUID, List<ItemStack>> returnUpdates) throws SQLException {
+        if (returnUpdates.isEmpty()) {
+            return;
+        }
+        String trim = "DELETE FROM `" + returnsTable + "` WHERE player_uuid = ? AND slot >= ?";
+        try (PreparedStatement statement = connection.prepareStatement(trim)) {
+            for (Map.Entry<UUID, List<ItemStack>> entry : returnUpdates.entrySet()) {
+                statement.setString(1, entry.getKey().toString());
+                statement.setInt(2, entry.getValue().size());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static List<ItemStack> sanitizeReturns(List<ItemStack> items) {
+        if (items == null || items.isEmpty()) {
+            return List.of();
+        }
+        List<ItemStack> sanitized = new ArrayList<>(items.size());
+        for (ItemStack stack : items) {
+            if (stack != null && stack.getType() != Material.AIR && stack.getAmount() > 0) {
+                sanitized.add(stack.clone());
+            }
+        }
+        return sanitized;
     }
 
     /**
@@ -354,6 +600,9 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
                 PreparedStatement statement = connection.prepareStatement(delete)) {
             statement.setString(1, listingId);
             int affected = statement.executeUpdate();
+            synchronized (this) {
+                persistedListings.remove(listingId);
+            }
             return returnResult ? affected > 0 : true;
         } catch (SQLException ex) {
             logger.log(Level.SEVERE,
@@ -367,20 +616,24 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
     /**
      * Obtains a new JDBC connection to the configured MySQL database.
      *
-     * @return a new JDBC connection
+     * @return a pooled JDBC connection; closing it returns it to the pool
      * @throws SQLException if a connection cannot be established
      */
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(jdbcUrl, mysql.username(), mysql.password());
+        MysqlConnectionPool pool = connectionPool;
+        if (pool == null) {
+            throw new SQLException(EzAuctionPlugin.DISPLAY_NAME + " MySQL storage is not initialized.");
+        }
+        return pool.getConnection();
     }
 
     /**
-     * Returns whether the storage is ready for use (driver loaded).
+     * Returns whether the storage is ready for use (driver loaded and pool open).
      *
      * @return true if ready, false otherwise
      */
     private boolean isReady() {
-        return driverLoaded;
+        return driverLoaded && connectionPool != null;
     }
 
     /**
@@ -423,12 +676,27 @@ public class MysqlAuctionListingStorage implements AuctionStorage, DistributedAu
     }
     
     /**
-     * Closes any resources held by this storage implementation.
-     * This implementation does not maintain persistent connections or resources,
-     * so this method is a no-op. Required by the {@link AutoCloseable} interface.
+     * Releases this storage's reference to the shared connection pool. The pool closes its
+     * connections once no MySQL storage uses it anymore.
      */
     @Override
     public void close() {
-        // No resources to close in this implementation.
+        MysqlConnectionPool pool = connectionPool;
+        connectionPool = null;
+        if (pool != null) {
+            pool.release();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowBinder<T> {
+
+        /**
+         * Binds one row starting at {@code index} and returns the next free parameter index.
+         */
+        int bind(PreparedStatement statement, int index, T row) throws SQLException;
+    }
+
+    private record ReturnSlot(UUID playerId, int slot, ItemStack item) {
     }
 }
@@ -0,0 +1,394 @@
+package com.skyblockexp.ezauction.storage.mysql;
+
+import com.skyblockexp.ezauction.EzAuctionPlugin;
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Mysql;
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Pool;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Small JDBC connection pool shared by the MySQL storage implementations.
+ *
+ * <p>The pool honours the {@link Pool} settings from {@code auction-storage.yml}: at most
+ * {@code maximum-pool-size} physical connections are opened, {@code minimum-idle} connections are
+ * kept warm, idle connections above that floor are closed after {@code idle-timeout-millis}, and
+ * every connection is retired after {@code max-lifetime-millis}. Borrowers wait up to
+ * {@code connection-timeout-millis} for a free connection.</p>
+ *
+ * <p>Connections handed out are proxies whose {@link Connection#close()} returns the physical
+ * connection to the pool. Prepared statements are cached per physical connection by the MySQL
+ * driver ({@code cachePrepStmts}/{@code useServerPrepStmts}), which only pays off now that
+ * connections are reused. Idle connections are validated with {@link Connection#isValid(int)}
+ * before being handed out again.</p>
+ */
+public final class MysqlConnectionPool implements AutoCloseable {
+
+    private static final Map<Mysql, MysqlConnectionPool> SHARED = new HashMap<>();
+    private static final long VALIDATION_BYPASS_MILLIS = 500L;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 30_000L;
+
+    private final Logger logger;
+    private final Pool settings;
+    private final ConnectionFactory connectionFactory;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private int references;
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool that opens physical connections through the given factory.
+     *
+     * @param logger            the logger used for pool warnings
+     * @param settings          the pool sizing and timeout settings
+     * @param connectionFactory the factory used to open physical connections
+     */
+    public MysqlConnectionPool(Logger logger, Pool settings, ConnectionFactory connectionFactory) {
+        this.logger = logger != null ? logger : Logger.getLogger(MysqlConnectionPool.class.getName());
+        this.settings = settings != null ? settings : Pool.defaultSettings();
+        this.connectionFactory = connectionFactory;
+        this.permits = new Semaphore(this.settings.maximumPoolSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EzAuction-MySQL-Pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, HOUSEKEEPING_INTERVAL_MILLIS,
+                HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the pool shared by every MySQL storage using the same configuration, creating and
+     * warming it up on first use. Each successful call must be paired with {@link #release()}.
+     *
+     * @param logger the logger used for pool warnings
+     * @param mysql  the MySQL configuration
+     * @return the shared pool
+     * @throws SQLException if the initial connections could not be opened
+     */
+    public static MysqlConnectionPool acquire(Logger logger, Mysql mysql) throws SQLException {
+        synchronized (SHARED) {
+            MysqlConnectionPool pool = SHARED.get(mysql);
+            if (pool == null || pool.closed) {
+                pool = new MysqlConnectionPool(logger, mysql.pool(), driverFactory(mysql));
+                try {
+                    pool.fillIdle();
+                } catch (SQLException ex) {
+                    pool.close();
+                    throw ex;
+                }
+                SHARED.put(mysql, pool);
+            }
+            pool.references++;
+            return pool;
+        }
+    }
+
+    /**
+     * Releases a reference obtained through {@link #acquire(Logger, Mysql)}. The pool is closed
+     * once the last storage using it has released it.
+     */
+    public void release() {
+        synchronized (SHARED) {
+            if (references > 0) {
+                references--;
+            }
+            if (references > 0) {
+                return;
+            }
+            SHARED.values().remove(this);
+        }
+        close();
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one when none is idle.
+     *
+     * @return a pooled connection; closing it returns it to the pool
+     * @throws SQLException if the pool is closed, exhausted past the timeout, or a connection
+     *                      could not be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException(EzAuctionPlugin.DISPLAY_NAME + " MySQL connection pool is closed.");
+        }
+        try {
+            if (!permits.tryAcquire(settings.connectionTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Timed out after " + settings.connectionTimeoutMillis()
+                        + "ms waiting for a " + EzAuctionPlugin.DISPLAY_NAME + " MySQL connection.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a MySQL connection.", ex);
+        }
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = open();
+            }
+            return pooled.lease();
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the number of physical connections currently open.
+     */
+    public int totalConnections() {
+        return totalConnections.get();
+    }
+
+    /**
+     * Returns the number of physical connections waiting in the pool.
+     */
+    public int idleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * Returns the number of connections currently borrowed.
+     */
+    public int activeConnections() {
+        return settings.maximumPoolSize() - permits.availablePermits();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes every idle connection and stops housekeeping. Borrowed connections are closed as
+     * soon as they are returned.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Opens connections until {@code minimum-idle} connections are available.
+     */
+    void fillIdle() throws SQLException {
+        while (!closed && idle.size() < settings.minimumIdle()
+                && totalConnections.get() < settings.maximumPoolSize() && permits.tryAcquire()) {
+            try {
+                idle.offerLast(open());
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Retires idle connections that exceeded their idle timeout or maximum lifetime and tops the
+     * pool back up to {@code minimum-idle}.
+     */
+    void housekeep() {
+        if (closed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> iterator = idle.iterator();
+        while (iterator.hasNext()) {
+            PooledConnection pooled = iterator.next();
+            boolean expired = pooled.isExpired(now);
+            boolean idleTooLong = settings.idleTimeoutMillis() > 0L
+                    && now - pooled.lastUsedMillis >= settings.idleTimeoutMillis()
+                    && idle.size() > settings.minimumIdle();
+            if ((expired || idleTooLong) && idle.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+        try {
+            fillIdle();
+        } catch (SQLException ex) {
+            logger.log(Level.WARNING,
+                    "Failed to refill the " + EzAuctionPlugin.DISPLAY_NAME + " MySQL connection pool.", ex);
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long now = System.currentTimeMillis();
+            if (pooled.isExpired(now)) {
+                discard(pooled);
+                continue;
+            }
+            if (now - pooled.lastUsedMillis > VALIDATION_BYPASS_MILLIS && !isAlive(pooled.physical)) {
+                discard(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return null;
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection physical = connectionFactory.create();
+        if (physical == null) {
+            throw new SQLException("Connection factory returned no connection.");
+        }
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical, System.currentTimeMillis());
+    }
+
+    private void recycle(PooledConnection pooled) {
+        try {
+            if (closed || pooled.isExpired(System.currentTimeMillis()) || pooled.physical.isClosed()) {
+                discard(pooled);
+                return;
+            }
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastUsedMillis = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException ex) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+            // Connection is being thrown away; nothing else to do.
+        }
+    }
+
+    private boolean isAlive(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private static ConnectionFactory driverFactory(Mysql mysql) {
+        String jdbcUrl = "jdbc:mysql://" + mysql.host() + ":" + mysql.port() + "/" + mysql.database();
+        Properties properties = new Properties();
+        properties.setProperty("user", mysql.username());
+        properties.setProperty("password", mysql.password());
+        properties.setProperty("useSSL", Boolean.toString(mysql.useSsl()));
+        properties.setProperty("cachePrepStmts", "true");
+        properties.setProperty("prepStmtCacheSize", "250");
+        properties.setProperty("prepStmtCacheSqlLimit", "2048");
+        properties.setProperty("useServerPrepStmts", "true");
+        properties.setProperty("useLocalSessionState", "true");
+        properties.setProperty("rewriteBatchedStatements", "true");
+        properties.setProperty("connectTimeout", Long.toString(mysql.pool().connectionTimeoutMillis()));
+        properties.setProperty("tcpKeepAlive", "true");
+        return () -> DriverManager.getConnection(jdbcUrl, properties);
+    }
+
+    /**
+     * Opens physical connections for the pool.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+
+        Connection create() throws SQLException;
+    }
+
+    private final class PooledConnection {
+
+        private final Connection physical;
+        private final long createdMillis;
+        private volatile long lastUsedMillis;
+
+        private PooledConnection(Connection physical, long createdMillis) {
+            this.physical = physical;
+            this.createdMillis = createdMillis;
+            this.lastUsedMillis = createdMillis;
+        }
+
+        private boolean isExpired(long now) {
+            return now - createdMillis >= settings.maxLifetimeMillis();
+        }
+
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(MysqlConnectionPool.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, new LeaseHandler(this));
+        }
+    }
+
+    private final class LeaseHandler implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        recycle(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || pooled.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + pooled.physical + (returned ? ", returned]" : "]");
+                }
+                default -> {
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+                }
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.skyblockexp.ezauction.storage.mysql;
+
+import com.skyblockexp.ezauction.EzAuctionPlugin;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Schema migration shared by the MySQL storages for item columns.
+ *
+ * <p>Tables created before the binary item codec store items as {@code LONGTEXT} Base64. Converting
+ * the column to {@code LONGBLOB} keeps the existing ASCII bytes unchanged, so old rows are still
+ * read through the codec's legacy path and are rewritten in the binary format on their next save.</p>
+ */
+final class MysqlItemColumns {
+
+    private MysqlItemColumns() {
+    }
+
+    /**
+     * Converts the {@code item} column of {@code table} to {@code LONGBLOB} if it is still a text column.
+     */
+    static void migrateToBinary(Connection connection, Logger logger, String database, String table,
+            boolean nullable) {
+        String alter = "ALTER TABLE `" + table + "` MODIFY item LONGBLOB " + (nullable ? "NULL" : "NOT NULL");
+        try (PreparedStatement checkColumn = connection.prepareStatement(
+                "SELECT DATA_TYPE FROM information_schema.COLUMNS "
+                + "WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ? AND COLUMN_NAME = 'item'")) {
+            checkColumn.setString(1, database);
+            checkColumn.setString(2, table);
+            try (ResultSet rs = checkColumn.executeQuery()) {
+                if (!rs.next() || !rs.getString(1).toLowerCase(Locale.ROOT).endsWith("text")) {
+                    return;
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(alter);
+            }
+            logger.info("Converted item column of " + table + " to binary " + EzAuctionPlugin.DISPLAY_NAME
+                    + " item storage.");
+        } catch (SQLException ex) {
+            logger.log(Level.WARNING,
+                    "Could not convert item column of " + table + " to LONGBLOB. Items are still readable; "
+                    + "to store them compactly, run: " + alter + ";", ex);
+        }
+    }
+}
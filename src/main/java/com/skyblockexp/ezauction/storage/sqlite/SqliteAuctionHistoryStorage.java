@@ -0,0 +1,409 @@
+package com.skyblockexp.ezauction.storage.sqlite;
+
+import com.skyblockexp.ezauction.EzAuctionPlugin;
+import com.skyblockexp.ezauction.LazyItemStack;
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Sqlite;
+import com.skyblockexp.ezauction.storage.AuctionHistoryStorage;
+import com.skyblockexp.ezauction.transaction.AuctionHistoryCursor;
+import com.skyblockexp.ezauction.transaction.AuctionHistoryPage;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
+import com.skyblockexp.ezauction.util.EconomyUtils;
+import java.io.File;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * SQLite-based implementation of AuctionHistoryStorage sharing the database file of
+ * {@link SqliteAuctionListingStorage}. History is append-only and indexed by player, timestamp
+ * and transaction id, so recording a transaction inserts a single row and a page of history is
+ * read with a keyset query that never touches older rows.
+ *
+ * <p>Each sale is stored once in the {@code transactions} table with its price, parties and item;
+ * the {@code history} rows of the seller and the buyer only reference it by transaction id.</p>
+ */
+public class SqliteAuctionHistoryStorage implements AuctionHistoryStorage {
+
+    private static final String COLUMNS = "player_uuid, transaction_id, type, timestamp";
+    private static final String RECORD_COLUMNS =
+            "transaction_id, seller_uuid, seller_name, buyer_uuid, buyer_name, price, timestamp, item";
+    private static final String SELECT_COLUMNS = "SELECT h.player_uuid, h.transaction_id, h.type, h.timestamp,"
+            + " t.price, t.seller_uuid, t.seller_name, t.buyer_uuid, t.buyer_name, t.item"
+            + " FROM history h JOIN transactions t ON t.transaction_id = h.transaction_id";
+    private static final String NEWEST_FIRST = " ORDER BY h.timestamp DESC, h.transaction_id DESC";
+    private static final String INSERT_ENTRY = "INSERT OR IGNORE INTO history (" + COLUMNS + ") VALUES (?, ?, ?, ?)";
+    /** Both parties write the record; the second only fills in what the first could not know. */
+    private static final String UPSERT_RECORD = "INSERT INTO transactions (" + RECORD_COLUMNS + ")"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (transaction_id) DO UPDATE SET"
+            + " seller_uuid = COALESCE(seller_uuid, excluded.seller_uuid),"
+            + " seller_name = COALESCE(seller_name, excluded.seller_name),"
+            + " buyer_uuid = COALESCE(buyer_uuid, excluded.buyer_uuid),"
+            + " buyer_name = COALESCE(buyer_name, excluded.buyer_name),"
+            + " item = COALESCE(item, excluded.item)";
+    private static final String DELETE_PLAYER = "DELETE FROM history WHERE player_uuid = ?";
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS %s ("
+            + "player_uuid TEXT NOT NULL,"
+            + "transaction_id TEXT NOT NULL,"
+            + "type TEXT NOT NULL,"
+            + "timestamp INTEGER NOT NULL,"
+            + "PRIMARY KEY (player_uuid, transaction_id))";
+    private static final String CREATE_TRANSACTIONS = "CREATE TABLE IF NOT EXISTS transactions ("
+            + "transaction_id TEXT NOT NULL PRIMARY KEY,"
+            + "seller_uuid TEXT NULL,"
+            + "seller_name TEXT NULL,"
+            + "buyer_uuid TEXT NULL,"
+            + "buyer_name TEXT NULL,"
+            + "price REAL NOT NULL,"
+            + "timestamp INTEGER NOT NULL,"
+            + "item BLOB NULL)";
+
+    private final JavaPlugin plugin;
+    private final Logger logger;
+    private final Sqlite settings;
+    private SqliteDatabase database;
+
+    public SqliteAuctionHistoryStorage(JavaPlugin plugin, Sqlite settings) {
+        this.plugin = plugin;
+        this.logger = plugin != null ? plugin.getLogger() : Logger.getLogger(SqliteAuctionHistoryStorage.class.getName());
+        this.settings = settings != null ? settings : Sqlite.defaultSettings();
+    }
+
+    @Override
+    public boolean initialize() {
+        if (database != null) {
+            return true;
+        }
+        if (plugin == null) {
+            return false;
+        }
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException ex) {
+            logger.log(Level.SEVERE, "SQLite JDBC driver not found.", ex);
+            return false;
+        }
+        try {
+            database = SqliteDatabase.acquire(logger, new File(plugin.getDataFolder(), settings.file()),
+                    settings.busyTimeoutMillis());
+            database.transaction(db -> {
+                db.executeUpdate(CREATE_TRANSACTIONS);
+                db.executeUpdate(String.format(CREATE_TABLE, "history"));
+                if (hasColumn(db, "item")) {
+                    migrateToSharedRecords(db, hasColumn(db, "entry_index"));
+                }
+                db.executeUpdate("CREATE INDEX IF NOT EXISTS idx_history_player_time"
+                        + " ON history (player_uuid, timestamp, transaction_id)");
+                return null;
+            });
+            return true;
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Failed to create history table in SQLite.", ex);
+            close();
+            return false;
+        }
+    }
+
+    private boolean hasColumn(SqliteDatabase db, String column) throws SQLException {
+        try (ResultSet columns = db.prepared("PRAGMA table_info(history)").executeQuery()) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rebuilds a table that stores price, counterpart and item in every row into per-player index
+     * rows that reference the {@code transactions} table. Rows written before shared records were
+     * stored once per party, so each becomes its own transaction. Tables from the earlier layout,
+     * which was keyed by a per-player entry index and rewritten on every save, are converted in the
+     * same pass; their rows without a transaction id receive a generated one.
+     */
+    private void migrateToSharedRecords(SqliteDatabase db, boolean entryIndexLayout) throws SQLException {
+        if (entryIndexLayout) {
+            db.executeUpdate("UPDATE history SET transaction_id = lower(hex(randomblob(16)))"
+                    + " WHERE transaction_id IS NULL OR transaction_id = ''");
+        }
+        db.executeUpdate("INSERT OR IGNORE INTO transactions (" + RECORD_COLUMNS + ")"
+                + " SELECT transaction_id,"
+                + " CASE WHEN type = 'BUY' THEN counterpart_uuid ELSE player_uuid END,"
+                + " CASE WHEN type = 'BUY' THEN counterpart_name ELSE NULL END,"
+                + " CASE WHEN type = 'BUY' THEN player_uuid ELSE counterpart_uuid END,"
+                + " CASE WHEN type = 'BUY' THEN NULL ELSE counterpart_name END,"
+                + " price, timestamp, item FROM history");
+        db.executeUpdate("DROP INDEX IF EXISTS idx_history_player_time");
+        db.executeUpdate(String.format(CREATE_TABLE, "history_migrated"));
+        db.executeUpdate("INSERT OR IGNORE INTO history_migrated (" + COLUMNS + ")"
+                + " SELECT " + COLUMNS + " FROM history");
+        db.executeUpdate("DROP TABLE history");
+        db.executeUpdate("ALTER TABLE history_migrated RENAME TO history");
+        logger.info("Converted the " + EzAuctionPlugin.DISPLAY_NAME
+                + " SQLite history table to shared transaction records.");
+    }
+
+    @Override
+    public Map<UUID, Deque<AuctionTransactionHistoryEntry>> loadAll() {
+        Map<UUID, Deque<AuctionTransactionHistoryEntry>> result = new HashMap<>();
+        if (!isReady()) {
+            return result;
+        }
+        try {
+            database.execute(db -> {
+                try (ResultSet resultSet = db.prepared(SELECT_COLUMNS
+                        + " ORDER BY h.player_uuid, h.timestamp DESC, h.transaction_id DESC").executeQuery()) {
+                    while (resultSet.next()) {
+                        UUID playerId = parseUuid(resultSet.getString("player_uuid"));
+                        AuctionTransactionHistoryEntry entry = readEntry(resultSet);
+                        if (playerId != null && entry != null) {
+                            result.computeIfAbsent(playerId, key -> new ArrayDeque<>()).addLast(entry);
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Failed to load transaction history from SQLite.", ex);
+        }
+        return result;
+    }
+
+    @Override
+    public Deque<AuctionTransactionHistoryEntry> loadPlayerHistory(UUID playerId) {
+        Deque<AuctionTransactionHistoryEntry> history = new ArrayDeque<>();
+        if (!isReady() || playerId == null) {
+            return history;
+        }
+        try {
+            database.execute(db -> {
+                PreparedStatement statement = db.prepared(SELECT_COLUMNS + " WHERE h.player_uuid = ?" + NEWEST_FIRST);
+                statement.setString(1, playerId.toString());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        AuctionTransactionHistoryEntry entry = readEntry(resultSet);
+                        if (entry != null) {
+                            history.addLast(entry);
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE,
+                    String.format("Failed to load history for player %s from SQLite.", playerId), ex);
+        }
+        return history;
+    }
+
+    @Override
+    public AuctionHistoryPage loadHistoryPage(UUID playerId, AuctionHistoryCursor cursor, int limit,
+            AuctionTransactionType typeFilter) {
+        if (!isReady() || playerId == null) {
+            return AuctionHistoryPage.empty();
+        }
+        int pageLimit = AuctionHistoryPage.clampLimit(limit);
+        String sql = SELECT_COLUMNS + " WHERE h.player_uuid = ?"
+                + (cursor != null ? " AND (h.timestamp < ? OR (h.timestamp = ? AND h.transaction_id < ?))" : "")
+                + (typeFilter != null ? " AND h.type = ?" : "")
+                + NEWEST_FIRST + " LIMIT ?";
+        List<AuctionTransactionHistoryEntry> candidates = new ArrayList<>();
+        try {
+            database.execute(db -> {
+                PreparedStatement statement = db.prepared(sql);
+                int index = 1;
+                statement.setString(index++, playerId.toString());
+                if (cursor != null) {
+                    statement.setLong(index++, cursor.timestamp());
+                    statement.setLong(index++, cursor.timestamp());
+                    statement.setString(index++, cursor.transactionId());
+                }
+                if (typeFilter != null) {
+                    statement.setString(index++, typeFilter.name());
+                }
+                statement.setInt(index, pageLimit + 1);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        AuctionTransactionHistoryEntry entry = readEntry(resultSet);
+                        if (entry != null) {
+                            candidates.add(entry);
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE,
+                    String.format("Failed to load a history page for player %s from SQLite.", playerId), ex);
+            return AuctionHistoryPage.empty();
+        }
+        return AuctionHistoryPage.fromCandidates(candidates, pageLimit);
+    }
+
+    @Override
+    public void saveAll(Map<UUID, Deque<AuctionTransactionHistoryEntry>> history) {
+        if (!isReady()) {
+            return;
+        }
+        try {
+            database.transaction(db -> {
+                db.executeUpdate("DELETE FROM history");
+                db.executeUpdate("DELETE FROM transactions");
+                PreparedStatement records = db.prepared(UPSERT_RECORD);
+                PreparedStatement insert = db.prepared(INSERT_ENTRY);
+                for (Map.Entry<UUID, Deque<AuctionTransactionHistoryEntry>> entry : history.entrySet()) {
+                    writeHistoryEntries(records, insert, entry.getKey(), entry.getValue());
+                }
+                records.executeBatch();
+                insert.executeBatch();
+                return null;
+            });
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Failed to save history to SQLite.", ex);
+        }
+    }
+
+    @Override
+    public void savePlayerHistory(UUID playerId, Deque<AuctionTransactionHistoryEntry> history) {
+        if (!isReady() || playerId == null) {
+            return;
+        }
+        try {
+            database.transaction(db -> {
+                PreparedStatement delete = db.prepared(DELETE_PLAYER);
+                delete.setString(1, playerId.toString());
+                delete.executeUpdate();
+                // Records stay in place: the other party's history may still refer to them.
+                PreparedStatement records = db.prepared(UPSERT_RECORD);
+                PreparedStatement insert = db.prepared(INSERT_ENTRY);
+                writeHistoryEntries(records, insert, playerId, history);
+                records.executeBatch();
+                insert.executeBatch();
+                return null;
+            });
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE,
+                    String.format("Failed to save history for player %s to SQLite.", playerId), ex);
+        }
+    }
+
+    @Override
+    public void appendPlayerHistory(UUID playerId, List<AuctionTransactionHistoryEntry> entries) {
+        if (!isReady() || playerId == null || entries == null || entries.isEmpty()) {
+            return;
+        }
+        try {
+            database.transaction(db -> {
+                PreparedStatement records = db.prepared(UPSERT_RECORD);
+                PreparedStatement insert = db.prepared(INSERT_ENTRY);
+                writeHistoryEntries(records, insert, playerId, entries);
+                records.executeBatch();
+                insert.executeBatch();
+                return null;
+            });
+        } catch (SQLException ex) {
+            throw new IllegalStateException(
+                    String.format("Failed to append history for player %s to SQLite.", playerId), ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        SqliteDatabase current = database;
+        database = null;
+        if (current != null) {
+            current.release();
+        }
+    }
+
+    private boolean isReady() {
+        return database != null && !database.isClosed();
+    }
+
+    private AuctionTransactionHistoryEntry readEntry(ResultSet resultSet) throws SQLException {
+        AuctionTransactionType type = parseType(resultSet.getString("type"));
+        if (type == null) {
+            return null;
+        }
+        String transactionId = resultSet.getString("transaction_id");
+        if (transactionId == null || transactionId.isEmpty()) {
+            transactionId = UUID.randomUUID().toString();
+        }
+        String counterpart = type == AuctionTransactionType.SELL ? "buyer" : "seller";
+        return new AuctionTransactionHistoryEntry(transactionId, type,
+                parseUuid(resultSet.getString(counterpart + "_uuid")), resultSet.getString(counterpart + "_name"),
+                EconomyUtils.normalizeCurrency(resultSet.getDouble("price")), resultSet.getLong("timestamp"),
+                LazyItemStack.encoded(resultSet.getBytes("item")));
+    }
+
+    /**
+     * Adds the shared record and the player's index row of each entry to the batches. Records are
+     * written first, so an index row never refers to a missing transaction.
+     */
+    private void writeHistoryEntries(PreparedStatement records, PreparedStatement statement, UUID playerId,
+            Collection<AuctionTransactionHistoryEntry> history) throws SQLException {
+        if (history == null || history.isEmpty()) {
+            return;
+        }
+        for (AuctionTransactionHistoryEntry entry : history) {
+            boolean selling = entry.type() == AuctionTransactionType.SELL;
+            String counterpartId = entry.counterpartId() != null ? entry.counterpartId().toString() : null;
+            String counterpartName = entry.counterpartName() != null && !entry.counterpartName().isEmpty()
+                    ? entry.counterpartName()
+                    : null;
+            records.setString(1, entry.transactionId());
+            setNullableString(records, 2, selling ? playerId.toString() : counterpartId);
+            setNullableString(records, 3, selling ? null : counterpartName);
+            setNullableString(records, 4, selling ? counterpartId : playerId.toString());
+            setNullableString(records, 5, selling ? counterpartName : null);
+            records.setDouble(6, entry.price());
+            records.setLong(7, entry.timestamp());
+            records.setBytes(8, entry.itemData().encode(logger));
+            records.addBatch();
+            statement.setString(1, playerId.toString());
+            statement.setString(2, entry.transactionId());
+            statement.setString(3, entry.type().name());
+            statement.setLong(4, entry.timestamp());
+            statement.addBatch();
+        }
+    }
+
+    private static void setNullableString(PreparedStatement statement, int index, String value) throws SQLException {
+        if (value != null) {
+            statement.setString(index, value);
+        } else {
+            statement.setNull(index, Types.VARCHAR);
+        }
+    }
+
+    private UUID parseUuid(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(raw);
+        } catch (IllegalArgumentException ex) {
+            logger.log(Level.WARNING,
+                    "Invalid UUID encountered in " + EzAuctionPlugin.DISPLAY_NAME + " SQLite storage: {0}", raw);
+            return null;
+        }
+    }
+
+    private AuctionTransactionType parseType(String typeName) {
+        if (typeName == null || typeName.isEmpty()) {
+            return null;
+        }
+        try {
+            return AuctionTransactionType.valueOf(typeName.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            logger.log(Level.WARNING, "Invalid transaction type encountered in SQLite storage: {0}", typeName);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package com.skyblockexp.ezauction.storage.sqlite;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.EzAuctionPlugin;
+import com.skyblockexp.ezauction.LazyItemStack;
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Sqlite;
+import com.skyblockexp.ezauction.storage.AuctionLoadPipeline;
+import com.skyblockexp.ezauction.storage.AuctionStorage;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
+import com.skyblockexp.ezauction.storage.AuctionStorageSnapshot;
+import com.skyblockexp.ezauction.storage.DistributedAuctionListingStorage;
+import com.skyblockexp.ezauction.util.EconomyUtils;
+import com.skyblockexp.ezauction.util.ItemStackCodec;
+import java.io.File;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * SQLite-based implementation of AuctionStorage and DistributedAuctionListingStorage for
+ * single-server deployments.
+ *
+ * <p>Rows are written individually with reused prepared statements: full saves are diffed
+ * against the last state read from or written to the database, so only changed listings,
+ * orders, and return slots are touched.</p>
+ */
+public class SqliteAuctionListingStorage implements AuctionStorage, DistributedAuctionListingStorage {
+
+    private static final String UPSERT_LISTING = "INSERT INTO listings"
+            + " (id, seller_uuid, price, expiry, deposit, item, team_uuid) VALUES (?, ?, ?, ?, ?, ?, ?)"
+            + " ON CONFLICT(id) DO UPDATE SET seller_uuid = excluded.seller_uuid, price = excluded.price,"
+            + " expiry = excluded.expiry, deposit = excluded.deposit, item = excluded.item,"
+            + " team_uuid = excluded.team_uuid";
+    private static final String DELETE_LISTING = "DELETE FROM listings WHERE id = ?";
+    private static final String UPSERT_ORDER = "INSERT INTO orders"
+            + " (id, buyer_uuid, price, reserved, expiry, item) VALUES (?, ?, ?, ?, ?, ?)"
+            + " ON CONFLICT(id) DO UPDATE SET buyer_uuid = excluded.buyer_uuid, price = excluded.price,"
+            + " reserved = excluded.reserved, expiry = excluded.expiry, item = excluded.item";
+    private static final String DELETE_ORDER = "DELETE FROM orders WHERE id = ?";
+    private static final String UPSERT_RETURN = "INSERT INTO returns (player_uuid, slot, item) VALUES (?, ?, ?)"
+            + " ON CONFLICT(player_uuid, slot) DO UPDATE SET item = excluded.item";
+    private static final String TRIM_RETURNS = "DELETE FROM returns WHERE player_uuid = ? AND slot >= ?";
+
+    private final JavaPlugin plugin;
+    private final Logger logger;
+    private final Sqlite settings;
+    private SqliteDatabase database;
+    // Last state known to be in the database; used to skip rows that did not change.
+    private final Map<String, AuctionListing> persistedListings = new HashMap<>();
+    private final Map<String, AuctionOrder> persistedOrders = new HashMap<>();
+    private final Map<UUID, List<ItemStack>> persistedReturns = new HashMap<>();
+
+    public SqliteAuctionListingStorage(JavaPlugin plugin, Sqlite settings) {
+        this.plugin = plugin;
+        this.logger = plugin != null ? plugin.getLogger() : Logger.getLogger(SqliteAuctionListingStorage.class.getName());
+        this.settings = settings != null ? settings : Sqlite.defaultSettings();
+    }
+
+    @Override
+    public boolean initialize() {
+        if (database != null) {
+            return true;
+        }
+        if (plugin == null) {
+            return false;
+        }
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException ex) {
+            logger.log(Level.SEVERE, "SQLite JDBC driver not found.", ex);
+            return false;
+        }
+        File dataFolder = plugin.getDataFolder();
+        if (!dataFolder.exists() && !dataFolder.mkdirs()) {
+            logger.log(Level.WARNING,
+                    "Failed to create " + EzAuctionPlugin.DISPLAY_NAME + " data folder at {0}.", dataFolder);
+        }
+        try {
+            database = SqliteDatabase.acquire(logger, new File(dataFolder, settings.file()),
+                    settings.busyTimeoutMillis());
+            database.execute(db -> {
+                db.executeUpdate("CREATE TABLE IF NOT EXISTS listings ("
+                        + "id TEXT NOT NULL PRIMARY KEY,"
+                        + "seller_uuid TEXT NOT NULL,"
+                        + "price REAL NOT NULL,"
+                        + "expiry INTEGER NOT NULL,"
+                        + "deposit REAL NOT NULL,"
+                        + "item BLOB NOT NULL,"
+                        + "team_uuid TEXT NULL)");
+                db.executeUpdate("CREATE INDEX IF NOT EXISTS idx_listings_seller ON listings (seller_uuid)");
+                db.executeUpdate("CREATE INDEX IF NOT EXISTS idx_listings_expiry ON listings (expiry)");
+                db.executeUpdate("CREATE INDEX IF NOT EXISTS idx_listings_price ON listings (price)");
+                db.executeUpdate("CREATE TABLE IF NOT EXISTS orders ("
+                        + "id TEXT NOT NULL PRIMARY KEY,"
+                        + "buyer_uuid TEXT NOT NULL,"
+                        + "price REAL NOT NULL,"
+                        + "reserved REAL NOT NULL,"
+                        + "expiry INTEGER NOT NULL,"
+                        + "item BLOB NOT NULL)");
+                db.executeUpdate("CREATE INDEX IF NOT EXISTS idx_orders_buyer ON orders (buyer_uuid)");
+                db.executeUpdate("CREATE INDEX IF NOT EXISTS idx_orders_expiry ON orders (expiry)");
+                db.executeUpdate("CREATE INDEX IF NOT EXISTS idx_orders_price ON orders (price)");
+                db.executeUpdate("CREATE TABLE IF NOT EXISTS returns ("
+                        + "player_uuid TEXT NOT NULL,"
+                        + "slot INTEGER NOT NULL,"
+                        + "item BLOB NOT NULL,"
+                        + "PRIMARY KEY (player_uuid, slot))");
+                return null;
+            });
+            return true;
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE,
+                    "Failed to initialize " + EzAuctionPlugin.DISPLAY_NAME + " SQLite storage.", ex);
+            close();
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized AuctionStorageSnapshot load() {
+        if (!isReady()) {
+            return AuctionStorageSnapshot.empty();
+        }
+        AuctionLoadPipeline pipeline = new AuctionLoadPipeline(logger, "SQLite");
+        try {
+            database.execute(db -> {
+                readEntries(db, pipeline);
+                return null;
+            });
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE,
+                    "Failed to load " + EzAuctionPlugin.DISPLAY_NAME + " data from SQLite.", ex);
+        } catch (RuntimeException ex) {
+            pipeline.close();
+            throw ex;
+        }
+        AuctionStorageSnapshot snapshot = pipeline.complete();
+        persistedListings.clear();
+        persistedListings.putAll(snapshot.listings());
+        persistedOrders.clear();
+        persistedOrders.putAll(snapshot.orders());
+        persistedReturns.clear();
+        snapshot.pendingReturns().forEach((playerId, items) -> persistedReturns.put(playerId, sanitizeReturns(items)));
+        return snapshot;
+    }
+
+    /**
+     * Streams rows through the SQLite cursor and hands item decoding to the pipeline.
+     */
+    private void readEntries(SqliteDatabase db, AuctionLoadPipeline pipeline) throws SQLException {
+        try (ResultSet resultSet = db.prepared(
+                "SELECT id, seller_uuid, price, expiry, deposit, item, team_uuid FROM listings").executeQuery()) {
+            while (resultSet.next()) {
+                String id = resultSet.getString("id");
+                UUID sellerId = parseUuid(resultSet.getString("seller_uuid"));
+                double price = EconomyUtils.normalizeCurrency(resultSet.getDouble("price"));
+                if (sellerId == null || price <= 0.0D) {
+                    continue;
+                }
+                long expiry = resultSet.getLong("expiry");
+                double deposit = EconomyUtils.normalizeCurrency(resultSet.getDouble("deposit"));
+                UUID teamId = parseUuid(resultSet.getString("team_uuid"));
+                byte[] itemData = resultSet.getBytes("item");
+                if (itemData == null || itemData.length == 0) {
+                    continue;
+                }
+                pipeline.submitListing(id, () -> new AuctionListing(id, sellerId, price, expiry,
+                        LazyItemStack.encoded(itemData), deposit, teamId));
+            }
+        }
+        try (ResultSet resultSet = db.prepared(
+                "SELECT id, buyer_uuid, price, reserved, expiry, item FROM orders").executeQuery()) {
+            while (resultSet.next()) {
+                String id = resultSet.getString("id");
+                UUID buyerId = parseUuid(resultSet.getString("buyer_uuid"));
+                double price = EconomyUtils.normalizeCurrency(resultSet.getDouble("price"));
+                if (buyerId == null || price <= 0.0D) {
+                    continue;
+                }
+                double reserved = Math.max(price, EconomyUtils.normalizeCurrency(resultSet.getDouble("reserved")));
+                long expiry = resultSet.getLong("expiry");
+                byte[] itemData = resultSet.getBytes("item");
+                if (itemData == null || itemData.length == 0) {
+                    continue;
+                }
+                pipeline.submitOrder(id, () -> new AuctionOrder(id, buyerId, price, expiry,
+                        LazyItemStack.encoded(itemData), reserved));
+            }
+        }
+        try (ResultSet resultSet = db.prepared(
+                "SELECT player_uuid, slot, item FROM returns ORDER BY player_uuid, slot").executeQuery()) {
+            UUID currentPlayer = null;
+            List<byte[]> currentItems = new ArrayList<>();
+            while (resultSet.next()) {
+                UUID playerId = parseUuid(resultSet.getString("player_uuid"));
+                if (playerId == null) {
+                    continue;
+                }
+                if (!playerId.equals(currentPlayer)) {
+                    submitReturns(pipeline, currentPlayer, currentItems);
+                    currentPlayer = playerId;
+                    currentItems = new ArrayList<>();
+                }
+                currentItems.add(resultSet.getBytes("item"));
+            }
+            submitReturns(pipeline, currentPlayer, currentItems);
+        }
+    }
+
+    private void submitReturns(AuctionLoadPipeline pipeline, UUID playerId, List<byte[]> itemData) {
+        if (playerId == null || itemData.isEmpty()) {
+            return;
+        }
+        pipeline.submitReturns(playerId, () -> {
+            List<ItemStack> items = new ArrayList<>(itemData.size());
+            for (byte[] data : itemData) {
+                ItemStack item = readItem(data);
+                if (item != null) {
+                    items.add(item);
+                }
+            }
+            return items;
+        });
+    }
+
+    @Override
+    public synchronized void saveListings(Collection<AuctionListing> listings, Collection<AuctionOrder> orders) {
+        if (!isReady()) {
+            return;
+        }
+        AuctionStorageChangeSet changes = new AuctionStorageChangeSet();
+        Set<String> listingIds = new HashSet<>();
+        for (AuctionListing listing : listings) {
+            listingIds.add(listing.id());
+            if (!listing.equals(persistedListings.get(listing.id()))) {
+                changes.upsertListing(listing);
+            }
+        }
+        for (String listingId : persistedListings.keySet()) {
+            if (!listingIds.contains(listingId)) {
+                changes.removeListing(listingId);
+            }
+        }
+        Set<String> orderIds = new HashSet<>();
+        for (AuctionOrder order : orders) {
+            orderIds.add(order.id());
+            if (!order.equals(persistedOrders.get(order.id()))) {
+                changes.upsertOrder(order);
+            }
+        }
+        for (String orderId : persistedOrders.keySet()) {
+            if (!orderIds.contains(orderId)) {
+                changes.removeOrder(orderId);
+            }
+        }
+        applyChanges(changes);
+    }
+
+    @Override
+    public synchronized void saveReturns(Map<UUID, List<ItemStack>> returnsByPlayer) {
+        if (!isReady()) {
+            return;
+        }
+        AuctionStorageChangeSet changes = new AuctionStorageChangeSet();
+        for (Map.Entry<UUID, List<ItemStack>> entry : returnsByPlayer.entrySet()) {
+            List<ItemStack> items = sanitizeReturns(entry.getValue());
+            if (!items.equals(persistedReturns.getOrDefault(entry.getKey(), List.of()))) {
+                changes.replaceReturns(entry.getKey(), items);
+            }
+        }
+        for (UUID playerId : persistedReturns.keySet()) {
+            List<ItemStack> items = returnsByPlayer.get(playerId);
+            if (items == null || items.isEmpty()) {
+                changes.replaceReturns(playerId, List.of());
+            }
+        }
+        applyChanges(changes);
+    }
+
+    @Override
+    public synchronized void applyChanges(AuctionStorageChangeSet changes) {
+        if (!isReady() || changes == null || changes.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<ItemStack>> returnUpdates = new LinkedHashMap<>();
+        changes.returnUpdates().forEach((playerId, items) -> returnUpdates.put(playerId, sanitizeReturns(items)));
+        try {
+            database.transaction(db -> {
+                if (!changes.listingUpserts().isEmpty()) {
+                    PreparedStatement statement = db.prepared(UPSERT_LISTING);
+                    for (AuctionListing listing : changes.listingUpserts()) {
+                        bindListing(statement, listing);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+                executeDeletes(db, DELETE_LISTING, changes.listingRemovals());
+                if (!changes.orderUpserts().isEmpty()) {
+                    PreparedStatement statement = db.prepared(UPSERT_ORDER);
+                    for (AuctionOrder order : changes.orderUpserts()) {
+                        statement.setString(1, order.id());
+                        statement.setString(2, order.buyerId().toString());
+                        statement.setDouble(3, order.offeredPrice());
+                        statement.setDouble(4, order.reservedAmount());
+                        statement.setLong(5, order.expiryEpochMillis());
+                        statement.setBytes(6, order.requestedItemData().encode(logger));
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+                executeDeletes(db, DELETE_ORDER, changes.orderRemovals());
+                if (!returnUpdates.isEmpty()) {
+                    PreparedStatement upsert = db.prepared(UPSERT_RETURN);
+                    boolean pending = false;
+                    for (Map.Entry<UUID, List<ItemStack>> entry : returnUpdates.entrySet()) {
+                        List<ItemStack> items = entry.getValue();
+                        List<ItemStack> previous = persistedReturns.getOrDefault(entry.getKey(), List.of());
+                        for (int slot = 0; slot < items.size(); slot++) {
+                            if (slot < previous.size() && items.get(slot).equals(previous.get(slot))) {
+                                continue;
+                            }
+                            upsert.setString(1, entry.getKey().toString());
+                            upsert.setInt(2, slot);
+                            upsert.setBytes(3, ItemStackCodec.encode(items.get(slot), logger));
+                            upsert.addBatch();
+                            pending = true;
+                        }
+                    }
+                    if (pending) {
+                        upsert.executeBatch();
+                    }
+                    PreparedStatement trim = db.prepared(TRIM_RETURNS);
+                    for (Map.Entry<UUID, List<ItemStack>> entry : returnUpdates.entrySet()) {
+                        trim.setString(1, entry.getKey().toString());
+                        trim.setInt(2, entry.getValue().size());
+                        trim.addBatch();
+                    }
+                    trim.executeBatch();
+                }
+                return null;
+            });
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE,
+                    "Failed to apply " + EzAuctionPlugin.DISPLAY_NAME + " storage changes to SQLite ("
+                            + changes + ").", ex);
+            return;
+        }
+        changes.listingRemovals().forEach(persistedListings::remove);
+        changes.listingUpserts().forEach(listing -> persistedListings.put(listing.id(), listing));
+        changes.orderRemovals().forEach(persistedOrders::remove);
+        changes.orderUpserts().forEach(order -> persistedOrders.put(order.id(), order));
+        returnUpdates.forEach((playerId, items) -> {
+            if (items.isEmpty()) {
+                persistedReturns.remove(playerId);
+            } else {
+                persistedReturns.put(playerId, items);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void insertListing(AuctionListing listing) {
+        if (!isReady() || listing == null) {
+            return;
+        }
+        try {
+            database.execute(db -> {
+                PreparedStatement statement = db.prepared(UPSERT_LISTING);
+                bindListing(statement, listing);
+                return statement.executeUpdate();
+            });
+            persistedListings.put(listing.id(), listing);
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE,
+                    String.format("Failed to persist %s listing %s to SQLite.", EzAuctionPlugin.DISPLAY_NAME, listing.id()),
+                    ex);
+        }
+    }
+
+    @Override
+    public synchronized boolean tryClaimListing(String listingId) {
+        if (!isReady() || listingId == null || listingId.isEmpty()) {
+            return false;
+        }
+        return deleteListingInternal(listingId) > 0;
+    }
+
+    @Override
+    public synchronized void deleteListing(String listingId) {
+        if (!isReady() || listingId == null || listingId.isEmpty()) {
+            return;
+        }
+        deleteListingInternal(listingId);
+    }
+
+    @Override
+    public void close() {
+        SqliteDatabase current = database;
+        database = null;
+        if (current != null) {
+            current.release();
+        }
+    }
+
+    private int deleteListingInternal(String listingId) {
+        try {
+            int affected = database.execute(db -> {
+                PreparedStatement statement = db.prepared(DELETE_LISTING);
+                statement.setString(1, listingId);
+                return statement.executeUpdate();
+            });
+            persistedListings.remove(listingId);
+            return affected;
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE,
+                    String.format("Failed to delete %s listing %s from SQLite.", EzAuctionPlugin.DISPLAY_NAME, listingId),
+                    ex);
+            return 0;
+        }
+    }
+
+    private void bindListing(PreparedStatement statement, AuctionListing listing) throws SQLException {
+        statement.setString(1, listing.id());
+        statement.setString(2, listing.sellerId().toString());
+        statement.setDouble(3, listing.price());
+        statement.setLong(4, listing.expiryEpochMillis());
+        statement.setDouble(5, listing.deposit());
+        statement.setBytes(6, listing.itemData().encode(logger));
+        statement.setString(7, listing.teamId() != null ? listing.teamId().toString() : null);
+    }
+
+    private static void executeDeletes(SqliteDatabase db, String sql, Collection<String> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        PreparedStatement statement = db.prepared(sql);
+        for (String id : ids) {
+            statement.setString(1, id);
+            statement.addBatch();
+        }
+        statement.executeBatch();
+    }
+
+    private boolean isReady() {
+        return database != null && !database.isClosed();
+    }
+
+    private ItemStack readItem(byte[] data) {
+        ItemStack item = ItemStackCodec.decode(data, logger);
+        if (item == null || item.getType() == Material.AIR || item.getAmount() <= 0) {
+            return null;
+        }
+        return item;
+    }
+
+    private UUID parseUuid(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(raw);
+        } catch (IllegalArgumentException ex) {
+            logger.log(Level.WARNING,
+                    "Invalid UUID encountered in " + EzAuctionPlugin.DISPLAY_NAME + " SQLite storage: {0}", raw);
+            return null;
+        }
+    }
+
+    private static List<ItemStack> sanitizeReturns(List<ItemStack> items) {
+        if (items == null || items.isEmpty()) {
+            return List.of();
+        }
+        List<ItemStack> sanitized = new ArrayList<>(items.size());
+        for (ItemStack stack : items) {
+            if (stack != null && stack.getType() != Material.AIR && stack.getAmount() > 0) {
+                sanitized.add(stack.clone());
+            }
+        }
+        return sanitized;
+    }
+}
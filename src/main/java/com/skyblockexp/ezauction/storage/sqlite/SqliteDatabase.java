@@ -0,0 +1,200 @@
+package com.skyblockexp.ezauction.storage.sqlite;
+
+import com.skyblockexp.ezauction.EzAuctionPlugin;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Single SQLite connection shared by the SQLite listing and history storage.
+ *
+ * <p>The database runs in WAL mode with {@code synchronous=NORMAL}, so writers append to the
+ * write-ahead log instead of rewriting pages in place. All access is serialized through
+ * {@link #execute(SqlWork)}; prepared statements are cached per SQL string and reused for the
+ * lifetime of the connection.</p>
+ */
+public final class SqliteDatabase implements AutoCloseable {
+
+    private static final Map<File, SqliteDatabase> SHARED = new HashMap<>();
+
+    private final Logger logger;
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private int references;
+    private boolean closed;
+
+    /**
+     * Opens a connection to the given JDBC URL and applies the storage pragmas.
+     *
+     * @param logger            the logger used for warnings
+     * @param jdbcUrl           the SQLite JDBC URL
+     * @param busyTimeoutMillis how long statements wait on a locked database
+     * @throws SQLException if the database could not be opened
+     */
+    public SqliteDatabase(Logger logger, String jdbcUrl, long busyTimeoutMillis) throws SQLException {
+        this.logger = logger != null ? logger : Logger.getLogger(SqliteDatabase.class.getName());
+        this.connection = DriverManager.getConnection(jdbcUrl);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute("PRAGMA temp_store=MEMORY");
+            statement.execute("PRAGMA busy_timeout=" + busyTimeoutMillis);
+        } catch (SQLException ex) {
+            connection.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the database shared by every SQLite storage using the same file, opening it on
+     * first use. Each successful call must be paired with {@link #release()}.
+     *
+     * @param logger            the logger used for warnings
+     * @param file              the database file
+     * @param busyTimeoutMillis how long statements wait on a locked database
+     * @return the shared database
+     * @throws SQLException if the database could not be opened
+     */
+    public static SqliteDatabase acquire(Logger logger, File file, long busyTimeoutMillis) throws SQLException {
+        File key = file.getAbsoluteFile();
+        synchronized (SHARED) {
+            SqliteDatabase database = SHARED.get(key);
+            if (database == null || database.closed) {
+                database = new SqliteDatabase(logger, "jdbc:sqlite:" + key.getPath(), busyTimeoutMillis);
+                SHARED.put(key, database);
+            }
+            database.references++;
+            return database;
+        }
+    }
+
+    /**
+     * Releases a reference obtained through {@link #acquire(Logger, File, long)}, closing the
+     * connection once the last storage has released it.
+     */
+    public void release() {
+        synchronized (SHARED) {
+            if (references > 0) {
+                references--;
+            }
+            if (references > 0) {
+                return;
+            }
+            SHARED.values().remove(this);
+        }
+        close();
+    }
+
+    /**
+     * Runs work while holding the database lock.
+     */
+    public <T> T execute(SqlWork<T> work) throws SQLException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new SQLException(EzAuctionPlugin.DISPLAY_NAME + " SQLite database is closed.");
+            }
+            return work.run(this);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs work inside a single transaction while holding the database lock, rolling back if
+     * it fails.
+     */
+    public <T> T transaction(SqlWork<T> work) throws SQLException {
+        return execute(database -> {
+            connection.setAutoCommit(false);
+            try {
+                T result = work.run(database);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    /**
+     * Returns the cached prepared statement for the SQL, with its parameters and batch cleared.
+     * Must only be called from within {@link #execute(SqlWork)} or {@link #transaction(SqlWork)};
+     * the statement must not be closed by the caller.
+     */
+    public PreparedStatement prepared(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        } else {
+            statement.clearParameters();
+            statement.clearBatch();
+        }
+        return statement;
+    }
+
+    /**
+     * Runs a one-off statement such as DDL. Must only be called while holding the lock.
+     */
+    public void executeUpdate(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (PreparedStatement statement : statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                    // Closing the connection below releases it anyway.
+                }
+            }
+            statements.clear();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            } catch (SQLException ex) {
+                logger.log(Level.FINE, "Failed to checkpoint the SQLite write-ahead log.", ex);
+            }
+            connection.close();
+        } catch (SQLException ex) {
+            logger.log(Level.WARNING,
+                    "Failed to close the " + EzAuctionPlugin.DISPLAY_NAME + " SQLite database.", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Unit of work executed against the database while holding its lock.
+     */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+
+        T run(SqliteDatabase database) throws SQLException;
+    }
+}
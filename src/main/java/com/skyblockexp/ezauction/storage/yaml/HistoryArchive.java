@@ -0,0 +1,161 @@
+package com.skyblockexp.ezauction.storage.yaml;
+
+import com.skyblockexp.ezauction.transaction.AuctionHistoryCursor;
+import com.skyblockexp.ezauction.transaction.AuctionHistoryPage;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
+import com.skyblockexp.ezauction.util.EconomyUtils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compacted, read-only history segment holding one month of a player's history.
+ *
+ * <p>A segment is a GZIP stream of a small header followed by the entries in
+ * {@link AuctionHistoryPage#NEWEST_FIRST} order. Each entry stores its ordering fields and type
+ * before its item, so a page read streams through the segment and stops as soon as the page is
+ * full. Items are kept in the {@link HistoryItemStore} and an entry only holds the item's
+ * reference; only the items of returned entries are read.</p>
+ */
+final class HistoryArchive {
+
+    static final String EXTENSION = ".archive";
+
+    private static final int MAGIC = 0x455A4841;
+    private static final byte VERSION = 2;
+    private static final int FLAG_COUNTERPART_ID = 0x01;
+    private static final int FLAG_COUNTERPART_NAME = 0x02;
+    private static final int FLAG_ITEM = 0x04;
+
+    private HistoryArchive() {
+    }
+
+    /**
+     * Writes entries that are already in {@link AuctionHistoryPage#NEWEST_FIRST} order.
+     */
+    static void write(OutputStream target, List<AuctionTransactionHistoryEntry> newestFirst, HistoryItemStore items,
+            Logger logger) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(target)))) {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            output.writeInt(newestFirst.size());
+            for (AuctionTransactionHistoryEntry entry : newestFirst) {
+                output.writeLong(entry.timestamp());
+                output.writeUTF(entry.transactionId());
+                output.writeUTF(entry.type().name());
+                output.writeDouble(entry.price());
+                String item = items.store(entry.itemData().encode(logger));
+                int flags = (entry.counterpartId() != null ? FLAG_COUNTERPART_ID : 0)
+                        | (entry.counterpartName() != null ? FLAG_COUNTERPART_NAME : 0)
+                        | (item != null ? FLAG_ITEM : 0);
+                output.writeByte(flags);
+                if (entry.counterpartId() != null) {
+                    output.writeLong(entry.counterpartId().getMostSignificantBits());
+                    output.writeLong(entry.counterpartId().getLeastSignificantBits());
+                }
+                if (entry.counterpartName() != null) {
+                    output.writeUTF(entry.counterpartName());
+                }
+                if (item != null) {
+                    output.writeUTF(item);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the entries of a segment that come after {@code cursor} and match {@code typeFilter},
+     * stopping once {@code out} holds {@code max} entries.
+     */
+    static void read(Path file, AuctionHistoryCursor cursor, AuctionTransactionType typeFilter, int max,
+            List<AuctionTransactionHistoryEntry> out, HistoryItemStore items) throws IOException {
+        try (DataInputStream input = open(file)) {
+            int count = input.readInt();
+            for (int i = 0; i < count && out.size() < max; i++) {
+                long timestamp = input.readLong();
+                String transactionId = input.readUTF();
+                String typeName = input.readUTF();
+                double price = input.readDouble();
+                int flags = input.readUnsignedByte();
+                UUID counterpartId = (flags & FLAG_COUNTERPART_ID) != 0
+                        ? new UUID(input.readLong(), input.readLong())
+                        : null;
+                String counterpartName = (flags & FLAG_COUNTERPART_NAME) != 0 ? input.readUTF() : null;
+                String itemReference = (flags & FLAG_ITEM) != 0 ? input.readUTF() : null;
+                AuctionTransactionType type = parseType(typeName);
+                boolean wanted = type != null && (typeFilter == null || type == typeFilter)
+                        && (cursor == null || cursor.precedes(timestamp, transactionId));
+                if (wanted) {
+                    out.add(new AuctionTransactionHistoryEntry(transactionId, type, counterpartId, counterpartName,
+                            EconomyUtils.normalizeCurrency(price), timestamp, items.resolve(itemReference)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the item references of every entry in the segment to {@code references} without
+     * reading the items.
+     */
+    static void collectReferences(Path file, Set<String> references) throws IOException {
+        try (DataInputStream input = open(file)) {
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                input.readLong();
+                input.readUTF();
+                input.readUTF();
+                input.readDouble();
+                int flags = input.readUnsignedByte();
+                if ((flags & FLAG_COUNTERPART_ID) != 0) {
+                    input.skipNBytes(16L);
+                }
+                if ((flags & FLAG_COUNTERPART_NAME) != 0) {
+                    input.readUTF();
+                }
+                if ((flags & FLAG_ITEM) != 0) {
+                    references.add(input.readUTF());
+                }
+            }
+        }
+    }
+
+    private static DataInputStream open(Path file) throws IOException {
+        InputStream stream = Files.newInputStream(file);
+        try {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(stream)));
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a history archive: " + file);
+            }
+            byte version = input.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported history archive version " + version + ": " + file);
+            }
+            return input;
+        } catch (IOException ex) {
+            stream.close();
+            throw ex;
+        }
+    }
+
+    private static AuctionTransactionType parseType(String typeName) {
+        try {
+            return AuctionTransactionType.valueOf(typeName);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
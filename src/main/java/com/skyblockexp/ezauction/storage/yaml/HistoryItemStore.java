@@ -0,0 +1,150 @@
+package com.skyblockexp.ezauction.storage.yaml;
+
+import com.skyblockexp.ezauction.LazyItemStack;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store for the items of history entries.
+ *
+ * <p>Each item is written once to {@code history/items/<xx>/<sha-256>.item}, where {@code xx} are
+ * the first two hex digits of the hash, and history segments only keep the hash. The seller's and
+ * the buyer's entries of a sale therefore share one file. Files are never modified after they are
+ * written, so concurrent writers of the same item simply replace it with identical bytes.</p>
+ *
+ * <p>Items no history entry refers to any more are removed by {@link #collectGarbage(Set, long)}.
+ * Storing an item that already exists refreshes its modification time, so an item that is being
+ * referenced again while a collection runs is not removed.</p>
+ */
+final class HistoryItemStore {
+
+    static final String DIRECTORY = "items";
+
+    private static final String EXTENSION = ".item";
+    private static final Pattern REFERENCE = Pattern.compile("[0-9a-f]{64}");
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path root;
+    private final Logger logger;
+
+    HistoryItemStore(Path root, Logger logger) {
+        this.root = root;
+        this.logger = logger;
+    }
+
+    /**
+     * Stores the item data unless an identical item is already stored.
+     *
+     * @return the reference to keep in the history entry, or {@code null} if {@code data} is empty
+     */
+    String store(byte[] data) throws IOException {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        String reference = HEX.formatHex(sha256(data));
+        Path target = path(reference);
+        if (Files.isRegularFile(target)) {
+            try {
+                Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+                return reference;
+            } catch (NoSuchFileException ex) {
+                // Collected in the meantime; write it again.
+            }
+        }
+        Files.createDirectories(target.getParent());
+        Path temporary = Files.createTempFile(target.getParent(), reference, ".tmp");
+        try {
+            Files.write(temporary, data);
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return reference;
+    }
+
+    /**
+     * Returns the item stored under {@code reference}, still in its serialized form. A missing or
+     * unreadable item is logged and yields an empty item, so the rest of the entry stays readable.
+     */
+    LazyItemStack resolve(String reference) {
+        if (reference == null || reference.isEmpty()) {
+            return LazyItemStack.of(null);
+        }
+        if (!REFERENCE.matcher(reference).matches()) {
+            logger.log(Level.WARNING, "Ignoring invalid auction history item reference {0}.", reference);
+            return LazyItemStack.of(null);
+        }
+        try {
+            return LazyItemStack.encoded(Files.readAllBytes(path(reference)));
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "Failed to read auction history item " + reference + '.', ex);
+            return LazyItemStack.of(null);
+        }
+    }
+
+    /**
+     * Deletes the stored items whose reference is not in {@code live} and that were last stored
+     * before {@code storedBeforeMillis}. Callers collect {@code live} after taking that timestamp,
+     * so items stored by concurrent writes are kept even if their entries were not seen.
+     *
+     * @return the number of items deleted
+     */
+    int collectGarbage(Set<String> live, long storedBeforeMillis) {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        int deleted = 0;
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(EXTENSION)) {
+                    continue;
+                }
+                String reference = name.substring(0, name.length() - EXTENSION.length());
+                if (live.contains(reference)) {
+                    continue;
+                }
+                try {
+                    if (Files.getLastModifiedTime(file).toMillis() < storedBeforeMillis && Files.deleteIfExists(file)) {
+                        deleted++;
+                    }
+                } catch (NoSuchFileException ex) {
+                    // Removed concurrently.
+                }
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            logger.log(Level.WARNING, "Failed to remove unused auction history items.", ex);
+        }
+        return deleted;
+    }
+
+    private Path path(String reference) {
+        return root.resolve(reference.substring(0, 2)).resolve(reference + EXTENSION);
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -3,19 +3,15 @@ package com.skyblockexp.ezauction.storage.yaml;
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.util.io.BukkitObjectInputStream;
-import org.bukkit.util.io.BukkitObjectOutputStream;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import com.skyblockexp.ezauction.util.ItemStackCodec;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.util.Base64;
 
 /**
- * Encodes and decodes {@link ItemStack} instances to and from a Base64 byte string
- * using {@link BukkitObjectOutputStream}.
+ * Encodes and decodes {@link ItemStack} instances to and from a YAML string scalar
+ * using {@link ItemStackCodec}.
  *
  * <p>Unlike storing items directly in a {@link org.bukkit.configuration.file.YamlConfiguration}
  * via {@code section.set("item", itemStack)}, this format is stored as a plain YAML string
@@ -31,34 +27,34 @@ final class ItemStackSerializer {
     private ItemStackSerializer() {}
 
     /**
-     * Serialises {@code item} to a Base64 string.
+     * Serialises {@code item} to its {@link ItemStackCodec} text form.
      *
      * @param item the item to serialise; must not be {@code null}
-     * @return a non-null, non-empty Base64 string
+     * @return a non-null, non-empty encoded string
      * @throws IOException if the item cannot be serialised
      */
     static String serialize(ItemStack item) throws IOException {
-        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-        try (BukkitObjectOutputStream out = new BukkitObjectOutputStream(bytes)) {
-            out.writeObject(item);
+        String data = ItemStackCodec.encodeToText(item, null);
+        if (data == null) {
+            throw new IOException("Unable to encode item " + item);
         }
-        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+        return data;
     }
 
     /**
-     * Deserialises an {@link ItemStack} from a Base64 string produced by
-     * {@link #serialize(ItemStack)}.
+     * Deserialises an {@link ItemStack} from a string produced by {@link #serialize(ItemStack)}
+     * or from the legacy Base64 object-stream format.
      *
-     * @param base64 the Base64 string to deserialise
+     * @param data the encoded string to deserialise
      * @return the restored {@link ItemStack}
-     * @throws IOException            if the byte data cannot be read
-     * @throws ClassNotFoundException if the item class cannot be resolved
+     * @throws IOException if the data cannot be decoded
      */
-    static ItemStack deserialize(String base64) throws IOException, ClassNotFoundException {
-        byte[] data = Base64.getDecoder().decode(base64);
-        try (BukkitObjectInputStream in = new BukkitObjectInputStream(new ByteArrayInputStream(data))) {
-            return (ItemStack) in.readObject();
+    static ItemStack deserialize(String data) throws IOException {
+        ItemStack item = ItemStackCodec.decodeText(data, null);
+        if (item == null) {
+            throw new IOException("Unable to decode item data");
         }
+        return item;
     }
 
     /**
@@ -1,41 +1,87 @@
 package com.skyblockexp.ezauction.storage.yaml;
 
+import com.skyblockexp.ezauction.transaction.AuctionHistoryCursor;
+import com.skyblockexp.ezauction.transaction.AuctionHistoryPage;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
 import com.skyblockexp.ezauction.EzAuctionPlugin;
+import com.skyblockexp.ezauction.LazyItemStack;
 import com.skyblockexp.ezauction.storage.AuctionHistoryStorage;
 import com.skyblockexp.ezauction.util.EconomyUtils;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
-import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 
 /**
  * YAML implementation of {@link AuctionHistoryStorage}.
+ *
+ * <p>Each player's history is partitioned by month (UTC) into segments under
+ * {@code history/<uuid>/}. The current month is a YAML segment, {@code <yyyy-MM>.yml}, so recording
+ * a transaction only rewrites that month's entries. Once a month is over its segment is compacted
+ * into a {@link HistoryArchive} ({@code <yyyy-MM>.archive}) the next time the player's history is
+ * written. Page reads walk the segments from the newest month and stop when the page is full, so
+ * older segments are never loaded in full.</p>
+ *
+ * <p>Items are not embedded in the segments. They are written once to a content-addressed
+ * {@link HistoryItemStore} under {@code history/items/} and entries reference them by hash, so
+ * the seller's and the buyer's entries of a sale share one copy of the item. Replacing a player's
+ * history can drop entries, so every replacing save ends with a sweep that removes the items no
+ * entry refers to any more.</p>
+ *
+ * <p>Segments are written to a temporary file and renamed over the old one, so a crash never
+ * leaves a half-written segment behind. Writes are guarded by striped locks: different players
+ * normally save concurrently, while saves for the same player are serialized. The single-file
+ * {@code auction-history.yml} of earlier versions is migrated into segments on first start.</p>
  */
 public final class YamlAuctionHistoryStorage implements AuctionHistoryStorage {
 
+    private static final String LEGACY_FILE_NAME = "auction-history.yml";
+    private static final String HISTORY_DIRECTORY = "history";
+    private static final String SEGMENT_EXTENSION = ".yml";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private static final int LOCK_STRIPES = 64;
+    /** Items stored this recently are never swept, which covers coarse file modification times. */
+    private static final long UNUSED_ITEM_GRACE_MILLIS = 60_000L;
+
     private final JavaPlugin plugin;
-    private File historyFile;
-    private final Lock historyLock = new ReentrantLock(true);
+    private File historyDirectory;
+    private HistoryItemStore itemStore;
+    private final Lock[] playerLocks = new Lock[LOCK_STRIPES];
 
     public YamlAuctionHistoryStorage(JavaPlugin plugin) {
         this.plugin = plugin;
+        for (int i = 0; i < playerLocks.length; i++) {
+            playerLocks[i] = new ReentrantLock(true);
+        }
     }
 
     @Override
@@ -44,72 +90,162 @@ public final class YamlAuctionHistoryStorage implements AuctionHistoryStorage {
             return false;
         }
         File dataFolder = plugin.getDataFolder();
-        if (!dataFolder.exists() && !dataFolder.mkdirs()) {
-            plugin.getLogger().log(Level.WARNING,
-                    "Failed to create " + EzAuctionPlugin.DISPLAY_NAME + " data folder at {0}.", dataFolder);
+        File directory = new File(dataFolder, HISTORY_DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            plugin.getLogger().log(Level.SEVERE,
+                    "Failed to create " + EzAuctionPlugin.DISPLAY_NAME + " history folder at {0}.", directory);
+            return false;
+        }
+        historyDirectory = directory;
+        itemStore = new HistoryItemStore(new File(directory, HistoryItemStore.DIRECTORY).toPath(), plugin.getLogger());
+        migrateLegacyFile(new File(dataFolder, LEGACY_FILE_NAME));
+        return true;
+    }
+
+    @Override
+    public Map<UUID, Deque<AuctionTransactionHistoryEntry>> loadAll() {
+        Map<UUID, Deque<AuctionTransactionHistoryEntry>> entries = new HashMap<>();
+        if (historyDirectory == null) {
+            return entries;
         }
-        historyFile = new File(dataFolder, "auction-history.yml");
-        if (historyFile.exists()) {
-            return true;
+        File[] playerDirectories = historyDirectory.listFiles(
+                file -> file.isDirectory() && !file.getName().equals(HistoryItemStore.DIRECTORY));
+        if (playerDirectories == null) {
+            return entries;
         }
-        try {
-            File parent = historyFile.getParentFile();
-            if (parent != null && !parent.exists() && !parent.mkdirs()) {
-                plugin.getLogger().log(Level.WARNING, "Failed to create directory for {0}.", historyFile);
+        for (File playerDirectory : playerDirectories) {
+            UUID playerId = parsePlayerId(playerDirectory.getName());
+            if (playerId == null) {
+                continue;
             }
-            if (!historyFile.exists() && !historyFile.createNewFile()) {
-                throw new IOException("Unable to create file " + historyFile);
+            Deque<AuctionTransactionHistoryEntry> history = loadPlayerHistory(playerId);
+            if (!history.isEmpty()) {
+                entries.put(playerId, history);
             }
-        } catch (IOException ex) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to initialize auction history YAML storage.", ex);
-            return false;
         }
-        return true;
+        return entries;
     }
 
+    /**
+     * Reads every segment of the player. Prefer {@link #loadHistoryPage} for anything but migrations.
+     */
     @Override
-    public Map<UUID, Deque<AuctionTransactionHistoryEntry>> loadAll() {
-        historyLock.lock();
+    public Deque<AuctionTransactionHistoryEntry> loadPlayerHistory(UUID playerId) {
+        Deque<AuctionTransactionHistoryEntry> history = new ArrayDeque<>();
+        if (playerId == null || historyDirectory == null) {
+            return history;
+        }
+        Lock lock = lockFor(playerId);
+        lock.lock();
         try {
-            return loadAllUnlocked();
+            for (Segment segment : segments(playerId)) {
+                history.addAll(readSegment(segment));
+            }
+            return history;
         } finally {
-            historyLock.unlock();
+            lock.unlock();
         }
     }
 
     @Override
-    public void saveAll(Map<UUID, Deque<AuctionTransactionHistoryEntry>> history) {
-        if (historyFile == null) {
+    public AuctionHistoryPage loadHistoryPage(UUID playerId, AuctionHistoryCursor cursor, int limit,
+            AuctionTransactionType typeFilter) {
+        if (playerId == null || historyDirectory == null) {
+            return AuctionHistoryPage.empty();
+        }
+        int pageLimit = AuctionHistoryPage.clampLimit(limit);
+        YearMonth cursorMonth = cursor != null ? monthOf(cursor.timestamp()) : null;
+        List<AuctionTransactionHistoryEntry> candidates = new ArrayList<>();
+        Lock lock = lockFor(playerId);
+        lock.lock();
+        try {
+            for (Segment segment : segments(playerId)) {
+                if (candidates.size() > pageLimit) {
+                    break;
+                }
+                if (cursorMonth != null && segment.month().isAfter(cursorMonth)) {
+                    continue;
+                }
+                if (segment.archived()) {
+                    readArchive(segment, cursor, typeFilter, pageLimit + 1, candidates);
+                    continue;
+                }
+                for (AuctionTransactionHistoryEntry entry : readSegment(segment)) {
+                    if (candidates.size() > pageLimit) {
+                        break;
+                    }
+                    if (AuctionHistoryPage.matches(entry, cursor, typeFilter)) {
+                        candidates.add(entry);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return AuctionHistoryPage.fromCandidates(candidates, pageLimit);
+    }
+
+    /**
+     * Adds the entries to the segments of their months and compacts segments of months that are over.
+     */
+    @Override
+    public void appendPlayerHistory(UUID playerId, List<AuctionTransactionHistoryEntry> entries) {
+        if (playerId == null || historyDirectory == null || entries == null || entries.isEmpty()) {
             return;
         }
-        historyLock.lock();
+        Lock lock = lockFor(playerId);
+        lock.lock();
         try {
-            writeAllLocked(history);
+            appendEntries(playerId, entries);
         } catch (IOException ex) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to save auction history YAML file.", ex);
+            throw new UncheckedIOException("Failed to append auction history for player " + playerId + '.', ex);
         } finally {
-            historyLock.unlock();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the history of every player in {@code history}. Players that are not part of the
+     * map are left untouched.
+     */
+    @Override
+    public void saveAll(Map<UUID, Deque<AuctionTransactionHistoryEntry>> history) {
+        if (historyDirectory == null || history == null) {
+            return;
         }
+        for (Map.Entry<UUID, Deque<AuctionTransactionHistoryEntry>> entry : history.entrySet()) {
+            replacePlayerHistory(entry.getKey(), entry.getValue());
+        }
+        collectUnusedItems();
     }
 
+    /**
+     * Replaces every segment of the player with {@code history} and removes the items that are no
+     * longer referenced.
+     */
     @Override
     public void savePlayerHistory(UUID playerId, Deque<AuctionTransactionHistoryEntry> history) {
-        if (playerId == null || historyFile == null) {
+        if (playerId == null || historyDirectory == null) {
+            return;
+        }
+        replacePlayerHistory(playerId, history);
+        collectUnusedItems();
+    }
+
+    private void replacePlayerHistory(UUID playerId, Deque<AuctionTransactionHistoryEntry> history) {
+        if (playerId == null) {
             return;
         }
-        historyLock.lock();
+        List<AuctionTransactionHistoryEntry> snapshot = history != null ? new ArrayList<>(history) : List.of();
+        Lock lock = lockFor(playerId);
+        lock.lock();
         try {
-            Map<UUID, Deque<AuctionTransactionHistoryEntry>> existing = loadAllUnlocked();
-            Deque<AuctionTransactionHistoryEntry> copy = history != null
-                    ? new ArrayDeque<>(history)
-                    : new ArrayDeque<>();
-            existing.put(playerId, copy);
-            writeAllLocked(existing);
+            replaceHistory(playerId, snapshot);
         } catch (IOException ex) {
             plugin.getLogger().log(Level.SEVERE,
                     "Failed to save auction history YAML file for player " + playerId + '.', ex);
         } finally {
-            historyLock.unlock();
+            lock.unlock();
         }
     }
 
@@ -118,69 +254,371 @@ public final class YamlAuctionHistoryStorage implements AuctionHistoryStorage {
         // Nothing to close for YAML storage.
     }
 
-    private Map<UUID, Deque<AuctionTransactionHistoryEntry>> loadAllUnlocked() {
-        Map<UUID, Deque<AuctionTransactionHistoryEntry>> entries = new HashMap<>();
-        if (historyFile == null || !historyFile.exists()) {
-            return entries;
+    private Lock lockFor(UUID playerId) {
+        return playerLocks[Math.floorMod(playerId.hashCode(), playerLocks.length)];
+    }
+
+    private File playerDirectory(UUID playerId) {
+        return new File(historyDirectory, playerId.toString());
+    }
+
+    private static YearMonth monthOf(long timestamp) {
+        return YearMonth.from(Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC));
+    }
+
+    private static boolean isClosed(YearMonth month) {
+        return month.isBefore(YearMonth.now(ZoneOffset.UTC));
+    }
+
+    private static Map<YearMonth, List<AuctionTransactionHistoryEntry>> groupByMonth(
+            Collection<AuctionTransactionHistoryEntry> entries) {
+        Map<YearMonth, List<AuctionTransactionHistoryEntry>> byMonth = new TreeMap<>();
+        for (AuctionTransactionHistoryEntry entry : entries) {
+            byMonth.computeIfAbsent(monthOf(entry.timestamp()), key -> new ArrayList<>()).add(entry);
         }
-        YamlConfiguration configuration = ItemStackSerializer.loadSafe(historyFile);
-        ConfigurationSection historySection = configuration.getConfigurationSection("history");
-        if (historySection == null) {
-            return entries;
+        return byMonth;
+    }
+
+    /**
+     * Lists the player's segments, newest month first. If a month has both forms (a compaction
+     * was interrupted), the archive is complete and wins.
+     */
+    private List<Segment> segments(UUID playerId) {
+        File[] files = playerDirectory(playerId).listFiles();
+        if (files == null) {
+            return List.of();
         }
-        Set<String> playerKeys = historySection.getKeys(false);
-        for (String playerKey : playerKeys) {
-            UUID ownerId;
+        Map<YearMonth, Segment> byMonth = new TreeMap<>(Comparator.reverseOrder());
+        for (File file : files) {
+            String name = file.getName();
+            boolean archived = name.endsWith(HistoryArchive.EXTENSION);
+            if (!archived && !name.endsWith(SEGMENT_EXTENSION)) {
+                continue;
+            }
+            String monthName = name.substring(0, name.lastIndexOf('.'));
+            YearMonth month;
             try {
-                ownerId = UUID.fromString(playerKey);
-            } catch (IllegalArgumentException ex) {
-                plugin.getLogger().log(Level.WARNING,
-                        "Ignoring auction history entry for invalid player id " + playerKey, ex);
+                month = YearMonth.parse(monthName);
+            } catch (DateTimeParseException ex) {
+                plugin.getLogger().log(Level.WARNING, "Ignoring auction history segment with invalid name {0}.", file);
+                continue;
+            }
+            Segment segment = new Segment(month, file, archived);
+            byMonth.merge(month, segment, (current, other) -> current.archived() ? current : other);
+        }
+        return new ArrayList<>(byMonth.values());
+    }
+
+    /**
+     * Reads a whole segment, newest entries first.
+     */
+    private List<AuctionTransactionHistoryEntry> readSegment(Segment segment) {
+        if (segment.archived()) {
+            List<AuctionTransactionHistoryEntry> entries = new ArrayList<>();
+            readArchive(segment, null, null, Integer.MAX_VALUE, entries);
+            return entries;
+        }
+        List<AuctionTransactionHistoryEntry> entries = new ArrayList<>(
+                readEntries(ItemStackSerializer.loadSafe(segment.file()).getConfigurationSection("entries"), false));
+        entries.sort(AuctionHistoryPage.NEWEST_FIRST);
+        return entries;
+    }
+
+    private void readArchive(Segment segment, AuctionHistoryCursor cursor, AuctionTransactionType typeFilter, int max,
+            List<AuctionTransactionHistoryEntry> out) {
+        try {
+            HistoryArchive.read(segment.file().toPath(), cursor, typeFilter, max, out, itemStore);
+        } catch (IOException ex) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to read auction history archive " + segment.file() + '.', ex);
+        }
+    }
+
+    private List<AuctionTransactionHistoryEntry> readMonth(File directory, YearMonth month) {
+        File archive = new File(directory, month + HistoryArchive.EXTENSION);
+        if (archive.isFile()) {
+            return readSegment(new Segment(month, archive, true));
+        }
+        File segment = new File(directory, month + SEGMENT_EXTENSION);
+        return segment.isFile() ? readSegment(new Segment(month, segment, false)) : List.of();
+    }
+
+    /**
+     * Writes one month of entries: as an archive if the month is over, otherwise as YAML.
+     */
+    private void writeMonth(File directory, YearMonth month, List<AuctionTransactionHistoryEntry> entries)
+            throws IOException {
+        File segment = new File(directory, month + SEGMENT_EXTENSION);
+        File archive = new File(directory, month + HistoryArchive.EXTENSION);
+        if (entries.isEmpty()) {
+            Files.deleteIfExists(segment.toPath());
+            Files.deleteIfExists(archive.toPath());
+            return;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create auction history folder " + directory);
+        }
+        List<AuctionTransactionHistoryEntry> newestFirst = new ArrayList<>(entries);
+        newestFirst.sort(AuctionHistoryPage.NEWEST_FIRST);
+        if (isClosed(month)) {
+            writeAtomically(archive, output -> HistoryArchive.write(output, newestFirst, itemStore, plugin.getLogger()));
+            Files.deleteIfExists(segment.toPath());
+            return;
+        }
+        YamlConfiguration configuration = new YamlConfiguration();
+        writeEntries(configuration.createSection("entries"), newestFirst);
+        byte[] yaml = configuration.saveToString().getBytes(StandardCharsets.UTF_8);
+        writeAtomically(segment, output -> output.write(yaml));
+    }
+
+    private void writeAtomically(File target, SegmentWriter writer) throws IOException {
+        Path temporary = new File(target.getParentFile(), target.getName() + TEMPORARY_EXTENSION).toPath();
+        try (OutputStream output = Files.newOutputStream(temporary)) {
+            writer.write(output);
+        }
+        try {
+            Files.move(temporary, target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temporary, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Compacts YAML segments of months that are over into archives.
+     */
+    private void compactClosedSegments(UUID playerId) throws IOException {
+        File directory = playerDirectory(playerId);
+        for (Segment segment : segments(playerId)) {
+            if (segment.archived() || !isClosed(segment.month())) {
                 continue;
             }
-            ConfigurationSection playerSection = historySection.getConfigurationSection(playerKey);
-            if (playerSection == null) {
+            writeMonth(directory, segment.month(), readSegment(segment));
+        }
+    }
+
+    private void appendEntries(UUID playerId, List<AuctionTransactionHistoryEntry> entries) throws IOException {
+        File directory = playerDirectory(playerId);
+        for (Map.Entry<YearMonth, List<AuctionTransactionHistoryEntry>> month : groupByMonth(entries).entrySet()) {
+            if (!isClosed(month.getKey()) && !new File(directory, month.getKey() + HistoryArchive.EXTENSION).isFile()) {
+                appendToSegment(directory, month.getKey(), month.getValue());
                 continue;
             }
-            List<AuctionTransactionHistoryEntry> playerEntries = new ArrayList<>();
-            for (String entryKey : playerSection.getKeys(false)) {
-                ConfigurationSection entrySection = playerSection.getConfigurationSection(entryKey);
-                if (entrySection == null) {
-                    continue;
+            List<AuctionTransactionHistoryEntry> merged = new ArrayList<>(readMonth(directory, month.getKey()));
+            Set<String> known = new HashSet<>();
+            merged.forEach(entry -> known.add(entry.transactionId()));
+            for (AuctionTransactionHistoryEntry entry : month.getValue()) {
+                if (known.add(entry.transactionId())) {
+                    merged.add(entry);
                 }
-                AuctionTransactionHistoryEntry entry = loadEntry(entrySection);
-                if (entry != null) {
-                    playerEntries.add(entry);
+            }
+            writeMonth(directory, month.getKey(), merged);
+        }
+        compactClosedSegments(playerId);
+    }
+
+    /**
+     * Adds entries to the YAML segment of an open month without reading the entries it already
+     * holds, so their items are not loaded.
+     */
+    private void appendToSegment(File directory, YearMonth month, List<AuctionTransactionHistoryEntry> entries)
+            throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create auction history folder " + directory);
+        }
+        File segment = new File(directory, month + SEGMENT_EXTENSION);
+        YamlConfiguration configuration = ItemStackSerializer.loadSafe(segment);
+        ConfigurationSection section = configuration.getConfigurationSection("entries");
+        if (section == null) {
+            section = configuration.createSection("entries");
+        }
+        Set<String> known = new HashSet<>();
+        for (String key : section.getKeys(false)) {
+            known.add(section.getString(key + ".transaction-id", ""));
+        }
+        int nextKey = section.getKeys(false).size();
+        boolean added = false;
+        for (AuctionTransactionHistoryEntry entry : entries) {
+            if (!known.add(entry.transactionId())) {
+                continue;
+            }
+            while (section.contains(Integer.toString(nextKey))) {
+                nextKey++;
+            }
+            writeEntry(entry, section.createSection(Integer.toString(nextKey++)));
+            added = true;
+        }
+        if (added) {
+            byte[] yaml = configuration.saveToString().getBytes(StandardCharsets.UTF_8);
+            writeAtomically(segment, output -> output.write(yaml));
+        }
+    }
+
+    private void replaceHistory(UUID playerId, List<AuctionTransactionHistoryEntry> history) throws IOException {
+        File directory = playerDirectory(playerId);
+        Map<YearMonth, List<AuctionTransactionHistoryEntry>> byMonth = groupByMonth(history);
+        for (Segment segment : segments(playerId)) {
+            if (!byMonth.containsKey(segment.month())) {
+                writeMonth(directory, segment.month(), List.of());
+            }
+        }
+        for (Map.Entry<YearMonth, List<AuctionTransactionHistoryEntry>> month : byMonth.entrySet()) {
+            writeMonth(directory, month.getKey(), month.getValue());
+        }
+        String[] remaining = directory.list();
+        if (remaining != null && remaining.length == 0) {
+            Files.deleteIfExists(directory.toPath());
+        }
+    }
+
+    /**
+     * Deletes the stored items that no segment of any player refers to. Each player's segments are
+     * read under the player's lock; items stored after the sweep started are kept, so concurrent
+     * appends never lose their item.
+     */
+    private void collectUnusedItems() {
+        long startedAt = System.currentTimeMillis();
+        File[] playerDirectories = historyDirectory.listFiles(
+                file -> file.isDirectory() && !file.getName().equals(HistoryItemStore.DIRECTORY));
+        Set<String> live = new HashSet<>();
+        for (File playerDirectory : playerDirectories != null ? playerDirectories : new File[0]) {
+            UUID playerId = parsePlayerId(playerDirectory.getName());
+            if (playerId == null) {
+                continue;
+            }
+            Lock lock = lockFor(playerId);
+            lock.lock();
+            try {
+                for (Segment segment : segments(playerId)) {
+                    if (!collectReferences(segment, live)) {
+                        return;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        int deleted = itemStore.collectGarbage(live, startedAt - UNUSED_ITEM_GRACE_MILLIS);
+        if (deleted > 0) {
+            plugin.getLogger().fine("Removed " + deleted + " unused auction history items.");
+        }
+    }
+
+    /**
+     * Adds the item references of a segment to {@code references}.
+     *
+     * @return {@code false} if the segment could not be read, in which case nothing may be swept
+     */
+    private boolean collectReferences(Segment segment, Set<String> references) {
+        if (segment.archived()) {
+            try {
+                HistoryArchive.collectReferences(segment.file().toPath(), references);
+                return true;
+            } catch (IOException ex) {
+                plugin.getLogger().log(Level.WARNING, "Failed to read auction history archive " + segment.file()
+                        + "; unused items are kept.", ex);
+                return false;
+            }
+        }
+        ConfigurationSection entries = ItemStackSerializer.loadSafe(segment.file()).getConfigurationSection("entries");
+        if (entries != null) {
+            for (String key : entries.getKeys(false)) {
+                String reference = entries.getString(key + ".item-ref");
+                if (reference != null && !reference.isEmpty()) {
+                    references.add(reference);
                 }
             }
-            if (!playerEntries.isEmpty()) {
-                playerEntries.sort(Comparator.comparingLong(AuctionTransactionHistoryEntry::timestamp).reversed());
-                Deque<AuctionTransactionHistoryEntry> deque = new ArrayDeque<>(playerEntries);
-                entries.put(ownerId, deque);
+        }
+        return true;
+    }
+
+    private UUID parsePlayerId(String name) {
+        try {
+            return UUID.fromString(name);
+        } catch (IllegalArgumentException ex) {
+            plugin.getLogger().log(Level.WARNING, "Ignoring auction history file with invalid name {0}.", name);
+            return null;
+        }
+    }
+
+    /**
+     * Splits the single-file history used by earlier versions into per-player segments. Players
+     * that already have history keep it; the legacy file is renamed afterwards so the migration
+     * runs once.
+     */
+    private void migrateLegacyFile(File legacyFile) {
+        if (!legacyFile.isFile()) {
+            return;
+        }
+        ConfigurationSection historySection = ItemStackSerializer.loadSafe(legacyFile).getConfigurationSection("history");
+        int migrated = 0;
+        if (historySection != null) {
+            for (String playerKey : historySection.getKeys(false)) {
+                UUID playerId;
+                try {
+                    playerId = UUID.fromString(playerKey);
+                } catch (IllegalArgumentException ex) {
+                    plugin.getLogger().log(Level.WARNING,
+                            "Ignoring auction history entry for invalid player id " + playerKey, ex);
+                    continue;
+                }
+                Deque<AuctionTransactionHistoryEntry> history =
+                        readEntries(historySection.getConfigurationSection(playerKey), true);
+                if (history.isEmpty() || playerDirectory(playerId).exists()) {
+                    continue;
+                }
+                try {
+                    replaceHistory(playerId, new ArrayList<>(history));
+                    migrated++;
+                } catch (IOException ex) {
+                    plugin.getLogger().log(Level.SEVERE, "Failed to migrate auction history for player " + playerId
+                            + "; " + LEGACY_FILE_NAME + " is kept.", ex);
+                    return;
+                }
             }
         }
-        return entries;
+        File backup = new File(legacyFile.getParentFile(), LEGACY_FILE_NAME + ".migrated");
+        try {
+            Files.move(legacyFile.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            plugin.getLogger().log(Level.WARNING, "Failed to rename migrated " + LEGACY_FILE_NAME + '.', ex);
+        }
+        if (migrated > 0) {
+            plugin.getLogger().info("Migrated auction history of " + migrated + " players to per-player files in "
+                    + historyDirectory + '.');
+        }
     }
 
-    private void writeAllLocked(Map<UUID, Deque<AuctionTransactionHistoryEntry>> history) throws IOException {
-        YamlConfiguration configuration = new YamlConfiguration();
-        ConfigurationSection historySection = configuration.createSection("history");
-        for (Map.Entry<UUID, Deque<AuctionTransactionHistoryEntry>> entry : history.entrySet()) {
-            ConfigurationSection playerSection = historySection.createSection(entry.getKey().toString());
-            Deque<AuctionTransactionHistoryEntry> deque = entry.getValue();
-            if (deque == null || deque.isEmpty()) {
+    /**
+     * Reads the entries of a segment, or of a player in the legacy single-file history if {@code legacy}.
+     */
+    private Deque<AuctionTransactionHistoryEntry> readEntries(ConfigurationSection section, boolean legacy) {
+        if (section == null) {
+            return new ArrayDeque<>();
+        }
+        List<AuctionTransactionHistoryEntry> playerEntries = new ArrayList<>();
+        for (String entryKey : section.getKeys(false)) {
+            ConfigurationSection entrySection = section.getConfigurationSection(entryKey);
+            if (entrySection == null) {
                 continue;
             }
-            int index = 0;
-            for (AuctionTransactionHistoryEntry historyEntry : deque) {
-                ConfigurationSection entrySection = playerSection.createSection(Integer.toString(index++));
-                writeEntry(historyEntry, entrySection);
+            AuctionTransactionHistoryEntry entry = loadEntry(entrySection, legacy);
+            if (entry != null) {
+                playerEntries.add(entry);
             }
         }
-        configuration.save(historyFile);
+        playerEntries.sort(Comparator.comparingLong(AuctionTransactionHistoryEntry::timestamp).reversed());
+        return new ArrayDeque<>(playerEntries);
     }
 
-    private AuctionTransactionHistoryEntry loadEntry(ConfigurationSection section) {
+    private void writeEntries(ConfigurationSection section, List<AuctionTransactionHistoryEntry> history)
+            throws IOException {
+        int index = 0;
+        for (AuctionTransactionHistoryEntry historyEntry : history) {
+            writeEntry(historyEntry, section.createSection(Integer.toString(index++)));
+        }
+    }
+
+    private AuctionTransactionHistoryEntry loadEntry(ConfigurationSection section, boolean legacy) {
         String typeName = section.getString("type");
         AuctionTransactionType type = parseType(typeName);
         if (type == null) {
@@ -199,21 +637,19 @@ public final class YamlAuctionHistoryStorage implements AuctionHistoryStorage {
             }
         }
         String counterpartName = section.getString("counterpart-name");
-        ItemStack item = null;
-        String itemData = section.getString("item-data");
-        if (itemData != null && !itemData.isEmpty()) {
-            try {
-                item = ItemStackSerializer.deserialize(itemData);
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.WARNING, "Failed to deserialize item from auction history entry.", e);
-            }
+        LazyItemStack item;
+        if (!legacy) {
+            item = itemStore.resolve(section.getString("item-ref"));
         } else {
-            // Legacy: YAML-serialised ItemStack written before v2.2.1 or by a Paper server.
-            // Paper-written data may not be deserializable on Spigot; the item will be null.
-            item = section.getItemStack("item");
-        }
-        if (item != null) {
-            item = item.clone();
+            String itemData = section.getString("item-data");
+            if (itemData != null && !itemData.isEmpty()) {
+                // Base64 item written by auction-history.yml since v2.2.1; decoded on first access.
+                item = LazyItemStack.encoded(itemData);
+            } else {
+                // YAML-serialised ItemStack written before v2.2.1 or by a Paper server.
+                // Paper-written data may not be deserializable on Spigot; the item will be null.
+                item = LazyItemStack.of(section.getItemStack("item"));
+            }
         }
         // Read transaction ID or generate one for backward compatibility
         String transactionId = section.getString("transaction-id");
@@ -223,7 +659,7 @@ public final class YamlAuctionHistoryStorage implements AuctionHistoryStorage {
         return new AuctionTransactionHistoryEntry(transactionId, type, counterpartId, counterpartName, price, timestamp, item);
     }
 
-    private void writeEntry(AuctionTransactionHistoryEntry entry, ConfigurationSection section) {
+    private void writeEntry(AuctionTransactionHistoryEntry entry, ConfigurationSection section) throws IOException {
         section.set("transaction-id", entry.transactionId());
         section.set("type", entry.type().name());
         section.set("timestamp", entry.timestamp());
@@ -234,13 +670,9 @@ public final class YamlAuctionHistoryStorage implements AuctionHistoryStorage {
         if (entry.counterpartName() != null && !entry.counterpartName().isEmpty()) {
             section.set("counterpart-name", entry.counterpartName());
         }
-        if (entry.item() != null) {
-            try {
-                section.set("item-data", ItemStackSerializer.serialize(entry.item()));
-            } catch (IOException e) {
-                plugin.getLogger().log(Level.WARNING,
-                        "Failed to serialize item for auction history entry; it will not be persisted.", e);
-            }
+        String itemReference = itemStore.store(entry.itemData().encode(plugin.getLogger()));
+        if (itemReference != null) {
+            section.set("item-ref", itemReference);
         }
     }
 
@@ -256,4 +688,16 @@ public final class YamlAuctionHistoryStorage implements AuctionHistoryStorage {
         }
         return null;
     }
+
+    @FunctionalInterface
+    private interface SegmentWriter {
+
+        void write(OutputStream output) throws IOException;
+    }
+
+    /**
+     * One month of a player's history, either a YAML segment or a compacted archive.
+     */
+    private record Segment(YearMonth month, File file, boolean archived) {
+    }
 }
@@ -3,13 +3,16 @@ package com.skyblockexp.ezauction.storage.yaml;
 import com.skyblockexp.ezauction.AuctionListing;
 import com.skyblockexp.ezauction.AuctionOrder;
 import com.skyblockexp.ezauction.EzAuctionPlugin;
+import com.skyblockexp.ezauction.LazyItemStack;
+import com.skyblockexp.ezauction.storage.AuctionLoadPipeline;
 import com.skyblockexp.ezauction.storage.AuctionStorage;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
 import com.skyblockexp.ezauction.storage.AuctionStorageSnapshot;
 import com.skyblockexp.ezauction.util.EconomyUtils;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -22,12 +25,21 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 /**
  * YAML-backed implementation of {@link AuctionStorage}.
+ *
+ * <p>The storage keeps a mirror of the persisted state. Items keep the encoded data they were
+ * loaded or first saved with (see {@link LazyItemStack}), so rewriting the file after an
+ * incremental {@link #applyChanges(AuctionStorageChangeSet) change set} only serializes the
+ * items that actually changed.</p>
  */
 public final class YamlAuctionStorage implements AuctionStorage {
 
     private final JavaPlugin plugin;
     private File listingsFile;
     private File returnsFile;
+    private final Map<String, AuctionListing> listingState = new LinkedHashMap<>();
+    private final Map<String, AuctionOrder> orderState = new LinkedHashMap<>();
+    private final Map<UUID, List<ItemStack>> returnState = new LinkedHashMap<>();
+    private boolean stateLoaded;
 
     public YamlAuctionStorage(JavaPlugin plugin) {
         this.plugin = plugin;
@@ -57,11 +69,31 @@ public final class YamlAuctionStorage implements AuctionStorage {
     }
 
     @Override
-    public AuctionStorageSnapshot load() {
-        Map<String, AuctionListing> listings = new HashMap<>();
-        Map<String, AuctionOrder> orders = new HashMap<>();
-        Map<UUID, List<ItemStack>> returns = new HashMap<>();
+    public synchronized AuctionStorageSnapshot load() {
+        AuctionLoadPipeline pipeline = new AuctionLoadPipeline(plugin.getLogger(), "YAML");
+        try {
+            readEntries(pipeline);
+        } catch (RuntimeException ex) {
+            pipeline.close();
+            throw ex;
+        }
+        AuctionStorageSnapshot snapshot = pipeline.complete();
 
+        listingState.clear();
+        listingState.putAll(snapshot.listings());
+        orderState.clear();
+        orderState.putAll(snapshot.orders());
+        returnState.clear();
+        returnState.putAll(snapshot.pendingReturns());
+        stateLoaded = true;
+        return snapshot;
+    }
+
+    /**
+     * Streams the listing, order, and return sections into the pipeline; item data is
+     * decoded on the pipeline's worker threads.
+     */
+    private void readEntries(AuctionLoadPipeline pipeline) {
         if (listingsFile != null && listingsFile.exists()) {
             YamlConfiguration configuration = ItemStackSerializer.loadSafe(listingsFile);
             ConfigurationSection listingsSection = configuration.getConfigurationSection("listings");
@@ -71,10 +103,7 @@ public final class YamlAuctionStorage implements AuctionStorage {
                     if (listingSection == null) {
                         continue;
                     }
-                    AuctionListing listing = loadListing(id, listingSection);
-                    if (listing != null) {
-                        listings.put(id, listing);
-                    }
+                    pipeline.submitListing(id, () -> loadListing(id, listingSection));
                 }
             }
 
@@ -85,10 +114,7 @@ public final class YamlAuctionStorage implements AuctionStorage {
                     if (orderSection == null) {
                         continue;
                     }
-                    AuctionOrder order = loadOrder(id, orderSection);
-                    if (order != null) {
-                        orders.put(id, order);
-                    }
+                    pipeline.submitOrder(id, () -> loadOrder(id, orderSection));
                 }
             }
         }
@@ -106,75 +132,139 @@ public final class YamlAuctionStorage implements AuctionStorage {
                                 "Ignoring auction returns entry for invalid player id " + key, ex);
                         continue;
                     }
-                    List<ItemStack> items = new ArrayList<>();
                     List<?> serializedItems = section.getList(key);
                     if (serializedItems != null) {
-                        for (Object object : serializedItems) {
-                            if (object instanceof String base64) {
-                                // New format: base64-encoded item.
-                                try {
-                                    ItemStack stack = ItemStackSerializer.deserialize(base64);
-                                    if (stack != null && stack.getType() != Material.AIR && stack.getAmount() > 0) {
-                                        items.add(stack);
-                                    }
-                                } catch (Exception e) {
-                                    plugin.getLogger().log(Level.WARNING,
-                                            "Failed to deserialize a return item for player " + key + "; item will be skipped.", e);
-                                }
-                            } else if (object instanceof ItemStack stack) {
-                                // Legacy: YAML-serialised ItemStack (backward compatibility).
-                                if (stack.getType() != Material.AIR && stack.getAmount() > 0) {
-                                    items.add(stack.clone());
-                                }
-                            }
-                        }
-                    }
-                    if (!items.isEmpty()) {
-                        returns.put(playerId, items);
+                        pipeline.submitReturns(playerId, () -> loadReturnItems(key, serializedItems));
                     }
                 }
             }
         }
+    }
 
-        return new AuctionStorageSnapshot(listings, orders, returns);
+    private List<ItemStack> loadReturnItems(String playerKey, List<?> serializedItems) {
+        List<ItemStack> items = new ArrayList<>();
+        for (Object object : serializedItems) {
+            if (object instanceof String base64) {
+                // New format: base64-encoded item.
+                try {
+                    ItemStack stack = ItemStackSerializer.deserialize(base64);
+                    if (stack != null && stack.getType() != Material.AIR && stack.getAmount() > 0) {
+                        items.add(stack);
+                    }
+                } catch (Exception e) {
+                    plugin.getLogger().log(Level.WARNING,
+                            "Failed to deserialize a return item for player " + playerKey + "; item will be skipped.", e);
+                }
+            } else if (object instanceof ItemStack stack) {
+                // Legacy: YAML-serialised ItemStack (backward compatibility).
+                if (stack.getType() != Material.AIR && stack.getAmount() > 0) {
+                    items.add(stack.clone());
+                }
+            }
+        }
+        return items;
     }
 
     @Override
-    public void saveListings(java.util.Collection<AuctionListing> listings,
+    public synchronized void saveListings(java.util.Collection<AuctionListing> listings,
             java.util.Collection<AuctionOrder> orders) {
         if (listingsFile == null) {
             return;
         }
+        listingState.clear();
+        for (AuctionListing listing : listings) {
+            listingState.put(listing.id(), listing);
+        }
+        orderState.clear();
+        for (AuctionOrder order : orders) {
+            orderState.put(order.id(), order);
+        }
+        stateLoaded = true;
+        writeListingsFile();
+    }
+
+    @Override
+    public synchronized void saveReturns(Map<UUID, List<ItemStack>> returnsByPlayer) {
+        if (returnsFile == null) {
+            return;
+        }
+        returnState.clear();
+        returnState.putAll(returnsByPlayer);
+        stateLoaded = true;
+        writeReturnsFile();
+    }
+
+    @Override
+    public synchronized void applyChanges(AuctionStorageChangeSet changes) {
+        if (changes == null || changes.isEmpty() || listingsFile == null || returnsFile == null) {
+            return;
+        }
+        if (!stateLoaded) {
+            load();
+        }
+        for (String listingId : changes.listingRemovals()) {
+            listingState.remove(listingId);
+        }
+        for (AuctionListing listing : changes.listingUpserts()) {
+            listingState.put(listing.id(), listing);
+        }
+        for (String orderId : changes.orderRemovals()) {
+            orderState.remove(orderId);
+        }
+        for (AuctionOrder order : changes.orderUpserts()) {
+            orderState.put(order.id(), order);
+        }
+        for (Map.Entry<UUID, List<ItemStack>> entry : changes.returnUpdates().entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                returnState.remove(entry.getKey());
+            } else {
+                returnState.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (changes.hasListingChanges()) {
+            writeListingsFile();
+        }
+        if (changes.hasReturnChanges()) {
+            writeReturnsFile();
+        }
+    }
+
+    @Override
+    public void close() {
+        // Nothing to close for YAML storage.
+    }
+
+    private void writeListingsFile() {
         YamlConfiguration configuration = new YamlConfiguration();
         ConfigurationSection listingsSection = configuration.createSection("listings");
-        for (AuctionListing listing : listings) {
+        for (AuctionListing listing : listingState.values()) {
             ConfigurationSection listingSection = listingsSection.createSection(listing.id());
             listingSection.set("seller", listing.sellerId().toString());
             listingSection.set("price", listing.price());
             listingSection.set("expiry", listing.expiryEpochMillis());
             listingSection.set("deposit", listing.deposit());
-            try {
-                listingSection.set("item-data", ItemStackSerializer.serialize(listing.item()));
-            } catch (IOException e) {
-                plugin.getLogger().log(Level.WARNING,
-                        "Failed to serialize item for listing " + listing.id() + "; it will not be saved.", e);
+            String itemData = listing.itemData().encodeText(plugin.getLogger());
+            if (itemData != null) {
+                listingSection.set("item-data", itemData);
+            } else {
+                plugin.getLogger().warning("Failed to serialize item for listing " + listing.id() + "; it will not be saved.");
             }
             if (listing.teamId() != null) {
                 listingSection.set("team-id", listing.teamId().toString());
             }
         }
         ConfigurationSection ordersSection = configuration.createSection("orders");
-        for (AuctionOrder order : orders) {
+        for (AuctionOrder order : orderState.values()) {
             ConfigurationSection orderSection = ordersSection.createSection(order.id());
             orderSection.set("buyer", order.buyerId().toString());
             orderSection.set("price", order.offeredPrice());
             orderSection.set("expiry", order.expiryEpochMillis());
             orderSection.set("reserved", order.reservedAmount());
-            try {
-                orderSection.set("item-data", ItemStackSerializer.serialize(order.requestedItem()));
-            } catch (IOException e) {
-                plugin.getLogger().log(Level.WARNING,
-                        "Failed to serialize item for order " + order.id() + "; it will not be saved.", e);
+            String itemData = order.requestedItemData().encodeText(plugin.getLogger());
+            if (itemData != null) {
+                orderSection.set("item-data", itemData);
+            } else {
+                plugin.getLogger().warning("Failed to serialize item for order " + order.id() + "; it will not be saved.");
             }
         }
         try {
@@ -185,14 +275,10 @@ public final class YamlAuctionStorage implements AuctionStorage {
         }
     }
 
-    @Override
-    public void saveReturns(Map<UUID, List<ItemStack>> returnsByPlayer) {
-        if (returnsFile == null) {
-            return;
-        }
+    private void writeReturnsFile() {
         YamlConfiguration configuration = new YamlConfiguration();
         ConfigurationSection section = configuration.createSection("returns");
-        for (Map.Entry<UUID, List<ItemStack>> entry : returnsByPlayer.entrySet()) {
+        for (Map.Entry<UUID, List<ItemStack>> entry : returnState.entrySet()) {
             List<String> encoded = new ArrayList<>();
             for (ItemStack stack : entry.getValue()) {
                 if (stack == null || stack.getType() == Material.AIR || stack.getAmount() <= 0) {
@@ -217,11 +303,6 @@ public final class YamlAuctionStorage implements AuctionStorage {
         }
     }
 
-    @Override
-    public void close() {
-        // Nothing to close for YAML storage.
-    }
-
     private AuctionListing loadListing(String id, ConfigurationSection section) {
         String sellerRaw = section.getString("seller");
         if (sellerRaw == null || sellerRaw.isEmpty()) {
@@ -242,8 +323,8 @@ public final class YamlAuctionStorage implements AuctionStorage {
         }
         long expiry = section.getLong("expiry");
         double deposit = EconomyUtils.normalizeCurrency(section.getDouble("deposit", 0.0D));
-        ItemStack item = loadItemCompat("listing " + id, section);
-        if (item == null || item.getType() == Material.AIR || item.getAmount() <= 0) {
+        LazyItemStack item = loadItemCompat(section);
+        if (item == null) {
             plugin.getLogger().warning("Ignoring auction listing " + id + " because the item is invalid.");
             return null;
         }
@@ -256,7 +337,7 @@ public final class YamlAuctionStorage implements AuctionStorage {
                 plugin.getLogger().warning("Ignoring invalid team-id for listing " + id + ": " + teamIdRaw);
             }
         }
-        return new AuctionListing(id, sellerId, price, expiry, item.clone(), deposit, teamId);
+        return new AuctionListing(id, sellerId, price, expiry, item, deposit, teamId);
     }
 
     private AuctionOrder loadOrder(String id, ConfigurationSection section) {
@@ -282,12 +363,12 @@ public final class YamlAuctionStorage implements AuctionStorage {
             reserved = price;
         }
         long expiry = section.getLong("expiry");
-        ItemStack template = loadItemCompat("order " + id, section);
-        if (template == null || template.getType() == Material.AIR || template.getAmount() <= 0) {
+        LazyItemStack template = loadItemCompat(section);
+        if (template == null) {
             plugin.getLogger().warning("Ignoring auction order " + id + " because the item template is invalid.");
             return null;
         }
-        return new AuctionOrder(id, buyerId, price, expiry, template.clone(), reserved);
+        return new AuctionOrder(id, buyerId, price, expiry, template, reserved);
     }
 
     private void ensureFile(File file) throws IOException {
@@ -304,25 +385,26 @@ public final class YamlAuctionStorage implements AuctionStorage {
     }
 
     /**
-     * Loads an {@link ItemStack} from a configuration section, trying the new Base64
-     * {@code item-data} key first and falling back to the legacy YAML {@code item} key.
+     * Loads the item of a configuration section, trying the new Base64 {@code item-data} key
+     * first and falling back to the legacy YAML {@code item} key. Base64 data is kept in its
+     * encoded form; the load pipeline checks that it decodes and skips the entry otherwise.
      *
      * <p>The legacy key may produce {@code ERROR} log entries from Bukkit's YAML
      * constructor when the data was written on a Paper server and is now being loaded on
      * Spigot. These entries disappear once the file is re-saved in the new format.
+     *
+     * @return the item, or {@code null} if the section holds no item data or an invalid legacy item
      */
-    private ItemStack loadItemCompat(String contextId, ConfigurationSection section) {
+    private LazyItemStack loadItemCompat(ConfigurationSection section) {
         String itemData = section.getString("item-data");
         if (itemData != null && !itemData.isEmpty()) {
-            try {
-                return ItemStackSerializer.deserialize(itemData);
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.WARNING,
-                        "Failed to deserialize item for " + contextId + '.', e);
-                return null;
-            }
+            return LazyItemStack.encoded(itemData);
         }
         // Legacy: YAML-serialised ItemStack written before v2.2.1 or by a Paper server.
-        return section.getItemStack("item");
+        ItemStack item = section.getItemStack("item");
+        if (item == null || item.getType() == Material.AIR || item.getAmount() <= 0) {
+            return null;
+        }
+        return LazyItemStack.of(item);
     }
 }
@@ -0,0 +1,41 @@
+package com.skyblockexp.ezauction.transaction;
+
+import java.util.Objects;
+
+/**
+ * Position in a player's history, ordered newest first by timestamp and then transaction id.
+ * A page requested with a cursor starts with the first entry after that position.
+ *
+ * @param timestamp     timestamp of the last entry of the previous page
+ * @param transactionId transaction id of the last entry of the previous page
+ */
+public record AuctionHistoryCursor(long timestamp, String transactionId) {
+
+    public AuctionHistoryCursor {
+        Objects.requireNonNull(transactionId, "transactionId");
+    }
+
+    /**
+     * Returns the cursor that continues after {@code entry}.
+     */
+    public static AuctionHistoryCursor after(AuctionTransactionHistoryEntry entry) {
+        return new AuctionHistoryCursor(entry.timestamp(), entry.transactionId());
+    }
+
+    /**
+     * Returns {@code true} if {@code entry} comes after this position, i.e. is older.
+     */
+    public boolean precedes(AuctionTransactionHistoryEntry entry) {
+        return precedes(entry.timestamp(), entry.transactionId());
+    }
+
+    /**
+     * Returns {@code true} if an entry with the given timestamp and transaction id comes after this position.
+     */
+    public boolean precedes(long entryTimestamp, String entryTransactionId) {
+        if (entryTimestamp != timestamp) {
+            return entryTimestamp < timestamp;
+        }
+        return entryTransactionId.compareTo(transactionId) < 0;
+    }
+}
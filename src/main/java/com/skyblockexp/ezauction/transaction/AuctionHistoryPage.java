@@ -0,0 +1,82 @@
+package com.skyblockexp.ezauction.transaction;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One page of a player's transaction history.
+ *
+ * @param entries    entries of the page, newest first
+ * @param nextCursor cursor for the following page, or {@code null} if this is the last page
+ */
+public record AuctionHistoryPage(List<AuctionTransactionHistoryEntry> entries, AuctionHistoryCursor nextCursor) {
+
+    /** Order of history pages: newest first, ties broken by descending transaction id. */
+    public static final Comparator<AuctionTransactionHistoryEntry> NEWEST_FIRST =
+            Comparator.comparingLong(AuctionTransactionHistoryEntry::timestamp)
+                    .thenComparing(AuctionTransactionHistoryEntry::transactionId)
+                    .reversed();
+
+    /** Largest page size accepted by the storages. */
+    public static final int MAX_LIMIT = 500;
+
+    private static final AuctionHistoryPage EMPTY = new AuctionHistoryPage(List.of(), null);
+
+    public AuctionHistoryPage {
+        entries = entries != null ? List.copyOf(entries) : List.of();
+    }
+
+    public static AuctionHistoryPage empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a page from up to {@code limit + 1} candidate entries in {@link #NEWEST_FIRST} order;
+     * the extra entry only signals that another page exists.
+     */
+    public static AuctionHistoryPage fromCandidates(List<AuctionTransactionHistoryEntry> candidates, int limit) {
+        if (candidates.size() <= limit) {
+            return new AuctionHistoryPage(candidates, null);
+        }
+        List<AuctionTransactionHistoryEntry> entries = candidates.subList(0, limit);
+        return new AuctionHistoryPage(entries, AuctionHistoryCursor.after(entries.get(limit - 1)));
+    }
+
+    /**
+     * Pages through entries that are already in memory.
+     *
+     * @param history    the entries, in any order
+     * @param cursor     position to continue after, or {@code null} for the first page
+     * @param limit      maximum number of entries on the page
+     * @param typeFilter type of the entries to include, or {@code null} for all
+     */
+    public static AuctionHistoryPage of(Iterable<AuctionTransactionHistoryEntry> history, AuctionHistoryCursor cursor,
+            int limit, AuctionTransactionType typeFilter) {
+        List<AuctionTransactionHistoryEntry> matching = new ArrayList<>();
+        for (AuctionTransactionHistoryEntry entry : history) {
+            if (matches(entry, cursor, typeFilter)) {
+                matching.add(entry);
+            }
+        }
+        matching.sort(NEWEST_FIRST);
+        int pageLimit = clampLimit(limit);
+        return fromCandidates(matching.subList(0, Math.min(matching.size(), pageLimit + 1)), pageLimit);
+    }
+
+    /**
+     * Returns {@code true} if {@code entry} belongs on a page after {@code cursor} with the given filter.
+     */
+    public static boolean matches(AuctionTransactionHistoryEntry entry, AuctionHistoryCursor cursor,
+            AuctionTransactionType typeFilter) {
+        return (typeFilter == null || entry.type() == typeFilter) && (cursor == null || cursor.precedes(entry));
+    }
+
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -3,34 +3,74 @@ package com.skyblockexp.ezauction.transaction;
 import com.skyblockexp.ezauction.HistorySaveDispatcher;
 
 import com.skyblockexp.ezauction.EzAuctionPlugin;
+import com.skyblockexp.ezauction.LazyItemStack;
 import com.skyblockexp.ezauction.storage.AuctionHistoryStorage;
 import com.skyblockexp.ezauction.util.EconomyUtils;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
+import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 
 /**
  * Stores and loads auction transaction history for each player.
+ *
+ * <p>Stored history is unbounded; every transaction is appended to storage and older entries are
+ * read page by page through {@link #getHistory(UUID, AuctionHistoryCursor, int, AuctionTransactionType)}.
+ * Only the newest {@code cachedEntriesPerPlayer} entries of a player are held in memory. They are
+ * loaded on demand (asynchronously when a player joins or when first requested) into a bounded
+ * LRU cache; players are evicted when they leave or when the cache is full.</p>
  */
 public class AuctionTransactionHistory {
-    private static final int MAX_ENTRIES_PER_PLAYER = 25;
+    private static final int DEFAULT_CACHED_ENTRIES_PER_PLAYER = 25;
+    private static final int DEFAULT_MAX_CACHED_PLAYERS = 500;
+    private static final long SYNC_LOAD_TIMEOUT_MILLIS = 2_000L;
 
     private final JavaPlugin plugin;
     private final AuctionHistoryStorage storage;
-    private final Map<UUID, Deque<AuctionTransactionHistoryEntry>> entriesByPlayer = new ConcurrentHashMap<>();
+    private final int cachedEntriesPerPlayer;
+    private final int maxCachedPlayers;
+    /** Access-ordered cache of the newest entries per player; guarded by its own monitor. */
+    private final LinkedHashMap<UUID, CachedHistory> entriesByPlayer;
+    /** Loads in flight, with the entries recorded for the player while the load was running. */
+    private final Map<UUID, PendingLoad> pendingLoads = new HashMap<>();
     private HistorySaveDispatcher historySaveDispatcher;
     private boolean storageReady;
 
     public AuctionTransactionHistory(JavaPlugin plugin, AuctionHistoryStorage storage) {
+        this(plugin, storage, DEFAULT_CACHED_ENTRIES_PER_PLAYER, DEFAULT_MAX_CACHED_PLAYERS);
+    }
+
+    public AuctionTransactionHistory(JavaPlugin plugin, AuctionHistoryStorage storage, int cachedEntriesPerPlayer) {
+        this(plugin, storage, cachedEntriesPerPlayer, DEFAULT_MAX_CACHED_PLAYERS);
+    }
+
+    public AuctionTransactionHistory(JavaPlugin plugin, AuctionHistoryStorage storage, int cachedEntriesPerPlayer,
+            int maxCachedPlayers) {
         this.plugin = Objects.requireNonNull(plugin, "plugin");
         this.storage = Objects.requireNonNull(storage, "storage");
+        this.cachedEntriesPerPlayer = AuctionHistoryPage.clampLimit(cachedEntriesPerPlayer);
+        this.maxCachedPlayers = Math.max(1, maxCachedPlayers);
+        this.entriesByPlayer = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, CachedHistory> eldest) {
+                return size() > AuctionTransactionHistory.this.maxCachedPlayers;
+            }
+        };
     }
 
     public void enable() {
@@ -39,18 +79,18 @@ public class AuctionTransactionHistory {
             dispatcher.flushAndShutdown();
             historySaveDispatcher = null;
         }
+        clearCache();
         storageReady = storage.initialize();
         if (!storageReady) {
             plugin.getLogger().severe("Failed to initialize auction history storage. History will not be persisted.");
-            entriesByPlayer.clear();
             return;
         }
-        entriesByPlayer.clear();
-        Map<UUID, Deque<AuctionTransactionHistoryEntry>> loaded = storage.loadAll();
-        if (loaded != null && !loaded.isEmpty()) {
-            entriesByPlayer.putAll(loaded);
-        }
         historySaveDispatcher = new HistorySaveDispatcher(plugin, storage);
+        if (plugin.getServer() != null) {
+            for (Player player : plugin.getServer().getOnlinePlayers()) {
+                preload(player.getUniqueId());
+            }
+        }
     }
 
     public void disable() {
@@ -59,18 +99,29 @@ public class AuctionTransactionHistory {
         if (dispatcher != null) {
             dispatcher.flushAndShutdown();
         }
-        if (storageReady) {
-            try {
-                storage.saveAll(entriesByPlayer);
-            } catch (RuntimeException ex) {
-                plugin.getLogger().log(Level.SEVERE,
-                        "Failed to persist " + EzAuctionPlugin.DISPLAY_NAME + " transaction history to storage.", ex);
-            }
-        }
-        entriesByPlayer.clear();
+        clearCache();
         storageReady = false;
     }
 
+    /**
+     * Starts loading a player's history in the background if it is not cached yet.
+     */
+    public void preload(UUID playerId) {
+        loadHistory(playerId);
+    }
+
+    /**
+     * Drops a player's history from the cache. Pending writes are unaffected.
+     */
+    public void evict(UUID playerId) {
+        if (playerId == null) {
+            return;
+        }
+        synchronized (entriesByPlayer) {
+            entriesByPlayer.remove(playerId);
+        }
+    }
+
     /**
      * Records a transaction entry for the provided player.
      */
@@ -81,21 +132,26 @@ public class AuctionTransactionHistory {
         }
         double normalizedPrice = EconomyUtils.normalizeCurrency(price);
         String transactionId = UUID.randomUUID().toString();
-        AuctionTransactionHistoryEntry entry = new AuctionTransactionHistoryEntry(
+        record(ownerId, new AuctionTransactionHistoryEntry(
                 transactionId,
                 type,
                 counterpartId,
                 counterpartName,
                 normalizedPrice,
                 Math.max(0L, timestamp),
-                item);
+                item));
+    }
 
-        Deque<AuctionTransactionHistoryEntry> history = entriesByPlayer.computeIfAbsent(ownerId, key -> new ArrayDeque<>());
-        history.addFirst(entry);
-        while (history.size() > MAX_ENTRIES_PER_PLAYER) {
-            history.removeLast();
+    /**
+     * Records a sale in the history of both the seller and the buyer. Both entries share the
+     * record's transaction id and item data.
+     */
+    public void recordSale(AuctionTransactionRecord sale) {
+        if (sale == null) {
+            return;
         }
-        persistPlayerHistory(ownerId, history);
+        record(sale.sellerId(), sale.sellerEntry());
+        record(sale.buyerId(), sale.buyerEntry());
     }
 
     public void recordOrderFulfillment(UUID buyerId, UUID sellerId, String sellerName, String buyerName, double price,
@@ -103,47 +159,227 @@ public class AuctionTransactionHistory {
         if (buyerId == null || sellerId == null) {
             return;
         }
-        ItemStack clonedItem = item != null ? item.clone() : null;
-        recordTransaction(
-                AuctionTransactionType.BUY,
-                buyerId,
-                sellerId,
-                sellerName,
-                price,
-                clonedItem,
-                timestamp);
-        recordTransaction(
-                AuctionTransactionType.SELL,
-                sellerId,
-                buyerId,
-                buyerName,
-                price,
-                clonedItem,
-                timestamp);
+        recordSale(AuctionTransactionRecord.create(sellerId, sellerName, buyerId, buyerName,
+                EconomyUtils.normalizeCurrency(price), timestamp, LazyItemStack.of(item)));
+    }
+
+    private void record(UUID ownerId, AuctionTransactionHistoryEntry entry) {
+        synchronized (entriesByPlayer) {
+            CachedHistory history = entriesByPlayer.get(ownerId);
+            if (history != null) {
+                history.add(entry, cachedEntriesPerPlayer);
+            } else {
+                PendingLoad pending = pendingLoads.get(ownerId);
+                if (pending != null) {
+                    pending.recorded.add(entry);
+                }
+            }
+        }
+        HistorySaveDispatcher dispatcher = historySaveDispatcher;
+        if (storageReady && dispatcher != null) {
+            dispatcher.enqueueAppend(ownerId, entry);
+        }
     }
 
     /**
-     * Returns a read-only copy of a player's transaction history sorted newest first.
+     * Returns a read-only copy of a player's newest transactions, sorted newest first and limited
+     * to the entries held in memory.
+     *
+     * <p>Histories that are not cached yet are loaded first; this waits at most
+     * {@value #SYNC_LOAD_TIMEOUT_MILLIS} ms and returns an empty list if the load takes longer.</p>
+     *
+     * @deprecated blocks the calling thread while the history loads; use
+     *             {@link #getHistoryAsync(UUID)}. This method will be removed in the next major release.
      */
+    @Deprecated
     public List<AuctionTransactionHistoryEntry> getHistory(UUID playerId) {
         if (playerId == null) {
             return List.of();
         }
-        Deque<AuctionTransactionHistoryEntry> history = entriesByPlayer.get(playerId);
-        if (history == null || history.isEmpty()) {
-            return List.of();
+        try {
+            return getHistoryAsync(playerId).get(SYNC_LOAD_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            plugin.getLogger().log(Level.WARNING,
+                    "Auction history for player " + playerId + " is not available yet.", ex);
         }
-        return List.copyOf(history);
+        return List.of();
     }
 
-    private void persistPlayerHistory(UUID ownerId, Deque<AuctionTransactionHistoryEntry> history) {
-        if (!storageReady || ownerId == null) {
-            return;
+    /**
+     * Returns a read-only copy of a player's newest transactions, sorted newest first and limited
+     * to the entries held in memory, loading them in the background if they are not cached yet.
+     * Use {@link #getHistory(UUID, AuctionHistoryCursor, int, AuctionTransactionType)} to read
+     * further back.
+     *
+     * <p>The future may complete off the main thread; hop back with the scheduler before touching
+     * players or inventories.</p>
+     */
+    public CompletableFuture<List<AuctionTransactionHistoryEntry>> getHistoryAsync(UUID playerId) {
+        if (playerId == null) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return loadHistory(playerId);
+    }
+
+    /**
+     * Reads one page of a player's full transaction history, newest first. Pages that fall within
+     * the cached entries are answered from memory; anything older is read from storage in the
+     * background after all pending writes for the player.
+     *
+     * @param playerId   the player whose history to read
+     * @param cursor     {@link AuctionHistoryPage#nextCursor()} of the previous page, or {@code null} for the first page
+     * @param limit      maximum number of entries on the page
+     * @param typeFilter type of the entries to include, or {@code null} for all
+     * @return the page; an empty page if the history cannot be read
+     */
+    public CompletableFuture<AuctionHistoryPage> getHistory(UUID playerId, AuctionHistoryCursor cursor, int limit,
+            AuctionTransactionType typeFilter) {
+        if (playerId == null) {
+            return CompletableFuture.completedFuture(AuctionHistoryPage.empty());
+        }
+        int pageLimit = AuctionHistoryPage.clampLimit(limit);
+        synchronized (entriesByPlayer) {
+            CachedHistory cached = entriesByPlayer.get(playerId);
+            AuctionHistoryPage page = cached != null ? cached.page(cursor, pageLimit, typeFilter) : null;
+            if (page != null) {
+                return CompletableFuture.completedFuture(page);
+            }
         }
         HistorySaveDispatcher dispatcher = historySaveDispatcher;
-        if (dispatcher == null) {
-            return;
+        if (!storageReady || dispatcher == null) {
+            return CompletableFuture.completedFuture(AuctionHistoryPage.empty());
+        }
+        return dispatcher.loadPage(playerId, cursor, pageLimit, typeFilter).exceptionally(error -> {
+            plugin.getLogger().log(Level.WARNING,
+                    "Failed to read " + EzAuctionPlugin.DISPLAY_NAME + " transaction history for " + playerId + '.',
+                    error);
+            return AuctionHistoryPage.empty();
+        });
+    }
+
+    private CompletableFuture<List<AuctionTransactionHistoryEntry>> loadHistory(UUID playerId) {
+        if (playerId == null) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        PendingLoad pending;
+        synchronized (entriesByPlayer) {
+            CachedHistory cached = entriesByPlayer.get(playerId);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(List.copyOf(cached.entries));
+            }
+            pending = pendingLoads.get(playerId);
+            if (pending != null) {
+                return pending.result;
+            }
+            HistorySaveDispatcher dispatcher = historySaveDispatcher;
+            if (!storageReady || dispatcher == null) {
+                return CompletableFuture.completedFuture(List.of());
+            }
+            pending = new PendingLoad();
+            pendingLoads.put(playerId, pending);
+            PendingLoad started = pending;
+            dispatcher.loadPage(playerId, null, cachedEntriesPerPlayer, null)
+                    .whenComplete((loaded, error) -> completeLoad(playerId, started, loaded, error));
+        }
+        return pending.result;
+    }
+
+    /**
+     * Caches a loaded history, adding entries that were recorded while the load was running.
+     */
+    private void completeLoad(UUID playerId, PendingLoad pending, AuctionHistoryPage loaded, Throwable error) {
+        List<AuctionTransactionHistoryEntry> result;
+        synchronized (entriesByPlayer) {
+            if (pendingLoads.get(playerId) == pending) {
+                pendingLoads.remove(playerId);
+            }
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING,
+                        "Failed to load " + EzAuctionPlugin.DISPLAY_NAME + " transaction history for " + playerId + '.',
+                        error);
+                pending.result.complete(List.of());
+                return;
+            }
+            AuctionHistoryPage page = loaded != null ? loaded : AuctionHistoryPage.empty();
+            List<AuctionTransactionHistoryEntry> merged = new ArrayList<>(page.entries());
+            Set<String> known = new HashSet<>();
+            merged.forEach(entry -> known.add(entry.transactionId()));
+            for (AuctionTransactionHistoryEntry entry : pending.recorded) {
+                if (known.add(entry.transactionId())) {
+                    merged.add(entry);
+                }
+            }
+            merged.sort(AuctionHistoryPage.NEWEST_FIRST);
+            CachedHistory history = new CachedHistory(merged, !page.hasMore(), cachedEntriesPerPlayer);
+            entriesByPlayer.put(playerId, history);
+            result = List.copyOf(history.entries);
         }
-        dispatcher.enqueue(ownerId, history);
+        pending.result.complete(result);
+    }
+
+    private void clearCache() {
+        synchronized (entriesByPlayer) {
+            entriesByPlayer.clear();
+            pendingLoads.clear();
+        }
+    }
+
+    /**
+     * The newest entries of a player in {@link AuctionHistoryPage#NEWEST_FIRST} order.
+     * {@code complete} is {@code true} while the entries are the player's whole history.
+     */
+    private static final class CachedHistory {
+        private final Deque<AuctionTransactionHistoryEntry> entries;
+        private boolean complete;
+
+        private CachedHistory(List<AuctionTransactionHistoryEntry> newestFirst, boolean complete, int limit) {
+            this.entries = new ArrayDeque<>(newestFirst);
+            this.complete = complete;
+            trim(limit);
+        }
+
+        private void add(AuctionTransactionHistoryEntry entry, int limit) {
+            AuctionTransactionHistoryEntry newest = entries.peekFirst();
+            if (newest == null || AuctionHistoryPage.NEWEST_FIRST.compare(entry, newest) <= 0) {
+                entries.addFirst(entry);
+            } else {
+                List<AuctionTransactionHistoryEntry> sorted = new ArrayList<>(entries);
+                sorted.add(entry);
+                sorted.sort(AuctionHistoryPage.NEWEST_FIRST);
+                entries.clear();
+                entries.addAll(sorted);
+            }
+            trim(limit);
+        }
+
+        private void trim(int limit) {
+            while (entries.size() > limit) {
+                entries.removeLast();
+                complete = false;
+            }
+        }
+
+        /**
+         * Returns the requested page if the cached entries are enough to answer it, otherwise {@code null}.
+         */
+        private AuctionHistoryPage page(AuctionHistoryCursor cursor, int limit, AuctionTransactionType typeFilter) {
+            List<AuctionTransactionHistoryEntry> candidates = new ArrayList<>();
+            for (AuctionTransactionHistoryEntry entry : entries) {
+                if (AuctionHistoryPage.matches(entry, cursor, typeFilter)) {
+                    candidates.add(entry);
+                    if (candidates.size() > limit) {
+                        return AuctionHistoryPage.fromCandidates(candidates, limit);
+                    }
+                }
+            }
+            return complete ? new AuctionHistoryPage(candidates, null) : null;
+        }
+    }
+
+    private static final class PendingLoad {
+        private final CompletableFuture<List<AuctionTransactionHistoryEntry>> result = new CompletableFuture<>();
+        private final List<AuctionTransactionHistoryEntry> recorded = new ArrayList<>();
     }
 }
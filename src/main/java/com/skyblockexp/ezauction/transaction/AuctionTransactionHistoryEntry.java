@@ -1,11 +1,16 @@
 package com.skyblockexp.ezauction.transaction;
 
+import com.skyblockexp.ezauction.LazyItemStack;
 import java.util.Objects;
 import java.util.UUID;
 import org.bukkit.inventory.ItemStack;
 
 /**
  * Represents a single entry in a player's auction transaction history.
+ *
+ * <p>An entry is one player's view of an {@link AuctionTransactionRecord}. Both parties' entries
+ * carry the record's transaction id and share its {@link LazyItemStack}, so the item of a sale is
+ * held and serialized once.</p>
  */
 public record AuctionTransactionHistoryEntry(
         String transactionId,
@@ -14,7 +19,7 @@ public record AuctionTransactionHistoryEntry(
         String counterpartName,
         double price,
         long timestamp,
-        ItemStack item) {
+        LazyItemStack itemData) {
 
     public AuctionTransactionHistoryEntry {
         Objects.requireNonNull(transactionId, "transactionId");
@@ -22,13 +27,15 @@ public record AuctionTransactionHistoryEntry(
         if (price < 0) {
             price = 0.0D;
         }
-        if (item != null) {
-            item = item.clone();
-        }
+        itemData = itemData != null ? itemData : LazyItemStack.of(null);
+    }
+
+    public AuctionTransactionHistoryEntry(String transactionId, AuctionTransactionType type, UUID counterpartId,
+            String counterpartName, double price, long timestamp, ItemStack item) {
+        this(transactionId, type, counterpartId, counterpartName, price, timestamp, LazyItemStack.of(item));
     }
 
-    @Override
     public ItemStack item() {
-        return item != null ? item.clone() : null;
+        return itemData.get();
     }
 }
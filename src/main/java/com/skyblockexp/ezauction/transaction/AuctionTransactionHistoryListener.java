@@ -0,0 +1,31 @@
+package com.skyblockexp.ezauction.transaction;
+
+import java.util.Objects;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Loads a player's transaction history in the background when they join and evicts it from the
+ * cache when they leave.
+ */
+public class AuctionTransactionHistoryListener implements Listener {
+
+    private final AuctionTransactionHistory transactionHistory;
+
+    public AuctionTransactionHistoryListener(AuctionTransactionHistory transactionHistory) {
+        this.transactionHistory = Objects.requireNonNull(transactionHistory, "transactionHistory");
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        transactionHistory.preload(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        transactionHistory.evict(event.getPlayer().getUniqueId());
+    }
+}
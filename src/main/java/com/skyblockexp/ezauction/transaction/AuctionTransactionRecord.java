@@ -0,0 +1,67 @@
+package com.skyblockexp.ezauction.transaction;
+
+import com.skyblockexp.ezauction.LazyItemStack;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A completed sale between two players, recorded once for both parties.
+ *
+ * <p>The seller's {@link AuctionTransactionType#SELL} entry and the buyer's
+ * {@link AuctionTransactionType#BUY} entry are derived from the record. They share its
+ * transaction id and {@link LazyItemStack}, so a sale holds a single copy of the item in memory
+ * and storages can persist the item once and index it for both players.</p>
+ *
+ * @param transactionId id shared by both history entries
+ * @param sellerId      the selling player
+ * @param sellerName    the seller's name as shown to the buyer, may be {@code null}
+ * @param buyerId       the buying player
+ * @param buyerName     the buyer's name as shown to the seller, may be {@code null}
+ * @param price         the sale price
+ * @param timestamp     when the sale happened
+ * @param itemData      the item that changed hands
+ */
+public record AuctionTransactionRecord(
+        String transactionId,
+        UUID sellerId,
+        String sellerName,
+        UUID buyerId,
+        String buyerName,
+        double price,
+        long timestamp,
+        LazyItemStack itemData) {
+
+    public AuctionTransactionRecord {
+        Objects.requireNonNull(transactionId, "transactionId");
+        Objects.requireNonNull(sellerId, "sellerId");
+        Objects.requireNonNull(buyerId, "buyerId");
+        price = Math.max(0.0D, price);
+        timestamp = Math.max(0L, timestamp);
+        itemData = itemData != null ? itemData : LazyItemStack.of(null);
+    }
+
+    /**
+     * Creates a record with a new random transaction id.
+     */
+    public static AuctionTransactionRecord create(UUID sellerId, String sellerName, UUID buyerId, String buyerName,
+            double price, long timestamp, LazyItemStack itemData) {
+        return new AuctionTransactionRecord(UUID.randomUUID().toString(), sellerId, sellerName, buyerId, buyerName,
+                price, timestamp, itemData);
+    }
+
+    /**
+     * Returns the seller's history entry for this sale.
+     */
+    public AuctionTransactionHistoryEntry sellerEntry() {
+        return new AuctionTransactionHistoryEntry(transactionId, AuctionTransactionType.SELL, buyerId, buyerName,
+                price, timestamp, itemData);
+    }
+
+    /**
+     * Returns the buyer's history entry for this sale.
+     */
+    public AuctionTransactionHistoryEntry buyerEntry() {
+        return new AuctionTransactionHistoryEntry(transactionId, AuctionTransactionType.BUY, sellerId, sellerName,
+                price, timestamp, itemData);
+    }
+}
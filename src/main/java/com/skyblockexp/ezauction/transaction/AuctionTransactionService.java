@@ -139,6 +139,26 @@ public class AuctionTransactionService {
         }
     }
 
+    /**
+     * Withdraws a bid from the bidder, to be held until the bid is outbid or wins.
+     */
+    public AuctionOperationResult escrowBid(Player bidder, double amount) {
+        return withdrawBuyer(bidder, amount);
+    }
+
+    public void refundBid(UUID bidderId, double amount) {
+        double normalized = EconomyUtils.normalizeCurrency(amount);
+        if (economy == null || normalized <= 0.0D || bidderId == null) {
+            return;
+        }
+
+        OfflinePlayer bidder = plugin.getServer().getOfflinePlayer(bidderId);
+        EconomyResponse response = economy.depositPlayer(bidder, normalized);
+        if (!response.transactionSuccess()) {
+            plugin.getLogger().warning("Failed to refund auction bid: " + response.errorMessage);
+        }
+    }
+
     public AuctionOperationResult payOrderSeller(UUID sellerId, double amount) {
         double normalized = EconomyUtils.normalizeCurrency(amount);
         if (normalized <= 0.0D) {
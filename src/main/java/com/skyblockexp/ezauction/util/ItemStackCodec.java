@@ -0,0 +1,284 @@
+package com.skyblockexp.ezauction.util;
+
+import com.skyblockexp.ezauction.EzAuctionPlugin;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+
+/**
+ * Versioned binary codec for {@link ItemStack} storage.
+ *
+ * <p>Encoded items start with a three byte header ({@code magic}, {@code version}, {@code flags})
+ * followed by the item bytes. On Paper the item bytes come from {@code ItemStack#serializeAsBytes()};
+ * other servers fall back to a raw Bukkit object stream. Payloads above
+ * {@value #COMPRESSION_THRESHOLD} bytes are Deflate-compressed when that makes them smaller.</p>
+ *
+ * <p>Data without the header is treated as the legacy format: Base64 text of a Bukkit object
+ * stream, stored as ASCII bytes. Text-only stores (YAML) keep encoded items as
+ * {@value #TEXT_PREFIX}-prefixed Base64; legacy strings never contain a colon, so both formats
+ * can be read from the same field.</p>
+ */
+public final class ItemStackCodec {
+
+    public static final String TEXT_PREFIX = "ez1:";
+
+    private static final byte MAGIC = (byte) 0xE7;
+    private static final byte VERSION = 1;
+    private static final int FORMAT_MASK = 0x0F;
+    private static final int FORMAT_PLATFORM = 1;
+    private static final int FORMAT_OBJECT_STREAM = 2;
+    private static final int FLAG_DEFLATE = 0x10;
+    private static final int HEADER_LENGTH = 3;
+    private static final int COMPRESSION_THRESHOLD = 256;
+    private static final int MAX_INFLATED_LENGTH = 8 * 1024 * 1024;
+
+    private static volatile boolean platformBytes = detectPlatformBytes();
+
+    private ItemStackCodec() {
+    }
+
+    /**
+     * Encodes an item into the current binary format.
+     *
+     * @return the encoded bytes, or {@code null} if the item is {@code null} or cannot be encoded
+     */
+    public static byte[] encode(ItemStack item, Logger logger) {
+        if (item == null) {
+            return null;
+        }
+        try {
+            int format = FORMAT_OBJECT_STREAM;
+            byte[] payload = null;
+            if (platformBytes) {
+                try {
+                    payload = item.serializeAsBytes();
+                    format = FORMAT_PLATFORM;
+                } catch (LinkageError ex) {
+                    // Not available on this server implementation; use the object stream from now on.
+                    platformBytes = false;
+                } catch (RuntimeException ex) {
+                    // Rejected by the platform (e.g. air); fall back to the object stream for this item.
+                }
+            }
+            if (payload == null) {
+                payload = writeObjectStream(item);
+            }
+            return frame(format, payload);
+        } catch (IOException ex) {
+            if (logger != null) {
+                logger.log(Level.SEVERE,
+                        "Failed to encode ItemStack for " + EzAuctionPlugin.DISPLAY_NAME + " storage.", ex);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Decodes bytes produced by {@link #encode(ItemStack, Logger)} or legacy Base64 ASCII bytes.
+     *
+     * @return the item, or {@code null} if the data is empty or cannot be decoded
+     */
+    public static ItemStack decode(byte[] data, Logger logger) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        if (!isCompact(data)) {
+            return decodeLegacy(new String(data, StandardCharsets.US_ASCII), logger);
+        }
+        try {
+            if (data[1] != VERSION) {
+                throw new IOException("Unsupported item codec version " + data[1]);
+            }
+            int flags = data[2] & 0xFF;
+            byte[] payload = (flags & FLAG_DEFLATE) != 0
+                    ? inflate(data)
+                    : Arrays.copyOfRange(data, HEADER_LENGTH, data.length);
+            return switch (flags & FORMAT_MASK) {
+                case FORMAT_PLATFORM -> ItemStack.deserializeBytes(payload);
+                case FORMAT_OBJECT_STREAM -> readObjectStream(payload);
+                default -> throw new IOException("Unknown item codec format " + (flags & FORMAT_MASK));
+            };
+        } catch (IOException | ClassNotFoundException | DataFormatException | RuntimeException | LinkageError ex) {
+            if (logger != null) {
+                logger.log(Level.SEVERE,
+                        "Failed to decode ItemStack for " + EzAuctionPlugin.DISPLAY_NAME + " storage.", ex);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Encodes an item for text-only stores.
+     */
+    public static String encodeToText(ItemStack item, Logger logger) {
+        return toText(encode(item, logger));
+    }
+
+    /**
+     * Decodes a value written by {@link #encodeToText(ItemStack, Logger)} or a legacy Base64 string.
+     */
+    public static ItemStack decodeText(String text, Logger logger) {
+        return decode(fromText(text, logger), logger);
+    }
+
+    /**
+     * Converts encoded bytes to their text form; legacy bytes are returned unchanged as ASCII.
+     */
+    public static String toText(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (!isCompact(data)) {
+            return new String(data, StandardCharsets.US_ASCII);
+        }
+        return TEXT_PREFIX + Base64.getEncoder().encodeToString(data);
+    }
+
+    /**
+     * Converts a stored text value back to encoded bytes.
+     *
+     * @return the bytes, or {@code null} if the text is empty or malformed
+     */
+    public static byte[] fromText(String text, Logger logger) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        if (!text.startsWith(TEXT_PREFIX)) {
+            return text.getBytes(StandardCharsets.US_ASCII);
+        }
+        try {
+            return Base64.getDecoder().decode(text.substring(TEXT_PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            if (logger != null) {
+                logger.log(Level.WARNING,
+                        "Failed to decode item text for " + EzAuctionPlugin.DISPLAY_NAME + " storage.", ex);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the data uses the binary format rather than legacy Base64.
+     */
+    public static boolean isCompact(byte[] data) {
+        return data != null && data.length >= HEADER_LENGTH && data[0] == MAGIC;
+    }
+
+    private static byte[] frame(int format, byte[] payload) {
+        int flags = format;
+        byte[] body = payload;
+        if (payload.length > COMPRESSION_THRESHOLD) {
+            byte[] deflated = deflate(payload);
+            if (deflated.length < payload.length) {
+                flags |= FLAG_DEFLATE;
+                body = deflated;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + body.length);
+        buffer.put(MAGIC).put(VERSION).put((byte) flags).put(body);
+        return buffer.array();
+    }
+
+    private static byte[] deflate(byte[] payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(payload.length / 2 + 8);
+            output.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(payload.length).array());
+            byte[] chunk = new byte[1024];
+            while (!deflater.finished()) {
+                output.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) throws IOException, DataFormatException {
+        ByteBuffer buffer = ByteBuffer.wrap(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+        int length = buffer.getInt();
+        if (length < 0 || length > MAX_INFLATED_LENGTH) {
+            throw new IOException("Invalid inflated item length " + length);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, buffer.position(), buffer.remaining());
+            byte[] payload = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int count = inflater.inflate(payload, read, length - read);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += count;
+            }
+            if (read != length) {
+                throw new IOException("Truncated compressed item data");
+            }
+            return payload;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] writeObjectStream(ItemStack item) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BukkitObjectOutputStream output = new BukkitObjectOutputStream(bytes)) {
+            output.writeObject(item);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ItemStack readObjectStream(byte[] payload) throws IOException, ClassNotFoundException {
+        try (BukkitObjectInputStream input = new BukkitObjectInputStream(new ByteArrayInputStream(payload))) {
+            Object object = input.readObject();
+            return object instanceof ItemStack stack ? stack : null;
+        }
+    }
+
+    private static ItemStack decodeLegacy(String data, Logger logger) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getDecoder().decode(data);
+        } catch (IllegalArgumentException ex) {
+            if (logger != null) {
+                logger.log(Level.WARNING,
+                        "Failed to decode base64 ItemStack data for " + EzAuctionPlugin.DISPLAY_NAME + " storage.", ex);
+            }
+            return null;
+        }
+        try {
+            return readObjectStream(bytes);
+        } catch (ClassNotFoundException | IOException ex) {
+            if (logger != null) {
+                logger.log(Level.SEVERE,
+                        "Failed to deserialize ItemStack for " + EzAuctionPlugin.DISPLAY_NAME + " storage.", ex);
+            }
+            return null;
+        }
+    }
+
+    private static boolean detectPlatformBytes() {
+        try {
+            ItemStack.class.getMethod("serializeAsBytes");
+            ItemStack.class.getMethod("deserializeBytes", byte[].class);
+            return true;
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.skyblockexp.ezauction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.skyblockexp.ezauction.bid.AuctionBidBook;
+import com.skyblockexp.ezauction.bid.BidEscrowLedger;
+import com.skyblockexp.ezauction.claim.AuctionClaimService;
+import com.skyblockexp.ezauction.config.AuctionBiddingRules;
+import com.skyblockexp.ezauction.config.AuctionListingRules;
+import com.skyblockexp.ezauction.history.AuctionTransactionHistoryService;
+import com.skyblockexp.ezauction.index.IndexedAuctionMap;
+import com.skyblockexp.ezauction.notification.AuctionNotificationService;
+import com.skyblockexp.ezauction.persistence.AuctionPersistenceManager;
+import com.skyblockexp.ezauction.service.AuctionExpiryService;
+import com.skyblockexp.ezauction.service.AuctionListingService;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionService;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+class AuctionBiddingTest {
+
+    // Starting bid 50%, raise by at least 5, extend bids in the last 30 s to 60 s from the bid.
+    private static final AuctionBiddingRules BIDDING = new AuctionBiddingRules(50.0D, 5.0D, 0.0D,
+            Duration.ofSeconds(30), Duration.ofSeconds(60));
+
+    private ServerMock server;
+    private AuctionTransactionService transactionService;
+    private AuctionClaimService claimService;
+    private AuctionPersistenceManager persistenceManager;
+    private Map<String, AuctionListing> listings;
+    private Map<UUID, List<ItemStack>> pendingReturns;
+    private BidEscrowLedger escrowLedger;
+    private AuctionListingService listingService;
+    private AuctionExpiryService expiryService;
+
+    @BeforeEach
+    void setUp() {
+        server = MockBukkit.getOrCreateMock();
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("AuctionBiddingTest"));
+
+        transactionService = mock(AuctionTransactionService.class);
+        when(transactionService.escrowBid(any(), anyDouble())).thenReturn(AuctionOperationResult.success(""));
+        when(transactionService.creditSeller(any(), anyDouble())).thenReturn(AuctionOperationResult.success(""));
+        when(transactionService.formatCurrency(anyDouble())).thenAnswer(inv -> String.valueOf(inv.<Double>getArgument(0)));
+        claimService = mock(AuctionClaimService.class);
+        persistenceManager = mock(AuctionPersistenceManager.class);
+        AuctionNotificationService notificationService = mock(AuctionNotificationService.class);
+        AuctionTransactionHistoryService historyService = mock(AuctionTransactionHistoryService.class);
+
+        listings = IndexedAuctionMap.listings();
+        Map<String, AuctionOrder> orders = IndexedAuctionMap.orders();
+        pendingReturns = new ConcurrentHashMap<>();
+        AuctionBidBook bidBook = new AuctionBidBook();
+        escrowLedger = BidEscrowLedger.inMemory();
+        AuctionListingRules rules = new AuctionListingRules(Duration.ofHours(24), Duration.ofHours(72), 0.0D, 0.0D,
+                false, BIDDING);
+        listingService = new AuctionListingService(transactionService, null,
+                AuctionManagerTestUtils.mockAuctionConfiguration(), rules, null, persistenceManager, notificationService,
+                claimService, historyService, pendingReturns, listings, orders, null, bidBook, escrowLedger);
+        expiryService = new AuctionExpiryService(plugin, listings, orders, persistenceManager, notificationService,
+                historyService, claimService, transactionService, pendingReturns, bidBook, escrowLedger);
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            MockBukkit.unmock();
+        } catch (Throwable ignored) {
+        }
+    }
+
+    private AuctionListing list(String id, UUID sellerId, double price, long endsIn) {
+        AuctionListing listing = new AuctionListing(id, sellerId, price, System.currentTimeMillis() + endsIn,
+                new ItemStack(Material.DIAMOND), 0.0D, null);
+        listings.put(id, listing);
+        return listing;
+    }
+
+    @Test
+    void firstBidMustReachTheStartingBid() {
+        PlayerMock bidder = server.addPlayer("bidder");
+        list("l1", UUID.randomUUID(), 100.0D, Duration.ofHours(1).toMillis());
+
+        assertFalse(listingService.placeBid(bidder, "l1", 49.0D).success());
+        verify(transactionService, never()).escrowBid(any(), anyDouble());
+
+        assertTrue(listingService.placeBid(bidder, "l1", 50.0D).success());
+        verify(transactionService).escrowBid(bidder, 50.0D);
+        assertEquals(50.0D, escrowLedger.held("l1", bidder.getUniqueId()));
+        assertEquals(50.0D, listingService.getBidState("l1").highestBid().amount());
+    }
+
+    @Test
+    void outbidPlayerIsRefundedAndLowRaisesAreRejected() {
+        PlayerMock first = server.addPlayer("first");
+        PlayerMock second = server.addPlayer("second");
+        list("l1", UUID.randomUUID(), 100.0D, Duration.ofHours(1).toMillis());
+        assertTrue(listingService.placeBid(first, "l1", 60.0D).success());
+
+        assertFalse(listingService.placeBid(second, "l1", 64.0D).success(), "A raise below the increment is too low");
+        assertTrue(listingService.placeBid(second, "l1", 65.0D).success());
+
+        verify(transactionService).refundBid(first.getUniqueId(), 60.0D);
+        assertEquals(0.0D, escrowLedger.held("l1", first.getUniqueId()));
+        assertEquals(65.0D, escrowLedger.held("l1", second.getUniqueId()));
+        assertEquals(2, listingService.getBidState("l1").bidCount());
+    }
+
+    @Test
+    void lateBidExtendsTheListing() {
+        PlayerMock bidder = server.addPlayer("sniper");
+        AuctionListing listing = list("l1", UUID.randomUUID(), 100.0D, 10_000L);
+        long before = System.currentTimeMillis();
+
+        assertTrue(listingService.placeBid(bidder, "l1", 50.0D).success());
+
+        long extendedEnd = listings.get("l1").expiryEpochMillis();
+        assertTrue(extendedEnd >= before + 60_000L, "The listing should end 60 s after the bid");
+        assertEquals(extendedEnd, listingService.getBidState("l1").endsAtMillis());
+        verify(persistenceManager).saveListing(listings.get("l1"));
+        assertNotEquals(listing.expiryEpochMillis(), extendedEnd);
+    }
+
+    @Test
+    void buyNowIsRefusedOnceABidExists() {
+        PlayerMock bidder = server.addPlayer("bidder");
+        PlayerMock buyer = server.addPlayer("buyer");
+        list("l1", UUID.randomUUID(), 100.0D, Duration.ofHours(1).toMillis());
+        when(claimService.hasInventorySpace(any(), any())).thenReturn(true);
+        assertTrue(listingService.placeBid(bidder, "l1", 50.0D).success());
+
+        AuctionOperationResult result = listingService.purchaseListing(buyer, "l1");
+
+        assertFalse(result.success());
+        verify(transactionService, never()).withdrawBuyer(eq(buyer), anyDouble());
+        assertTrue(listings.get("l1").lifecycle().isActive());
+    }
+
+    @Test
+    void failedPurchaseReopensBidding() {
+        PlayerMock bidder = server.addPlayer("bidder");
+        PlayerMock buyer = server.addPlayer("buyer");
+        list("l1", UUID.randomUUID(), 100.0D, Duration.ofHours(1).toMillis());
+        when(claimService.hasInventorySpace(any(), any())).thenReturn(true);
+        when(transactionService.withdrawBuyer(buyer, 100.0D)).thenReturn(AuctionOperationResult.failure("broke"));
+
+        assertFalse(listingService.purchaseListing(buyer, "l1").success());
+
+        assertTrue(listingService.placeBid(bidder, "l1", 50.0D).success());
+    }
+
+    @Test
+    void endedListingIsSoldToTheHighestBidder() {
+        PlayerMock first = server.addPlayer("first");
+        PlayerMock second = server.addPlayer("second");
+        UUID sellerId = UUID.randomUUID();
+        AuctionListing listing = list("l1", sellerId, 100.0D, Duration.ofHours(1).toMillis());
+        assertTrue(listingService.placeBid(first, "l1", 50.0D).success());
+        assertTrue(listingService.placeBid(second, "l1", 70.0D).success());
+        listings.put("l1", listing.withExpiry(System.currentTimeMillis() - 1L));
+
+        expiryService.purgeExpiredEntries();
+
+        assertFalse(listings.containsKey("l1"));
+        assertEquals(AuctionListingState.SOLD, listing.lifecycle().state());
+        verify(transactionService).creditSeller(sellerId, 70.0D);
+        verify(claimService).storeReturnItem(eq(second.getUniqueId()), any(), eq(pendingReturns));
+        verify(transactionService, never()).refundBid(second.getUniqueId(), 70.0D);
+        assertEquals(0.0D, escrowLedger.held("l1", second.getUniqueId()));
+    }
+
+    @Test
+    void shutdownRefundsOpenBids() {
+        PlayerMock bidder = server.addPlayer("bidder");
+        list("l1", UUID.randomUUID(), 100.0D, Duration.ofHours(1).toMillis());
+        assertTrue(listingService.placeBid(bidder, "l1", 55.0D).success());
+
+        expiryService.disable();
+
+        verify(transactionService).refundBid(bidder.getUniqueId(), 55.0D);
+        assertEquals(0.0D, escrowLedger.held("l1", bidder.getUniqueId()));
+    }
+}
@@ -0,0 +1,175 @@
+package com.skyblockexp.ezauction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.skyblockexp.ezauction.bid.AuctionBidBook;
+import com.skyblockexp.ezauction.bid.BidEscrowLedger;
+import com.skyblockexp.ezauction.claim.AuctionClaimService;
+import com.skyblockexp.ezauction.config.AuctionBiddingRules;
+import com.skyblockexp.ezauction.config.AuctionListingRules;
+import com.skyblockexp.ezauction.history.AuctionTransactionHistoryService;
+import com.skyblockexp.ezauction.index.IndexedAuctionMap;
+import com.skyblockexp.ezauction.notification.AuctionNotificationService;
+import com.skyblockexp.ezauction.persistence.AuctionPersistenceManager;
+import com.skyblockexp.ezauction.service.AuctionListingService;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionService;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+/**
+ * Verifies that new listings are sold to a matching buy order when {@code auto-match-orders} is on.
+ */
+class AuctionOrderMatchingTest {
+
+    private ServerMock server;
+    private AuctionTransactionService transactionService;
+    private AuctionClaimService claimService;
+    private AuctionPersistenceManager persistenceManager;
+    private Map<String, AuctionListing> listings;
+    private Map<String, AuctionOrder> orders;
+    private Map<UUID, List<ItemStack>> pendingReturns;
+    private AuctionListingService listingService;
+    private PlayerMock seller;
+
+    @BeforeEach
+    void setUp() {
+        server = MockBukkit.getOrCreateMock();
+        transactionService = mock(AuctionTransactionService.class);
+        when(transactionService.payOrderSeller(any(), anyDouble())).thenReturn(AuctionOperationResult.success(""));
+        when(transactionService.formatCurrency(anyDouble())).thenAnswer(inv -> String.valueOf(inv.<Double>getArgument(0)));
+        claimService = mock(AuctionClaimService.class);
+        persistenceManager = mock(AuctionPersistenceManager.class);
+
+        listings = IndexedAuctionMap.listings();
+        orders = IndexedAuctionMap.orders();
+        pendingReturns = new ConcurrentHashMap<>();
+        AuctionListingRules rules = new AuctionListingRules(Duration.ofHours(24), Duration.ofHours(72), 0.0D, 0.0D,
+                true, AuctionBiddingRules.defaults());
+        listingService = new AuctionListingService(transactionService, null,
+                AuctionManagerTestUtils.mockAuctionConfiguration(), rules, null, persistenceManager,
+                mock(AuctionNotificationService.class), claimService, mock(AuctionTransactionHistoryService.class),
+                pendingReturns, listings, orders, null, new AuctionBidBook(), BidEscrowLedger.inMemory());
+
+        seller = server.addPlayer("seller");
+        seller.getInventory().addItem(new ItemStack(Material.DIAMOND, 16));
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            MockBukkit.unmock();
+        } catch (Throwable ignored) {
+        }
+    }
+
+    private AuctionOrder order(String id, Material material, int amount, double offered, double reserved) {
+        AuctionOrder order = new AuctionOrder(id, UUID.randomUUID(), offered,
+                System.currentTimeMillis() + Duration.ofHours(1).toMillis(), new ItemStack(material, amount), reserved);
+        orders.put(id, order);
+        return order;
+    }
+
+    private AuctionOperationResult sell(int amount, double price) {
+        return listingService.createListing(seller, new ItemStack(Material.DIAMOND, amount), price, Duration.ofHours(1));
+    }
+
+    @Test
+    void orderOfferingTheAskingPriceBuysTheItemAtItsOffer() {
+        AuctionOrder order = order("o1", Material.DIAMOND, 4, 100.0D, 110.0D);
+
+        AuctionOperationResult result = sell(4, 80.0D);
+
+        assertTrue(result.success(), result.message());
+        assertTrue(listings.isEmpty(), "A filled listing is never put on the market");
+        assertFalse(orders.containsKey("o1"));
+        assertFalse(seller.getInventory().containsAtLeast(new ItemStack(Material.DIAMOND), 13));
+        verify(transactionService).payOrderSeller(seller.getUniqueId(), 100.0D);
+        verify(transactionService).refundOrderBuyer(order.buyerId(), 10.0D);
+        verify(claimService).deliverOrderItem(eq(order), eq(new ItemStack(Material.DIAMOND, 4)), eq(pendingReturns));
+        verify(persistenceManager).applyChanges(any(AuctionStorageChangeSet.class));
+    }
+
+    @Test
+    void highestOfferIsFilledFirst() {
+        order("low", Material.DIAMOND, 4, 90.0D, 90.0D);
+        order("high", Material.DIAMOND, 4, 120.0D, 120.0D);
+
+        assertTrue(sell(4, 80.0D).success());
+
+        assertFalse(orders.containsKey("high"));
+        assertTrue(orders.containsKey("low"));
+        verify(transactionService).payOrderSeller(seller.getUniqueId(), 120.0D);
+        verify(transactionService, never()).refundOrderBuyer(any(), anyDouble());
+    }
+
+    @Test
+    void orderBelowTheAskingPriceIsNotFilled() {
+        order("o1", Material.DIAMOND, 4, 79.99D, 79.99D);
+
+        assertTrue(sell(4, 80.0D).success());
+
+        assertTrue(orders.containsKey("o1"));
+        assertEquals(1, listings.size(), "The item is listed instead");
+        verify(transactionService, never()).payOrderSeller(any(), anyDouble());
+    }
+
+    @Test
+    void orderForADifferentQuantityIsNotPartiallyFilled() {
+        // Same price per item, but orders are only filled with the exact requested quantity
+        order("more", Material.DIAMOND, 8, 200.0D, 200.0D);
+        order("fewer", Material.DIAMOND, 2, 50.0D, 50.0D);
+
+        assertTrue(sell(4, 80.0D).success());
+
+        assertEquals(2, orders.size());
+        assertEquals(4, listings.values().iterator().next().item().getAmount());
+        verify(transactionService, never()).payOrderSeller(any(), anyDouble());
+    }
+
+    @Test
+    void listingWithoutAMatchingOrderIsListed() {
+        order("other-item", Material.EMERALD, 4, 500.0D, 500.0D);
+        AuctionOrder own = new AuctionOrder("own", seller.getUniqueId(), 500.0D,
+                System.currentTimeMillis() + Duration.ofHours(1).toMillis(), new ItemStack(Material.DIAMOND, 4), 500.0D);
+        orders.put(own.id(), own);
+
+        assertTrue(sell(4, 80.0D).success());
+
+        assertEquals(2, orders.size(), "Orders for other items and the seller's own orders are skipped");
+        assertEquals(1, listings.size());
+        verify(claimService, never()).deliverOrderItem(any(), any(), any());
+    }
+
+    @Test
+    void failedPayoutRestoresTheOrderAndTheItem() {
+        AuctionOrder order = order("o1", Material.DIAMOND, 4, 100.0D, 110.0D);
+        when(transactionService.payOrderSeller(any(), anyDouble())).thenReturn(AuctionOperationResult.failure("down"));
+
+        assertFalse(sell(4, 80.0D).success());
+
+        assertSame(order, orders.get("o1"));
+        assertTrue(seller.getInventory().containsAtLeast(new ItemStack(Material.DIAMOND), 16));
+        assertTrue(listings.isEmpty());
+        verify(transactionService, never()).refundOrderBuyer(any(), anyDouble());
+        verify(claimService, never()).deliverOrderItem(any(), any(), any());
+    }
+}
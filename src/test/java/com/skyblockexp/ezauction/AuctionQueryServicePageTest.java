@@ -0,0 +1,82 @@
+package com.skyblockexp.ezauction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.skyblockexp.ezauction.gui.ListingSort;
+import com.skyblockexp.ezauction.index.IndexedAuctionMap;
+import com.skyblockexp.ezauction.service.AuctionQueryService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class AuctionQueryServicePageTest {
+
+    private static AuctionListing listing(String id, UUID sellerId, long expiry) {
+        return listing(id, sellerId, 10.0D, expiry);
+    }
+
+    private static AuctionListing listing(String id, UUID sellerId, double price, long expiry) {
+        return new AuctionListing(id, sellerId, price, expiry, (LazyItemStack) null, 0.0D, null);
+    }
+
+    private static List<String> ids(AuctionPage<AuctionListing> page) {
+        return page.entries().stream().map(AuctionListing::id).toList();
+    }
+
+    @Test
+    void pagesAreSlicesOfTheSortedListings() {
+        IndexedAuctionMap<AuctionListing> listings = IndexedAuctionMap.listings();
+        UUID seller = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        for (int index = 0; index < 5; index++) {
+            listings.put("l" + index, listing("l" + index, index % 2 == 0 ? seller : other, now + 60_000L * (index + 1)));
+        }
+        AuctionQueryService queryService = new AuctionQueryService(listings, new HashMap<>(), null, null);
+
+        AuctionPage<AuctionListing> page = queryService.pageListings(null, null, 2, 2);
+        assertEquals(List.of("l2", "l3"), ids(page));
+        assertEquals(5, page.totalCount());
+        assertTrue(page.hasPrevious());
+        assertTrue(page.hasNext());
+
+        AuctionPage<AuctionListing> past = queryService.pageListings(null, null, 40, 2);
+        assertEquals(4, past.offset(), "Offsets past the end return the last page");
+        assertEquals(List.of("l4"), ids(past));
+        assertFalse(past.hasNext());
+
+        listings.remove("l0");
+        assertEquals(List.of("l1", "l2"), ids(queryService.pageListings(null, null, 0, 2)),
+                "A change to the listings rebuilds the shared view");
+
+        AuctionPage<AuctionListing> own = queryService.pageListings(seller, 0, 10);
+        assertEquals(List.of("l2", "l4"), ids(own));
+        assertEquals(2, own.totalCount());
+    }
+
+    @Test
+    void priceSortsOrderEqualPricesLikeTheirComparator() {
+        IndexedAuctionMap<AuctionListing> listings = IndexedAuctionMap.listings();
+        UUID seller = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        // Ids run against expiry, so an id tie-break would give the opposite order
+        listings.put("a", listing("a", seller, 5.0D, now + 300_000L));
+        listings.put("b", listing("b", seller, 5.0D, now + 200_000L));
+        listings.put("c", listing("c", seller, 5.0D, now + 100_000L));
+        listings.put("d", listing("d", seller, 1.0D, now + 400_000L));
+        AuctionQueryService queryService = new AuctionQueryService(listings, new HashMap<>(), null, null);
+
+        assertEquals(List.of("d", "c", "b", "a"),
+                ids(queryService.pageListings(ListingSort.PRICE_LOW_HIGH, null, 0, 10)));
+        assertEquals(List.of("c", "b", "a", "d"),
+                ids(queryService.pageListings(ListingSort.PRICE_HIGH_LOW, null, 0, 10)));
+
+        List<AuctionListing> expected = new ArrayList<>(listings.values());
+        ListingSort.PRICE_HIGH_LOW.sort(expected);
+        assertEquals(expected, queryService.sortedListings(ListingSort.PRICE_HIGH_LOW));
+    }
+}
@@ -0,0 +1,113 @@
+package com.skyblockexp.ezauction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.skyblockexp.ezauction.storage.AuctionHistoryStorage;
+import com.skyblockexp.ezauction.transaction.AuctionHistoryPage;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionHistory;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionRecord;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AuctionTransactionHistoryCacheTest {
+
+    private AuctionHistoryStorage storage;
+    private AuctionTransactionHistory history;
+
+    @BeforeEach
+    void setUp() {
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("AuctionTransactionHistoryCacheTest"));
+        storage = mock(AuctionHistoryStorage.class);
+        when(storage.initialize()).thenReturn(true);
+        when(storage.loadHistoryPage(any(), any(), anyInt(), any())).thenReturn(AuctionHistoryPage.empty());
+        // Two entries per player, two players in the cache
+        history = new AuctionTransactionHistory(plugin, storage, 2, 2);
+        history.enable();
+    }
+
+    @AfterEach
+    void tearDown() {
+        history.disable();
+    }
+
+    private List<AuctionTransactionHistoryEntry> load(UUID playerId) throws Exception {
+        return history.getHistoryAsync(playerId).get(5, TimeUnit.SECONDS);
+    }
+
+    private static AuctionTransactionHistoryEntry entry(long timestamp) {
+        return new AuctionTransactionHistoryEntry(UUID.randomUUID().toString(), AuctionTransactionType.SELL,
+                UUID.randomUUID(), "Buyer", 10.0D, timestamp, (LazyItemStack) null);
+    }
+
+    @Test
+    void cachedHistoryIsNotReadAgain() throws Exception {
+        UUID playerId = UUID.randomUUID();
+
+        load(playerId);
+        load(playerId);
+
+        verify(storage, times(1)).loadHistoryPage(eq(playerId), any(), anyInt(), any());
+    }
+
+    @Test
+    void leastRecentlyUsedPlayerIsEvictedWhenTheCacheIsFull() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        load(first);
+        load(second);
+        load(first);
+
+        load(third);
+        load(first);
+        load(second);
+
+        verify(storage, times(1)).loadHistoryPage(eq(first), any(), anyInt(), any());
+        verify(storage, times(2)).loadHistoryPage(eq(second), any(), anyInt(), any());
+    }
+
+    @Test
+    void evictedPlayerIsLoadedAgain() throws Exception {
+        UUID playerId = UUID.randomUUID();
+        load(playerId);
+
+        history.evict(playerId);
+        load(playerId);
+
+        verify(storage, times(2)).loadHistoryPage(eq(playerId), any(), anyInt(), any());
+    }
+
+    @Test
+    void cachedHistoryKeepsOnlyTheNewestEntries() throws Exception {
+        UUID playerId = UUID.randomUUID();
+        AuctionTransactionHistoryEntry oldest = entry(1_000L);
+        AuctionTransactionHistoryEntry middle = entry(2_000L);
+        when(storage.loadHistoryPage(eq(playerId), any(), anyInt(), any()))
+                .thenReturn(new AuctionHistoryPage(List.of(middle, oldest), null));
+        assertEquals(List.of(middle, oldest), load(playerId));
+
+        history.recordSale(AuctionTransactionRecord.create(playerId, "Seller", UUID.randomUUID(), "Buyer", 10.0D,
+                3_000L, null));
+
+        List<AuctionTransactionHistoryEntry> cached = load(playerId);
+        assertEquals(2, cached.size());
+        assertEquals(3_000L, cached.get(0).timestamp());
+        assertEquals(middle, cached.get(1));
+    }
+}
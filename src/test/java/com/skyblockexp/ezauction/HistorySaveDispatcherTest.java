@@ -0,0 +1,39 @@
+package com.skyblockexp.ezauction;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.skyblockexp.ezauction.storage.AuctionHistoryStorage;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.Test;
+
+class HistorySaveDispatcherTest {
+
+    @Test
+    void failedAppendsAreRetriedWithBackoffInsteadOfDropped() {
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("HistorySaveDispatcherTest"));
+        AuctionHistoryStorage storage = mock(AuctionHistoryStorage.class);
+        doThrow(new IllegalStateException("database unavailable"))
+                .doThrow(new IllegalStateException("database unavailable"))
+                .doNothing()
+                .when(storage).appendPlayerHistory(any(), anyList());
+        UUID playerId = UUID.randomUUID();
+        AuctionTransactionHistoryEntry entry = new AuctionTransactionHistoryEntry(UUID.randomUUID().toString(),
+                AuctionTransactionType.SELL, UUID.randomUUID(), "Buyer", 10.0D, System.currentTimeMillis(),
+                (LazyItemStack) null);
+
+        try (HistorySaveDispatcher dispatcher = new HistorySaveDispatcher(plugin, storage)) {
+            dispatcher.enqueueAppend(playerId, entry);
+
+            // Two failures back off 500 ms and 1 s before the third attempt
+            verify(storage, after(300).times(1)).appendPlayerHistory(any(), anyList());
+            verify(storage, timeout(5_000).times(3)).appendPlayerHistory(playerId, List.of(entry));
+        }
+    }
+}
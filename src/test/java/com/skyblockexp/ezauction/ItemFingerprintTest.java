@@ -0,0 +1,91 @@
+package com.skyblockexp.ezauction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+class ItemFingerprintTest {
+
+    @BeforeEach
+    void setup() {
+        MockBukkit.getOrCreateMock();
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            MockBukkit.unmock();
+        } catch (Throwable ignored) {
+            // ignore if already unmocked by a global extension
+        }
+    }
+
+    private static ItemStack named(Material material, int amount, String name) {
+        ItemStack item = new ItemStack(material, amount);
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName(name);
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    @Test
+    void similarItemsWithDifferentAmountsShareAFingerprint() {
+        ItemStack single = named(Material.DIAMOND_SWORD, 1, "Blade");
+        single.addUnsafeEnchantment(Enchantment.SHARPNESS, 3);
+        ItemStack stack = single.clone();
+        stack.setAmount(16);
+
+        assertTrue(single.isSimilar(stack));
+        assertEquals(ItemFingerprint.of(single), ItemFingerprint.of(stack));
+        assertEquals(ItemFingerprint.of(new ItemStack(Material.DIRT, 1)),
+                ItemFingerprint.of(new ItemStack(Material.DIRT, 64)));
+    }
+
+    @Test
+    void differentMetadataGivesDifferentFingerprints() {
+        ItemFingerprint plain = ItemFingerprint.of(new ItemStack(Material.DIAMOND_SWORD));
+        ItemFingerprint blade = ItemFingerprint.of(named(Material.DIAMOND_SWORD, 1, "Blade"));
+        ItemFingerprint edge = ItemFingerprint.of(named(Material.DIAMOND_SWORD, 1, "Edge"));
+
+        assertNotEquals(plain, blade);
+        assertNotEquals(blade, edge);
+        assertNotEquals(blade, ItemFingerprint.of(named(Material.IRON_SWORD, 1, "Blade")));
+
+        ItemStack tagged = new ItemStack(Material.DIAMOND_SWORD);
+        ItemMeta meta = tagged.getItemMeta();
+        meta.getPersistentDataContainer().set(new NamespacedKey("ezauction", "origin"), PersistentDataType.STRING, "crate");
+        tagged.setItemMeta(meta);
+        assertNotEquals(plain, ItemFingerprint.of(tagged));
+    }
+
+    @Test
+    void differentEnchantmentsGiveDifferentFingerprints() {
+        ItemStack sharp = new ItemStack(Material.DIAMOND_SWORD);
+        sharp.addUnsafeEnchantment(Enchantment.SHARPNESS, 3);
+        ItemStack sharper = new ItemStack(Material.DIAMOND_SWORD);
+        sharper.addUnsafeEnchantment(Enchantment.SHARPNESS, 4);
+        ItemStack smite = new ItemStack(Material.DIAMOND_SWORD);
+        smite.addUnsafeEnchantment(Enchantment.SMITE, 3);
+
+        assertNotEquals(ItemFingerprint.of(new ItemStack(Material.DIAMOND_SWORD)), ItemFingerprint.of(sharp));
+        assertNotEquals(ItemFingerprint.of(sharp), ItemFingerprint.of(sharper));
+        assertNotEquals(ItemFingerprint.of(sharp), ItemFingerprint.of(smite));
+    }
+
+    @Test
+    void missingAndAirItemsHaveNoFingerprint() {
+        assertSame(ItemFingerprint.NONE, ItemFingerprint.of(null));
+        assertSame(ItemFingerprint.NONE, ItemFingerprint.of(new ItemStack(Material.AIR)));
+        assertTrue(ItemFingerprint.NONE.isEmpty());
+        assertFalse(ItemFingerprint.of(new ItemStack(Material.STONE)).isEmpty());
+    }
+}
@@ -0,0 +1,44 @@
+package com.skyblockexp.ezauction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ListingLifecycleTest {
+
+    private final AuctionListing listing = new AuctionListing("listing-1", UUID.randomUUID(), 100.0D,
+            System.currentTimeMillis() + 60_000L, (LazyItemStack) null, 0.0D, null);
+
+    @Test
+    void onlyOneReservationWins() {
+        assertTrue(listing.lifecycle().reserve());
+        assertFalse(listing.lifecycle().reserve(), "A reserved listing must not be reserved again");
+        assertTrue(listing.lifecycle().complete(AuctionListingState.SOLD));
+
+        assertEquals(AuctionListingState.SOLD, listing.lifecycle().state());
+        assertFalse(listing.lifecycle().reserve(), "A sold listing must stay sold");
+        assertFalse(listing.lifecycle().complete(AuctionListingState.CANCELLED));
+    }
+
+    @Test
+    void releasedListingCanBeReservedAgain() {
+        assertTrue(listing.lifecycle().reserve());
+        assertTrue(listing.lifecycle().release());
+        assertTrue(listing.lifecycle().isActive());
+        assertTrue(listing.lifecycle().reserve());
+        assertThrows(IllegalArgumentException.class, () -> listing.lifecycle().complete(AuctionListingState.ACTIVE));
+    }
+
+    @Test
+    void copiesShareTheLifecycleButNotEquality() {
+        AuctionListing extended = listing.withExpiry(listing.expiryEpochMillis() + 30_000L);
+        assertTrue(extended.lifecycle().reserve());
+        assertFalse(listing.lifecycle().reserve(), "An extended copy is the same listing");
+
+        AuctionListing loaded = new AuctionListing(listing.id(), listing.sellerId(), listing.price(),
+                listing.expiryEpochMillis(), (LazyItemStack) null, 0.0D, null);
+        assertEquals(listing, loaded, "The lifecycle must not take part in equality");
+        assertEquals(listing.hashCode(), loaded.hashCode());
+    }
+}
@@ -0,0 +1,65 @@
+package com.skyblockexp.ezauction.bid;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BidEscrowLedgerTest {
+
+    private static final Logger LOGGER = Logger.getLogger("BidEscrowLedgerTest");
+
+    @TempDir
+    Path dataFolder;
+
+    @Test
+    void holdsLeftByAnUncleanStopAreRecoveredOnce() {
+        File file = dataFolder.resolve("bid-escrow.yml").toFile();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+
+        BidEscrowLedger crashed = new BidEscrowLedger(file, LOGGER);
+        crashed.hold("listing-1", alice, 10.0D);
+        crashed.hold("listing-1", bob, 12.0D);
+        crashed.release("listing-1", alice, 10.0D);
+        crashed.hold("listing-2", alice, 5.0D);
+        crashed.hold("listing-2", alice, 7.5D);
+        assertEquals(12.5D, crashed.held("listing-2", alice), 1e-9);
+        // Stands in for the background writes that ran before the crash.
+        crashed.close();
+
+        List<BidEscrowLedger.Hold> refunded = new ArrayList<>();
+        new BidEscrowLedger(file, LOGGER).recover(refunded::add);
+        assertEquals(2, refunded.size());
+        assertTrue(refunded.contains(new BidEscrowLedger.Hold("listing-1", bob, 12.0D)));
+        assertTrue(refunded.contains(new BidEscrowLedger.Hold("listing-2", alice, 12.5D)));
+
+        List<BidEscrowLedger.Hold> again = new ArrayList<>();
+        new BidEscrowLedger(file, LOGGER).recover(again::add);
+        assertTrue(again.isEmpty(), "Recovered holds must not be refunded twice");
+    }
+
+    @Test
+    void releasingEveryHoldLeavesNothingToRecover() {
+        File file = dataFolder.resolve("bid-escrow.yml").toFile();
+        UUID bidder = UUID.randomUUID();
+
+        BidEscrowLedger ledger = new BidEscrowLedger(file, LOGGER);
+        ledger.hold("listing-1", bidder, 0.1D);
+        ledger.hold("listing-1", bidder, 0.2D);
+        ledger.release("listing-1", bidder, 0.1D);
+        ledger.release("listing-1", bidder, 0.2D);
+        assertEquals(0.0D, ledger.held("listing-1", bidder));
+        ledger.close();
+
+        List<BidEscrowLedger.Hold> refunded = new ArrayList<>();
+        new BidEscrowLedger(file, LOGGER).recover(refunded::add);
+        assertTrue(refunded.isEmpty());
+    }
+}
@@ -355,8 +355,8 @@ class AllCommandsFeatureTest {
             when(listing.item()).thenReturn(new ItemStack(Material.DIAMOND));
             when(listing.price()).thenReturn(100.0);
             when(listing.expiryEpochMillis()).thenReturn(9999999999999L);
-            when(auctionManager.listActiveListings()).thenReturn(List.of(listing));
-            when(auctionManager.listActiveOrders()).thenReturn(Collections.emptyList());
+            when(auctionManager.listActiveListings(playerId)).thenReturn(List.of(listing));
+            when(auctionManager.listActiveOrders(playerId)).thenReturn(Collections.emptyList());
 
             boolean handled = cmd.onCommand(player, mockCommand(), "auction", new String[]{"cancel"});
 
@@ -374,8 +374,8 @@ class AllCommandsFeatureTest {
             AuctionListing listing = mock(AuctionListing.class);
             when(listing.sellerId()).thenReturn(playerId);
             when(listing.id()).thenReturn("abc123");
-            when(auctionManager.listActiveListings()).thenReturn(List.of(listing));
-            when(auctionManager.listActiveOrders()).thenReturn(Collections.emptyList());
+            when(auctionManager.listActiveListings(playerId)).thenReturn(List.of(listing));
+            when(auctionManager.listActiveOrders(playerId)).thenReturn(Collections.emptyList());
             when(auctionManager.cancelListing(playerId, "abc123"))
                     .thenReturn(new AuctionOperationResult(true, "Cancelled"));
 
@@ -395,8 +395,8 @@ class AllCommandsFeatureTest {
             AuctionOrder order = mock(AuctionOrder.class);
             when(order.buyerId()).thenReturn(playerId);
             when(order.id()).thenReturn("ord456");
-            when(auctionManager.listActiveListings()).thenReturn(Collections.emptyList());
-            when(auctionManager.listActiveOrders()).thenReturn(List.of(order));
+            when(auctionManager.listActiveListings(playerId)).thenReturn(Collections.emptyList());
+            when(auctionManager.listActiveOrders(playerId)).thenReturn(List.of(order));
             when(auctionManager.cancelOrder(playerId, "ord456"))
                     .thenReturn(new AuctionOperationResult(true, "Order cancelled"));
 
@@ -0,0 +1,217 @@
+package com.skyblockexp.ezauction.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionOrder;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.EnchantmentStorageMeta;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+class AuctionSearchIndexTest {
+
+    private static final List<String> QUERIES = List.of("d", "di", "dia", "diamond", "diamond sword", "sword",
+            "ord", "sharp", "sharpness", "sharpness v", "sharpness 5", "minecraft:sharp", "ess 5", "unbreaking iii",
+            "fire", "protection", "book", "enchanted book", "excalibur", "cali", "blade of", "stone", "ne",
+            "golden apple", "nothing here", "xyz");
+
+    @BeforeEach
+    void setUp() {
+        MockBukkit.getOrCreateMock();
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            MockBukkit.unmock();
+        } catch (Throwable ignored) {
+        }
+    }
+
+    @Test
+    void listingSearchMatchesTheFormerItemScan() {
+        IndexedAuctionMap<AuctionListing> listings = IndexedAuctionMap.listings();
+        Map<String, ItemStack> items = sampleItems();
+        items.forEach((id, item) -> listings.put(id, new AuctionListing(id, UUID.randomUUID(), 10.0D,
+                Long.MAX_VALUE, item, 0.0D, null)));
+
+        for (String query : QUERIES) {
+            assertEquals(scan(items, query), listings.search(query), "Query \"" + query + '"');
+        }
+    }
+
+    @Test
+    void orderSearchMatchesTheFormerItemScan() {
+        IndexedAuctionMap<AuctionOrder> orders = IndexedAuctionMap.orders();
+        Map<String, ItemStack> items = sampleItems();
+        items.forEach((id, item) -> orders.put(id, new AuctionOrder(id, UUID.randomUUID(), 10.0D, Long.MAX_VALUE,
+                item, 10.0D)));
+
+        for (String query : QUERIES) {
+            assertEquals(scan(items, query), orders.search(query), "Query \"" + query + '"');
+        }
+    }
+
+    @Test
+    void searchFollowsReplacedAndRemovedEntries() {
+        IndexedAuctionMap<AuctionListing> listings = IndexedAuctionMap.listings();
+        UUID seller = UUID.randomUUID();
+        listings.put("a", new AuctionListing("a", seller, 10.0D, Long.MAX_VALUE, new ItemStack(Material.DIAMOND),
+                0.0D, null));
+        assertEquals(Set.of("a"), listings.search("diamond"));
+
+        listings.put("a", new AuctionListing("a", seller, 10.0D, Long.MAX_VALUE, new ItemStack(Material.EMERALD),
+                0.0D, null));
+        assertTrue(listings.search("diamond").isEmpty(), "A replaced item must leave the index");
+        assertEquals(Set.of("a"), listings.search("emerald"));
+
+        listings.remove("a");
+        assertTrue(listings.search("emerald").isEmpty());
+    }
+
+    private static Map<String, ItemStack> sampleItems() {
+        Map<String, ItemStack> items = new HashMap<>();
+        items.put("plain", new ItemStack(Material.DIAMOND, 3));
+        items.put("stone", new ItemStack(Material.STONE));
+        items.put("apple", new ItemStack(Material.GOLDEN_APPLE));
+
+        ItemStack sword = new ItemStack(Material.DIAMOND_SWORD);
+        sword.addUnsafeEnchantment(Enchantment.SHARPNESS, 5);
+        sword.addUnsafeEnchantment(Enchantment.UNBREAKING, 3);
+        items.put("sword", sword);
+
+        ItemStack named = new ItemStack(Material.IRON_SWORD);
+        ItemMeta meta = named.getItemMeta();
+        meta.setDisplayName(ChatColor.GOLD + "Excalibur, Blade of Kings");
+        named.setItemMeta(meta);
+        items.put("named", named);
+
+        ItemStack book = new ItemStack(Material.ENCHANTED_BOOK);
+        EnchantmentStorageMeta bookMeta = (EnchantmentStorageMeta) book.getItemMeta();
+        bookMeta.addStoredEnchant(Enchantment.FIRE_PROTECTION, 4, true);
+        book.setItemMeta(bookMeta);
+        items.put("book", book);
+        return items;
+    }
+
+    private static Set<String> scan(Map<String, ItemStack> items, String query) {
+        Set<String> result = new HashSet<>();
+        items.forEach((id, item) -> {
+            if (itemMatchesQuery(item, query)) {
+                result.add(id);
+            }
+        });
+        return result;
+    }
+
+    // The browser's search before the index, kept as the reference for the index's results.
+
+    private static boolean itemMatchesQuery(ItemStack item, String normalizedQuery) {
+        if (item == null || item.getType() == Material.AIR || normalizedQuery == null || normalizedQuery.isEmpty()) {
+            return false;
+        }
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null) {
+            String displayName = meta.hasDisplayName() ? normalizeText(meta.getDisplayName()) : null;
+            if (displayName != null && displayName.contains(normalizedQuery)) {
+                return true;
+            }
+            String localized = normalizeText(ItemSearchTerms.resolveLocalizedName(meta));
+            if (localized != null && localized.contains(normalizedQuery)) {
+                return true;
+            }
+            if (meta.hasEnchants() && enchantmentMatches(meta.getEnchants(), normalizedQuery)) {
+                return true;
+            }
+            if (meta instanceof EnchantmentStorageMeta storage && storage.hasStoredEnchants()
+                    && enchantmentMatches(storage.getStoredEnchants(), normalizedQuery)) {
+                return true;
+            }
+        }
+        if (!item.getEnchantments().isEmpty() && enchantmentMatches(item.getEnchantments(), normalizedQuery)) {
+            return true;
+        }
+        return item.getType().name().replace('_', ' ').toLowerCase(Locale.ENGLISH).contains(normalizedQuery);
+    }
+
+    private static boolean enchantmentMatches(Map<Enchantment, Integer> enchantments, String normalizedQuery) {
+        for (Map.Entry<Enchantment, Integer> entry : enchantments.entrySet()) {
+            String keyName = enchantmentKey(entry.getKey());
+            int level = entry.getValue() != null ? entry.getValue() : 0;
+            if (nameVariantMatches(keyName, level, normalizedQuery)
+                    || nameVariantMatches(keyName != null ? keyName.replace('_', ' ') : null, level, normalizedQuery)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean nameVariantMatches(String name, int level, String normalizedQuery) {
+        if (name == null) {
+            return false;
+        }
+        String normalizedName = name.toLowerCase(Locale.ENGLISH).trim();
+        if (normalizedName.isEmpty()) {
+            return false;
+        }
+        if (normalizedName.contains(normalizedQuery)) {
+            return true;
+        }
+        if (level > 0) {
+            if ((normalizedName + " " + level).contains(normalizedQuery)) {
+                return true;
+            }
+            String roman = roman(level);
+            return !roman.isEmpty() && (normalizedName + " " + roman.toLowerCase(Locale.ENGLISH)).contains(normalizedQuery);
+        }
+        return false;
+    }
+
+    private static String enchantmentKey(Enchantment enchantment) {
+        try {
+            Method getKey = Enchantment.class.getMethod("getKey");
+            Object key = getKey.invoke(enchantment);
+            return key != null ? key.toString() : null;
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    private static String normalizeText(String value) {
+        if (value == null) {
+            return null;
+        }
+        String stripped = ChatColor.stripColor(value);
+        String trimmed = (stripped != null ? stripped : value).trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static String roman(int number) {
+        int[] values = {1000, 900, 500, 400, 100, 90, 50, 40, 10, 9, 5, 4, 1};
+        String[] numerals = {"M", "CM", "D", "CD", "C", "XC", "L", "XL", "X", "IX", "V", "IV", "I"};
+        int remaining = number;
+        StringBuilder builder = new StringBuilder();
+        for (int index = 0; index < values.length && remaining > 0; index++) {
+            while (remaining >= values[index]) {
+                builder.append(numerals[index]);
+                remaining -= values[index];
+            }
+        }
+        return builder.toString();
+    }
+}
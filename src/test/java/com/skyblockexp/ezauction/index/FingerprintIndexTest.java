@@ -0,0 +1,98 @@
+package com.skyblockexp.ezauction.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.ItemFingerprint;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+class FingerprintIndexTest {
+
+    @BeforeEach
+    void setup() {
+        MockBukkit.getOrCreateMock();
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            MockBukkit.unmock();
+        } catch (Throwable ignored) {
+            // ignore if already unmocked by a global extension
+        }
+    }
+
+    private static AuctionOrder order(String id, double offeredPrice, ItemStack item) {
+        return new AuctionOrder(id, UUID.randomUUID(), offeredPrice, Long.MAX_VALUE, item, offeredPrice);
+    }
+
+    private static ItemStack named(Material material, int amount, String name) {
+        ItemStack item = new ItemStack(material, amount);
+        ItemMeta meta = item.getItemMeta();
+        meta.setDisplayName(name);
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    private static List<String> ids(List<AuctionOrder> orders) {
+        return orders.stream().map(AuctionOrder::id).toList();
+    }
+
+    @Test
+    void fingerprintIgnoresAmountButNotMeta() {
+        assertEquals(ItemFingerprint.of(new ItemStack(Material.DIAMOND, 1)),
+                ItemFingerprint.of(new ItemStack(Material.DIAMOND, 32)));
+        assertEquals(ItemFingerprint.of(named(Material.DIAMOND, 1, "Gem")),
+                ItemFingerprint.of(named(Material.DIAMOND, 5, "Gem")));
+        assertNotEquals(ItemFingerprint.of(new ItemStack(Material.DIAMOND)),
+                ItemFingerprint.of(named(Material.DIAMOND, 1, "Gem")));
+        assertTrue(ItemFingerprint.of(null).isEmpty());
+    }
+
+    @Test
+    void ordersAreMatchedByItemAndPricePerItem() {
+        IndexedAuctionMap<AuctionOrder> orders = IndexedAuctionMap.orders();
+        orders.put("cheap", order("cheap", 20.0D, new ItemStack(Material.DIAMOND, 4)));
+        orders.put("best", order("best", 40.0D, new ItemStack(Material.DIAMOND, 4)));
+        orders.put("single", order("single", 8.0D, new ItemStack(Material.DIAMOND, 1)));
+        orders.put("named", order("named", 100.0D, named(Material.DIAMOND, 1, "Gem")));
+        orders.put("other", order("other", 100.0D, new ItemStack(Material.EMERALD, 1)));
+
+        ItemFingerprint diamond = ItemFingerprint.of(new ItemStack(Material.DIAMOND));
+        assertEquals(List.of("best", "single", "cheap"),
+                ids(IndexedAuctionMap.ordersByFingerprint(orders, diamond, 0.0D)),
+                "Orders must be ordered by offer per item, highest first");
+        assertEquals(List.of("best", "single"), ids(IndexedAuctionMap.ordersByFingerprint(orders, diamond, 8.0D)));
+
+        orders.remove("best");
+        assertEquals(List.of("single"), ids(IndexedAuctionMap.ordersByFingerprint(orders, diamond, 8.0D)),
+                "Removed orders must leave the index");
+    }
+
+    @Test
+    void scanFallbackMatchesIndexedLookup() {
+        IndexedAuctionMap<AuctionOrder> indexed = IndexedAuctionMap.orders();
+        Map<String, AuctionOrder> plain = new HashMap<>();
+        for (AuctionOrder order : List.of(
+                order("a", 30.0D, new ItemStack(Material.IRON_INGOT, 3)),
+                order("b", 50.0D, new ItemStack(Material.IRON_INGOT, 2)),
+                order("c", 5.0D, new ItemStack(Material.IRON_INGOT, 1)))) {
+            indexed.put(order.id(), order);
+            plain.put(order.id(), order);
+        }
+
+        ItemFingerprint iron = ItemFingerprint.of(new ItemStack(Material.IRON_INGOT));
+        assertEquals(ids(IndexedAuctionMap.ordersByFingerprint(indexed, iron, 6.0D)),
+                ids(IndexedAuctionMap.ordersByFingerprint(plain, iron, 6.0D)));
+    }
+}
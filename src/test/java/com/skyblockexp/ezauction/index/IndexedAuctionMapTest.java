@@ -0,0 +1,158 @@
+package com.skyblockexp.ezauction.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.LazyItemStack;
+import com.skyblockexp.ezauction.index.IndexedAuctionMap.IndexKey;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class IndexedAuctionMapTest {
+
+    private static AuctionListing listing(String id, UUID sellerId, UUID teamId) {
+        return listing(id, sellerId, teamId, Long.MAX_VALUE);
+    }
+
+    private static AuctionListing listing(String id, UUID sellerId, UUID teamId, long expiry) {
+        return priced(id, sellerId, 10.0D, expiry);
+    }
+
+    private static AuctionListing priced(String id, UUID sellerId, double price, long expiry) {
+        return new AuctionListing(id, sellerId, price, expiry, (LazyItemStack) null, 0.0D, null);
+    }
+
+    private static List<String> ids(Iterable<AuctionListing> listings) {
+        List<String> ids = new java.util.ArrayList<>();
+        listings.forEach(listing -> ids.add(listing.id()));
+        return ids;
+    }
+
+    @Test
+    void indexesFollowEveryMutationPath() {
+        IndexedAuctionMap<AuctionListing> listings = IndexedAuctionMap.listings();
+        UUID seller = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        UUID team = UUID.randomUUID();
+
+        listings.put("a", listing("a", seller, null));
+        listings.put("b", listing("b", seller, team));
+        listings.putAll(Map.of("c", listing("c", other, team)));
+        assertEquals(List.of("a", "b"), listings.lookup(IndexKey.SELLER, seller).stream().map(AuctionListing::id).toList());
+        assertEquals(2, listings.lookup(IndexKey.TEAM, team).size());
+
+        listings.put("a", listing("a", other, null));
+        assertEquals(List.of("b"), listings.lookup(IndexKey.SELLER, seller).stream().map(AuctionListing::id).toList(),
+                "Replacing an entry must move it to its new seller");
+
+        Iterator<Map.Entry<String, AuctionListing>> iterator = listings.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getKey().equals("b")) {
+                iterator.remove();
+            }
+        }
+        listings.values().removeIf(listing -> listing.id().equals("c"));
+        assertTrue(listings.lookup(IndexKey.SELLER, seller).isEmpty(), "Iterator removal must update the index");
+        assertTrue(listings.lookup(IndexKey.TEAM, team).isEmpty());
+        assertEquals(List.of("a"), listings.lookup(IndexKey.SELLER, other).stream().map(AuctionListing::id).toList());
+
+        listings.clear();
+        assertTrue(listings.lookup(IndexKey.SELLER, other).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> listings.lookup(IndexKey.BUYER, other));
+    }
+
+    @Test
+    void expiredBeforeReturnsOnlyDueEntriesInExpiryOrder() {
+        IndexedAuctionMap<AuctionListing> listings = IndexedAuctionMap.listings();
+        UUID seller = UUID.randomUUID();
+        listings.put("late", listing("late", seller, null, 300L));
+        listings.put("early", listing("early", seller, null, 100L));
+        listings.put("middle", listing("middle", seller, null, 200L));
+
+        assertEquals(100L, listings.nextExpiry());
+        assertEquals(List.of("early", "middle"), listings.expiredBefore(250L, 10).stream().map(AuctionListing::id).toList());
+        assertEquals(List.of("early"), listings.expiredBefore(250L, 1).stream().map(AuctionListing::id).toList());
+
+        listings.put("early", listing("early", seller, null, 400L));
+        listings.remove("middle");
+        assertTrue(listings.expiredBefore(250L, 10).isEmpty(), "Updated and removed entries must leave the expiry order");
+        assertEquals(300L, listings.nextExpiry());
+    }
+
+    @Test
+    void byPriceIteratesPriceRangesInOrder() {
+        IndexedAuctionMap<AuctionListing> listings = IndexedAuctionMap.listings();
+        UUID seller = UUID.randomUUID();
+        listings.put("c", priced("c", seller, 20.0D, Long.MAX_VALUE));
+        listings.put("a", priced("a", seller, 5.0D, Long.MAX_VALUE));
+        listings.put("b", priced("b", seller, 20.0D, Long.MAX_VALUE));
+        listings.put("d", priced("d", seller, 50.0D, Long.MAX_VALUE));
+
+        assertEquals(List.of("a", "b", "c", "d"), ids(listings.byPrice(0.0D, 100.0D, false)));
+        assertEquals(List.of("d", "c", "b", "a"), ids(IndexedAuctionMap.listingsByPrice(listings, true)));
+        assertEquals(List.of("b", "c"), ids(listings.byPrice(20.0D, 20.0D, false)), "Range bounds are inclusive");
+
+        listings.put("d", priced("d", seller, 1.0D, Long.MAX_VALUE));
+        listings.remove("b");
+        assertEquals(List.of("d", "a", "c"), ids(listings.byPrice(0.0D, 100.0D, false)));
+    }
+
+    @Test
+    void lookupsStayConsistentWhileAnotherThreadWrites() throws Exception {
+        IndexedAuctionMap<AuctionListing> listings = IndexedAuctionMap.listings();
+        UUID busySeller = UUID.randomUUID();
+        UUID quietSeller = UUID.randomUUID();
+        List<String> quietIds = List.of("q0", "q1", "q2", "q3");
+        for (int index = 0; index < quietIds.size(); index++) {
+            String id = quietIds.get(index);
+            listings.put(id, listing(id, quietSeller, null, 100L + index));
+        }
+
+        AtomicBoolean stop = new AtomicBoolean();
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            for (int round = 0; !stop.get(); round++) {
+                String id = "b" + (round % 64);
+                if (listings.remove(id) == null) {
+                    listings.put(id, listing(id, busySeller, null, 50L + round % 64));
+                }
+            }
+        });
+        try {
+            for (int read = 0; read < 20_000; read++) {
+                assertEquals(quietIds, ids(listings.lookup(IndexKey.SELLER, quietSeller)),
+                        "Entries nobody touches must always be found, in insertion order");
+                for (AuctionListing listing : listings.lookup(IndexKey.SELLER, busySeller)) {
+                    assertEquals(busySeller, listing.sellerId());
+                }
+                List<AuctionListing> due = listings.expiredBefore(200L, 100);
+                assertTrue(ids(due).containsAll(quietIds));
+                for (int index = 1; index < due.size(); index++) {
+                    assertTrue(due.get(index - 1).expiresAt() <= due.get(index).expiresAt(), "Earliest first");
+                }
+                assertTrue(listings.nextExpiry() <= 100L);
+            }
+        } finally {
+            stop.set(true);
+            writer.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(quietIds, ids(listings.lookup(IndexKey.SELLER, quietSeller)));
+    }
+
+    @Test
+    void staticLookupsScanPlainMaps() {
+        UUID seller = UUID.randomUUID();
+        Map<String, AuctionListing> plain = new HashMap<>();
+        plain.put("a", listing("a", seller, null));
+        plain.put("b", listing("b", UUID.randomUUID(), null));
+
+        assertEquals(1, IndexedAuctionMap.listingsBySeller(plain, seller).size());
+        assertTrue(IndexedAuctionMap.listingsByTeam(plain, seller).isEmpty());
+    }
+}
@@ -0,0 +1,119 @@
+package com.skyblockexp.ezauction.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.LazyItemStack;
+import com.skyblockexp.ezauction.gui.ListingSort;
+import com.skyblockexp.ezauction.gui.OrderSort;
+import com.skyblockexp.ezauction.service.AuctionQueryService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class VersionedViewCacheTest {
+
+    private static AuctionListing listing(String id, double price, long expiry) {
+        return new AuctionListing(id, UUID.randomUUID(), price, expiry, (LazyItemStack) null, 0.0D, null);
+    }
+
+    private static AuctionOrder order(String id, double price, long expiry) {
+        return new AuctionOrder(id, UUID.randomUUID(), price, expiry, (LazyItemStack) null, price);
+    }
+
+    @Test
+    void unchangedVersionReturnsTheCachedView() {
+        VersionedViewCache<String> cache = new VersionedViewCache<>();
+        AtomicInteger builds = new AtomicInteger();
+
+        List<String> first = cache.get("key", 3L, () -> {
+            builds.incrementAndGet();
+            return List.of("a", "b");
+        });
+        List<String> second = cache.get("key", 3L, () -> {
+            builds.incrementAndGet();
+            return List.of("c");
+        });
+
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    void versionBumpRebuildsTheView() {
+        VersionedViewCache<String> cache = new VersionedViewCache<>();
+        cache.get("key", 3L, () -> List.of("a"));
+
+        assertEquals(List.of("b"), cache.get("key", 4L, () -> List.of("b")));
+        assertEquals(List.of("b"), cache.get("key", 4L, () -> List.of("c")), "The rebuilt view is cached");
+    }
+
+    @Test
+    void olderBuildDoesNotReplaceANewerView() {
+        VersionedViewCache<String> cache = new VersionedViewCache<>();
+        cache.get("key", 5L, () -> List.of("new"));
+
+        assertEquals(List.of("old"), cache.get("key", 4L, () -> List.of("old")));
+        assertEquals(List.of("new"), cache.get("key", 5L, () -> List.of("unused")));
+    }
+
+    @Test
+    void negativeVersionIsNeverCached() {
+        VersionedViewCache<String> cache = new VersionedViewCache<>();
+        AtomicInteger builds = new AtomicInteger();
+
+        cache.get("key", -1L, () -> List.of(String.valueOf(builds.incrementAndGet())));
+        assertEquals(List.of("2"), cache.get("key", -1L, () -> List.of(String.valueOf(builds.incrementAndGet()))));
+    }
+
+    @Test
+    void mapChangesInvalidateCachedQueryViews() {
+        IndexedAuctionMap<AuctionListing> listings = IndexedAuctionMap.listings();
+        long now = System.currentTimeMillis();
+        listings.put("a", listing("a", 5.0D, now + 60_000L));
+        AuctionQueryService queryService = new AuctionQueryService(listings, new HashMap<>(), null, null);
+        List<AuctionListing> before = queryService.sortedListings(ListingSort.PRICE_LOW_HIGH);
+        assertSame(before, queryService.sortedListings(ListingSort.PRICE_LOW_HIGH));
+
+        listings.put("b", listing("b", 1.0D, now + 60_000L));
+
+        List<AuctionListing> after = queryService.sortedListings(ListingSort.PRICE_LOW_HIGH);
+        assertNotSame(before, after);
+        assertEquals(List.of("b", "a"), after.stream().map(AuctionListing::id).toList());
+    }
+
+    @Test
+    void cachedPriceSortsOrderTiesLikeTheUncachedPath() {
+        IndexedAuctionMap<AuctionListing> indexedListings = IndexedAuctionMap.listings();
+        IndexedAuctionMap<AuctionOrder> indexedOrders = IndexedAuctionMap.orders();
+        Map<String, AuctionListing> plainListings = new HashMap<>();
+        Map<String, AuctionOrder> plainOrders = new HashMap<>();
+        long now = System.currentTimeMillis();
+        // Ids run against expiry and prices repeat, so only the sort's own tie-break gives a stable order
+        for (int index = 0; index < 12; index++) {
+            String id = "e" + (char) ('a' + index);
+            double price = 1.0D + index % 3;
+            long expiry = now + 600_000L - index * 10_000L;
+            indexedListings.put(id, listing(id, price, expiry));
+            plainListings.put(id, indexedListings.get(id));
+            indexedOrders.put(id, order(id, price, expiry));
+            plainOrders.put(id, indexedOrders.get(id));
+        }
+        AuctionQueryService cached = new AuctionQueryService(indexedListings, indexedOrders, null, null);
+        AuctionQueryService uncached = new AuctionQueryService(plainListings, plainOrders, null, null);
+
+        for (ListingSort sort : List.of(ListingSort.PRICE_LOW_HIGH, ListingSort.PRICE_HIGH_LOW)) {
+            // The second read comes from the cache
+            cached.sortedListings(sort);
+            assertEquals(uncached.sortedListings(sort), cached.sortedListings(sort), sort.name());
+        }
+        for (OrderSort sort : List.of(OrderSort.PRICE_LOW_HIGH, OrderSort.PRICE_HIGH_LOW)) {
+            cached.sortedOrders(sort);
+            assertEquals(uncached.sortedOrders(sort), cached.sortedOrders(sort), sort.name());
+        }
+    }
+}
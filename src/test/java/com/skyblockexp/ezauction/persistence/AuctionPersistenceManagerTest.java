@@ -0,0 +1,87 @@
+package com.skyblockexp.ezauction.persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Flush;
+import com.skyblockexp.ezauction.persistence.AuctionPersistenceManager.FlushMetrics;
+import com.skyblockexp.ezauction.storage.AuctionStorage;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+class AuctionPersistenceManagerTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void applyChanges_coalescesBurstIntoSingleWrite() {
+        AuctionStorage storage = mock(AuctionStorage.class);
+        AuctionPersistenceManager manager = new AuctionPersistenceManager(storage, null, executor,
+                new Flush(60_000L, 100));
+        manager.setStorageReady(true);
+
+        manager.removeListing("a");
+        manager.removeListing("b");
+        manager.removeOrder("c");
+        FlushMetrics pending = manager.getFlushMetrics();
+        assertEquals(3, pending.pendingWrites());
+        assertEquals(2, pending.coalescedWrites());
+        verifyNoInteractions(storage);
+
+        manager.awaitPersistenceCompletion();
+
+        ArgumentCaptor<AuctionStorageChangeSet> captor = ArgumentCaptor.forClass(AuctionStorageChangeSet.class);
+        verify(storage, times(1)).applyChanges(captor.capture());
+        assertEquals(3, captor.getValue().size());
+        FlushMetrics flushed = manager.getFlushMetrics();
+        assertEquals(1, flushed.flushCount());
+        assertEquals(0, flushed.pendingWrites());
+    }
+
+    @Test
+    void applyChanges_flushesEarlyWhenBatchIsFull() {
+        AuctionStorage storage = mock(AuctionStorage.class);
+        AuctionPersistenceManager manager = new AuctionPersistenceManager(storage, null, executor,
+                new Flush(60_000L, 2));
+        manager.setStorageReady(true);
+
+        manager.removeListing("a");
+        manager.removeListing("b");
+        manager.removeListing("c");
+        manager.awaitPersistenceCompletion();
+
+        verify(storage, times(2)).applyChanges(any());
+        assertEquals(2, manager.getFlushMetrics().flushCount());
+    }
+
+    @Test
+    void saveListings_writesEarlierDeltasBeforeSnapshot() {
+        AuctionStorage storage = mock(AuctionStorage.class);
+        AuctionPersistenceManager manager = new AuctionPersistenceManager(storage, null, executor,
+                new Flush(60_000L, 100));
+        manager.setStorageReady(true);
+
+        manager.removeListing("a");
+        manager.saveListings(Collections.emptyList(), Collections.emptyList());
+        manager.saveListings(List.of(), List.of());
+        manager.awaitPersistenceCompletion();
+
+        InOrder order = inOrder(storage);
+        order.verify(storage).applyChanges(any());
+        order.verify(storage, times(1)).saveListings(any(), any());
+        assertEquals(1, manager.getFlushMetrics().coalescedWrites(), "Repeated snapshots must collapse");
+    }
+}
@@ -0,0 +1,137 @@
+package com.skyblockexp.ezauction.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.LazyItemStack;
+import com.skyblockexp.ezauction.claim.AuctionClaimService;
+import com.skyblockexp.ezauction.history.AuctionTransactionHistoryService;
+import com.skyblockexp.ezauction.index.IndexedAuctionMap;
+import com.skyblockexp.ezauction.notification.AuctionNotificationService;
+import com.skyblockexp.ezauction.persistence.AuctionPersistenceManager;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class AuctionExpiryServiceTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private Map<String, AuctionListing> listings;
+    private Map<String, AuctionOrder> orders;
+    private Map<UUID, List<ItemStack>> pendingReturns;
+    private AuctionPersistenceManager persistenceManager;
+    private AuctionNotificationService notificationService;
+    private AuctionTransactionHistoryService historyService;
+    private AuctionClaimService claimService;
+    private AuctionTransactionService transactionService;
+    private AuctionExpiryService expiryService;
+
+    @BeforeEach
+    void setUp() {
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("AuctionExpiryServiceTest"));
+        listings = IndexedAuctionMap.listings();
+        orders = IndexedAuctionMap.orders();
+        pendingReturns = new ConcurrentHashMap<>();
+        persistenceManager = mock(AuctionPersistenceManager.class);
+        notificationService = mock(AuctionNotificationService.class);
+        historyService = mock(AuctionTransactionHistoryService.class);
+        claimService = mock(AuctionClaimService.class);
+        transactionService = mock(AuctionTransactionService.class);
+        expiryService = new AuctionExpiryService(plugin, listings, orders, persistenceManager, notificationService,
+                historyService, claimService, transactionService, pendingReturns);
+        // Every clock reading advances the clock by 1 ms, so a 2 ms tick expires three entries
+        expiryService.setNanoClock(() -> nanos.getAndAdd(MILLI));
+    }
+
+    private List<AuctionListing> expiredListings(int count) {
+        long now = System.currentTimeMillis();
+        List<AuctionListing> created = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            String id = "l" + index;
+            AuctionListing listing = new AuctionListing(id, UUID.randomUUID(), 10.0D, now - 60_000L + index,
+                    (LazyItemStack) null, 0.0D, null);
+            listings.put(id, listing);
+            created.add(listing);
+        }
+        return created;
+    }
+
+    private void expiredOrders(int count) {
+        long now = System.currentTimeMillis();
+        for (int index = 0; index < count; index++) {
+            String id = "o" + index;
+            orders.put(id, new AuctionOrder(id, UUID.randomUUID(), 5.0D, now - 60_000L + index, (LazyItemStack) null,
+                    5.0D));
+        }
+    }
+
+    @Test
+    void tickStopsAtTheBudgetAndLeavesTheRestToTheNextTick() {
+        expiredListings(10);
+        expiredOrders(2);
+
+        expiryService.processDueEntries();
+
+        ArgumentCaptor<AuctionStorageChangeSet> changes = ArgumentCaptor.forClass(AuctionStorageChangeSet.class);
+        verify(persistenceManager).applyChanges(changes.capture());
+        assertEquals(Set.of("l0", "l1", "l2"), changes.getValue().listingRemovals(), "The earliest entries go first");
+        assertEquals(7, listings.size());
+        assertEquals(2, orders.size(), "Orders wait until the listing wave is done");
+        verify(transactionService, never()).refundOrderBuyer(any(), anyDouble());
+
+        int ticks = 1;
+        while (!listings.isEmpty() || !orders.isEmpty()) {
+            assertTrue(ticks < 10, "Expiry must make progress every tick");
+            expiryService.processDueEntries();
+            ticks++;
+        }
+
+        assertEquals(4, ticks);
+        verify(persistenceManager, times(4)).applyChanges(any());
+        verify(transactionService, times(2)).refundOrderBuyer(any(), eq(5.0D));
+    }
+
+    @Test
+    void eachExpiredListingIsReturnedExactlyOnce() {
+        List<AuctionListing> expired = expiredListings(10);
+        AuctionListing beingBought = expired.get(4);
+        assertTrue(beingBought.lifecycle().reserve(), "A purchase owns this listing");
+        AuctionListing running = new AuctionListing("running", UUID.randomUUID(), 10.0D,
+                System.currentTimeMillis() + 60_000L, (LazyItemStack) null, 0.0D, null);
+        listings.put(running.id(), running);
+
+        for (int tick = 0; tick < 8; tick++) {
+            expiryService.processDueEntries();
+        }
+
+        for (AuctionListing listing : expired) {
+            int expected = listing == beingBought ? 0 : 1;
+            verify(claimService, times(expected)).returnListingItem(listing, pendingReturns);
+            verify(notificationService, times(expected)).notifySellerExpiry(listing);
+            verify(historyService, times(expected)).recordListingTransactionHistory(listing, null);
+        }
+        assertEquals(Set.of(beingBought.id(), running.id()), listings.keySet());
+        verify(claimService, never()).returnListingItem(eq(running), any());
+    }
+}
@@ -0,0 +1,63 @@
+package com.skyblockexp.ezauction.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.LazyItemStack;
+import com.skyblockexp.ezauction.util.ItemStackCodec;
+import java.util.UUID;
+import java.util.logging.Logger;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+class AuctionLoadPipelineTest {
+
+    /** Compact codec header followed by bytes that are not an item. */
+    private static final byte[] CORRUPT_ITEM = {(byte) 0xE7, 1, 0, 42, 42, 42, 42};
+
+    private final Logger logger = Logger.getLogger(AuctionLoadPipelineTest.class.getName());
+
+    @BeforeEach
+    void setup() {
+        MockBukkit.getOrCreateMock();
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            MockBukkit.unmock();
+        } catch (Throwable ignored) {
+            // ignore if already unmocked by a global extension
+        }
+    }
+
+    @Test
+    void entriesWithCorruptOrMissingItemsAreSkipped() {
+        byte[] valid = ItemStackCodec.encode(new ItemStack(Material.DIAMOND, 3), logger);
+        UUID playerId = UUID.randomUUID();
+        long expiry = System.currentTimeMillis() + 60_000L;
+
+        AuctionLoadPipeline pipeline = new AuctionLoadPipeline(logger, "test", 2);
+        pipeline.submitListing("valid", () -> new AuctionListing("valid", playerId, 10.0D, expiry,
+                LazyItemStack.encoded(valid), 0.0D, null));
+        pipeline.submitListing("corrupt", () -> new AuctionListing("corrupt", playerId, 10.0D, expiry,
+                LazyItemStack.encoded(CORRUPT_ITEM), 0.0D, null));
+        pipeline.submitListing("missing", () -> new AuctionListing("missing", playerId, 10.0D, expiry,
+                LazyItemStack.encoded((byte[]) null), 0.0D, null));
+        pipeline.submitOrder("corrupt-order", () -> new AuctionOrder("corrupt-order", playerId, 10.0D, expiry,
+                LazyItemStack.encoded(CORRUPT_ITEM), 10.0D));
+        AuctionStorageSnapshot snapshot = pipeline.complete();
+
+        assertEquals(1, snapshot.listings().size());
+        AuctionListing loaded = snapshot.listings().get("valid");
+        assertFalse(loaded.itemData().isHydrated(), "Verified items stay serialized until first access");
+        assertEquals(Material.DIAMOND, loaded.fingerprint().material());
+        assertEquals(3, loaded.item().getAmount());
+        assertTrue(snapshot.orders().isEmpty());
+    }
+}
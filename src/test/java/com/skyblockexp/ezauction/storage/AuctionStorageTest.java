@@ -0,0 +1,102 @@
+package com.skyblockexp.ezauction.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.LazyItemStack;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+class AuctionStorageTest {
+
+    @BeforeEach
+    void setup() {
+        MockBukkit.getOrCreateMock();
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            MockBukkit.unmock();
+        } catch (Exception ignored) {
+        }
+    }
+
+    @Test
+    void defaultApplyChangesRewritesTheStoredData() {
+        UUID seller = UUID.randomUUID();
+        UUID returnOwner = UUID.randomUUID();
+        AuctionListing kept = listing("kept", seller);
+        AuctionListing removed = listing("removed", seller);
+        FullRewriteStorage storage = new FullRewriteStorage();
+        storage.listings.put(kept.id(), kept);
+        storage.listings.put(removed.id(), removed);
+        storage.returns.put(returnOwner, List.of(new ItemStack(Material.STONE)));
+
+        AuctionListing added = listing("added", seller);
+        UUID newOwner = UUID.randomUUID();
+        storage.applyChanges(new AuctionStorageChangeSet()
+                .removeListing(removed.id())
+                .upsertListing(added)
+                .replaceReturns(returnOwner, List.of())
+                .replaceReturns(newOwner, List.of(new ItemStack(Material.DIRT))));
+
+        assertEquals(Map.of(kept.id(), kept, added.id(), added), storage.listings);
+        assertFalse(storage.returns.containsKey(returnOwner), "An empty return list removes the player's returns");
+        assertEquals(Material.DIRT, storage.returns.get(newOwner).get(0).getType());
+    }
+
+    private static AuctionListing listing(String id, UUID seller) {
+        return new AuctionListing(id, seller, 10.0D, System.currentTimeMillis() + 60_000L,
+                (LazyItemStack) null, 0.0D, null);
+    }
+
+    /**
+     * Storage that only implements full saves, like implementations written before incremental saves.
+     */
+    private static final class FullRewriteStorage implements AuctionStorage {
+
+        private final Map<String, AuctionListing> listings = new HashMap<>();
+        private final Map<String, AuctionOrder> orders = new HashMap<>();
+        private final Map<UUID, List<ItemStack>> returns = new HashMap<>();
+
+        @Override
+        public boolean initialize() {
+            return true;
+        }
+
+        @Override
+        public AuctionStorageSnapshot load() {
+            return new AuctionStorageSnapshot(listings, orders, returns);
+        }
+
+        @Override
+        public void saveListings(Collection<AuctionListing> listings, Collection<AuctionOrder> orders) {
+            this.listings.clear();
+            listings.forEach(listing -> this.listings.put(listing.id(), listing));
+            this.orders.clear();
+            orders.forEach(order -> this.orders.put(order.id(), order));
+        }
+
+        @Override
+        public void saveReturns(Map<UUID, List<ItemStack>> returnsByPlayer) {
+            returns.clear();
+            returnsByPlayer.forEach((playerId, items) -> returns.put(playerId, new ArrayList<>(items)));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
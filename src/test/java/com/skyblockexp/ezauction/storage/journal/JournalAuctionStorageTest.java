@@ -0,0 +1,190 @@
+package com.skyblockexp.ezauction.storage.journal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.FsyncPolicy;
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Journal;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
+import com.skyblockexp.ezauction.storage.AuctionStorageSnapshot;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+class JournalAuctionStorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setup() {
+        MockBukkit.getOrCreateMock();
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            MockBukkit.unmock();
+        } catch (Throwable ignored) {
+            // ignore if already unmocked by a global extension
+        }
+    }
+
+    @Test
+    void applyChanges_replaysFromLogAfterRestart() {
+        JavaPlugin plugin = mockPlugin();
+        JournalAuctionStorage storage = open(plugin);
+        storage.load();
+
+        AuctionListing kept = listing(Material.DIAMOND, 100.0);
+        AuctionListing removed = listing(Material.EMERALD, 200.0);
+        AuctionOrder order = new AuctionOrder(UUID.randomUUID().toString(), UUID.randomUUID(), 50.0,
+                System.currentTimeMillis() + 86_400_000L, new ItemStack(Material.COAL, 16), 50.0);
+        UUID playerId = UUID.randomUUID();
+        storage.applyChanges(new AuctionStorageChangeSet()
+                .upsertListing(kept)
+                .upsertListing(removed)
+                .upsertOrder(order)
+                .replaceReturns(playerId, List.of(new ItemStack(Material.GOLD_INGOT, 4))));
+        storage.applyChanges(new AuctionStorageChangeSet().removeListing(removed.id()));
+        storage.close();
+
+        JournalAuctionStorage reopened = open(plugin);
+        AuctionStorageSnapshot snapshot = reopened.load();
+        reopened.close();
+
+        assertEquals(1, snapshot.listings().size());
+        assertEquals(Material.DIAMOND, snapshot.listings().get(kept.id()).item().getType());
+        assertEquals(16, snapshot.orders().get(order.id()).requestedItem().getAmount());
+        assertEquals(Material.GOLD_INGOT, snapshot.pendingReturns().get(playerId).get(0).getType());
+    }
+
+    @Test
+    void compact_writesSnapshotAndResetsLog() {
+        JavaPlugin plugin = mockPlugin();
+        JournalAuctionStorage storage = open(plugin);
+        storage.load();
+        AuctionListing listing = listing(Material.IRON_INGOT, 10.0);
+        storage.saveListings(List.of(listing), Collections.emptyList());
+
+        storage.compact();
+        AuctionListing added = listing(Material.REDSTONE, 20.0);
+        storage.saveListings(List.of(listing, added), Collections.emptyList());
+        storage.close();
+
+        File journalDir = new File(tempDir.toFile(), "journal");
+        assertTrue(new File(journalDir, "auction-journal.snapshot").length() > 0L, "Snapshot must be written");
+        assertFalse(new File(journalDir, "auction-journal.log.compacting").exists(),
+                "Compacted log must be discarded");
+
+        JournalAuctionStorage reopened = open(plugin);
+        AuctionStorageSnapshot snapshot = reopened.load();
+        reopened.close();
+
+        assertEquals(2, snapshot.listings().size(), "Snapshot and log tail must both be replayed");
+        assertTrue(snapshot.listings().containsKey(added.id()));
+    }
+
+    @Test
+    void load_truncatesTornTailRecord() throws IOException {
+        JavaPlugin plugin = mockPlugin();
+        JournalAuctionStorage storage = open(plugin);
+        storage.load();
+        AuctionListing listing = listing(Material.STONE, 5.0);
+        storage.applyChanges(new AuctionStorageChangeSet().upsertListing(listing));
+        storage.close();
+
+        File log = new File(new File(tempDir.toFile(), "journal"), "auction-journal.log");
+        long validLength = log.length();
+        try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            file.seek(validLength);
+            file.writeInt(1024);
+            file.write(new byte[] {1, 2, 3});
+        }
+
+        JournalAuctionStorage reopened = open(plugin);
+        AuctionStorageSnapshot snapshot = reopened.load();
+        reopened.close();
+
+        assertTrue(snapshot.listings().containsKey(listing.id()), "Records before the torn tail must survive");
+        assertEquals(validLength, log.length(), "Torn tail must be truncated");
+    }
+
+    @Test
+    void applyChanges_failedWriteLeavesNoTornRecordOrMemoryChange() {
+        JavaPlugin plugin = mockPlugin();
+        JournalAuctionStorage storage = open(plugin);
+        storage.load();
+        AuctionListing before = listing(Material.STONE, 5.0);
+        AuctionListing failed = listing(Material.DIRT, 6.0);
+        AuctionListing after = listing(Material.SAND, 7.0);
+        storage.applyChanges(new AuctionStorageChangeSet().upsertListing(before));
+
+        // Write half of the records, then fail like a full disk would
+        storage.setLogWriter((channel, bytes) -> {
+            channel.write(ByteBuffer.wrap(bytes, 0, bytes.length / 2));
+            throw new IOException("No space left on device");
+        });
+        storage.applyChanges(new AuctionStorageChangeSet().upsertListing(failed));
+        storage.setLogWriter(null);
+        storage.applyChanges(new AuctionStorageChangeSet().upsertListing(after));
+        File log = new File(new File(tempDir.toFile(), "journal"), "auction-journal.log");
+        long logLength = log.length();
+        storage.close();
+
+        JournalAuctionStorage reopened = open(plugin);
+        AuctionStorageSnapshot replayed = reopened.load();
+        reopened.close();
+
+        assertEquals(logLength, log.length(), "Replay must not find a torn record to truncate");
+        assertTrue(replayed.listings().containsKey(before.id()));
+        assertTrue(replayed.listings().containsKey(after.id()), "Records after the failed write must survive");
+        assertFalse(replayed.listings().containsKey(failed.id()));
+
+        // A snapshot is written from memory, which must not contain the failed change either
+        JournalAuctionStorage compacted = open(plugin);
+        compacted.load();
+        compacted.compact();
+        compacted.close();
+        JournalAuctionStorage fromSnapshot = open(plugin);
+        AuctionStorageSnapshot snapshot = fromSnapshot.load();
+        fromSnapshot.close();
+        assertEquals(Set.of(before.id(), after.id()), snapshot.listings().keySet());
+    }
+
+    private JournalAuctionStorage open(JavaPlugin plugin) {
+        JournalAuctionStorage storage = new JournalAuctionStorage(plugin,
+                new Journal(FsyncPolicy.ALWAYS, 1_000L, 8L * 1024L * 1024L));
+        assertTrue(storage.initialize());
+        return storage;
+    }
+
+    private static AuctionListing listing(Material material, double price) {
+        return new AuctionListing(UUID.randomUUID().toString(), UUID.randomUUID(), price,
+                System.currentTimeMillis() + 86_400_000L, new ItemStack(material, 1), 0.0, null);
+    }
+
+    private JavaPlugin mockPlugin() {
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getDataFolder()).thenReturn(tempDir.toFile());
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("JournalAuctionStorageTest"));
+        return plugin;
+    }
+}
@@ -0,0 +1,204 @@
+package com.skyblockexp.ezauction.storage.mysql;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.skyblockexp.ezauction.LazyItemStack;
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Mysql;
+import com.skyblockexp.ezauction.storage.mysql.RecordingConnection.Execution;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the SQL {@link MysqlAuctionHistoryStorage} sends for history writes and schema
+ * conversions against a recording stand-in connection.
+ */
+class MysqlAuctionHistoryStorageTest {
+
+    private static final String INSERT_RECORDS = "INSERT INTO `test_transactions`";
+    private static final String INSERT_INDEX = "INSERT IGNORE INTO `test_history`";
+    private static final Mysql MYSQL = new Mysql("localhost", 3306, "auctions", "root", "", false, "test_", null,
+            null);
+
+    private RecordingConnection connection;
+    private MysqlConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = new RecordingConnection();
+        pool = connection.pool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    private MysqlAuctionHistoryStorage newStorage() {
+        return new MysqlAuctionHistoryStorage(Logger.getLogger("MysqlAuctionHistoryStorageTest"), MYSQL, pool);
+    }
+
+    private static AuctionTransactionHistoryEntry entry(String transactionId, long timestamp) {
+        return new AuctionTransactionHistoryEntry(transactionId, AuctionTransactionType.SELL, UUID.randomUUID(),
+                "Buyer", 10.0D, timestamp, LazyItemStack.encoded(new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    void savePlayerHistory_writesRecordsAndIndexRowsInOneTransaction() {
+        MysqlAuctionHistoryStorage storage = newStorage();
+        UUID playerId = UUID.randomUUID();
+
+        storage.savePlayerHistory(playerId, new ArrayDeque<>(List.of(entry("t2", 2_000L), entry("t1", 1_000L))));
+
+        List<String> statements = connection.statements();
+        int commit = statements.indexOf(RecordingConnection.COMMIT);
+        assertEquals(RecordingConnection.BEGIN, statements.get(0));
+        assertTrue(commit > 0, () -> "Expected a commit in " + connection);
+        assertEquals(2, count(statements.subList(0, commit), INSERT_RECORDS));
+        assertEquals(2, count(statements.subList(0, commit), INSERT_INDEX));
+        assertFalse(statements.subList(0, commit).contains(RecordingConnection.ROLLBACK));
+    }
+
+    @Test
+    void savePlayerHistory_failedIndexBatchRollsBackAndIsWrittenAgain() {
+        MysqlAuctionHistoryStorage storage = newStorage();
+        UUID playerId = UUID.randomUUID();
+        ArrayDeque<AuctionTransactionHistoryEntry> history = new ArrayDeque<>(List.of(entry("t1", 1_000L)));
+        connection.failOn(INSERT_INDEX);
+
+        storage.savePlayerHistory(playerId, history);
+
+        List<String> statements = connection.statements();
+        assertFalse(statements.contains(RecordingConnection.COMMIT));
+        assertEquals(List.of(RecordingConnection.BEGIN, INSERT_RECORDS, INSERT_INDEX, RecordingConnection.ROLLBACK),
+                statements.subList(0, 4).stream().map(MysqlAuctionHistoryStorageTest::prefix).toList(),
+                "The record written before the failure must be rolled back");
+        connection.failOn(null);
+        connection.clear();
+
+        storage.savePlayerHistory(playerId, history);
+
+        assertEquals(1, connection.executions(INSERT_RECORDS).size());
+        assertEquals("t1", connection.executions(INSERT_INDEX).get(0).parameter(1));
+        assertTrue(connection.statements().contains(RecordingConnection.COMMIT));
+    }
+
+    @Test
+    void appendedDuplicatesAreIgnored() {
+        UUID playerId = UUID.randomUUID();
+        AuctionTransactionHistoryEntry sale = entry("t1", 1_000L);
+        MysqlAuctionHistoryStorage storage = newStorage();
+        storage.savePlayerHistory(playerId, new ArrayDeque<>(List.of(sale)));
+        connection.clear();
+
+        storage.savePlayerHistory(playerId, new ArrayDeque<>(List.of(sale)));
+        assertEquals(List.of(), connection.statements(), "Stored entries are not written again");
+
+        // A new storage does not know what is stored, e.g. after a restart, and relies on the SQL
+        newStorage().appendPlayerHistory(playerId, List.of(sale));
+        Execution index = connection.executions(INSERT_INDEX).get(0);
+        assertEquals(List.of("t1", playerId.toString()), List.of(index.parameter(1), index.parameter(2)));
+        Execution record = connection.executions(INSERT_RECORDS).get(0);
+        assertTrue(record.sql().contains("ON DUPLICATE KEY UPDATE"), record.sql());
+        assertTrue(record.sql().contains("item = COALESCE(item, VALUES(item))"),
+                "A duplicate record must not overwrite the stored item");
+    }
+
+    @Test
+    void createTables_convertsLegacyTablesOnce() {
+        connection.answerQueries(new LegacySchema(false)::answer);
+
+        assertTrue(newStorage().createTables());
+        List<String> firstRun = connection.statements();
+        assertEquals(1, count(firstRun, "UPDATE `test_history` SET transaction_id = UUID()"));
+        assertEquals(1, count(firstRun, "ALTER TABLE `test_history` DROP PRIMARY KEY"));
+        assertEquals(1, count(firstRun, "ALTER TABLE `test_history` MODIFY item LONGBLOB"));
+        assertEquals(1, count(firstRun, "INSERT IGNORE INTO `test_transactions`"),
+                "Records are copied with INSERT IGNORE so a retried copy adds no duplicates");
+        assertEquals(1, count(firstRun, "ALTER TABLE `test_history` DROP COLUMN price"));
+
+        assertTrue(newStorage().createTables());
+
+        List<String> secondRun = connection.statements().subList(firstRun.size(), connection.statements().size());
+        for (String sql : secondRun) {
+            assertTrue(sql.startsWith("CREATE TABLE IF NOT EXISTS") || sql.startsWith("SELECT"),
+                    () -> "Converted tables must not be changed again: " + sql);
+        }
+    }
+
+    @Test
+    void createTables_finishesAnInterruptedRecordMove() {
+        // The records were copied before, but dropping the moved columns failed
+        connection.answerQueries(new LegacySchema(true)::answer);
+
+        assertTrue(newStorage().createTables());
+
+        List<String> statements = connection.statements();
+        assertEquals(0, count(statements, "ALTER TABLE `test_history` DROP PRIMARY KEY"));
+        assertEquals(1, count(statements, "INSERT IGNORE INTO `test_transactions`"));
+        assertEquals(1, count(statements, "ALTER TABLE `test_history` DROP COLUMN price"));
+    }
+
+    private static String prefix(String sql) {
+        for (String prefix : List.of(INSERT_RECORDS, INSERT_INDEX)) {
+            if (sql.startsWith(prefix)) {
+                return prefix;
+            }
+        }
+        return sql;
+    }
+
+    private static long count(List<String> statements, String sqlPrefix) {
+        return statements.stream().filter(sql -> sql.startsWith(sqlPrefix)).count();
+    }
+
+    /**
+     * Answers schema queries for a history table of an earlier version, taking the conversions the
+     * connection has run so far into account.
+     */
+    private final class LegacySchema {
+
+        private final boolean appendOnly;
+
+        private LegacySchema(boolean appendOnly) {
+            this.appendOnly = appendOnly;
+        }
+
+        private boolean ran(String sqlFragment) {
+            return connection.statements().stream()
+                    .anyMatch(sql -> sql.startsWith("ALTER TABLE `test_history`") && sql.contains(sqlFragment));
+        }
+
+        private boolean hasColumn(String column) {
+            if (column.equals("entry_index")) {
+                return !appendOnly && !ran("DROP COLUMN entry_index");
+            }
+            return !ran("DROP COLUMN " + column);
+        }
+
+        List<Object[]> answer(Execution query) {
+            String sql = query.sql();
+            if (sql.contains("DATA_TYPE")) {
+                if (!hasColumn("item")) {
+                    return List.of();
+                }
+                String type = appendOnly || ran("MODIFY item LONGBLOB") ? "longblob" : "longtext";
+                return List.<Object[]>of(new Object[] {type});
+            }
+            if (sql.contains("COLUMN_NAME = 'transaction_id'")) {
+                return List.<Object[]>of(new Object[] {1});
+            }
+            if (sql.contains("COLUMN_NAME = ?")) {
+                return List.<Object[]>of(new Object[] {hasColumn((String) query.parameter(3)) ? 1 : 0});
+            }
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.skyblockexp.ezauction.storage.mysql;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.LazyItemStack;
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Mysql;
+import com.skyblockexp.ezauction.storage.mysql.RecordingConnection.Execution;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+/**
+ * Verifies the SQL {@link MysqlAuctionListingStorage} sends for full saves against a recording
+ * stand-in connection.
+ */
+class MysqlAuctionListingStorageTest {
+
+    private static final String UPSERT_LISTINGS = "INSERT INTO `test_listings`";
+    private static final String DELETE_LISTINGS = "DELETE FROM `test_listings` WHERE id IN";
+    private static final String UPSERT_ORDERS = "INSERT INTO `test_orders`";
+    private static final String DELETE_ORDERS = "DELETE FROM `test_orders` WHERE id IN";
+    private static final String UPSERT_RETURNS = "INSERT INTO `test_returns`";
+    private static final String TRIM_RETURNS = "DELETE FROM `test_returns` WHERE player_uuid = ? AND slot >= ?";
+
+    private RecordingConnection connection;
+    private MysqlConnectionPool pool;
+    private MysqlAuctionListingStorage storage;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockBukkit.getOrCreateMock();
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("MysqlAuctionListingStorageTest"));
+        connection = new RecordingConnection();
+        pool = connection.pool();
+        Mysql mysql = new Mysql("localhost", 3306, "auctions", "root", "", false, "test_", null, null);
+        storage = new MysqlAuctionListingStorage(plugin, mysql, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+        try {
+            MockBukkit.unmock();
+        } catch (Throwable ignored) {
+        }
+    }
+
+    private static AuctionListing listing(String id, double price) {
+        return new AuctionListing(id, UUID.nameUUIDFromBytes(id.getBytes()), price, 1_000_000L,
+                LazyItemStack.encoded(new byte[] {1, 2, 3}), 0.0D, null);
+    }
+
+    private static AuctionOrder order(String id, double price) {
+        return new AuctionOrder(id, UUID.nameUUIDFromBytes(id.getBytes()), price, 1_000_000L,
+                LazyItemStack.encoded(new byte[] {4, 5, 6}), price);
+    }
+
+    @Test
+    void saveListings_upsertsOnlyChangedRowsInOneStatement() {
+        AuctionListing unchanged = listing("a", 10.0D);
+        storage.saveListings(List.of(unchanged, listing("b", 20.0D), listing("c", 30.0D)), List.of());
+        connection.clear();
+
+        storage.saveListings(List.of(unchanged, listing("b", 25.0D), listing("d", 40.0D), listing("c", 30.0D)),
+                List.of());
+
+        List<Execution> upserts = connection.executions(UPSERT_LISTINGS);
+        assertEquals(1, upserts.size(), "Changed listings must share one multi-row statement");
+        Execution upsert = upserts.get(0);
+        assertTrue(upsert.sql().contains("VALUES (?, ?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE"),
+                upsert.sql());
+        assertEquals(List.of("b", "d"), List.of(upsert.parameter(1), upsert.parameter(8)));
+        assertEquals(25.0D, upsert.parameter(3));
+        assertTrue(connection.executions(DELETE_LISTINGS).isEmpty());
+        assertEquals(List.of(RecordingConnection.BEGIN, upsert.sql(), RecordingConnection.COMMIT),
+                connection.statements().subList(0, 3));
+    }
+
+    @Test
+    void saveListings_deletesRemovedListingsAndOrdersById() {
+        storage.saveListings(List.of(listing("a", 10.0D), listing("b", 20.0D), listing("c", 30.0D)),
+                List.of(order("o1", 5.0D), order("o2", 6.0D), order("o3", 7.0D)));
+        connection.clear();
+
+        storage.saveListings(List.of(listing("b", 20.0D)), List.of(order("o2", 6.0D)));
+
+        assertTrue(connection.executions(UPSERT_LISTINGS).isEmpty());
+        assertTrue(connection.executions(UPSERT_ORDERS).isEmpty());
+        Execution listingDelete = single(DELETE_LISTINGS);
+        assertTrue(listingDelete.sql().endsWith("IN (?, ?)"), listingDelete.sql());
+        assertEquals(List.of("a", "c"), sortedValues(listingDelete));
+        Execution orderDelete = single(DELETE_ORDERS);
+        assertTrue(orderDelete.sql().endsWith("IN (?, ?)"), orderDelete.sql());
+        assertEquals(List.of("o1", "o3"), sortedValues(orderDelete));
+    }
+
+    @Test
+    void saveListings_withoutChangesSendsNothing() {
+        List<AuctionListing> listings = List.of(listing("a", 10.0D));
+        List<AuctionOrder> orders = List.of(order("o1", 5.0D));
+        storage.saveListings(listings, orders);
+        connection.clear();
+
+        storage.saveListings(listings, orders);
+
+        assertEquals(List.of(), connection.statements());
+    }
+
+    @Test
+    void saveListings_rolledBackRowsAreWrittenAgain() {
+        storage.saveListings(List.of(listing("a", 10.0D)), List.of());
+        connection.clear();
+        connection.failOn(DELETE_LISTINGS);
+
+        storage.saveListings(List.of(listing("b", 20.0D)), List.of());
+
+        assertTrue(connection.statements().contains(RecordingConnection.ROLLBACK));
+        assertFalse(connection.statements().contains(RecordingConnection.COMMIT));
+        connection.failOn(null);
+        connection.clear();
+
+        storage.saveListings(List.of(listing("b", 20.0D)), List.of());
+
+        assertEquals("b", single(UPSERT_LISTINGS).parameter(1));
+        assertEquals(List.of("a"), sortedValues(single(DELETE_LISTINGS)));
+    }
+
+    @Test
+    void saveReturns_writesChangedSlotsAndTrimsTheRest() {
+        UUID shrinking = UUID.randomUUID();
+        UUID unchanged = UUID.randomUUID();
+        UUID claimed = UUID.randomUUID();
+        ItemStack diamond = new ItemStack(Material.DIAMOND);
+        ItemStack emerald = new ItemStack(Material.EMERALD);
+        storage.saveReturns(Map.of(shrinking, List.of(diamond, emerald, diamond), unchanged, List.of(emerald),
+                claimed, List.of(diamond)));
+        connection.clear();
+
+        storage.saveReturns(Map.of(shrinking, List.of(diamond, diamond), unchanged, List.of(emerald)));
+
+        Execution upsert = single(UPSERT_RETURNS);
+        assertTrue(upsert.sql().contains("VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE"), "Only slot 1 changed");
+        assertEquals(List.of(shrinking.toString(), 1), List.of(upsert.parameter(1), upsert.parameter(2)));
+        List<Execution> trims = connection.executions(TRIM_RETURNS);
+        assertEquals(2, trims.size(), "Only players whose returns changed are trimmed");
+        Map<Object, Object> trimmedFrom = Map.of(trims.get(0).parameter(1), trims.get(0).parameter(2),
+                trims.get(1).parameter(1), trims.get(1).parameter(2));
+        assertEquals(Map.of(shrinking.toString(), 2, claimed.toString(), 0), trimmedFrom);
+    }
+
+    private Execution single(String sqlPrefix) {
+        List<Execution> executions = connection.executions(sqlPrefix);
+        assertEquals(1, executions.size(), () -> sqlPrefix + " in " + connection);
+        return executions.get(0);
+    }
+
+    private static List<Object> sortedValues(Execution execution) {
+        return execution.parameters().values().stream().map(String::valueOf).sorted().map(Object.class::cast)
+                .toList();
+    }
+}
@@ -0,0 +1,106 @@
+package com.skyblockexp.ezauction.storage.mysql;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Pool;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies {@link MysqlConnectionPool} against mocked stand-in connections.
+ */
+class MysqlConnectionPoolTest {
+
+    private final List<Connection> opened = new ArrayList<>();
+    private MysqlConnectionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void getConnection_reusesPhysicalConnectionAfterClose() throws SQLException {
+        pool = newPool(new Pool(2, 0, 250L, 600_000L, 1_800_000L));
+
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+        second.close();
+
+        assertEquals(1, opened.size(), "Returned connection must be reused instead of reopened");
+        assertEquals(1, pool.idleConnections());
+        assertEquals(0, pool.activeConnections());
+        verify(opened.get(0), never()).close();
+    }
+
+    @Test
+    void getConnection_timesOutWhenPoolIsExhausted() throws SQLException {
+        pool = newPool(new Pool(1, 0, 250L, 600_000L, 1_800_000L));
+
+        Connection borrowed = pool.getConnection();
+
+        assertThrows(SQLTimeoutException.class, () -> pool.getConnection());
+        borrowed.close();
+        assertDoesNotThrow(() -> pool.getConnection().close());
+        assertEquals(1, opened.size());
+    }
+
+    @Test
+    void fillIdle_warmsUpMinimumIdleConnections() throws SQLException {
+        pool = newPool(new Pool(5, 3, 250L, 600_000L, 1_800_000L));
+
+        pool.fillIdle();
+
+        assertEquals(3, pool.idleConnections());
+        assertEquals(3, pool.totalConnections());
+    }
+
+    @Test
+    void close_rollsBackUncommittedWorkBeforeReuse() throws SQLException {
+        pool = newPool(new Pool(1, 0, 250L, 600_000L, 1_800_000L));
+
+        Connection connection = pool.getConnection();
+        Connection physical = opened.get(0);
+        when(physical.getAutoCommit()).thenReturn(false);
+        connection.close();
+
+        verify(physical).rollback();
+        verify(physical).setAutoCommit(true);
+        assertTrue(connection.isClosed(), "Returned handle must report itself as closed");
+        assertThrows(SQLException.class, connection::createStatement);
+    }
+
+    @Test
+    void close_closesIdleConnectionsAndRejectsBorrowers() throws SQLException {
+        pool = newPool(new Pool(2, 2, 250L, 600_000L, 1_800_000L));
+        pool.fillIdle();
+
+        pool.close();
+
+        for (Connection physical : opened) {
+            verify(physical).close();
+        }
+        assertEquals(0, pool.totalConnections());
+        assertThrows(SQLException.class, () -> pool.getConnection());
+    }
+
+    private MysqlConnectionPool newPool(Pool settings) {
+        return new MysqlConnectionPool(Logger.getLogger("MysqlConnectionPoolTest"), settings, () -> {
+            Connection connection = mock(Connection.class);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            opened.add(connection);
+            return connection;
+        });
+    }
+}
@@ -0,0 +1,202 @@
+package com.skyblockexp.ezauction.storage.mysql;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Pool;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Mocked MySQL connection that records every statement it runs, in order, together with its
+ * parameters. Transaction boundaries are recorded as {@code BEGIN}, {@code COMMIT} and
+ * {@code ROLLBACK}. Queries return the rows supplied by {@link #answerQueries(Function)}.
+ */
+final class RecordingConnection {
+
+    static final String BEGIN = "BEGIN";
+    static final String COMMIT = "COMMIT";
+    static final String ROLLBACK = "ROLLBACK";
+
+    /**
+     * A statement run against the connection. Batched statements are recorded once per batch row.
+     */
+    record Execution(String sql, Map<Integer, Object> parameters) {
+
+        Object parameter(int index) {
+            return parameters.get(index);
+        }
+    }
+
+    private final List<Execution> executions = new ArrayList<>();
+    private final Connection connection;
+    private Function<Execution, List<Object[]>> queryAnswers = execution -> List.of();
+    private String failingSql;
+    private boolean autoCommit = true;
+
+    RecordingConnection() throws SQLException {
+        connection = mock(Connection.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(connection.getAutoCommit()).thenAnswer(invocation -> autoCommit);
+        doAnswer(invocation -> {
+            boolean enabled = invocation.getArgument(0);
+            if (autoCommit && !enabled) {
+                record(BEGIN, Map.of());
+            }
+            autoCommit = enabled;
+            return null;
+        }).when(connection).setAutoCommit(anyBoolean());
+        doAnswer(invocation -> record(COMMIT, Map.of())).when(connection).commit();
+        doAnswer(invocation -> record(ROLLBACK, Map.of())).when(connection).rollback();
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> prepare(invocation.getArgument(0)));
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> prepare(invocation.getArgument(0)));
+        when(connection.createStatement()).thenAnswer(invocation -> createStatement());
+    }
+
+    /**
+     * Returns a single-connection pool handing out this connection.
+     */
+    MysqlConnectionPool pool() {
+        return new MysqlConnectionPool(Logger.getLogger("RecordingConnection"),
+                new Pool(1, 0, 250L, 600_000L, 1_800_000L), () -> connection);
+    }
+
+    /**
+     * Sets the rows returned by queries. Each row holds the column values by 1-based position.
+     */
+    void answerQueries(Function<Execution, List<Object[]>> answers) {
+        this.queryAnswers = answers;
+    }
+
+    /**
+     * Makes every statement whose SQL starts with {@code sqlPrefix} fail.
+     */
+    void failOn(String sqlPrefix) {
+        this.failingSql = sqlPrefix;
+    }
+
+    List<Execution> executions() {
+        return List.copyOf(executions);
+    }
+
+    /**
+     * Returns the statements whose SQL starts with {@code sqlPrefix}.
+     */
+    List<Execution> executions(String sqlPrefix) {
+        return executions.stream().filter(execution -> execution.sql().startsWith(sqlPrefix)).toList();
+    }
+
+    List<String> statements() {
+        return executions.stream().map(Execution::sql).toList();
+    }
+
+    void clear() {
+        executions.clear();
+    }
+
+    private Object record(String sql, Map<Integer, Object> parameters) throws SQLException {
+        executions.add(new Execution(sql, parameters));
+        if (failingSql != null && sql.startsWith(failingSql)) {
+            throw new SQLException("Injected failure for " + sql);
+        }
+        return null;
+    }
+
+    private PreparedStatement prepare(String sql) {
+        Map<Integer, Object> parameters = new HashMap<>();
+        List<Map<Integer, Object>> batch = new ArrayList<>();
+        return mock(PreparedStatement.class, invocation -> {
+            Object[] arguments = invocation.getArguments();
+            switch (invocation.getMethod().getName()) {
+                case "setString", "setBytes", "setDouble", "setLong", "setInt" -> {
+                    parameters.put((Integer) arguments[0], arguments[1]);
+                    return null;
+                }
+                case "setNull" -> {
+                    parameters.put((Integer) arguments[0], null);
+                    return null;
+                }
+                case "addBatch" -> {
+                    batch.add(new HashMap<>(parameters));
+                    return null;
+                }
+                case "executeBatch" -> {
+                    int[] counts = new int[batch.size()];
+                    for (int row = 0; row < counts.length; row++) {
+                        record(sql, batch.get(row));
+                        counts[row] = 1;
+                    }
+                    batch.clear();
+                    return counts;
+                }
+                case "executeUpdate" -> {
+                    record(sql, new HashMap<>(parameters));
+                    return 1;
+                }
+                case "executeQuery" -> {
+                    Execution execution = new Execution(sql, new HashMap<>(parameters));
+                    record(sql, execution.parameters());
+                    return resultSet(queryAnswers.apply(execution));
+                }
+                default -> {
+                    return RETURNS_DEFAULTS.answer(invocation);
+                }
+            }
+        });
+    }
+
+    private Statement createStatement() {
+        return mock(Statement.class, invocation -> {
+            if (invocation.getMethod().getName().equals("executeUpdate")) {
+                record(invocation.getArgument(0), Map.of());
+                return 0;
+            }
+            return RETURNS_DEFAULTS.answer(invocation);
+        });
+    }
+
+    private static ResultSet resultSet(List<Object[]> rows) {
+        Iterator<Object[]> remaining = rows.iterator();
+        Object[][] current = new Object[1][];
+        return mock(ResultSet.class, invocation -> {
+            switch (invocation.getMethod().getName()) {
+                case "next" -> {
+                    current[0] = remaining.hasNext() ? remaining.next() : null;
+                    return current[0] != null;
+                }
+                case "getString", "getInt", "getLong", "getBytes", "getObject" -> {
+                    Object value = current[0][(Integer) invocation.getArgument(0) - 1];
+                    if (value == null && invocation.getMethod().getReturnType().isPrimitive()) {
+                        return RETURNS_DEFAULTS.answer(invocation);
+                    }
+                    return value;
+                }
+                default -> {
+                    return RETURNS_DEFAULTS.answer(invocation);
+                }
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(statements().toArray());
+    }
+}
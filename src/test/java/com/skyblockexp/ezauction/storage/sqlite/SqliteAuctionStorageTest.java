@@ -0,0 +1,149 @@
+package com.skyblockexp.ezauction.storage.sqlite;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.skyblockexp.ezauction.AuctionListing;
+import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.config.AuctionStorageConfiguration.Sqlite;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
+import com.skyblockexp.ezauction.storage.AuctionStorageSnapshot;
+import com.skyblockexp.ezauction.transaction.AuctionHistoryPage;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+class SqliteAuctionStorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setup() {
+        MockBukkit.getOrCreateMock();
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            MockBukkit.unmock();
+        } catch (Throwable ignored) {
+            // ignore if already unmocked by a global extension
+        }
+    }
+
+    @Test
+    void listingStorage_changesSurviveReopen() {
+        JavaPlugin plugin = mockPlugin();
+        SqliteAuctionListingStorage storage = new SqliteAuctionListingStorage(plugin, Sqlite.defaultSettings());
+        assertTrue(storage.initialize());
+        storage.load();
+
+        long expiry = System.currentTimeMillis() + 86_400_000L;
+        UUID sellerId = UUID.randomUUID();
+        AuctionListing kept = new AuctionListing(UUID.randomUUID().toString(), sellerId, 100.0, expiry,
+                new ItemStack(Material.DIAMOND, 2), 0.0, null);
+        AuctionListing sold = new AuctionListing(UUID.randomUUID().toString(), sellerId, 150.0, expiry,
+                new ItemStack(Material.EMERALD, 1), 0.0, null);
+        AuctionOrder order = new AuctionOrder(UUID.randomUUID().toString(), UUID.randomUUID(), 30.0, expiry,
+                new ItemStack(Material.COAL, 8), 30.0);
+        storage.saveListings(List.of(kept, sold), List.of(order));
+        storage.saveReturns(Map.of(sellerId, List.of(new ItemStack(Material.STONE, 3), new ItemStack(Material.DIRT, 1))));
+        assertTrue(storage.tryClaimListing(sold.id()), "Claim must remove an existing listing");
+        assertFalse(storage.tryClaimListing(sold.id()), "Second claim must fail");
+        storage.applyChanges(new AuctionStorageChangeSet()
+                .replaceReturns(sellerId, List.of(new ItemStack(Material.STONE, 3))));
+        storage.close();
+
+        SqliteAuctionListingStorage reopened = new SqliteAuctionListingStorage(plugin, Sqlite.defaultSettings());
+        assertTrue(reopened.initialize());
+        AuctionStorageSnapshot snapshot = reopened.load();
+        reopened.close();
+
+        assertEquals(1, snapshot.listings().size());
+        assertEquals(2, snapshot.listings().get(kept.id()).item().getAmount());
+        assertEquals(Material.COAL, snapshot.orders().get(order.id()).requestedItem().getType());
+        assertEquals(1, snapshot.pendingReturns().get(sellerId).size(), "Surplus return slots must be trimmed");
+    }
+
+    @Test
+    void historyStorage_loadsSinglePlayerHistory() {
+        JavaPlugin plugin = mockPlugin();
+        SqliteAuctionListingStorage listingStorage = new SqliteAuctionListingStorage(plugin, Sqlite.defaultSettings());
+        SqliteAuctionHistoryStorage storage = new SqliteAuctionHistoryStorage(plugin, Sqlite.defaultSettings());
+        assertTrue(listingStorage.initialize());
+        assertTrue(storage.initialize());
+
+        UUID playerId = UUID.randomUUID();
+        Deque<AuctionTransactionHistoryEntry> history = new ArrayDeque<>();
+        history.addFirst(new AuctionTransactionHistoryEntry(UUID.randomUUID().toString(), AuctionTransactionType.SELL,
+                null, null, 10.0, 1_000L, new ItemStack(Material.IRON_INGOT)));
+        history.addFirst(new AuctionTransactionHistoryEntry(UUID.randomUUID().toString(), AuctionTransactionType.BUY,
+                UUID.randomUUID(), "Seller", 20.0, 2_000L, new ItemStack(Material.GOLD_INGOT)));
+        storage.savePlayerHistory(playerId, history);
+        storage.savePlayerHistory(UUID.randomUUID(), new ArrayDeque<>(history));
+
+        Deque<AuctionTransactionHistoryEntry> loaded = storage.loadPlayerHistory(playerId);
+        storage.close();
+        listingStorage.close();
+
+        assertEquals(2, loaded.size());
+        assertEquals(AuctionTransactionType.BUY, loaded.peekFirst().type(), "Newest entry must stay first");
+        assertEquals(Material.IRON_INGOT, loaded.peekLast().item().getType());
+        assertTrue(storage.loadAll().isEmpty(), "Closed storage must not return data");
+        assertEquals(Collections.emptyList(), List.copyOf(storage.loadPlayerHistory(playerId)));
+    }
+
+    @Test
+    void historyStorage_appendsAndPagesWithCursor() {
+        JavaPlugin plugin = mockPlugin();
+        SqliteAuctionHistoryStorage storage = new SqliteAuctionHistoryStorage(plugin, Sqlite.defaultSettings());
+        assertTrue(storage.initialize());
+        UUID playerId = UUID.randomUUID();
+        AuctionTransactionHistoryEntry repeated = new AuctionTransactionHistoryEntry(UUID.randomUUID().toString(),
+                AuctionTransactionType.SELL, null, "First", 1.0, 1_000L, (ItemStack) null);
+        storage.appendPlayerHistory(playerId, List.of(repeated));
+        storage.appendPlayerHistory(playerId, List.of(repeated));
+        for (int i = 2; i <= 5; i++) {
+            storage.appendPlayerHistory(playerId, List.of(new AuctionTransactionHistoryEntry(
+                    UUID.randomUUID().toString(), AuctionTransactionType.SELL, null, "Entry" + i, i, i * 1_000L,
+                    new ItemStack(Material.DIAMOND, i))));
+        }
+
+        AuctionHistoryPage first = storage.loadHistoryPage(playerId, null, 3, null);
+        AuctionHistoryPage second = storage.loadHistoryPage(playerId, first.nextCursor(), 3, null);
+        AuctionHistoryPage purchases = storage.loadHistoryPage(playerId, null, 3, AuctionTransactionType.BUY);
+        storage.close();
+
+        assertEquals(List.of("Entry5", "Entry4", "Entry3"),
+                first.entries().stream().map(AuctionTransactionHistoryEntry::counterpartName).toList());
+        assertTrue(first.hasMore());
+        assertEquals(List.of("Entry2", "First"),
+                second.entries().stream().map(AuctionTransactionHistoryEntry::counterpartName).toList(),
+                "Re-appended entries must not be duplicated");
+        assertFalse(second.hasMore());
+        assertTrue(purchases.entries().isEmpty());
+    }
+
+    private JavaPlugin mockPlugin() {
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getDataFolder()).thenReturn(tempDir.toFile());
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("SqliteAuctionStorageTest"));
+        return plugin;
+    }
+}
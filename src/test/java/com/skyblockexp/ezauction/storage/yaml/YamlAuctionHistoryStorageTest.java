@@ -0,0 +1,124 @@
+package com.skyblockexp.ezauction.storage.yaml;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.skyblockexp.ezauction.LazyItemStack;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+class YamlAuctionHistoryStorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setup() {
+        MockBukkit.getOrCreateMock();
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            MockBukkit.unmock();
+        } catch (Throwable ignored) {
+            // ignore if already unmocked by a global extension
+        }
+    }
+
+    @Test
+    void replacingHistoryRemovesOnlyUnreferencedItems() throws IOException {
+        YamlAuctionHistoryStorage storage = open();
+        UUID seller = UUID.randomUUID();
+        UUID buyer = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        long lastYear = now - Duration.ofDays(400).toMillis();
+        byte[] dropped = item("dropped");
+        byte[] shared = item("shared");
+        byte[] archived = item("archived");
+        AuctionTransactionHistoryEntry droppedEntry = entry(now, dropped);
+        AuctionTransactionHistoryEntry sharedEntry = entry(now - 1L, shared);
+        AuctionTransactionHistoryEntry archivedEntry = entry(lastYear, archived);
+        storage.appendPlayerHistory(seller, List.of(droppedEntry, sharedEntry, archivedEntry));
+        storage.appendPlayerHistory(buyer, List.of(entry(now - 1L, shared)));
+        backdateItems();
+
+        storage.savePlayerHistory(seller, new ArrayDeque<>(List.of(archivedEntry)));
+
+        assertFalse(Files.exists(itemPath(dropped)), "An item no entry refers to must be removed");
+        assertTrue(Files.exists(itemPath(shared)), "An item another player still refers to must be kept");
+        assertTrue(Files.exists(itemPath(archived)), "Items referenced from archives must be kept");
+        assertEquals(1, storage.loadPlayerHistory(seller).size());
+    }
+
+    @Test
+    void recentlyStoredItemsAreNotRemoved() throws IOException {
+        YamlAuctionHistoryStorage storage = open();
+        UUID playerId = UUID.randomUUID();
+        byte[] data = item("recent");
+        storage.appendPlayerHistory(playerId, List.of(entry(System.currentTimeMillis(), data)));
+
+        storage.savePlayerHistory(playerId, new ArrayDeque<>());
+
+        assertTrue(Files.exists(itemPath(data)), "An item stored during the sweep may belong to a concurrent append");
+    }
+
+    private YamlAuctionHistoryStorage open() {
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getDataFolder()).thenReturn(tempDir.toFile());
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("YamlAuctionHistoryStorageTest"));
+        YamlAuctionHistoryStorage storage = new YamlAuctionHistoryStorage(plugin);
+        assertTrue(storage.initialize());
+        return storage;
+    }
+
+    private static byte[] item(String name) {
+        return name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static AuctionTransactionHistoryEntry entry(long timestamp, byte[] item) {
+        return new AuctionTransactionHistoryEntry(UUID.randomUUID().toString(), AuctionTransactionType.SELL,
+                UUID.randomUUID(), "Buyer", 10.0D, timestamp, LazyItemStack.encoded(item));
+    }
+
+    private void backdateItems() throws IOException {
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - Duration.ofHours(2).toMillis());
+        try (Stream<Path> files = Files.walk(tempDir.resolve("history").resolve("items"))) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(file)) {
+                    Files.setLastModifiedTime(file, old);
+                }
+            }
+        }
+    }
+
+    private Path itemPath(byte[] data) {
+        try {
+            String reference = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+            return tempDir.resolve("history").resolve("items").resolve(reference.substring(0, 2))
+                    .resolve(reference + ".item");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -5,9 +5,14 @@ import static org.mockito.Mockito.*;
 
 import com.skyblockexp.ezauction.AuctionListing;
 import com.skyblockexp.ezauction.AuctionOrder;
+import com.skyblockexp.ezauction.LazyItemStack;
+import com.skyblockexp.ezauction.storage.AuctionStorageChangeSet;
 import com.skyblockexp.ezauction.storage.AuctionStorageSnapshot;
+import com.skyblockexp.ezauction.transaction.AuctionHistoryPage;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionHistoryEntry;
+import com.skyblockexp.ezauction.transaction.AuctionTransactionRecord;
 import com.skyblockexp.ezauction.transaction.AuctionTransactionType;
+import com.skyblockexp.ezauction.util.ItemStackCodec;
 import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
@@ -18,6 +23,7 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.logging.Logger;
 import org.bukkit.Material;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.junit.jupiter.api.AfterEach;
@@ -27,6 +33,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockbukkit.mockbukkit.MockBukkit;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 /**
@@ -142,6 +149,110 @@ class YamlAuctionStorageSmokeTest {
         assertEquals(250.0, loadedEntry.price(), 0.001);
     }
 
+    // -------------------------------------------------------------------------
+    // YamlAuctionHistoryStorage – per-player monthly segments
+    // -------------------------------------------------------------------------
+
+    @Test
+    void historyStorage_migratesLegacyFileIntoPlayerSegments() throws Exception {
+        JavaPlugin plugin = mockPlugin();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        YamlConfiguration legacy = new YamlConfiguration();
+        legacy.set("history." + first + ".0.type", "SELL");
+        legacy.set("history." + first + ".0.timestamp", 1_000L);
+        legacy.set("history." + first + ".0.price", 10.0);
+        legacy.set("history." + second + ".0.type", "BUY");
+        legacy.set("history." + second + ".0.timestamp", 2_000L);
+        legacy.set("history." + second + ".0.price", 20.0);
+        legacy.save(tempDir.resolve("auction-history.yml").toFile());
+
+        YamlAuctionHistoryStorage storage = new YamlAuctionHistoryStorage(plugin);
+        assertTrue(storage.initialize());
+
+        assertFalse(Files.exists(tempDir.resolve("auction-history.yml")), "Legacy file must be renamed");
+        assertTrue(Files.exists(tempDir.resolve("history").resolve(first.toString()).resolve("1970-01.archive")),
+                "Months that are over must be compacted into archives");
+        assertEquals(AuctionTransactionType.BUY, storage.loadPlayerHistory(second).peekFirst().type());
+
+        Deque<AuctionTransactionHistoryEntry> updated = new ArrayDeque<>(storage.loadPlayerHistory(first));
+        updated.addFirst(new AuctionTransactionHistoryEntry(UUID.randomUUID().toString(),
+                AuctionTransactionType.BUY, null, null, 5.0, 3_000L, (ItemStack) null));
+        storage.savePlayerHistory(first, updated);
+
+        Map<UUID, Deque<AuctionTransactionHistoryEntry>> all = storage.loadAll();
+        assertEquals(2, all.get(first).size());
+        assertEquals(1, all.get(second).size(), "Other players' shards must be untouched");
+        try (var files = Files.walk(tempDir.resolve("history"))) {
+            assertTrue(files.noneMatch(path -> path.toString().endsWith(".tmp")), "No temp files may remain");
+        }
+    }
+
+    @Test
+    void historyStorage_pagesAcrossMonthlySegments() {
+        JavaPlugin plugin = mockPlugin();
+        YamlAuctionHistoryStorage storage = new YamlAuctionHistoryStorage(plugin);
+        assertTrue(storage.initialize());
+        UUID playerId = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        long day = 86_400_000L;
+        for (int i = 0; i < 30; i++) {
+            AuctionTransactionType type = i % 2 == 0 ? AuctionTransactionType.SELL : AuctionTransactionType.BUY;
+            storage.appendPlayerHistory(playerId, List.of(new AuctionTransactionHistoryEntry(
+                    UUID.randomUUID().toString(), type, null, "Trader" + i, i, now - i * 5 * day,
+                    new ItemStack(Material.STONE, 1 + i % 10))));
+        }
+
+        AuctionHistoryPage first = storage.loadHistoryPage(playerId, null, 4, AuctionTransactionType.SELL);
+        AuctionHistoryPage second = storage.loadHistoryPage(playerId, first.nextCursor(), 4, AuctionTransactionType.SELL);
+        List<AuctionTransactionHistoryEntry> all = new java.util.ArrayList<>();
+        AuctionHistoryPage page = storage.loadHistoryPage(playerId, null, 7, null);
+        all.addAll(page.entries());
+        while (page.hasMore()) {
+            page = storage.loadHistoryPage(playerId, page.nextCursor(), 7, null);
+            all.addAll(page.entries());
+        }
+
+        assertEquals(List.of("Trader0", "Trader2", "Trader4", "Trader6"),
+                first.entries().stream().map(AuctionTransactionHistoryEntry::counterpartName).toList());
+        assertEquals("Trader8", second.entries().get(0).counterpartName(), "Second page must continue after the cursor");
+        assertEquals(30, all.size(), "Paging must visit every entry exactly once");
+        assertEquals(Material.STONE, all.get(29).item().getType(), "Archived items must be readable");
+        assertEquals(all, List.copyOf(storage.loadPlayerHistory(playerId)));
+        try (var files = Files.list(tempDir.resolve("history").resolve(playerId.toString()))) {
+            assertTrue(files.anyMatch(path -> path.toString().endsWith(".archive")),
+                    "Past months must be compacted into archives");
+        } catch (java.io.IOException ex) {
+            fail(ex);
+        }
+    }
+
+    @Test
+    void historyStorage_storesSharedSaleItemOnce() throws Exception {
+        JavaPlugin plugin = mockPlugin();
+        YamlAuctionHistoryStorage storage = new YamlAuctionHistoryStorage(plugin);
+        assertTrue(storage.initialize());
+        UUID sellerId = UUID.randomUUID();
+        UUID buyerId = UUID.randomUUID();
+        AuctionTransactionRecord sale = AuctionTransactionRecord.create(sellerId, "Seller", buyerId, "Buyer", 42.0,
+                System.currentTimeMillis(), LazyItemStack.of(new ItemStack(Material.GOLD_INGOT, 7)));
+
+        storage.appendPlayerHistory(sellerId, List.of(sale.sellerEntry()));
+        storage.appendPlayerHistory(buyerId, List.of(sale.buyerEntry()));
+
+        AuctionTransactionHistoryEntry sold = storage.loadPlayerHistory(sellerId).peekFirst();
+        AuctionTransactionHistoryEntry bought = storage.loadPlayerHistory(buyerId).peekFirst();
+        assertEquals(sale.transactionId(), sold.transactionId());
+        assertEquals(sale.transactionId(), bought.transactionId());
+        assertEquals("Buyer", sold.counterpartName());
+        assertEquals(sellerId, bought.counterpartId());
+        assertEquals(7, bought.item().getAmount());
+        try (var files = Files.walk(tempDir.resolve("history").resolve("items"))) {
+            assertEquals(1, files.filter(path -> path.toString().endsWith(".item")).count(),
+                    "Both parties must reference the same stored item");
+        }
+    }
+
     // -------------------------------------------------------------------------
     // YamlAuctionStorage – fresh install (no existing data)
     // -------------------------------------------------------------------------
@@ -218,6 +329,36 @@ class YamlAuctionStorageSmokeTest {
         assertEquals(10, restoredOrder.requestedItem().getAmount());
     }
 
+    @Test
+    void auctionStorage_corruptItemData_skipsEntry() throws Exception {
+        JavaPlugin plugin = mockPlugin();
+        YamlAuctionStorage storage = new YamlAuctionStorage(plugin);
+        storage.initialize();
+
+        long expiry = System.currentTimeMillis() + 86_400_000L;
+        UUID sellerId = UUID.randomUUID();
+        AuctionListing valid = new AuctionListing(UUID.randomUUID().toString(), sellerId, 100.0, expiry,
+                new ItemStack(Material.DIAMOND, 1), 0.0, null);
+        AuctionListing corrupt = new AuctionListing(UUID.randomUUID().toString(), sellerId, 200.0, expiry,
+                new ItemStack(Material.EMERALD, 2), 0.0, null);
+        storage.saveListings(List.of(valid, corrupt), Collections.emptyList());
+
+        // Compact codec header followed by bytes that are not an item
+        Path file = tempDir.resolve("auction-listings.yml");
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file.toFile());
+        yaml.set("listings." + corrupt.id() + ".item-data",
+                ItemStackCodec.toText(new byte[] {(byte) 0xE7, 1, 0, 42, 42, 42, 42}));
+        yaml.save(file.toFile());
+
+        YamlAuctionStorage loaded = new YamlAuctionStorage(plugin);
+        loaded.initialize();
+        AuctionStorageSnapshot snapshot = loaded.load();
+
+        assertTrue(snapshot.listings().containsKey(valid.id()));
+        assertFalse(snapshot.listings().containsKey(corrupt.id()),
+                "A listing whose item cannot be decoded must not be loaded");
+    }
+
     // -------------------------------------------------------------------------
     // YamlAuctionStorage – returns round-trip
     // -------------------------------------------------------------------------
@@ -248,6 +389,53 @@ class YamlAuctionStorageSmokeTest {
         assertEquals(2, restoredItems.get(1).getAmount());
     }
 
+    // -------------------------------------------------------------------------
+    // YamlAuctionStorage – incremental change sets
+    // -------------------------------------------------------------------------
+
+    @Test
+    void auctionStorage_applyChanges_onlyTouchesReferencedEntries() {
+        JavaPlugin plugin = mockPlugin();
+        YamlAuctionStorage storage = new YamlAuctionStorage(plugin);
+        storage.initialize();
+
+        long expiry = System.currentTimeMillis() + 86_400_000L;
+        UUID sellerId = UUID.randomUUID();
+        AuctionListing kept = new AuctionListing(UUID.randomUUID().toString(), sellerId, 100.0, expiry,
+                new ItemStack(Material.DIAMOND, 1), 0.0, null);
+        AuctionListing removed = new AuctionListing(UUID.randomUUID().toString(), sellerId, 200.0, expiry,
+                new ItemStack(Material.EMERALD, 2), 0.0, null);
+        storage.saveListings(List.of(kept, removed), Collections.emptyList());
+
+        AuctionListing added = new AuctionListing(UUID.randomUUID().toString(), sellerId, 300.0, expiry,
+                new ItemStack(Material.GOLD_INGOT, 3), 0.0, null);
+        AuctionOrder order = new AuctionOrder(UUID.randomUUID().toString(), UUID.randomUUID(), 50.0, expiry,
+                new ItemStack(Material.COAL, 16), 50.0);
+        storage.applyChanges(new AuctionStorageChangeSet()
+                .upsertListing(added)
+                .removeListing(removed.id())
+                .upsertOrder(order)
+                .replaceReturns(sellerId, List.of(new ItemStack(Material.EMERALD, 2))));
+
+        YamlAuctionStorage loaded = new YamlAuctionStorage(plugin);
+        loaded.initialize();
+        AuctionStorageSnapshot snapshot = loaded.load();
+
+        assertEquals(2, snapshot.listings().size());
+        assertTrue(snapshot.listings().containsKey(kept.id()), "Untouched listing must be preserved");
+        assertTrue(snapshot.listings().containsKey(added.id()), "Upserted listing must be stored");
+        assertFalse(snapshot.listings().containsKey(removed.id()), "Removed listing must be deleted");
+        assertEquals(Material.GOLD_INGOT, snapshot.listings().get(added.id()).item().getType());
+        assertTrue(snapshot.orders().containsKey(order.id()), "Upserted order must be stored");
+        assertEquals(Material.EMERALD, snapshot.pendingReturns().get(sellerId).get(0).getType());
+
+        storage.applyChanges(new AuctionStorageChangeSet().replaceReturns(sellerId, List.of()));
+        YamlAuctionStorage reloaded = new YamlAuctionStorage(plugin);
+        reloaded.initialize();
+        AuctionStorageSnapshot cleared = reloaded.load();
+        assertFalse(cleared.pendingReturns().containsKey(sellerId), "Empty return update must remove the player");
+    }
+
     // -------------------------------------------------------------------------
     // helpers
     // -------------------------------------------------------------------------
@@ -0,0 +1,83 @@
+package com.skyblockexp.ezauction.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.logging.Logger;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+class ItemStackCodecTest {
+
+    private static final Logger LOGGER = Logger.getLogger("ItemStackCodecTest");
+
+    @BeforeEach
+    void setup() {
+        MockBukkit.getOrCreateMock();
+    }
+
+    @AfterEach
+    void tearDown() {
+        try {
+            MockBukkit.unmock();
+        } catch (Throwable ignored) {
+            // ignore if already unmocked by a global extension
+        }
+    }
+
+    @Test
+    void encode_roundTripsThroughBinaryFormat() {
+        byte[] encoded = ItemStackCodec.encode(new ItemStack(Material.DIAMOND, 5), LOGGER);
+
+        assertTrue(ItemStackCodec.isCompact(encoded));
+        ItemStack restored = ItemStackCodec.decode(encoded, LOGGER);
+        assertEquals(Material.DIAMOND, restored.getType());
+        assertEquals(5, restored.getAmount());
+    }
+
+    @Test
+    void decode_readsLegacyBase64() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BukkitObjectOutputStream output = new BukkitObjectOutputStream(bytes)) {
+            output.writeObject(new ItemStack(Material.EMERALD, 3));
+        }
+        String legacy = Base64.getEncoder().encodeToString(bytes.toByteArray());
+
+        ItemStack fromText = ItemStackCodec.decodeText(legacy, LOGGER);
+        ItemStack fromBytes = ItemStackCodec.decode(legacy.getBytes(StandardCharsets.US_ASCII), LOGGER);
+
+        assertEquals(Material.EMERALD, fromText.getType());
+        assertEquals(3, fromText.getAmount());
+        assertEquals(fromText, fromBytes);
+        assertEquals(legacy, ItemStackCodec.toText(legacy.getBytes(StandardCharsets.US_ASCII)),
+                "Legacy data must keep its original text form");
+    }
+
+    @Test
+    void encodeToText_compressesLargeItemsAndRoundTrips() {
+        ItemStack item = new ItemStack(Material.PAPER);
+        ItemMeta meta = item.getItemMeta();
+        List<String> lore = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            lore.add("Repeated lore line for compression " + i);
+        }
+        meta.setLore(lore);
+        item.setItemMeta(meta);
+
+        String text = ItemStackCodec.encodeToText(item, LOGGER);
+
+        assertTrue(text.startsWith(ItemStackCodec.TEXT_PREFIX));
+        assertEquals(item, ItemStackCodec.decodeText(text, LOGGER));
+        assertNull(ItemStackCodec.decodeText("ez1:not base64!", null));
+    }
+}